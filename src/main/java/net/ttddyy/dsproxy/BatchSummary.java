@@ -0,0 +1,157 @@
+package net.ttddyy.dsproxy;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.Date;
+
+/**
+ * Aggregate statistics of a batch execution when only part of the entries are retained.
+ *
+ * <p>Byte size is an estimate of the values in memory: strings count two bytes per character, byte arrays count their
+ * length, and numbers and dates count their primitive size. Streams, LOBs and other values are not counted.
+ *
+ * @author Tadaya Tsuyukubo
+ * @see net.ttddyy.dsproxy.proxy.BatchCapturePolicy
+ * @see QueryInfo#getBatchSummary()
+ * @since 1.4
+ */
+public class BatchSummary {
+
+    private int rowCount;
+    private int capturedRowCount;
+    private long nullCount;
+    private long totalByteSize;
+    private final int[] queryTypeCounts = new int[QueryType.values().length];
+
+    public BatchSummary() {
+    }
+
+    /**
+     * Copy constructor.
+     *
+     * @param source batch summary to copy
+     */
+    public BatchSummary(BatchSummary source) {
+        this.rowCount = source.rowCount;
+        this.capturedRowCount = source.capturedRowCount;
+        this.nullCount = source.nullCount;
+        this.totalByteSize = source.totalByteSize;
+        System.arraycopy(source.queryTypeCounts, 0, this.queryTypeCounts, 0, this.queryTypeCounts.length);
+    }
+
+    /**
+     * Estimate size of the value in bytes.
+     *
+     * @param value a value
+     * @return estimated size, {@code 0} when unknown
+     */
+    public static long estimateByteSize(Object value) {
+        if (value == null) {
+            return 0;
+        } else if (value instanceof String) {
+            return ((String) value).length() * 2L;
+        } else if (value instanceof byte[]) {
+            return ((byte[]) value).length;
+        } else if (value instanceof Integer || value instanceof Float) {
+            return 4;
+        } else if (value instanceof Long || value instanceof Double) {
+            return 8;
+        } else if (value instanceof Short || value instanceof Character) {
+            return 2;
+        } else if (value instanceof Byte || value instanceof Boolean) {
+            return 1;
+        } else if (value instanceof BigDecimal) {
+            return ((BigDecimal) value).unscaledValue().bitLength() / 8 + 1;
+        } else if (value instanceof Timestamp) {
+            return 12;  // millis and nanos
+        } else if (value instanceof Date) {
+            return 8;
+        }
+        return 0;
+    }
+
+    public void reset() {
+        this.rowCount = 0;
+        this.capturedRowCount = 0;
+        this.nullCount = 0;
+        this.totalByteSize = 0;
+        Arrays.fill(this.queryTypeCounts, 0);
+    }
+
+    public void setRowCount(int rowCount) {
+        this.rowCount = rowCount;
+    }
+
+    public void setCapturedRowCount(int capturedRowCount) {
+        this.capturedRowCount = capturedRowCount;
+    }
+
+    public void incrementNullCount() {
+        this.nullCount++;
+    }
+
+    public void addByteSize(long size) {
+        this.totalByteSize += size;
+    }
+
+    public void incrementQueryTypeCount(QueryType queryType) {
+        this.queryTypeCounts[queryType.ordinal()]++;
+    }
+
+    /**
+     * @return true if some of the entries are not retained
+     */
+    public boolean isTruncated() {
+        return this.capturedRowCount < this.rowCount;
+    }
+
+    /**
+     * @return number of all batch entries
+     */
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * @return number of retained batch entries
+     */
+    public int getCapturedRowCount() {
+        return capturedRowCount;
+    }
+
+    /**
+     * @return number of null parameter values in all batch entries
+     */
+    public long getNullCount() {
+        return nullCount;
+    }
+
+    /**
+     * @return estimated byte size of all parameter values(or queries for {@link java.sql.Statement})
+     */
+    public long getTotalByteSize() {
+        return totalByteSize;
+    }
+
+    /**
+     * Number of batch entries by query type. Only counted for {@link java.sql.Statement} batches, whose entries are
+     * different queries; always {@code 0} for {@link java.sql.PreparedStatement} batches.
+     *
+     * @param queryType query type
+     * @return number of all batch entries of the query type
+     */
+    public int getQueryTypeCount(QueryType queryType) {
+        return this.queryTypeCounts[queryType.ordinal()];
+    }
+
+    @Override
+    public String toString() {
+        return "BatchSummary[" +
+                "rowCount=" + rowCount +
+                ", capturedRowCount=" + capturedRowCount +
+                ", nullCount=" + nullCount +
+                ", totalByteSize=" + totalByteSize +
+                ']';
+    }
+}
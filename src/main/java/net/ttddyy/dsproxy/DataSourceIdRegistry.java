@@ -0,0 +1,124 @@
+package net.ttddyy.dsproxy;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Assign small integer ids to datasource names.
+ *
+ * <p>Ids start from {@code 0} and are never reused, so they can be used as array indexes. Names are usually
+ * registered when {@link net.ttddyy.dsproxy.support.ProxyDataSource} is built; the number of names is expected to be
+ * small. {@code null} is a valid name and gets its own id.
+ *
+ * @author Tadaya Tsuyukubo
+ * @see QueryCountHolder
+ * @since 1.4
+ */
+public final class DataSourceIdRegistry {
+
+    private static final Comparator<Integer> NAME_ORDER = new Comparator<Integer>() {
+        @Override
+        public int compare(Integer left, Integer right) {
+            final String leftName = names[left];
+            final String rightName = names[right];
+            if (leftName == null) {
+                return rightName == null ? 0 : -1;
+            }
+            return rightName == null ? 1 : leftName.compareTo(rightName);
+        }
+    };
+
+    private static final ConcurrentMap<String, Integer> ids = new ConcurrentHashMap<String, Integer>();
+    private static volatile int nullId = -1;
+
+    // copy on write, guarded by class lock for update
+    private static volatile String[] names = new String[0];
+    private static volatile int[] idsOrderedByName = new int[0];
+
+    private DataSourceIdRegistry() {
+    }
+
+    /**
+     * Returns id of the datasource name, registering it when absent.
+     *
+     * @param dataSourceName datasource name
+     * @return id of the name
+     */
+    public static int getId(String dataSourceName) {
+        final int id = findId(dataSourceName);
+        return id >= 0 ? id : register(dataSourceName);
+    }
+
+    /**
+     * @param dataSourceName datasource name
+     * @return id of the name, or {@code -1} when the name is not registered
+     */
+    public static int findId(String dataSourceName) {
+        if (dataSourceName == null) {
+            return nullId;
+        }
+        final Integer id = ids.get(dataSourceName);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * @param id datasource id
+     * @return datasource name for the id
+     * @throws IndexOutOfBoundsException when id is not registered
+     */
+    public static String getName(int id) {
+        final String[] currentNames = names;
+        if (id < 0 || id >= currentNames.length) {
+            throw new IndexOutOfBoundsException("Unknown datasource id: " + id);
+        }
+        return currentNames[id];
+    }
+
+    /**
+     * @return number of registered names; ids are {@code 0} to {@code size() - 1}
+     */
+    public static int size() {
+        return names.length;
+    }
+
+    /**
+     * @return copy of registered ids sorted by datasource name({@code null} first)
+     */
+    public static int[] getIdsOrderedByName() {
+        return idsOrderedByName.clone();
+    }
+
+    private static synchronized int register(String dataSourceName) {
+        int id = findId(dataSourceName);
+        if (id >= 0) {
+            return id;
+        }
+
+        id = names.length;
+        final String[] newNames = Arrays.copyOf(names, id + 1);
+        newNames[id] = dataSourceName;
+        names = newNames;
+
+        final Integer[] sortedIds = new Integer[newNames.length];
+        for (int i = 0; i < sortedIds.length; i++) {
+            sortedIds[i] = i;
+        }
+        Arrays.sort(sortedIds, NAME_ORDER);
+        final int[] newIdsOrderedByName = new int[sortedIds.length];
+        for (int i = 0; i < sortedIds.length; i++) {
+            newIdsOrderedByName[i] = sortedIds[i];
+        }
+        idsOrderedByName = newIdsOrderedByName;
+
+        // publish id after name is visible
+        if (dataSourceName == null) {
+            nullId = id;
+        } else {
+            ids.put(dataSourceName, id);
+        }
+        return id;
+    }
+
+}
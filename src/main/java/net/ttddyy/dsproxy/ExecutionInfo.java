@@ -2,10 +2,17 @@ package net.ttddyy.dsproxy;
 
 import java.lang.reflect.Method;
 import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Contains query execution information.
  *
+ * <p>Same instance is passed to {@link net.ttddyy.dsproxy.listener.QueryExecutionListener#beforeQuery} and
+ * {@link net.ttddyy.dsproxy.listener.QueryExecutionListener#afterQuery} of an execution. Listeners can use
+ * {@link #addCustomValue(String, Object)} to carry their own state from before to after.
+ *
  * @author Tadaya Tsuyukubo
  */
 public class ExecutionInfo {
@@ -13,13 +20,16 @@ public class ExecutionInfo {
     private Method method;
     private Object[] methodArgs;
     private Object result;
-    private long elapsedTime;
+    private long elapsedTimeInNanos;
+    private long startTime;
+    private long endTime;
     private Throwable throwable;
     private StatementType statementType;
     private boolean isSuccess;
     private boolean isBatch;
     private int batchSize;
     private Statement statement;
+    private Map<String, Object> customValues;
 
     public ExecutionInfo() {
     }
@@ -35,6 +45,33 @@ public class ExecutionInfo {
         this.statementType = StatementType.valueOf(statement);
     }
 
+    /**
+     * Copy constructor.
+     *
+     * <p>Custom values are copied into a new map. Method arguments, result and statement are shared with the source.
+     *
+     * @param source execution info to copy
+     * @since 1.4
+     */
+    public ExecutionInfo(ExecutionInfo source) {
+        this.dataSourceName = source.dataSourceName;
+        this.method = source.method;
+        this.methodArgs = source.methodArgs;
+        this.result = source.result;
+        this.elapsedTimeInNanos = source.elapsedTimeInNanos;
+        this.startTime = source.startTime;
+        this.endTime = source.endTime;
+        this.throwable = source.throwable;
+        this.statementType = source.statementType;
+        this.isSuccess = source.isSuccess;
+        this.isBatch = source.isBatch;
+        this.batchSize = source.batchSize;
+        this.statement = source.statement;
+        if (source.customValues != null) {
+            this.customValues = new HashMap<String, Object>(source.customValues);
+        }
+    }
+
     public Method getMethod() {
         return method;
     }
@@ -67,12 +104,68 @@ public class ExecutionInfo {
         this.result = result;
     }
 
+    /**
+     * @return elapsed time in milliseconds
+     */
     public long getElapsedTime() {
-        return elapsedTime;
+        return TimeUnit.NANOSECONDS.toMillis(this.elapsedTimeInNanos);
     }
 
+    /**
+     * @param elapsedTime elapsed time in milliseconds
+     */
     public void setElapsedTime(long elapsedTime) {
-        this.elapsedTime = elapsedTime;
+        this.elapsedTimeInNanos = TimeUnit.MILLISECONDS.toNanos(elapsedTime);
+    }
+
+    /**
+     * Returns elapsed time in the given unit. Value is truncated to the unit.
+     *
+     * @param unit time unit
+     * @return elapsed time
+     * @since 1.4
+     */
+    public long getElapsedTime(TimeUnit unit) {
+        return unit.convert(this.elapsedTimeInNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @param elapsedTime elapsed time
+     * @param unit        time unit of elapsed time
+     * @since 1.4
+     */
+    public void setElapsedTime(long elapsedTime, TimeUnit unit) {
+        this.elapsedTimeInNanos = unit.toNanos(elapsedTime);
+    }
+
+    /**
+     * Returns the time when the execution started, read from {@link net.ttddyy.dsproxy.proxy.Ticker}.
+     *
+     * <p>The value is in nanoseconds and only meaningful to compare with other values from the same ticker.
+     *
+     * @return start time in nanoseconds
+     * @since 1.4
+     */
+    public long getStartTime() {
+        return startTime;
+    }
+
+    public void setStartTime(long startTime) {
+        this.startTime = startTime;
+    }
+
+    /**
+     * Returns the time when the execution ended, read from {@link net.ttddyy.dsproxy.proxy.Ticker}.
+     *
+     * @return end time in nanoseconds
+     * @since 1.4
+     */
+    public long getEndTime() {
+        return endTime;
+    }
+
+    public void setEndTime(long endTime) {
+        this.endTime = endTime;
     }
 
     public Throwable getThrowable() {
@@ -129,4 +222,34 @@ public class ExecutionInfo {
     public void setStatement(Statement statement) {
         this.statement = statement;
     }
+
+    /**
+     * Store a value associated to this execution.
+     *
+     * @param key   key
+     * @param value value
+     * @since 1.4
+     */
+    public void addCustomValue(String key, Object value) {
+        if (this.customValues == null) {
+            this.customValues = new HashMap<String, Object>();
+        }
+        this.customValues.put(key, value);
+    }
+
+    /**
+     * Retrieve a value stored by {@link #addCustomValue(String, Object)}.
+     *
+     * @param key  key
+     * @param type value type
+     * @param <T>  value type
+     * @return value or {@code null} if not found
+     * @since 1.4
+     */
+    public <T> T getCustomValue(String key, Class<T> type) {
+        if (this.customValues == null) {
+            return null;
+        }
+        return type.cast(this.customValues.get(key));
+    }
 }
@@ -0,0 +1,224 @@
+package net.ttddyy.dsproxy;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Application wide database access counts of a datasource.
+ *
+ * <p>Unlike {@link QueryCount}, which is per thread, this class is updated concurrently by all threads using
+ * {@link StripedCounter}s. Counters are {@code long}. Use {@link #snapshot()} to read a copy, or
+ * {@link #snapshotAndReset()} to read and clear counts for periodic reporting.
+ *
+ * @author Tadaya Tsuyukubo
+ * @see GlobalQueryCountHolder
+ * @see net.ttddyy.dsproxy.listener.GlobalQueryCountListener
+ * @since 1.4
+ */
+public class GlobalQueryCount {
+
+    // num of queries
+    private final StripedCounter select = new StripedCounter();
+    private final StripedCounter insert = new StripedCounter();
+    private final StripedCounter update = new StripedCounter();
+    private final StripedCounter delete = new StripedCounter();
+    private final StripedCounter other = new StripedCounter();
+
+    // num of statement type
+    private final StripedCounter statement = new StripedCounter();
+    private final StripedCounter prepared = new StripedCounter();
+    private final StripedCounter callable = new StripedCounter();
+
+    // num of database call
+    private final StripedCounter total = new StripedCounter();
+    private final StripedCounter success = new StripedCounter();
+    private final StripedCounter failure = new StripedCounter();
+
+    private final StripedCounter timeInNanos = new StripedCounter();
+
+    public void increment(QueryType queryType) {
+        getCounter(queryType).increment();
+    }
+
+    /**
+     * Increment number of queries of the given type by multiple entries at once.
+     *
+     * @param queryType query type
+     * @param delta     number of queries
+     * @since 1.4
+     */
+    public void increment(QueryType queryType, long delta) {
+        getCounter(queryType).add(delta);
+    }
+
+    private StripedCounter getCounter(QueryType queryType) {
+        switch (queryType) {
+            case SELECT:
+                return select;
+            case INSERT:
+                return insert;
+            case UPDATE:
+                return update;
+            case DELETE:
+                return delete;
+            default:
+                // MERGE, CALL, REPLACE, DDL and OTHER
+                return other;
+        }
+    }
+
+    public void increment(StatementType statementType) {
+        switch (statementType) {
+            case STATEMENT:
+                statement.increment();
+                break;
+            case PREPARED:
+                prepared.increment();
+                break;
+            case CALLABLE:
+                callable.increment();
+                break;
+        }
+    }
+
+    public void incrementTotal() {
+        total.increment();
+    }
+
+    public void incrementSuccess() {
+        success.increment();
+    }
+
+    public void incrementFailure() {
+        failure.increment();
+    }
+
+    public void incrementTime(long delta, TimeUnit unit) {
+        timeInNanos.add(unit.toNanos(delta));
+    }
+
+    /**
+     * @return copy of current counts
+     */
+    public Snapshot snapshot() {
+        return new Snapshot(select.sum(), insert.sum(), update.sum(), delete.sum(), other.sum(),
+                statement.sum(), prepared.sum(), callable.sum(),
+                total.sum(), success.sum(), failure.sum(), timeInNanos.sum());
+    }
+
+    /**
+     * Returns copy of current counts and resets them. Each counter is read and reset atomically, but not all
+     * counters together; an execution in progress may be split between this and the next snapshot.
+     *
+     * @return copy of counts before reset
+     */
+    public Snapshot snapshotAndReset() {
+        return new Snapshot(select.sumThenReset(), insert.sumThenReset(), update.sumThenReset(),
+                delete.sumThenReset(), other.sumThenReset(),
+                statement.sumThenReset(), prepared.sumThenReset(), callable.sumThenReset(),
+                total.sumThenReset(), success.sumThenReset(), failure.sumThenReset(), timeInNanos.sumThenReset());
+    }
+
+    public void reset() {
+        snapshotAndReset();
+    }
+
+    /**
+     * Immutable copy of {@link GlobalQueryCount}.
+     */
+    public static class Snapshot {
+
+        private final long select;
+        private final long insert;
+        private final long update;
+        private final long delete;
+        private final long other;
+        private final long statement;
+        private final long prepared;
+        private final long callable;
+        private final long total;
+        private final long success;
+        private final long failure;
+        private final long timeInNanos;
+
+        public Snapshot(long select, long insert, long update, long delete, long other,
+                        long statement, long prepared, long callable,
+                        long total, long success, long failure, long timeInNanos) {
+            this.select = select;
+            this.insert = insert;
+            this.update = update;
+            this.delete = delete;
+            this.other = other;
+            this.statement = statement;
+            this.prepared = prepared;
+            this.callable = callable;
+            this.total = total;
+            this.success = success;
+            this.failure = failure;
+            this.timeInNanos = timeInNanos;
+        }
+
+        /**
+         * @param other snapshot to add
+         * @return new snapshot that has sum of this and given snapshot
+         */
+        public Snapshot plus(Snapshot other) {
+            return new Snapshot(this.select + other.select, this.insert + other.insert,
+                    this.update + other.update, this.delete + other.delete, this.other + other.other,
+                    this.statement + other.statement, this.prepared + other.prepared, this.callable + other.callable,
+                    this.total + other.total, this.success + other.success, this.failure + other.failure,
+                    this.timeInNanos + other.timeInNanos);
+        }
+
+        public long getSelect() {
+            return select;
+        }
+
+        public long getInsert() {
+            return insert;
+        }
+
+        public long getUpdate() {
+            return update;
+        }
+
+        public long getDelete() {
+            return delete;
+        }
+
+        public long getOther() {
+            return other;
+        }
+
+        public long getStatement() {
+            return statement;
+        }
+
+        public long getPrepared() {
+            return prepared;
+        }
+
+        public long getCallable() {
+            return callable;
+        }
+
+        public long getTotal() {
+            return total;
+        }
+
+        public long getSuccess() {
+            return success;
+        }
+
+        public long getFailure() {
+            return failure;
+        }
+
+        /**
+         * @param unit time unit
+         * @return total time truncated to the unit
+         */
+        public long getTime(TimeUnit unit) {
+            return unit.convert(timeInNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+}
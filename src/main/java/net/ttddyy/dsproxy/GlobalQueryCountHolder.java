@@ -0,0 +1,89 @@
+package net.ttddyy.dsproxy;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Hold application wide {@link GlobalQueryCount} by datasource name.
+ *
+ * <p>Counts are visible from any thread. {@code null} datasource name is stored as empty string.
+ *
+ * @author Tadaya Tsuyukubo
+ * @see net.ttddyy.dsproxy.listener.GlobalQueryCountListener
+ * @see QueryCountHolder
+ * @since 1.4
+ */
+public class GlobalQueryCountHolder {
+
+    private static final ConcurrentMap<String, GlobalQueryCount> queryCountMap =
+            new ConcurrentHashMap<String, GlobalQueryCount>();
+
+    /**
+     * @param dataSourceName datasource name
+     * @return count for the datasource, or {@code null} if no query has been counted
+     */
+    public static GlobalQueryCount get(String dataSourceName) {
+        return queryCountMap.get(toKey(dataSourceName));
+    }
+
+    /**
+     * @param dataSourceName datasource name
+     * @return count for the datasource, created when absent
+     */
+    public static GlobalQueryCount getOrCreate(String dataSourceName) {
+        final String key = toKey(dataSourceName);
+        GlobalQueryCount count = queryCountMap.get(key);
+        if (count == null) {
+            final GlobalQueryCount newCount = new GlobalQueryCount();
+            count = queryCountMap.putIfAbsent(key, newCount);
+            if (count == null) {
+                count = newCount;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return sum of all datasources
+     */
+    public static GlobalQueryCount.Snapshot getGrandTotal() {
+        GlobalQueryCount.Snapshot total = new GlobalQueryCount.Snapshot(0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0);
+        for (GlobalQueryCount count : queryCountMap.values()) {
+            total = total.plus(count.snapshot());
+        }
+        return total;
+    }
+
+    public static Set<String> getDataSourceNames() {
+        return Collections.unmodifiableSet(queryCountMap.keySet());
+    }
+
+    public static List<String> getDataSourceNamesAsList() {
+        return new ArrayList<String>(queryCountMap.keySet());
+    }
+
+    /**
+     * Reset counts of all datasources. Registered datasources are kept.
+     */
+    public static void reset() {
+        for (GlobalQueryCount count : queryCountMap.values()) {
+            count.reset();
+        }
+    }
+
+    /**
+     * Remove all datasources.
+     */
+    public static void clear() {
+        queryCountMap.clear();
+    }
+
+    private static String toKey(String dataSourceName) {
+        return dataSourceName == null ? "" : dataSourceName;
+    }
+
+}
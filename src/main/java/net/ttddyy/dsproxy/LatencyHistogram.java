@@ -0,0 +1,174 @@
+package net.ttddyy.dsproxy;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread-safe log-linear histogram of latencies.
+ *
+ * <p>Values are recorded in microseconds. Each power of two range is divided into {@value #SUB_BUCKETS} linear
+ * buckets, so a reported percentile is within 12.5% of the recorded value. Values up to about 12 days are tracked;
+ * larger values are recorded in the last bucket. Memory is fixed, about {@code 2.5KB} per stripe.
+ *
+ * <p>Recording is lock-free. Buckets are striped by thread to reduce contention; a snapshot merges all stripes.
+ *
+ * @author Tadaya Tsuyukubo
+ * @see net.ttddyy.dsproxy.listener.QueryLatencyListener
+ * @since 1.4
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_EXPONENT = 40;  // 2^40 micros ~= 12.7 days
+    private static final int BUCKETS = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+    private static final long MAX_TRACKABLE = (1L << (MAX_EXPONENT + 1)) - 1;
+
+    private static final int STRIPES = StripedCounter.getStripeCount(Runtime.getRuntime().availableProcessors(), 8);
+
+    static int getBucketIndex(long micros) {
+        if (micros < SUB_BUCKETS) {
+            return micros < 0 ? 0 : (int) micros;
+        }
+        final long value = micros > MAX_TRACKABLE ? MAX_TRACKABLE : micros;
+        final int exponent = 63 - Long.numberOfLeadingZeros(value);
+        final int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * @return largest value that belongs to the bucket
+     */
+    static long getBucketUpperBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        final int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        final long subBucket = index % SUB_BUCKETS;
+        final int shift = exponent - SUB_BUCKET_BITS;
+        return ((SUB_BUCKETS + subBucket + 1) << shift) - 1;
+    }
+
+    private final AtomicLongArray[] buckets = new AtomicLongArray[STRIPES];
+    private final StripedCounter count = new StripedCounter();
+    private final StripedCounter sum = new StripedCounter();
+    private final AtomicLong max = new AtomicLong();
+
+    public LatencyHistogram() {
+        for (int i = 0; i < STRIPES; i++) {
+            this.buckets[i] = new AtomicLongArray(BUCKETS);
+        }
+    }
+
+    public void record(long duration, TimeUnit unit) {
+        final long micros = Math.max(0, unit.toMicros(duration));
+        this.buckets[StripedCounter.getStripeIndex(STRIPES)].incrementAndGet(getBucketIndex(micros));
+        this.count.increment();
+        this.sum.add(micros);
+
+        long currentMax = this.max.get();
+        while (micros > currentMax && !this.max.compareAndSet(currentMax, micros)) {
+            currentMax = this.max.get();
+        }
+    }
+
+    public Snapshot snapshot() {
+        final long[] merged = new long[BUCKETS];
+        for (AtomicLongArray stripe : this.buckets) {
+            for (int i = 0; i < BUCKETS; i++) {
+                merged[i] += stripe.get(i);
+            }
+        }
+        long total = 0;
+        for (long bucketCount : merged) {
+            total += bucketCount;
+        }
+        // use bucket total as count, it is consistent with the bucket counts
+        return new Snapshot(merged, total, this.sum.sum(), this.max.get());
+    }
+
+    public void reset() {
+        for (AtomicLongArray stripe : this.buckets) {
+            for (int i = 0; i < BUCKETS; i++) {
+                stripe.set(i, 0);
+            }
+        }
+        this.count.reset();
+        this.sum.reset();
+        this.max.set(0);
+    }
+
+    /**
+     * @return number of recorded values
+     */
+    public long getCount() {
+        return this.count.sum();
+    }
+
+    /**
+     * Immutable copy of {@link LatencyHistogram}.
+     */
+    public static class Snapshot {
+
+        private final long[] buckets;
+        private final long count;
+        private final long sumInMicros;
+        private final long maxInMicros;
+
+        private Snapshot(long[] buckets, long count, long sumInMicros, long maxInMicros) {
+            this.buckets = buckets;
+            this.count = count;
+            this.sumInMicros = sumInMicros;
+            this.maxInMicros = maxInMicros;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * Returns value at the given percentile. The value is the upper bound of the bucket, capped by max.
+         *
+         * @param percentile percentile between 0 and 100. e.g.: 99.9
+         * @param unit       time unit
+         * @return value at the percentile, {@code 0} if no value is recorded
+         */
+        public long getPercentile(double percentile, TimeUnit unit) {
+            if (this.count == 0) {
+                return 0;
+            }
+            final double ratio = Math.min(Math.max(percentile, 0), 100) / 100;
+            final long rank = Math.max(1, (long) Math.ceil(ratio * this.count));
+            long accumulated = 0;
+            for (int i = 0; i < this.buckets.length; i++) {
+                accumulated += this.buckets[i];
+                if (accumulated >= rank) {
+                    final long value = Math.min(getBucketUpperBound(i), this.maxInMicros);
+                    return unit.convert(value, TimeUnit.MICROSECONDS);
+                }
+            }
+            return unit.convert(this.maxInMicros, TimeUnit.MICROSECONDS);
+        }
+
+        public long getMedian(TimeUnit unit) {
+            return getPercentile(50, unit);
+        }
+
+        public long get95thPercentile(TimeUnit unit) {
+            return getPercentile(95, unit);
+        }
+
+        public long get99thPercentile(TimeUnit unit) {
+            return getPercentile(99, unit);
+        }
+
+        public long getMax(TimeUnit unit) {
+            return unit.convert(this.maxInMicros, TimeUnit.MICROSECONDS);
+        }
+
+        public long getMean(TimeUnit unit) {
+            return this.count == 0 ? 0 : unit.convert(this.sumInMicros / this.count, TimeUnit.MICROSECONDS);
+        }
+    }
+}
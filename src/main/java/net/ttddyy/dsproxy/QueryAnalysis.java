@@ -0,0 +1,85 @@
+package net.ttddyy.dsproxy;
+
+import net.ttddyy.dsproxy.listener.QueryUtils;
+
+/**
+ * Result of analyzing a query string.
+ *
+ * <p>Holds the {@link QueryType}, the normalized query where literal values are replaced with {@code ?}, and a 64-bit
+ * fingerprint of the normalized query. Queries that differ only by literal values share the same normalized query
+ * and fingerprint. The fingerprint is stable across JVMs(FNV-1a hash of the normalized query).
+ *
+ * <p>Instances are immutable and usually obtained from {@link QueryAnalysisCache} or
+ * {@link QueryInfo#getQueryAnalysis()}.
+ *
+ * @author Tadaya Tsuyukubo
+ * @see QueryUtils#getQueryType(String)
+ * @see QueryUtils#normalizeQuery(String)
+ * @since 1.4
+ */
+public final class QueryAnalysis {
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final QueryType queryType;
+    private final String normalizedQuery;
+    private final long fingerprint;
+
+    /**
+     * Analyze the given query.
+     *
+     * @param query a query string
+     * @return analysis result
+     */
+    public static QueryAnalysis analyze(String query) {
+        final QueryType queryType = QueryUtils.getQueryType(query);
+        final String normalizedQuery = QueryUtils.normalizeQuery(query);
+        return new QueryAnalysis(queryType, normalizedQuery, fingerprint(normalizedQuery));
+    }
+
+    /**
+     * Compute 64-bit FNV-1a hash of the given string.
+     *
+     * @param value a string
+     * @return hash value, {@code 0} for {@code null}
+     */
+    public static long fingerprint(String value) {
+        if (value == null) {
+            return 0;
+        }
+        long hash = FNV_OFFSET_BASIS;
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            hash ^= (c & 0xff);
+            hash *= FNV_PRIME;
+            hash ^= (c >>> 8);
+            hash *= FNV_PRIME;
+        }
+        return hash;
+    }
+
+    private QueryAnalysis(QueryType queryType, String normalizedQuery, long fingerprint) {
+        this.queryType = queryType;
+        this.normalizedQuery = normalizedQuery;
+        this.fingerprint = fingerprint;
+    }
+
+    public QueryType getQueryType() {
+        return queryType;
+    }
+
+    public String getNormalizedQuery() {
+        return normalizedQuery;
+    }
+
+    public long getFingerprint() {
+        return fingerprint;
+    }
+
+    @Override
+    public String toString() {
+        return "QueryAnalysis{type=" + queryType + ", fingerprint=" + Long.toHexString(fingerprint) +
+                ", normalizedQuery=" + normalizedQuery + "}";
+    }
+}
@@ -0,0 +1,128 @@
+package net.ttddyy.dsproxy;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded, thread-safe cache of {@link QueryAnalysis} keyed by query string.
+ *
+ * <p>Cache evicts least recently used entry. As {@link net.ttddyy.dsproxy.transform.CachingQueryTransformer} does,
+ * entries are split into segments by query hash, each with its own lock and recency order, so eviction is least
+ * recently used within a segment. Analysis runs outside of the lock, so concurrent misses for the same query may
+ * analyze it more than once; all of them return equal results.
+ *
+ * <p>{@link #getDefault()} is shared by {@link QueryInfo#getQueryAnalysis()} and the proxies.
+ *
+ * @author Tadaya Tsuyukubo
+ * @since 1.4
+ */
+public class QueryAnalysisCache {
+
+    public static final int DEFAULT_MAX_SIZE = 2048;
+
+    private static final int MAX_SEGMENTS = 16;
+    private static final int MIN_SEGMENT_SIZE = 16;
+
+    private static final QueryAnalysisCache DEFAULT = new QueryAnalysisCache(DEFAULT_MAX_SIZE);
+
+    /**
+     * @return cache shared in the JVM
+     */
+    public static QueryAnalysisCache getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Map in access order that evicts the eldest entry when it exceeds max size.
+     */
+    private static final class LruCache extends LinkedHashMap<String, QueryAnalysis> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int maxSize;
+
+        private LruCache(int maxSize) {
+            super(16, 0.75f, true);
+            this.maxSize = maxSize;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, QueryAnalysis> eldest) {
+            return size() > this.maxSize;
+        }
+    }
+
+    private final int maxSize;
+    private final LruCache[] segments;
+
+    public QueryAnalysisCache(int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("maxSize must be positive: " + maxSize);
+        }
+        this.maxSize = maxSize;
+
+        int segmentCount = 1;
+        while (segmentCount < MAX_SEGMENTS && segmentCount * 2 * MIN_SEGMENT_SIZE <= maxSize) {
+            segmentCount <<= 1;
+        }
+        this.segments = new LruCache[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            // spread the remainder so that segments add up to maxSize
+            this.segments[i] = new LruCache(maxSize / segmentCount + (i < maxSize % segmentCount ? 1 : 0));
+        }
+    }
+
+    private LruCache getSegment(String query) {
+        final int hash = query.hashCode();
+        return this.segments[(hash ^ (hash >>> 16)) & (this.segments.length - 1)];
+    }
+
+    /**
+     * Returns cached analysis of the query, or analyze and cache it.
+     *
+     * @param query a query string
+     * @return analysis result, {@code null} when query is {@code null}
+     */
+    public QueryAnalysis get(String query) {
+        if (query == null) {
+            return null;
+        }
+        final LruCache segment = getSegment(query);
+        QueryAnalysis analysis;
+        synchronized (segment) {
+            analysis = segment.get(query);
+        }
+        if (analysis != null) {
+            return analysis;
+        }
+
+        analysis = QueryAnalysis.analyze(query);
+        synchronized (segment) {
+            segment.put(query, analysis);
+        }
+        return analysis;
+    }
+
+    public int size() {
+        int size = 0;
+        for (LruCache segment : this.segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    public int getMaxSize() {
+        return this.maxSize;
+    }
+
+    public void clear() {
+        for (LruCache segment : this.segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+    }
+
+}
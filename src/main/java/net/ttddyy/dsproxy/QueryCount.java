@@ -1,31 +1,64 @@
 package net.ttddyy.dsproxy;
 
+import java.util.concurrent.TimeUnit;
+
 /**
  * Considered to be used under same thread.
- * If used by multiple threads, need to change int to AtomicInteger.
+ * If used by multiple threads, use {@link GlobalQueryCount} instead.
+ *
+ * <p>Counts are stored in a {@code long} array indexed by metric, so that aggregating counts does not go through
+ * individual accessors.
  *
  * @author Tadaya Tsuyukubo
+ * @see QueryCountHolder
  */
 public class QueryCount {
 
     // num of queries
-    private int select;
-    private int insert;
-    private int update;
-    private int delete;
-    private int other;
+    private static final int SELECT = 0;
+    private static final int INSERT = 1;
+    private static final int UPDATE = 2;
+    private static final int DELETE = 3;
+    private static final int OTHER = 4;
 
     // num of statement type
-    private int statement;
-    private int prepared;
-    private int callable;
+    private static final int STATEMENT = 5;
+    private static final int PREPARED = 6;
+    private static final int CALLABLE = 7;
 
     // num of database call
-    private int total;
-    private int failure;
-    private int success;
+    private static final int TOTAL = 8;
+    private static final int FAILURE = 9;
+    private static final int SUCCESS = 10;
+
+    // accumulated in nanoseconds to keep sub-millisecond executions
+    private static final int TIME_IN_NANOS = 11;
+
+    // time by query type and statement type, in nanoseconds
+    private static final int QUERY_TYPE_TIME = 12;  // select, insert, update, delete, other
+    private static final int STATEMENT_TYPE_TIME = 17;  // statement, prepared, callable
+
+    // affected rows by query type
+    private static final int QUERY_TYPE_ROWS = 20;  // select, insert, update, delete, other
 
-    private long time;
+    private static final int METRIC_SIZE = 25;
+
+    private static int getQueryTypeOffset(QueryType queryType) {
+        switch (queryType) {
+            case SELECT:
+                return 0;
+            case INSERT:
+                return 1;
+            case UPDATE:
+                return 2;
+            case DELETE:
+                return 3;
+            default:
+                return 4;  // MERGE, CALL, REPLACE, DDL and OTHER
+        }
+    }
+
+    private final long[] values = new long[METRIC_SIZE];
 
     public void increment(QueryType queryType) {
         switch (queryType) {
@@ -41,11 +74,21 @@ public class QueryCount {
             case DELETE:
                 incrementDelete();
                 break;
-            case OTHER:
+            default:
+                // MERGE, CALL, REPLACE, DDL and OTHER
                 incrementOther();
         }
     }
 
+    /**
+     * @param queryType query type. Types other than select, insert, update and delete are counted as other.
+     * @param delta     number of queries to add
+     * @since 1.4
+     */
+    public void increment(QueryType queryType, long delta) {
+        values[SELECT + getQueryTypeOffset(queryType)] += delta;
+    }
+
     public void increment(StatementType statementType) {
         switch (statementType) {
             case STATEMENT:
@@ -61,146 +104,257 @@ public class QueryCount {
     }
 
     public void incrementSelect() {
-        select++;
+        values[SELECT]++;
     }
 
     public void incrementInsert() {
-        insert++;
+        values[INSERT]++;
     }
 
     public void incrementUpdate() {
-        update++;
+        values[UPDATE]++;
     }
 
     public void incrementDelete() {
-        delete++;
+        values[DELETE]++;
     }
 
     public void incrementOther() {
-        other++;
+        values[OTHER]++;
     }
 
     public void incrementStatement() {
-        statement++;
+        values[STATEMENT]++;
     }
 
     public void incrementPrepared() {
-        prepared++;
+        values[PREPARED]++;
     }
 
     public void incrementCallable() {
-        callable++;
+        values[CALLABLE]++;
     }
 
     public void incrementTotal() {
-        total++;
+        values[TOTAL]++;
     }
 
     public void incrementSuccess() {
-        success++;
+        values[SUCCESS]++;
     }
 
     public void incrementFailure() {
-        failure++;
+        values[FAILURE]++;
     }
 
+    /**
+     * @param delta time to add in milliseconds
+     */
     public void incrementTime(long delta) {
-        time += delta;
+        values[TIME_IN_NANOS] += TimeUnit.MILLISECONDS.toNanos(delta);
+    }
+
+    /**
+     * @param delta time to add
+     * @param unit  time unit of delta
+     * @since 1.4
+     */
+    public void incrementTime(long delta, TimeUnit unit) {
+        values[TIME_IN_NANOS] += unit.toNanos(delta);
+    }
+
+    /**
+     * @param queryType query type. Types other than select, insert, update and delete are counted as other.
+     * @param delta     time to add
+     * @param unit      time unit of delta
+     * @since 1.4
+     */
+    public void incrementTime(QueryType queryType, long delta, TimeUnit unit) {
+        values[QUERY_TYPE_TIME + getQueryTypeOffset(queryType)] += unit.toNanos(delta);
+    }
+
+    /**
+     * @param statementType statement type
+     * @param delta         time to add
+     * @param unit          time unit of delta
+     * @since 1.4
+     */
+    public void incrementTime(StatementType statementType, long delta, TimeUnit unit) {
+        values[STATEMENT_TYPE_TIME + statementType.ordinal()] += unit.toNanos(delta);
+    }
+
+    /**
+     * @param queryType query type. Types other than select, insert, update and delete are counted as other.
+     * @param delta     number of affected rows to add
+     * @since 1.4
+     */
+    public void incrementRows(QueryType queryType, long delta) {
+        values[QUERY_TYPE_ROWS + getQueryTypeOffset(queryType)] += delta;
+    }
+
+    /**
+     * @param queryType query type. Types other than select, insert, update and delete returns time of other.
+     * @param unit      time unit
+     * @return total time of the query type
+     * @since 1.4
+     */
+    public long getTime(QueryType queryType, TimeUnit unit) {
+        return unit.convert(values[QUERY_TYPE_TIME + getQueryTypeOffset(queryType)], TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @param statementType statement type
+     * @param unit          time unit
+     * @return total time of the statement type
+     * @since 1.4
+     */
+    public long getTime(StatementType statementType, TimeUnit unit) {
+        return unit.convert(values[STATEMENT_TYPE_TIME + statementType.ordinal()], TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Number of affected rows reported by update counts. Rows returned by select are not counted.
+     *
+     * @param queryType query type. Types other than select, insert, update and delete returns rows of other.
+     * @return number of affected rows
+     * @since 1.4
+     */
+    public long getRows(QueryType queryType) {
+        return values[QUERY_TYPE_ROWS + getQueryTypeOffset(queryType)];
     }
 
     public int getSelect() {
-        return select;
+        return (int) values[SELECT];
     }
 
     public void setSelect(int select) {
-        this.select = select;
+        values[SELECT] = select;
     }
 
     public int getInsert() {
-        return insert;
+        return (int) values[INSERT];
     }
 
     public void setInsert(int insert) {
-        this.insert = insert;
+        values[INSERT] = insert;
     }
 
     public int getUpdate() {
-        return update;
+        return (int) values[UPDATE];
     }
 
     public void setUpdate(int update) {
-        this.update = update;
+        values[UPDATE] = update;
     }
 
     public int getDelete() {
-        return delete;
+        return (int) values[DELETE];
     }
 
     public void setDelete(int delete) {
-        this.delete = delete;
+        values[DELETE] = delete;
     }
 
     public int getOther() {
-        return other;
+        return (int) values[OTHER];
     }
 
     public void setOther(int other) {
-        this.other = other;
+        values[OTHER] = other;
     }
 
     public int getStatement() {
-        return statement;
+        return (int) values[STATEMENT];
     }
 
     public void setStatement(int statement) {
-        this.statement = statement;
+        values[STATEMENT] = statement;
     }
 
     public int getPrepared() {
-        return prepared;
+        return (int) values[PREPARED];
     }
 
     public void setPrepared(int prepared) {
-        this.prepared = prepared;
+        values[PREPARED] = prepared;
     }
 
     public int getCallable() {
-        return callable;
+        return (int) values[CALLABLE];
     }
 
     public void setCallable(int callable) {
-        this.callable = callable;
+        values[CALLABLE] = callable;
     }
 
     public int getTotal() {
-        return total;
+        return (int) values[TOTAL];
     }
 
     public void setTotal(int total) {
-        this.total = total;
+        values[TOTAL] = total;
     }
 
     public int getSuccess() {
-        return success;
+        return (int) values[SUCCESS];
     }
 
     public void setSuccess(int success) {
-        this.success = success;
+        values[SUCCESS] = success;
     }
 
     public int getFailure() {
-        return failure;
+        return (int) values[FAILURE];
     }
 
     public void setFailure(int failure) {
-        this.failure = failure;
+        values[FAILURE] = failure;
     }
 
+    /**
+     * @return total time in milliseconds
+     */
     public long getTime() {
-        return time;
+        return TimeUnit.NANOSECONDS.toMillis(values[TIME_IN_NANOS]);
     }
 
+    /**
+     * @param time total time in milliseconds
+     */
     public void setTime(long time) {
-        this.time = time;
+        values[TIME_IN_NANOS] = TimeUnit.MILLISECONDS.toNanos(time);
+    }
+
+    /**
+     * Returns total time in the given unit. Value is truncated to the unit.
+     *
+     * @param unit time unit
+     * @return total time
+     * @since 1.4
+     */
+    public long getTime(TimeUnit unit) {
+        return unit.convert(values[TIME_IN_NANOS], TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @param time total time
+     * @param unit time unit of the given time
+     * @since 1.4
+     */
+    public void setTime(long time, TimeUnit unit) {
+        values[TIME_IN_NANOS] = unit.toNanos(time);
+    }
+
+    /**
+     * Add all counts of the given {@link QueryCount} to this.
+     *
+     * @param other counts to add
+     * @since 1.4
+     */
+    public void add(QueryCount other) {
+        final long[] otherValues = other.values;
+        for (int i = 0; i < METRIC_SIZE; i++) {
+            this.values[i] += otherValues[i];
+        }
     }
 }
@@ -1,60 +1,93 @@
 package net.ttddyy.dsproxy;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 
 /**
  * Hold QueryCount object by datasource name.
  *
+ * <p>Each thread keeps an array of {@link QueryCount} indexed by datasource id assigned by
+ * {@link DataSourceIdRegistry}. Id based accessors do not hash datasource names.
+ *
  * @author Tadaya Tsuyukubo
  */
 public class QueryCountHolder {
 
-    private static ThreadLocal<Map<String, QueryCount>> queryCountMapHolder = new ThreadLocal<Map<String, QueryCount>>() {
+    private static final class QueryCountTable {
+        private QueryCount[] counts = new QueryCount[8];
+    }
+
+    private static ThreadLocal<QueryCountTable> queryCountTableHolder = new ThreadLocal<QueryCountTable>() {
         @Override
-        protected Map<String, QueryCount> initialValue() {
-            return new HashMap<String, QueryCount>();
+        protected QueryCountTable initialValue() {
+            return new QueryCountTable();
         }
     };
 
     public static QueryCount get(String dataSourceName) {
-        final Map<String, QueryCount> map = queryCountMapHolder.get();
-        return map.get(dataSourceName);
+        final int id = DataSourceIdRegistry.findId(dataSourceName);
+        return id < 0 ? null : get(id);
+    }
+
+    /**
+     * @param dataSourceId datasource id
+     * @return query count for the datasource on current thread, or {@code null}
+     * @see DataSourceIdRegistry#getId(String)
+     * @since 1.4
+     */
+    public static QueryCount get(int dataSourceId) {
+        final QueryCount[] table = queryCountTableHolder.get().counts;
+        return dataSourceId < table.length ? table[dataSourceId] : null;
     }
 
     public static QueryCount getGrandTotal() {
         final QueryCount totalCount = new QueryCount();
-        final Map<String, QueryCount> map = queryCountMapHolder.get();
-        for (QueryCount queryCount : map.values()) {
-            totalCount.setSelect(totalCount.getSelect() + queryCount.getSelect());
-            totalCount.setInsert(totalCount.getInsert() + queryCount.getInsert());
-            totalCount.setUpdate(totalCount.getUpdate() + queryCount.getUpdate());
-            totalCount.setDelete(totalCount.getDelete() + queryCount.getDelete());
-            totalCount.setOther(totalCount.getOther() + queryCount.getOther());
-            totalCount.setTotal(totalCount.getTotal() + queryCount.getTotal());
-            totalCount.setSuccess(totalCount.getSuccess() + queryCount.getSuccess());
-            totalCount.setFailure(totalCount.getFailure() + queryCount.getFailure());
-            totalCount.setTime(totalCount.getTime() + queryCount.getTime());
+        for (QueryCount queryCount : queryCountTableHolder.get().counts) {
+            if (queryCount != null) {
+                totalCount.add(queryCount);
+            }
         }
         return totalCount;
     }
 
     public static void put(String dataSourceName, QueryCount count) {
-        queryCountMapHolder.get().put(dataSourceName, count);
+        put(DataSourceIdRegistry.getId(dataSourceName), count);
+    }
+
+    /**
+     * @param dataSourceId datasource id
+     * @param count        query count for the datasource on current thread
+     * @since 1.4
+     */
+    public static void put(int dataSourceId, QueryCount count) {
+        final QueryCountTable table = queryCountTableHolder.get();
+        if (dataSourceId >= table.counts.length) {
+            table.counts = Arrays.copyOf(table.counts, Math.max(dataSourceId + 1, table.counts.length * 2));
+        }
+        table.counts[dataSourceId] = count;
     }
 
     public static List<String> getDataSourceNamesAsList() {
         return new ArrayList<String>(getDataSourceNames());
     }
 
+    /**
+     * @return copy of datasource names that have query count on current thread, ordered by name
+     */
     public static Set<String> getDataSourceNames() {
-        return queryCountMapHolder.get().keySet();
+        final Set<String> names = new LinkedHashSet<String>();
+        for (int id : DataSourceIdRegistry.getIdsOrderedByName()) {
+            if (get(id) != null) {
+                names.add(DataSourceIdRegistry.getName(id));
+            }
+        }
+        return names;
     }
 
     public static void clear() {
-        queryCountMapHolder.get().clear();
+        Arrays.fill(queryCountTableHolder.get().counts, null);
     }
 }
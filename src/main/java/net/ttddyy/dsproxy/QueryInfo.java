@@ -20,6 +20,8 @@ public class QueryInfo {
     private String query;
 
     private List<List<ParameterSetOperation>> parametersList = new ArrayList<List<ParameterSetOperation>>();
+    private BatchSummary batchSummary;
+    private QueryAnalysis queryAnalysis;  // resolved lazily
 
     public QueryInfo() {
     }
@@ -28,14 +30,62 @@ public class QueryInfo {
         this.query = query;
     }
 
+    /**
+     * Copy constructor.
+     *
+     * <p>Parameters and their {@link ParameterSetOperation} are copied, so that the copy is not affected when the
+     * statement clears or reuses its parameters. Argument values themselves are shared with the source.
+     *
+     * @param source query info to copy
+     * @since 1.4
+     */
+    public QueryInfo(QueryInfo source) {
+        this.query = source.query;
+        this.queryAnalysis = source.queryAnalysis;
+        this.parametersList = new ArrayList<List<ParameterSetOperation>>(source.parametersList.size());
+        for (List<ParameterSetOperation> parameters : source.parametersList) {
+            final List<ParameterSetOperation> copies = new ArrayList<ParameterSetOperation>(parameters.size());
+            for (ParameterSetOperation parameter : parameters) {
+                final Object[] args = parameter.getArgs();
+                copies.add(new ParameterSetOperation(parameter.getMethod(), args == null ? null : args.clone()));
+            }
+            this.parametersList.add(copies);
+        }
+        if (source.batchSummary != null) {
+            this.batchSummary = new BatchSummary(source.batchSummary);
+        }
+    }
+
     public String getQuery() {
         return query;
     }
 
     public void setQuery(String query) {
+        if (this.query != query) {
+            this.queryAnalysis = null;
+        }
         this.query = query;
     }
 
+    /**
+     * Analysis of the query such as query type and fingerprint.
+     *
+     * <p>Resolved from {@link QueryAnalysisCache#getDefault()} on first access unless it is set explicitly.
+     *
+     * @return analysis of the query, or {@code null} when query is {@code null}
+     * @since 1.4
+     */
+    public QueryAnalysis getQueryAnalysis() {
+        if (this.queryAnalysis == null && this.query != null) {
+            this.queryAnalysis = QueryAnalysisCache.getDefault().get(this.query);
+        }
+        return queryAnalysis;
+    }
+
+    public void setQueryAnalysis(QueryAnalysis queryAnalysis) {
+        this.queryAnalysis = queryAnalysis;
+    }
+
     /**
      * Deprecated: Since return doesn't contain method information, {@link #getParametersList()} is now used.
      *
@@ -66,6 +116,7 @@ public class QueryInfo {
      * For non-batch Prepared/Callable execution, this list contains 1 element that is a list which contains all
      * parameter sets operations for the execution.
      * For batch Prepared/Callable executions, this list will have N number of elements.
+     * The batch list is a read-only view; each row is materialized when it is accessed.
      *
      * @since 1.4
      */
@@ -76,4 +127,20 @@ public class QueryInfo {
     public void setParametersList(List<List<ParameterSetOperation>> parametersList) {
         this.parametersList = parametersList;
     }
+
+    /**
+     * Statistics of the batch execution when {@link net.ttddyy.dsproxy.proxy.BatchCapturePolicy} limits the number
+     * of retained entries. When no entry of a {@link java.sql.Statement} batch is retained, the execution has a single
+     * query info without query that carries the summary.
+     *
+     * @return batch summary, or {@code null} when all entries are retained or it is not a batch execution
+     * @since 1.4
+     */
+    public BatchSummary getBatchSummary() {
+        return batchSummary;
+    }
+
+    public void setBatchSummary(BatchSummary batchSummary) {
+        this.batchSummary = batchSummary;
+    }
 }
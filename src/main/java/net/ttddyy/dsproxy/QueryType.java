@@ -1,5 +1,37 @@
 package net.ttddyy.dsproxy;
 
+/**
+ * Type of query determined by its leading keyword.
+ *
+ * <ul>
+ * <li>{@code WITH} queries are typed by the statement that follows common table expressions.
+ * <li>{@link #CALL}: {@code CALL}, {@code EXEC}, {@code EXECUTE} and JDBC escape syntax({@code {call ...}}).
+ * <li>{@link #DDL}: {@code CREATE}, {@code ALTER}, {@code DROP}, {@code TRUNCATE} and {@code RENAME}.
+ * </ul>
+ *
+ * @author Tadaya Tsuyukubo
+ * @see net.ttddyy.dsproxy.listener.QueryUtils#getQueryType(String)
+ */
 public enum QueryType {
-    SELECT, INSERT, UPDATE, DELETE, OTHER
-}
\ No newline at end of file
+    SELECT, INSERT, UPDATE, DELETE, OTHER,
+
+    /**
+     * @since 1.4
+     */
+    MERGE,
+
+    /**
+     * @since 1.4
+     */
+    CALL,
+
+    /**
+     * @since 1.4
+     */
+    REPLACE,
+
+    /**
+     * @since 1.4
+     */
+    DDL
+}
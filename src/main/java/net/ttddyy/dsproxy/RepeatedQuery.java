@@ -0,0 +1,111 @@
+package net.ttddyy.dsproxy;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Repetition of a query within a request, such as N+1 selects or inserts/updates not using batch.
+ *
+ * <p>Considered to be used under same thread.
+ *
+ * @author Tadaya Tsuyukubo
+ * @see RepeatedQueryHolder
+ * @see net.ttddyy.dsproxy.listener.RepeatedQueryListener
+ * @since 1.4
+ */
+public class RepeatedQuery {
+
+    public enum Pattern {
+        /**
+         * Same select executed repeatedly with different parameters.
+         */
+        N_PLUS_ONE,
+        /**
+         * Same insert or update executed repeatedly without batch.
+         */
+        UNBATCHED_WRITE
+    }
+
+    private final Pattern pattern;
+    private final long fingerprint;
+    private final String normalizedQuery;
+    private long count;
+    private long timeInNanos;
+    private int[] parameterHashes = new int[4];
+    private int distinctParameters;
+    private boolean detected;
+
+    public RepeatedQuery(Pattern pattern, long fingerprint, String normalizedQuery) {
+        this.pattern = pattern;
+        this.fingerprint = fingerprint;
+        this.normalizedQuery = normalizedQuery;
+    }
+
+    public void increment(long time, TimeUnit unit) {
+        this.count++;
+        this.timeInNanos += unit.toNanos(time);
+    }
+
+    /**
+     * Record parameters of an execution. Up to {@code max} distinct parameters are kept.
+     *
+     * @param hash hash of query and parameters
+     * @param max  maximum number of distinct parameters to keep
+     */
+    public void addParameters(int hash, int max) {
+        if (this.distinctParameters >= max) {
+            return;
+        }
+        for (int i = 0; i < this.distinctParameters; i++) {
+            if (this.parameterHashes[i] == hash) {
+                return;
+            }
+        }
+        if (this.distinctParameters == this.parameterHashes.length) {
+            final int[] expanded = new int[Math.min(max, this.parameterHashes.length * 2)];
+            System.arraycopy(this.parameterHashes, 0, expanded, 0, this.distinctParameters);
+            this.parameterHashes = expanded;
+        }
+        this.parameterHashes[this.distinctParameters++] = hash;
+    }
+
+    public Pattern getPattern() {
+        return pattern;
+    }
+
+    public long getFingerprint() {
+        return fingerprint;
+    }
+
+    public String getNormalizedQuery() {
+        return normalizedQuery;
+    }
+
+    /**
+     * @return number of executions
+     */
+    public long getCount() {
+        return count;
+    }
+
+    public long getTime(TimeUnit unit) {
+        return unit.convert(this.timeInNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @return number of distinct parameters, capped by the maximum given to {@link #addParameters(int, int)}
+     */
+    public int getDistinctParameters() {
+        return distinctParameters;
+    }
+
+    /**
+     * @return {@code true} when the repetition exceeded the threshold
+     */
+    public boolean isDetected() {
+        return detected;
+    }
+
+    public void setDetected(boolean detected) {
+        this.detected = detected;
+    }
+}
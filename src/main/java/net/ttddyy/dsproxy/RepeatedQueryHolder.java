@@ -0,0 +1,71 @@
+package net.ttddyy.dsproxy;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hold {@link RepeatedQuery} by query fingerprint on current thread.
+ *
+ * <p>Cleared at the same request boundaries as {@link QueryCountHolder}.
+ *
+ * @author Tadaya Tsuyukubo
+ * @see net.ttddyy.dsproxy.listener.RepeatedQueryListener
+ * @since 1.4
+ */
+public class RepeatedQueryHolder {
+
+    private static final Comparator<RepeatedQuery> BY_TIME = new Comparator<RepeatedQuery>() {
+        @Override
+        public int compare(RepeatedQuery left, RepeatedQuery right) {
+            final long leftTime = left.getTime(TimeUnit.NANOSECONDS);
+            final long rightTime = right.getTime(TimeUnit.NANOSECONDS);
+            return leftTime > rightTime ? -1 : (leftTime == rightTime ? 0 : 1);
+        }
+    };
+
+    private static ThreadLocal<Map<Long, RepeatedQuery>> repeatedQueryHolder =
+            new ThreadLocal<Map<Long, RepeatedQuery>>() {
+                @Override
+                protected Map<Long, RepeatedQuery> initialValue() {
+                    return new HashMap<Long, RepeatedQuery>();
+                }
+            };
+
+    public static RepeatedQuery get(long fingerprint) {
+        return repeatedQueryHolder.get().get(fingerprint);
+    }
+
+    public static void put(RepeatedQuery repeatedQuery) {
+        repeatedQueryHolder.get().put(repeatedQuery.getFingerprint(), repeatedQuery);
+    }
+
+    /**
+     * @return number of queries tracked on current thread
+     */
+    public static int size() {
+        return repeatedQueryHolder.get().size();
+    }
+
+    /**
+     * @return repeated queries that exceeded the threshold, ordered by total time, longest first
+     */
+    public static List<RepeatedQuery> getDetected() {
+        final List<RepeatedQuery> detected = new ArrayList<RepeatedQuery>();
+        for (RepeatedQuery repeatedQuery : repeatedQueryHolder.get().values()) {
+            if (repeatedQuery.isDetected()) {
+                detected.add(repeatedQuery);
+            }
+        }
+        Collections.sort(detected, BY_TIME);
+        return detected;
+    }
+
+    public static void clear() {
+        repeatedQueryHolder.get().clear();
+    }
+}
@@ -0,0 +1,194 @@
+package net.ttddyy.dsproxy;
+
+import net.ttddyy.dsproxy.proxy.Ticker;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Rate, error rate and mean latency of executions over sliding time windows.
+ *
+ * <p>Executions are counted in a ring of fixed duration time buckets(default 5 seconds, enough for 15 minutes).
+ * A window sums the buckets it covers including the current partial bucket. Recording and reading are lock-free;
+ * readers never block recording threads. When a bucket is recycled, executions recorded concurrently by other
+ * threads at that moment may be dropped, so values are approximate at bucket boundaries.
+ *
+ * @author Tadaya Tsuyukubo
+ * @see net.ttddyy.dsproxy.listener.DataSourceMeterListener
+ * @since 1.4
+ */
+public class SlidingWindowMeter {
+
+    public static final long DEFAULT_BUCKET_SECONDS = 5;
+    public static final long DEFAULT_MAX_WINDOW_MINUTES = 15;
+
+    // each bucket has 4 longs
+    private static final int EPOCH = 0;
+    private static final int COUNT = 1;
+    private static final int ERRORS = 2;
+    private static final int TIME_IN_NANOS = 3;
+    private static final int STRIDE = 4;
+
+    /**
+     * Aggregated values of a window.
+     */
+    public static class Window {
+        private final long count;
+        private final long errorCount;
+        private final long timeInNanos;
+        private final long durationInNanos;
+
+        public Window(long count, long errorCount, long timeInNanos, long durationInNanos) {
+            this.count = count;
+            this.errorCount = errorCount;
+            this.timeInNanos = timeInNanos;
+            this.durationInNanos = durationInNanos;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getErrorCount() {
+            return errorCount;
+        }
+
+        /**
+         * @return executions per second
+         */
+        public double getRate() {
+            return durationInNanos <= 0 ? 0 : count * (double) TimeUnit.SECONDS.toNanos(1) / durationInNanos;
+        }
+
+        /**
+         * @return ratio of failed executions between 0 and 1
+         */
+        public double getErrorRate() {
+            return count == 0 ? 0 : (double) errorCount / count;
+        }
+
+        /**
+         * @param unit time unit
+         * @return mean elapsed time of executions
+         */
+        public long getMeanLatency(TimeUnit unit) {
+            return count == 0 ? 0 : unit.convert(timeInNanos / count, TimeUnit.NANOSECONDS);
+        }
+
+        /**
+         * @param unit time unit
+         * @return time actually covered by this window. Shorter than requested while the meter is young.
+         */
+        public long getDuration(TimeUnit unit) {
+            return unit.convert(durationInNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private final Ticker ticker;
+    private final long origin;
+    private final long bucketNanos;
+    private final int bucketCount;
+    private final AtomicLongArray buckets;
+
+    public SlidingWindowMeter() {
+        this(Ticker.DEFAULT);
+    }
+
+    public SlidingWindowMeter(Ticker ticker) {
+        this(ticker, DEFAULT_BUCKET_SECONDS, TimeUnit.MINUTES.toSeconds(DEFAULT_MAX_WINDOW_MINUTES), TimeUnit.SECONDS);
+    }
+
+    /**
+     * @param ticker         time source
+     * @param bucketDuration duration of a bucket
+     * @param maxWindow      longest window to read
+     * @param unit           time unit of bucket duration and max window
+     */
+    public SlidingWindowMeter(Ticker ticker, long bucketDuration, long maxWindow, TimeUnit unit) {
+        if (bucketDuration <= 0 || maxWindow < bucketDuration) {
+            throw new IllegalArgumentException("bucketDuration must be positive and not longer than maxWindow");
+        }
+        this.ticker = ticker;
+        this.origin = ticker.read();
+        this.bucketNanos = unit.toNanos(bucketDuration);
+        // one extra bucket for the current partial bucket
+        this.bucketCount = (int) ((unit.toNanos(maxWindow) + this.bucketNanos - 1) / this.bucketNanos) + 1;
+        this.buckets = new AtomicLongArray(this.bucketCount * STRIDE);
+        for (int i = 0; i < this.bucketCount; i++) {
+            this.buckets.set(i * STRIDE + EPOCH, -1);
+        }
+    }
+
+    /**
+     * Record an execution.
+     *
+     * @param success     {@code false} when execution failed
+     * @param elapsedTime elapsed time of the execution
+     * @param unit        time unit of elapsed time
+     */
+    public void mark(boolean success, long elapsedTime, TimeUnit unit) {
+        final long epoch = currentEpoch();
+        final int base = (int) (epoch % this.bucketCount) * STRIDE;
+
+        final long bucketEpoch = this.buckets.get(base + EPOCH);
+        if (bucketEpoch != epoch && this.buckets.compareAndSet(base + EPOCH, bucketEpoch, epoch)) {
+            // recycle stale bucket
+            this.buckets.set(base + COUNT, 0);
+            this.buckets.set(base + ERRORS, 0);
+            this.buckets.set(base + TIME_IN_NANOS, 0);
+        }
+
+        this.buckets.incrementAndGet(base + COUNT);
+        if (!success) {
+            this.buckets.incrementAndGet(base + ERRORS);
+        }
+        this.buckets.addAndGet(base + TIME_IN_NANOS, unit.toNanos(elapsedTime));
+    }
+
+    /**
+     * @param window length of the window. Capped by max window of this meter.
+     * @param unit   time unit of the window
+     * @return aggregated values of the window ending now
+     */
+    public Window getWindow(long window, TimeUnit unit) {
+        final long elapsedSinceOrigin = this.ticker.read() - this.origin;
+        final long epoch = elapsedSinceOrigin / this.bucketNanos;
+        final int windowBuckets = (int) Math.min(this.bucketCount - 1,
+                Math.max(1, (unit.toNanos(window) + this.bucketNanos - 1) / this.bucketNanos));
+        final long oldestEpoch = epoch - windowBuckets + 1;
+
+        long count = 0;
+        long errors = 0;
+        long time = 0;
+        for (int i = 0; i < this.bucketCount; i++) {
+            final int base = i * STRIDE;
+            final long bucketEpoch = this.buckets.get(base + EPOCH);
+            if (bucketEpoch >= oldestEpoch && bucketEpoch <= epoch) {
+                count += this.buckets.get(base + COUNT);
+                errors += this.buckets.get(base + ERRORS);
+                time += this.buckets.get(base + TIME_IN_NANOS);
+            }
+        }
+
+        // full buckets in the window plus elapsed part of the current bucket
+        final long duration = (windowBuckets - 1) * this.bucketNanos + elapsedSinceOrigin % this.bucketNanos;
+        return new Window(count, errors, time, Math.min(duration, elapsedSinceOrigin));
+    }
+
+    public Window getOneMinuteWindow() {
+        return getWindow(1, TimeUnit.MINUTES);
+    }
+
+    public Window getFiveMinuteWindow() {
+        return getWindow(5, TimeUnit.MINUTES);
+    }
+
+    public Window getFifteenMinuteWindow() {
+        return getWindow(15, TimeUnit.MINUTES);
+    }
+
+    private long currentEpoch() {
+        return (this.ticker.read() - this.origin) / this.bucketNanos;
+    }
+
+}
@@ -0,0 +1,85 @@
+package net.ttddyy.dsproxy;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread-safe {@code long} counter that spreads updates over multiple cells to reduce contention.
+ *
+ * <p>Similar to {@code java.util.concurrent.atomic.LongAdder} which is not available in Java 6. A thread updates
+ * the cell selected by its id; cells are padded to avoid false sharing. Reading the value sums all cells, so
+ * {@link #sum()} is not an atomic snapshot while updates are in progress.
+ *
+ * @author Tadaya Tsuyukubo
+ * @see GlobalQueryCount
+ * @since 1.4
+ */
+public final class StripedCounter {
+
+    private static final int PADDING = 8;  // 8 longs = 64 bytes, typical cache line size
+    private static final int STRIPES = getStripeCount(Runtime.getRuntime().availableProcessors() * 2, 64);
+
+    /**
+     * @param target desired number of stripes
+     * @param max    upper limit, power of two
+     * @return smallest power of two that is not less than target, up to max
+     */
+    static int getStripeCount(int target, int max) {
+        int stripes = 1;
+        while (stripes < target && stripes < max) {
+            stripes <<= 1;
+        }
+        return stripes;
+    }
+
+    /**
+     * @param stripes number of stripes, power of two
+     * @return stripe for the current thread
+     */
+    static int getStripeIndex(int stripes) {
+        final long id = Thread.currentThread().getId();
+        return (int) (id ^ (id >>> 16)) & (stripes - 1);
+    }
+
+    private final AtomicLongArray cells = new AtomicLongArray(STRIPES * PADDING);
+
+    public void increment() {
+        add(1);
+    }
+
+    public void add(long delta) {
+        this.cells.getAndAdd(getStripeIndex(STRIPES) * PADDING, delta);
+    }
+
+    public long sum() {
+        long sum = 0;
+        for (int i = 0; i < STRIPES; i++) {
+            sum += this.cells.get(i * PADDING);
+        }
+        return sum;
+    }
+
+    /**
+     * Returns current sum and resets each cell to zero. Updates made during the call are either included in the
+     * returned value or kept for the next read.
+     *
+     * @return sum before reset
+     */
+    public long sumThenReset() {
+        long sum = 0;
+        for (int i = 0; i < STRIPES; i++) {
+            sum += this.cells.getAndSet(i * PADDING, 0);
+        }
+        return sum;
+    }
+
+    public void reset() {
+        for (int i = 0; i < STRIPES; i++) {
+            this.cells.set(i * PADDING, 0);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return Long.toString(sum());
+    }
+}
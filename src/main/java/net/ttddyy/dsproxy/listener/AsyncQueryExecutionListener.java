@@ -0,0 +1,340 @@
+package net.ttddyy.dsproxy.listener;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Run a listener on a background thread instead of the thread executing queries.
+ *
+ * <p>{@link ExecutionInfo} and {@link QueryInfo} are copied when callbacks are received, and the copies are handed to
+ * a pre-allocated bounded ring buffer. A single consumer thread takes them in order and calls the wrapped listener.
+ * The same {@link ExecutionInfo} copy is passed to {@code beforeQuery} and {@code afterQuery} of an execution, so
+ * custom values set by the wrapped listener are carried from before to after. While the buffer is empty, the consumer
+ * thread parks until a producer publishes an event.
+ *
+ * <p>The consumer thread is started by {@link #start()}. Events published before that wait in the buffer.
+ *
+ * <p>When the buffer is full, {@link OverflowPolicy} decides what happens to a new event. Events that are not
+ * delivered are counted in {@link #getDroppedCount()}. {@link OverflowPolicy#BLOCK} drops the event instead of waiting
+ * when the consumer thread is not running.
+ *
+ * <p>Method arguments, result and {@link java.sql.Statement} in the copied {@link ExecutionInfo} are shared with the
+ * original. They may already be closed or reused when the wrapped listener is called.
+ *
+ * <pre>
+ * AsyncQueryExecutionListener listener = new AsyncQueryExecutionListener(new SLF4JQueryLoggingListener());
+ * listener.start();
+ * DataSource ds = ProxyDataSourceBuilder.create(actual).listener(listener).build();
+ * ...
+ * listener.shutdown();
+ * listener.awaitTermination(10, TimeUnit.SECONDS);
+ * </pre>
+ *
+ * @author Tadaya Tsuyukubo
+ * @since 1.4
+ */
+public class AsyncQueryExecutionListener implements QueryExecutionListener, ListenerCapabilities {
+
+    /**
+     * Behavior when the buffer is full.
+     */
+    public enum OverflowPolicy {
+        /**
+         * Drop new events.
+         */
+        DROP,
+        /**
+         * Wait until the consumer makes room.
+         */
+        BLOCK,
+        /**
+         * Once the buffer is half full, accept only one out of {@link AsyncQueryExecutionListener#getSampleRate()}
+         * events. Drop new events when it is full.
+         */
+        SAMPLE
+    }
+
+    public static final int DEFAULT_BUFFER_SIZE = 8192;
+    public static final int DEFAULT_SAMPLE_RATE = 10;
+
+    private static final Logger logger = Logger.getLogger(AsyncQueryExecutionListener.class.getName());
+    private static final AtomicInteger threadNumber = new AtomicInteger();
+    private static final int SPIN_TRIES = 100;
+    private static final long PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);  // producers waiting for room
+
+    private final QueryExecutionListener delegate;
+    private final int capabilities;
+    private final OverflowPolicy overflowPolicy;
+    private final MpscRingBuffer<Event> buffer;
+    private final int sampleThreshold;
+    private final String executionInfoKey;
+    private final Thread consumer;
+    private final AtomicBoolean started = new AtomicBoolean();
+    private volatile int sampleRate = DEFAULT_SAMPLE_RATE;
+    private volatile boolean shutdown;
+    private volatile boolean consumerWaiting;
+
+    private final AtomicLong sampleCounter = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final AtomicLong processedCount = new AtomicLong();
+
+    public AsyncQueryExecutionListener(QueryExecutionListener delegate) {
+        this(delegate, DEFAULT_BUFFER_SIZE, OverflowPolicy.DROP);
+    }
+
+    /**
+     * @param delegate       listener to run on the consumer thread
+     * @param bufferSize     number of events the buffer can hold, rounded up to a power of two (at least two)
+     * @param overflowPolicy behavior when the buffer is full
+     */
+    public AsyncQueryExecutionListener(QueryExecutionListener delegate, int bufferSize, OverflowPolicy overflowPolicy) {
+        this.delegate = delegate;
+        if (delegate instanceof ListenerCapabilities) {
+            this.capabilities = ((ListenerCapabilities) delegate).getCapabilities();
+        } else {
+            this.capabilities = ALL;
+        }
+        this.overflowPolicy = overflowPolicy;
+        this.buffer = new MpscRingBuffer<Event>(bufferSize);
+        this.sampleThreshold = this.buffer.getCapacity() / 2;
+        this.executionInfoKey = getClass().getName() + "@" + System.identityHashCode(this);
+
+        this.consumer = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                consume();
+            }
+        }, "datasource-proxy-async-listener-" + threadNumber.incrementAndGet());
+        this.consumer.setDaemon(true);
+    }
+
+    /**
+     * Start the consumer thread. Calling it more than once has no effect.
+     */
+    public void start() {
+        if (this.started.compareAndSet(false, true)) {
+            this.consumer.start();
+        }
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        if ((this.capabilities & BEFORE_QUERY) == 0) {
+            return;
+        }
+        final ExecutionInfo copy = new ExecutionInfo(execInfo);
+        if (publish(new Event(true, copy, copyQueryInfoList(queryInfoList), null))) {
+            execInfo.addCustomValue(this.executionInfoKey, copy);
+        }
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        if ((this.capabilities & AFTER_QUERY) == 0) {
+            return;
+        }
+        final ExecutionInfo beforeCopy = execInfo.getCustomValue(this.executionInfoKey, ExecutionInfo.class);
+        publish(new Event(false, new ExecutionInfo(execInfo), copyQueryInfoList(queryInfoList), beforeCopy));
+    }
+
+    private List<QueryInfo> copyQueryInfoList(List<QueryInfo> queryInfoList) {
+        final List<QueryInfo> copies = new ArrayList<QueryInfo>(queryInfoList.size());
+        for (QueryInfo queryInfo : queryInfoList) {
+            copies.add(new QueryInfo(queryInfo));
+        }
+        return copies;
+    }
+
+    private boolean publish(Event event) {
+        if (this.shutdown || Thread.currentThread() == this.consumer) {
+            // avoid blocking on itself when wrapped listener executes queries
+            this.droppedCount.incrementAndGet();
+            return false;
+        }
+
+        if (this.overflowPolicy == OverflowPolicy.BLOCK) {
+            while (!this.buffer.offer(event)) {
+                if (this.shutdown || !this.consumer.isAlive()) {
+                    // nobody makes room when the consumer is not started or has died
+                    this.droppedCount.incrementAndGet();
+                    return false;
+                }
+                LockSupport.parkNanos(PARK_NANOS);
+            }
+            signalConsumer();
+            return true;
+        }
+
+        if (this.overflowPolicy == OverflowPolicy.SAMPLE && this.buffer.size() >= this.sampleThreshold
+                && this.sampleCounter.getAndIncrement() % this.sampleRate != 0) {
+            this.droppedCount.incrementAndGet();
+            return false;
+        }
+
+        if (this.buffer.offer(event)) {
+            signalConsumer();
+            return true;
+        }
+        this.droppedCount.incrementAndGet();
+        return false;
+    }
+
+    private void consume() {
+        int idleCount = 0;
+        while (true) {
+            final Event event = this.buffer.poll();
+            if (event != null) {
+                dispatch(event);
+                idleCount = 0;
+            } else if (this.shutdown && this.buffer.isEmpty()) {
+                return;
+            } else if (++idleCount < SPIN_TRIES) {
+                Thread.yield();
+            } else {
+                // announce waiting before checking again, so that a producer publishing after the check unparks it
+                this.consumerWaiting = true;
+                if (this.buffer.isEmpty() && !this.shutdown) {
+                    LockSupport.park(this);
+                }
+                this.consumerWaiting = false;
+            }
+        }
+    }
+
+    private void signalConsumer() {
+        if (this.consumerWaiting) {
+            LockSupport.unpark(this.consumer);
+        }
+    }
+
+    private void dispatch(Event event) {
+        try {
+            if (event.before) {
+                this.delegate.beforeQuery(event.execInfo, event.queryInfoList);
+            } else {
+                ExecutionInfo execInfo = event.execInfo;
+                if (event.beforeExecInfo != null) {
+                    // reuse the instance given to beforeQuery, so that its custom values are available
+                    execInfo = event.beforeExecInfo;
+                    execInfo.setResult(event.execInfo.getResult());
+                    execInfo.setElapsedTime(event.execInfo.getElapsedTime(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+                    execInfo.setStartTime(event.execInfo.getStartTime());
+                    execInfo.setEndTime(event.execInfo.getEndTime());
+                    execInfo.setThrowable(event.execInfo.getThrowable());
+                    execInfo.setSuccess(event.execInfo.isSuccess());
+                }
+                this.delegate.afterQuery(execInfo, event.queryInfoList);
+            }
+        } catch (Throwable e) {
+            // keep consuming, otherwise producers in BLOCK policy would wait forever
+            logger.log(Level.WARNING, "Listener " + this.delegate + " failed", e);
+        }
+        this.processedCount.incrementAndGet();
+    }
+
+    /**
+     * Stop accepting new events. Events already in the buffer are still delivered.
+     */
+    public void shutdown() {
+        this.shutdown = true;
+        LockSupport.unpark(this.consumer);
+    }
+
+    /**
+     * Wait until all events in the buffer are delivered after {@link #shutdown()}.
+     *
+     * @param timeout maximum time to wait
+     * @param unit    time unit of timeout
+     * @return {@code true} if the consumer thread terminated
+     * @throws InterruptedException when interrupted while waiting
+     */
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        this.consumer.join(Math.max(1, unit.toMillis(timeout)));
+        return !this.consumer.isAlive();
+    }
+
+    public boolean isShutdown() {
+        return this.shutdown;
+    }
+
+    /**
+     * @return number of events not delivered to the wrapped listener
+     */
+    public long getDroppedCount() {
+        return this.droppedCount.get();
+    }
+
+    /**
+     * @return number of events delivered to the wrapped listener
+     */
+    public long getProcessedCount() {
+        return this.processedCount.get();
+    }
+
+    /**
+     * @return approximate number of events waiting in the buffer
+     */
+    public int getPendingCount() {
+        return this.buffer.size();
+    }
+
+    public int getBufferSize() {
+        return this.buffer.getCapacity();
+    }
+
+    public OverflowPolicy getOverflowPolicy() {
+        return this.overflowPolicy;
+    }
+
+    public int getSampleRate() {
+        return this.sampleRate;
+    }
+
+    /**
+     * @param sampleRate accept one out of this number of events in {@link OverflowPolicy#SAMPLE}
+     */
+    public void setSampleRate(int sampleRate) {
+        if (sampleRate < 1) {
+            throw new IllegalArgumentException("sampleRate must be positive: " + sampleRate);
+        }
+        this.sampleRate = sampleRate;
+    }
+
+    public QueryExecutionListener getDelegate() {
+        return this.delegate;
+    }
+
+    /**
+     * @return capabilities of the wrapped listener
+     */
+    @Override
+    public int getCapabilities() {
+        return this.capabilities;
+    }
+
+    private static final class Event {
+        private final boolean before;
+        private final ExecutionInfo execInfo;
+        private final List<QueryInfo> queryInfoList;
+        private final ExecutionInfo beforeExecInfo;
+
+        private Event(boolean before, ExecutionInfo execInfo, List<QueryInfo> queryInfoList,
+                      ExecutionInfo beforeExecInfo) {
+            this.before = before;
+            this.execInfo = execInfo;
+            this.queryInfoList = queryInfoList;
+            this.beforeExecInfo = beforeExecInfo;
+        }
+    }
+
+}
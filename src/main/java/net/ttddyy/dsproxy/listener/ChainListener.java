@@ -4,15 +4,22 @@ import net.ttddyy.dsproxy.ExecutionInfo;
 import net.ttddyy.dsproxy.QueryInfo;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
  * Execute chain of listeners.
  *
+ * <p>Capabilities of this listener is the union of the ones declared by the chained listeners. It is computed when
+ * listeners are added or replaced, therefore listeners can only be modified by {@link #addListener} and
+ * {@link #setListeners}.
+ *
  * @author Tadaya Tsuyukubo
+ * @see ListenerCapabilities
  */
-public class ChainListener implements QueryExecutionListener {
+public class ChainListener implements QueryExecutionListener, ListenerCapabilities {
     private List<QueryExecutionListener> listeners = new ArrayList<QueryExecutionListener>();
+    private volatile int capabilities = NONE;
 
     @Override
     public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
@@ -30,13 +37,42 @@ public class ChainListener implements QueryExecutionListener {
 
     public void addListener(QueryExecutionListener listner) {
         this.listeners.add(listner);
+        this.capabilities |= resolveCapabilities(listner);
     }
 
+    /**
+     * @return unmodifiable view of the chained listeners
+     */
     public List<QueryExecutionListener> getListeners() {
-        return listeners;
+        return Collections.unmodifiableList(this.listeners);
     }
 
+    /**
+     * @param listeners listeners to chain. the list is copied.
+     */
     public void setListeners(List<QueryExecutionListener> listeners) {
-        this.listeners = listeners;
+        final List<QueryExecutionListener> copy = new ArrayList<QueryExecutionListener>(listeners);
+        int result = NONE;
+        for (QueryExecutionListener listener : copy) {
+            result |= resolveCapabilities(listener);
+        }
+        this.listeners = copy;
+        this.capabilities = result;
+    }
+
+    /**
+     * @return union of capabilities declared by chained listeners
+     * @since 1.4
+     */
+    @Override
+    public int getCapabilities() {
+        return this.capabilities;
+    }
+
+    private static int resolveCapabilities(QueryExecutionListener listener) {
+        if (listener instanceof ListenerCapabilities) {
+            return ((ListenerCapabilities) listener).getCapabilities();
+        }
+        return ALL;
     }
 }
@@ -0,0 +1,94 @@
+package net.ttddyy.dsproxy.listener;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.SlidingWindowMeter;
+import net.ttddyy.dsproxy.proxy.Ticker;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keep {@link SlidingWindowMeter} per datasource to read current rate, error rate and mean latency of executions.
+ *
+ * <pre>
+ * DataSourceMeterListener meterListener = new DataSourceMeterListener();
+ * builder.listener(meterListener);
+ * ...
+ * double qps = meterListener.getMeter("myDS").getOneMinuteWindow().getRate();
+ * </pre>
+ *
+ * <p>{@code null} datasource name is stored as empty string.
+ *
+ * @author Tadaya Tsuyukubo
+ * @see SlidingWindowMeter
+ * @since 1.4
+ */
+public class DataSourceMeterListener implements QueryExecutionListener, ListenerCapabilities {
+
+    private final ConcurrentMap<String, SlidingWindowMeter> meters = new ConcurrentHashMap<String, SlidingWindowMeter>();
+    private final Ticker ticker;
+
+    public DataSourceMeterListener() {
+        this(Ticker.DEFAULT);
+    }
+
+    public DataSourceMeterListener(Ticker ticker) {
+        this.ticker = ticker;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        final String key = toKey(execInfo.getDataSourceName());
+        SlidingWindowMeter meter = this.meters.get(key);
+        if (meter == null) {
+            final SlidingWindowMeter newMeter = createMeter();
+            meter = this.meters.putIfAbsent(key, newMeter);
+            if (meter == null) {
+                meter = newMeter;
+            }
+        }
+        meter.mark(execInfo.isSuccess(), execInfo.getElapsedTime(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Create a meter for a datasource. Subclass can override to change bucket duration or windows.
+     *
+     * @return a new meter
+     */
+    protected SlidingWindowMeter createMeter() {
+        return new SlidingWindowMeter(this.ticker);
+    }
+
+    /**
+     * @param dataSourceName datasource name
+     * @return meter of the datasource, or {@code null} when nothing has been executed
+     */
+    public SlidingWindowMeter getMeter(String dataSourceName) {
+        return this.meters.get(toKey(dataSourceName));
+    }
+
+    public Set<String> getDataSourceNames() {
+        return Collections.unmodifiableSet(this.meters.keySet());
+    }
+
+    private String toKey(String dataSourceName) {
+        return dataSourceName == null ? "" : dataSourceName;
+    }
+
+    /**
+     * Only needs success flag and elapsed time in after callback.
+     */
+    @Override
+    public int getCapabilities() {
+        return AFTER_QUERY | TIMING;
+    }
+}
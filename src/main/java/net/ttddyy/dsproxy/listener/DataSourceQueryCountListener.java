@@ -1,12 +1,16 @@
 package net.ttddyy.dsproxy.listener;
 
+import net.ttddyy.dsproxy.BatchSummary;
+import net.ttddyy.dsproxy.DataSourceIdRegistry;
 import net.ttddyy.dsproxy.ExecutionInfo;
 import net.ttddyy.dsproxy.QueryCount;
 import net.ttddyy.dsproxy.QueryCountHolder;
 import net.ttddyy.dsproxy.QueryInfo;
 import net.ttddyy.dsproxy.QueryType;
+import net.ttddyy.dsproxy.StatementType;
 
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Update database access information to thread local value({@link net.ttddyy.dsproxy.QueryCount}).
@@ -21,6 +25,8 @@ import java.util.List;
  * <li> number of database call
  * <li> total query execution time
  * <li> number of queries by type
+ * <li> query execution time by query type and statement type
+ * <li> number of affected rows by query type
  * </ul>
  *
  * <p>{@link net.ttddyy.dsproxy.QueryCount} can be retrieved by {@link net.ttddyy.dsproxy.QueryCountHolder#get(String)}.
@@ -32,7 +38,20 @@ import java.util.List;
  * @see net.ttddyy.dsproxy.support.CommonsQueryCountLoggingRequestListener
  * @see net.ttddyy.dsproxy.support.CommonsQueryCountLoggingHandlerInterceptor
  */
-public class DataSourceQueryCountListener implements QueryExecutionListener {
+public class DataSourceQueryCountListener implements QueryExecutionListener, ListenerCapabilities {
+
+    private static final class DataSourceId {
+        private final String name;
+        private final int id;
+
+        private DataSourceId(String name, int id) {
+            this.name = name;
+            this.id = id;
+        }
+    }
+
+    // most recently used datasource. proxies pass the same name instance, so it is compared by reference.
+    private volatile DataSourceId lastDataSourceId = new DataSourceId(null, DataSourceIdRegistry.getId(null));
 
     @Override
     public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
@@ -40,12 +59,12 @@ public class DataSourceQueryCountListener implements QueryExecutionListener {
 
     @Override
     public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
-        final String dataSourceName = execInfo.getDataSourceName();
+        final int dataSourceId = getDataSourceId(execInfo.getDataSourceName());
 
-        QueryCount count = QueryCountHolder.get(dataSourceName);
+        QueryCount count = QueryCountHolder.get(dataSourceId);
         if (count == null) {
             count = new QueryCount();
-            QueryCountHolder.put(dataSourceName, count);
+            QueryCountHolder.put(dataSourceId, count);
         }
 
         // increment db call
@@ -57,19 +76,156 @@ public class DataSourceQueryCountListener implements QueryExecutionListener {
         }
 
         // increment elapsed time
-        final long elapsedTime = execInfo.getElapsedTime();
-        count.incrementTime(elapsedTime);
+        final long elapsedTime = execInfo.getElapsedTime(TimeUnit.NANOSECONDS);
+        count.incrementTime(elapsedTime, TimeUnit.NANOSECONDS);
 
         // increment statement type
         count.increment(execInfo.getStatementType());
+        count.incrementTime(execInfo.getStatementType(), elapsedTime, TimeUnit.NANOSECONDS);
 
-        // increment query count
-        for (QueryInfo queryInfo : queryInfoList) {
-            final String query = queryInfo.getQuery();
-            final QueryType type = QueryUtils.getQueryType(query);
+        // increment query count. time is divided evenly when an execution has multiple queries(statement batch).
+        final int size = queryInfoList.size();
+        final Object result = execInfo.getResult();
+        final BatchSummary batchSummary = size == 0 ? null : queryInfoList.get(0).getBatchSummary();
+        if (batchSummary != null && batchSummary.isTruncated()
+                && execInfo.getStatementType() == StatementType.STATEMENT) {
+            incrementTruncatedStatementBatch(count, batchSummary, queryInfoList, elapsedTime, result);
+            return;
+        }
+        final boolean rowsPerQuery = size > 1 && getUpdateCountLength(result) == size;
+        for (int i = 0; i < size; i++) {
+            final QueryType type = QueryUtils.getQueryType(queryInfoList.get(i).getQuery());
             count.increment(type);
+
+            final long time = elapsedTime / size + (i == 0 ? elapsedTime % size : 0);
+            count.incrementTime(type, time, TimeUnit.NANOSECONDS);
+
+            final long rows;
+            if (rowsPerQuery) {
+                rows = getUpdateCount(result, i);
+            } else {
+                rows = i == 0 ? getTotalUpdateCount(result) : 0;  // whole result belongs to the query
+            }
+            if (rows > 0) {
+                count.incrementRows(type, rows);
+            }
         }
 
     }
 
+    /**
+     * Statement batch whose entries are partially captured. Number of queries by type is taken from the batch summary
+     * so that entries not captured are also counted, and time is divided by the number of entries of each type.
+     * Affected rows of captured entries are counted by their type, and the rest are counted as the most frequent type
+     * among the entries not captured, which is exact when they are all the same type.
+     */
+    private void incrementTruncatedStatementBatch(QueryCount count, BatchSummary batchSummary,
+                                                  List<QueryInfo> queryInfoList, long elapsedTime, Object result) {
+        final int rowCount = batchSummary.getRowCount();
+        final boolean rowsPerEntry = getUpdateCountLength(result) == rowCount;
+
+        // types of captured entries
+        final QueryType[] types = QueryType.values();
+        final int[] uncapturedCounts = new int[types.length];
+        for (int i = 0; i < types.length; i++) {
+            uncapturedCounts[i] = batchSummary.getQueryTypeCount(types[i]);
+        }
+        int captured = 0;
+        for (QueryInfo queryInfo : queryInfoList) {
+            if (queryInfo.getQuery() == null) {
+                continue;  // query info only carrying the summary
+            }
+            final QueryType type = QueryUtils.getQueryType(queryInfo.getQuery());
+            uncapturedCounts[type.ordinal()]--;
+            if (rowsPerEntry) {
+                final long rows = getUpdateCount(result, captured);
+                if (rows > 0) {
+                    count.incrementRows(type, rows);
+                }
+            }
+            captured++;
+        }
+
+        QueryType mostFrequent = QueryType.OTHER;
+        long remainingTime = elapsedTime;
+        for (int i = 0; i < types.length; i++) {
+            final int entries = batchSummary.getQueryTypeCount(types[i]);
+            if (entries > 0) {
+                count.increment(types[i], entries);
+            }
+            final long time = elapsedTime * entries / rowCount;
+            count.incrementTime(types[i], time, TimeUnit.NANOSECONDS);
+            remainingTime -= time;
+            if (uncapturedCounts[i] > uncapturedCounts[mostFrequent.ordinal()]) {
+                mostFrequent = types[i];
+            }
+        }
+        count.incrementTime(mostFrequent, remainingTime, TimeUnit.NANOSECONDS);  // rounding
+
+        long uncapturedRows = 0;
+        if (rowsPerEntry) {
+            for (int i = captured; i < rowCount; i++) {
+                uncapturedRows += getUpdateCount(result, i);
+            }
+        } else {
+            uncapturedRows = getTotalUpdateCount(result);
+        }
+        if (uncapturedRows > 0) {
+            count.incrementRows(mostFrequent, uncapturedRows);
+        }
+    }
+
+    private static int getUpdateCountLength(Object result) {
+        if (result instanceof int[]) {
+            return ((int[]) result).length;
+        } else if (result instanceof long[]) {
+            return ((long[]) result).length;
+        }
+        return -1;
+    }
+
+    private static long getUpdateCount(Object result, int index) {
+        // negative values are SUCCESS_NO_INFO or EXECUTE_FAILED
+        if (result instanceof int[]) {
+            return Math.max(0, ((int[]) result)[index]);
+        }
+        return Math.max(0, ((long[]) result)[index]);
+    }
+
+    private static long getTotalUpdateCount(Object result) {
+        if (result instanceof Integer) {
+            return Math.max(0, (Integer) result);
+        } else if (result instanceof Long) {
+            return Math.max(0, (Long) result);
+        }
+        final int length = getUpdateCountLength(result);
+        long sum = 0;
+        for (int i = 0; i < length; i++) {
+            sum += getUpdateCount(result, i);
+        }
+        return sum;
+    }
+
+    private int getDataSourceId(String dataSourceName) {
+        DataSourceId dataSourceId = this.lastDataSourceId;
+        if (dataSourceId.name != dataSourceName) {
+            dataSourceId = new DataSourceId(dataSourceName, DataSourceIdRegistry.getId(dataSourceName));
+            this.lastDataSourceId = dataSourceId;
+        }
+        return dataSourceId.id;
+    }
+
+    /**
+     * Only needs query, success flag, elapsed time and update counts in after callback.
+     * Subclasses are treated as {@link #ALL} unless they override this method, since they may override callbacks.
+     *
+     * @since 1.4
+     */
+    @Override
+    public int getCapabilities() {
+        if (getClass() != DataSourceQueryCountListener.class) {
+            return ALL;
+        }
+        return AFTER_QUERY | TIMING | RESULT;
+    }
 }
@@ -0,0 +1,82 @@
+package net.ttddyy.dsproxy.listener;
+
+import net.ttddyy.dsproxy.BatchSummary;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.GlobalQueryCount;
+import net.ttddyy.dsproxy.GlobalQueryCountHolder;
+import net.ttddyy.dsproxy.QueryAnalysis;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.QueryType;
+import net.ttddyy.dsproxy.StatementType;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Update application wide database access information({@link net.ttddyy.dsproxy.GlobalQueryCount}).
+ *
+ * <p>While {@link DataSourceQueryCountListener} counts per thread(e.g. per http request), this listener counts
+ * across all threads. Counts can be read from any thread by {@link GlobalQueryCountHolder#get(String)}.
+ *
+ * <p>For a statement batch whose entries are partially captured, number of queries by type is taken from the
+ * {@link BatchSummary} in the same way as {@link DataSourceQueryCountListener}.
+ *
+ * @author Tadaya Tsuyukubo
+ * @see net.ttddyy.dsproxy.GlobalQueryCount
+ * @see net.ttddyy.dsproxy.GlobalQueryCountHolder
+ * @since 1.4
+ */
+public class GlobalQueryCountListener implements QueryExecutionListener, ListenerCapabilities {
+
+    private static final QueryType[] QUERY_TYPES = QueryType.values();
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        final GlobalQueryCount count = GlobalQueryCountHolder.getOrCreate(execInfo.getDataSourceName());
+
+        // increment db call
+        count.incrementTotal();
+        if (execInfo.isSuccess()) {
+            count.incrementSuccess();
+        } else {
+            count.incrementFailure();
+        }
+
+        // increment elapsed time
+        count.incrementTime(execInfo.getElapsedTime(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+
+        // increment statement type
+        count.increment(execInfo.getStatementType());
+
+        // increment query count
+        final BatchSummary batchSummary = queryInfoList.isEmpty() ? null : queryInfoList.get(0).getBatchSummary();
+        if (batchSummary != null && batchSummary.isTruncated()
+                && execInfo.getStatementType() == StatementType.STATEMENT) {
+            // entries not captured are only counted in the summary
+            for (QueryType type : QUERY_TYPES) {
+                final int entries = batchSummary.getQueryTypeCount(type);
+                if (entries > 0) {
+                    count.increment(type, entries);
+                }
+            }
+            return;
+        }
+        for (QueryInfo queryInfo : queryInfoList) {
+            final QueryAnalysis queryAnalysis = queryInfo.getQueryAnalysis();
+            final QueryType type = queryAnalysis == null ? QueryType.OTHER : queryAnalysis.getQueryType();
+            count.increment(type);
+        }
+    }
+
+    /**
+     * Only needs query, success flag and elapsed time in after callback.
+     */
+    @Override
+    public int getCapabilities() {
+        return AFTER_QUERY | TIMING;
+    }
+}
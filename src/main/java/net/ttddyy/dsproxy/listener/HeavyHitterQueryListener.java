@@ -0,0 +1,258 @@
+package net.ttddyy.dsproxy.listener;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryAnalysis;
+import net.ttddyy.dsproxy.QueryInfo;
+
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Track top-N queries by total time, execution count and affected rows with fixed memory.
+ *
+ * <p>Queries are grouped by fingerprint({@link QueryAnalysis#getFingerprint()}). Each metric is tracked by a
+ * space-saving summary that monitors a fixed number of fingerprints, so memory does not grow with the number of
+ * distinct queries. Reported values may be over-estimated by at most {@link HeavyHitter#getError()}.
+ *
+ * <p>Affected rows are taken from update counts returned by {@code executeUpdate} and {@code executeBatch}; queries
+ * returning {@link java.sql.ResultSet} count zero rows.
+ *
+ * <p>Only captured queries are tracked. When {@link net.ttddyy.dsproxy.proxy.BatchCapturePolicy} truncates a
+ * statement batch, queries only counted in {@link net.ttddyy.dsproxy.BatchSummary} are not tracked, and affected rows
+ * of the whole batch are attributed to the first captured query.
+ *
+ * <pre>
+ * HeavyHitterQueryListener listener = new HeavyHitterQueryListener(10);
+ * builder.listener(listener);
+ * listener.schedule(executor, 1, TimeUnit.MINUTES, true, new SnapshotCallback&lt;HeavyHitterQueryListener.Snapshot&gt;() {...});
+ * </pre>
+ *
+ * @author Tadaya Tsuyukubo
+ * @since 1.4
+ */
+public class HeavyHitterQueryListener implements QueryExecutionListener, ListenerCapabilities {
+
+    /**
+     * Monitored fingerprints per top entry. Larger value improves accuracy.
+     */
+    public static final int DEFAULT_CAPACITY_FACTOR = 10;
+
+    /**
+     * Tracked query with its weight.
+     */
+    public static class HeavyHitter {
+        private final long fingerprint;
+        private final String normalizedQuery;
+        private final long value;
+        private final long error;
+
+        public HeavyHitter(long fingerprint, String normalizedQuery, long value, long error) {
+            this.fingerprint = fingerprint;
+            this.normalizedQuery = normalizedQuery;
+            this.value = value;
+            this.error = error;
+        }
+
+        public long getFingerprint() {
+            return fingerprint;
+        }
+
+        public String getNormalizedQuery() {
+            return normalizedQuery;
+        }
+
+        /**
+         * @return estimated total. time is in nanoseconds
+         */
+        public long getValue() {
+            return value;
+        }
+
+        /**
+         * @return max over-estimation of {@link #getValue()}
+         */
+        public long getError() {
+            return error;
+        }
+    }
+
+    /**
+     * Top-N queries at a point in time.
+     */
+    public static class Snapshot {
+        private final List<HeavyHitter> topByTime;
+        private final List<HeavyHitter> topByCount;
+        private final List<HeavyHitter> topByRows;
+
+        public Snapshot(List<HeavyHitter> topByTime, List<HeavyHitter> topByCount, List<HeavyHitter> topByRows) {
+            this.topByTime = topByTime;
+            this.topByCount = topByCount;
+            this.topByRows = topByRows;
+        }
+
+        /**
+         * @return top queries by total elapsed time in nanoseconds
+         */
+        public List<HeavyHitter> getTopByTime() {
+            return topByTime;
+        }
+
+        public List<HeavyHitter> getTopByCount() {
+            return topByCount;
+        }
+
+        public List<HeavyHitter> getTopByRows() {
+            return topByRows;
+        }
+    }
+
+    private final int topN;
+    private final SpaceSavingSummary time;
+    private final SpaceSavingSummary count;
+    private final SpaceSavingSummary rows;
+
+    public HeavyHitterQueryListener(int topN) {
+        this(topN, topN * DEFAULT_CAPACITY_FACTOR);
+    }
+
+    /**
+     * @param topN     number of queries to report
+     * @param capacity number of fingerprints to monitor per metric
+     */
+    public HeavyHitterQueryListener(int topN, int capacity) {
+        if (topN < 1 || capacity < topN) {
+            throw new IllegalArgumentException("topN must be positive and capacity must not be smaller than topN: " +
+                    "topN=" + topN + ", capacity=" + capacity);
+        }
+        this.topN = topN;
+        this.time = new SpaceSavingSummary(capacity);
+        this.count = new SpaceSavingSummary(capacity);
+        this.rows = new SpaceSavingSummary(capacity);
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        final int size = queryInfoList.size();
+        if (size == 0) {
+            return;
+        }
+        final long elapsedTime = execInfo.getElapsedTime(TimeUnit.NANOSECONDS);
+        final Object result = execInfo.getResult();
+
+        // statement batch has an update count per query
+        final boolean rowsPerQuery = size > 1 && result instanceof int[] && ((int[]) result).length == size;
+
+        // resolve analysis outside of the lock, it is kept on query info
+        for (int i = 0; i < size; i++) {
+            queryInfoList.get(i).getQueryAnalysis();
+        }
+
+        synchronized (this) {
+            QueryAnalysis previous = null;
+            for (int i = 0; i < size; i++) {
+                final QueryAnalysis analysis = queryInfoList.get(i).getQueryAnalysis();
+                if (analysis == null) {
+                    continue;
+                }
+                final long fingerprint = analysis.getFingerprint();
+                final String normalizedQuery = analysis.getNormalizedQuery();
+                final boolean sameAsPrevious = previous != null && previous.getFingerprint() == fingerprint;
+                if (!sameAsPrevious) {
+                    // consecutive same queries in a batch are counted as one execution
+                    this.time.add(fingerprint, normalizedQuery, elapsedTime);
+                    this.count.add(fingerprint, normalizedQuery, 1);
+                }
+                final long affectedRows;
+                if (rowsPerQuery) {
+                    affectedRows = Math.max(0, ((int[]) result)[i]);
+                } else {
+                    affectedRows = i == 0 ? getRows(result) : 0;  // whole result belongs to the (first) query
+                }
+                if (affectedRows > 0) {
+                    this.rows.add(fingerprint, normalizedQuery, affectedRows);
+                }
+                previous = analysis;
+            }
+        }
+    }
+
+    private long getRows(Object result) {
+        if (result instanceof Integer) {
+            return Math.max(0, (Integer) result);
+        } else if (result instanceof Long) {
+            return Math.max(0, (Long) result);
+        } else if (result instanceof int[]) {
+            long sum = 0;
+            for (int updateCount : (int[]) result) {
+                sum += Math.max(0, updateCount);  // ignore SUCCESS_NO_INFO(-2) and EXECUTE_FAILED(-3)
+            }
+            return sum;
+        } else if (result instanceof long[]) {
+            long sum = 0;
+            for (long updateCount : (long[]) result) {
+                sum += Math.max(0, updateCount);
+            }
+            return sum;
+        }
+        return 0;
+    }
+
+    public synchronized Snapshot getSnapshot() {
+        return new Snapshot(this.time.getTop(this.topN), this.count.getTop(this.topN), this.rows.getTop(this.topN));
+    }
+
+    /**
+     * Returns current snapshot and starts tracking from scratch.
+     *
+     * @return snapshot before reset
+     */
+    public synchronized Snapshot snapshotAndReset() {
+        final Snapshot snapshot = getSnapshot();
+        clear();
+        return snapshot;
+    }
+
+    public synchronized void clear() {
+        this.time.clear();
+        this.count.clear();
+        this.rows.clear();
+    }
+
+    /**
+     * Publish snapshot periodically.
+     *
+     * @param executor executor to run the task
+     * @param period   period between snapshots
+     * @param unit     time unit of the period
+     * @param reset    {@code true} to reset after each snapshot, so that each snapshot covers one period
+     * @param callback callback to receive snapshots
+     * @return future to cancel the task
+     */
+    public ScheduledFuture<?> schedule(ScheduledExecutorService executor, long period, TimeUnit unit,
+                                       boolean reset, SnapshotCallback<Snapshot> callback) {
+        return new SnapshotTask<Snapshot>(reset, callback) {
+            @Override
+            protected Snapshot snapshot(boolean reset) {
+                return reset ? snapshotAndReset() : getSnapshot();
+            }
+        }.schedule(executor, period, unit);
+    }
+
+    public int getTopN() {
+        return topN;
+    }
+
+    /**
+     * Needs query, elapsed time and update counts in after callback.
+     */
+    @Override
+    public int getCapabilities() {
+        return AFTER_QUERY | TIMING | RESULT;
+    }
+}
@@ -0,0 +1,55 @@
+package net.ttddyy.dsproxy.listener;
+
+/**
+ * Optional interface for {@link QueryExecutionListener} to declare what it consumes.
+ *
+ * <p>Proxy logic skips the work that no registered listener needs. For example, when none of the listeners
+ * declares {@link #PARAMETERS}, parameter values set on {@link java.sql.PreparedStatement} are not captured
+ * (unless a non-default {@link net.ttddyy.dsproxy.transform.ParameterTransformer} is configured), and when
+ * neither {@link #BEFORE_QUERY} nor {@link #AFTER_QUERY} is declared, no {@link net.ttddyy.dsproxy.ExecutionInfo}
+ * or {@link net.ttddyy.dsproxy.QueryInfo} is prepared at all.
+ *
+ * <p>A listener that does not implement this interface is treated as {@link #ALL}.
+ *
+ * @author Tadaya Tsuyukubo
+ * @see ChainListener
+ * @see net.ttddyy.dsproxy.proxy.InterceptorHolder#getListenerCapabilities()
+ * @since 1.4
+ */
+public interface ListenerCapabilities {
+
+    /**
+     * Requires {@link QueryExecutionListener#beforeQuery} callback.
+     */
+    int BEFORE_QUERY = 1;
+
+    /**
+     * Requires {@link QueryExecutionListener#afterQuery} callback.
+     */
+    int AFTER_QUERY = 1 << 1;
+
+    /**
+     * Requires parameter values in {@link net.ttddyy.dsproxy.QueryInfo#getParametersList()}.
+     */
+    int PARAMETERS = 1 << 2;
+
+    /**
+     * Requires {@link net.ttddyy.dsproxy.ExecutionInfo#getResult()}.
+     */
+    int RESULT = 1 << 3;
+
+    /**
+     * Requires execution time in {@link net.ttddyy.dsproxy.ExecutionInfo}.
+     */
+    int TIMING = 1 << 4;
+
+    int NONE = 0;
+
+    int ALL = BEFORE_QUERY | AFTER_QUERY | PARAMETERS | RESULT | TIMING;
+
+    /**
+     * @return bitmask of required capabilities
+     */
+    int getCapabilities();
+
+}
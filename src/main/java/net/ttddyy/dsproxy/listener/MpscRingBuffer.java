@@ -0,0 +1,106 @@
+package net.ttddyy.dsproxy.listener;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded lock-free multi-producer single-consumer queue backed by pre-allocated arrays.
+ *
+ * <p>Each slot has a sequence number. A producer claims a slot by CAS on the tail, stores the element, then publishes
+ * it by advancing the slot sequence. The single consumer reads published slots in order and releases them for the
+ * next lap. No objects are allocated on offer or poll.
+ *
+ * @param <E> element type
+ * @author Tadaya Tsuyukubo
+ * @since 1.4
+ */
+class MpscRingBuffer<E> {
+
+    private final int capacity;
+    private final int mask;
+    private final AtomicReferenceArray<E> elements;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head;  // written only by consumer
+
+    /**
+     * @param requestedCapacity minimum capacity, rounded up to a power of two (at least two)
+     */
+    public MpscRingBuffer(int requestedCapacity) {
+        if (requestedCapacity < 1) {
+            throw new IllegalArgumentException("capacity must be positive: " + requestedCapacity);
+        }
+        // with a single slot, released sequence of a lap equals published sequence of the lap
+        int capacity = Math.max(2, Integer.highestOneBit(requestedCapacity));
+        if (capacity < requestedCapacity) {
+            capacity <<= 1;
+        }
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+        this.elements = new AtomicReferenceArray<E>(capacity);
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            this.sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Insert an element if there is room.
+     *
+     * @param element element to insert
+     * @return {@code false} when the buffer is full
+     */
+    public boolean offer(E element) {
+        while (true) {
+            final long position = this.tail.get();
+            final int index = (int) (position & this.mask);
+            final long diff = this.sequences.get(index) - position;
+            if (diff == 0) {
+                if (this.tail.compareAndSet(position, position + 1)) {
+                    this.elements.lazySet(index, element);
+                    this.sequences.set(index, position + 1);  // publish
+                    return true;
+                }
+            } else if (diff < 0) {
+                return false;  // slot of previous lap is not consumed yet
+            }
+            // other producer claimed the slot, retry
+        }
+    }
+
+    /**
+     * Retrieve and remove the head element. Must be called only from the single consumer thread.
+     *
+     * @return head element or {@code null} when empty
+     */
+    public E poll() {
+        final long position = this.head;
+        final int index = (int) (position & this.mask);
+        if (this.sequences.get(index) != position + 1) {
+            return null;  // not published yet
+        }
+        final E element = this.elements.get(index);
+        this.elements.lazySet(index, null);
+        this.sequences.set(index, position + this.capacity);  // release for next lap
+        this.head = position + 1;
+        return element;
+    }
+
+    /**
+     * @return approximate number of elements
+     */
+    public int size() {
+        final long size = this.tail.get() - this.head;
+        return (int) Math.max(0, Math.min(size, this.capacity));
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public int getCapacity() {
+        return this.capacity;
+    }
+
+}
@@ -11,7 +11,7 @@ import java.util.List;
  * @author Tadaya Tsuyukubo
  * @since 1.2
  */
-public class NoOpQueryExecutionListener implements QueryExecutionListener {
+public class NoOpQueryExecutionListener implements QueryExecutionListener, ListenerCapabilities {
 
     @Override
     public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
@@ -22,4 +22,17 @@ public class NoOpQueryExecutionListener implements QueryExecutionListener {
     public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
         // do nothing
     }
+
+    /**
+     * Subclasses are treated as {@link #ALL} unless they override this method, since they may override callbacks.
+     *
+     * @since 1.4
+     */
+    @Override
+    public int getCapabilities() {
+        if (getClass() != NoOpQueryExecutionListener.class) {
+            return ALL;
+        }
+        return NONE;
+    }
 }
@@ -8,6 +8,11 @@ import java.util.List;
 /**
  * Listener interface. Inject the implementation to proxy handler interceptors.
  *
+ * <p>The same {@link ExecutionInfo} instance is passed to before and after callbacks of an execution.
+ * To reduce allocation, {@code queryInfoList}, {@link QueryInfo} and their parameter lists may be reused by the
+ * proxy for subsequent executions of the same statement. Implementations must not retain them beyond the callback;
+ * copy the values when they are needed later.
+ *
  * @author Tadaya Tsuyukubo
  * @see ChainListener
  * @see net.ttddyy.dsproxy.proxy.jdk.ConnectionInvocationHandler
@@ -0,0 +1,196 @@
+package net.ttddyy.dsproxy.listener;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.LatencyHistogram;
+import net.ttddyy.dsproxy.QueryAnalysis;
+import net.ttddyy.dsproxy.QueryAnalysisCache;
+import net.ttddyy.dsproxy.QueryInfo;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keep latency histogram per query fingerprint({@link QueryAnalysis#getFingerprint()}).
+ *
+ * <p>Queries that differ only by literal values share a histogram. Number of tracked fingerprints is capped by
+ * {@code maxQueries}; once reached, executions of new queries are recorded in a single overflow histogram whose
+ * query is {@link #OVERFLOW_QUERY}.
+ *
+ * <p>Elapsed time of an execution is recorded once for each distinct query in the execution. For example, a batch of
+ * the same query is recorded once.
+ *
+ * <p>Only captured queries are recorded. When {@link net.ttddyy.dsproxy.proxy.BatchCapturePolicy} truncates a
+ * statement batch, queries only counted in {@link net.ttddyy.dsproxy.BatchSummary} do not get their latency recorded.
+ *
+ * @author Tadaya Tsuyukubo
+ * @see LatencyHistogram
+ * @see net.ttddyy.dsproxy.support.DefaultQueryCountLogEntryCreator#getLatencyLogMessage(QueryLatencyListener.QueryLatency)
+ * @since 1.4
+ */
+public class QueryLatencyListener implements QueryExecutionListener, ListenerCapabilities {
+
+    public static final int DEFAULT_MAX_QUERIES = 1000;
+
+    public static final String OVERFLOW_QUERY = "(other queries)";
+
+    /**
+     * Latency of a query.
+     */
+    public static class QueryLatency {
+        private final long fingerprint;
+        private final String normalizedQuery;
+        private final LatencyHistogram.Snapshot snapshot;
+
+        public QueryLatency(long fingerprint, String normalizedQuery, LatencyHistogram.Snapshot snapshot) {
+            this.fingerprint = fingerprint;
+            this.normalizedQuery = normalizedQuery;
+            this.snapshot = snapshot;
+        }
+
+        public long getFingerprint() {
+            return fingerprint;
+        }
+
+        public String getNormalizedQuery() {
+            return normalizedQuery;
+        }
+
+        public LatencyHistogram.Snapshot getSnapshot() {
+            return snapshot;
+        }
+    }
+
+    private static final class Entry {
+        private final String normalizedQuery;
+        private final LatencyHistogram histogram = new LatencyHistogram();
+
+        private Entry(String normalizedQuery) {
+            this.normalizedQuery = normalizedQuery;
+        }
+    }
+
+    private final int maxQueries;
+    private final ConcurrentMap<Long, Entry> entries = new ConcurrentHashMap<Long, Entry>();
+    private final Entry overflow = new Entry(OVERFLOW_QUERY);
+
+    public QueryLatencyListener() {
+        this(DEFAULT_MAX_QUERIES);
+    }
+
+    public QueryLatencyListener(int maxQueries) {
+        if (maxQueries < 1) {
+            throw new IllegalArgumentException("maxQueries must be positive: " + maxQueries);
+        }
+        this.maxQueries = maxQueries;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        final long elapsedTime = execInfo.getElapsedTime(TimeUnit.NANOSECONDS);
+        if (queryInfoList.size() == 1) {
+            record(queryInfoList.get(0), elapsedTime);
+            return;
+        }
+
+        // batch: record once per distinct fingerprint
+        final Set<Long> recorded = new HashSet<Long>();
+        for (QueryInfo queryInfo : queryInfoList) {
+            final QueryAnalysis analysis = queryInfo.getQueryAnalysis();
+            if (analysis != null && recorded.add(analysis.getFingerprint())) {
+                getEntry(analysis).histogram.record(elapsedTime, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    private void record(QueryInfo queryInfo, long elapsedTime) {
+        final QueryAnalysis analysis = queryInfo.getQueryAnalysis();
+        if (analysis != null) {
+            getEntry(analysis).histogram.record(elapsedTime, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Entry getEntry(QueryAnalysis analysis) {
+        final Long key = analysis.getFingerprint();
+        Entry entry = this.entries.get(key);
+        if (entry != null) {
+            return entry;
+        }
+        if (this.entries.size() >= this.maxQueries) {
+            return this.overflow;
+        }
+        final Entry newEntry = new Entry(analysis.getNormalizedQuery());
+        entry = this.entries.putIfAbsent(key, newEntry);
+        return entry != null ? entry : newEntry;
+    }
+
+    /**
+     * @return latencies of tracked queries, ordered by descending total time. Overflow is included when recorded.
+     */
+    public List<QueryLatency> getLatencies() {
+        final List<QueryLatency> latencies = new ArrayList<QueryLatency>(this.entries.size() + 1);
+        for (Map.Entry<Long, Entry> mapEntry : this.entries.entrySet()) {
+            final Entry entry = mapEntry.getValue();
+            latencies.add(new QueryLatency(mapEntry.getKey(), entry.normalizedQuery, entry.histogram.snapshot()));
+        }
+        if (this.overflow.histogram.getCount() > 0) {
+            latencies.add(new QueryLatency(0, OVERFLOW_QUERY, this.overflow.histogram.snapshot()));
+        }
+        Collections.sort(latencies, new Comparator<QueryLatency>() {
+            @Override
+            public int compare(QueryLatency left, QueryLatency right) {
+                final long leftTotal = left.snapshot.getMean(TimeUnit.MICROSECONDS) * left.snapshot.getCount();
+                final long rightTotal = right.snapshot.getMean(TimeUnit.MICROSECONDS) * right.snapshot.getCount();
+                return leftTotal < rightTotal ? 1 : (leftTotal == rightTotal ? 0 : -1);
+            }
+        });
+        return latencies;
+    }
+
+    /**
+     * @param query a query
+     * @return latency of the query, or {@code null} when it is not tracked
+     */
+    public QueryLatency getLatency(String query) {
+        final QueryAnalysis analysis = QueryAnalysisCache.getDefault().get(query);
+        if (analysis == null) {
+            return null;
+        }
+        final Entry entry = this.entries.get(analysis.getFingerprint());
+        if (entry == null) {
+            return null;
+        }
+        return new QueryLatency(analysis.getFingerprint(), entry.normalizedQuery, entry.histogram.snapshot());
+    }
+
+    /**
+     * Remove all tracked queries.
+     */
+    public void clear() {
+        this.entries.clear();
+        this.overflow.histogram.reset();
+    }
+
+    public int getMaxQueries() {
+        return maxQueries;
+    }
+
+    /**
+     * Only needs query and elapsed time in after callback.
+     */
+    @Override
+    public int getCapabilities() {
+        return AFTER_QUERY | TIMING;
+    }
+}
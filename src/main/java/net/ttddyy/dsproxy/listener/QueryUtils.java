@@ -16,40 +16,306 @@ public class QueryUtils {
     /**
      * Returns type of query from given query string.
      *
+     * <p>Query is scanned once without creating intermediate strings. Leading whitespaces, comments, parentheses and
+     * JDBC escape({@code {call ...}}, {@code {? = call ...}}) are skipped and the first keyword determines the type.
+     * For {@code WITH} queries, the keyword of the main statement after common table expressions is used.
+     *
      * @param query a query string
      * @return type of query
      * @since 1.4
      */
     public static QueryType getQueryType(String query) {
-
-        final String trimmedQuery = removeCommentAndWhiteSpace(query);
-        if (trimmedQuery == null || trimmedQuery.length() < 1) {
+        if (query == null) {
             return QueryType.OTHER;
         }
 
-        final char firstChar = trimmedQuery.charAt(0);
-        final QueryType type;
-        switch (firstChar) {
+        final int length = query.length();
+        int pos = skipWhitespaceAndComments(query, 0);
+
+        // leading parentheses. e.g.: "(select ...) union (select ...)"
+        while (pos < length && query.charAt(pos) == '(') {
+            pos = skipWhitespaceAndComments(query, pos + 1);
+        }
+
+        // jdbc escape syntax. e.g.: "{call proc(?)}", "{? = call func(?)}"
+        if (pos < length && query.charAt(pos) == '{') {
+            pos = skipWhitespaceAndComments(query, pos + 1);
+            if (pos < length && query.charAt(pos) == '?') {
+                pos = skipWhitespaceAndComments(query, pos + 1);
+            }
+            if (pos < length && query.charAt(pos) == '=') {
+                pos = skipWhitespaceAndComments(query, pos + 1);
+            }
+        }
+
+        final int end = findWordEnd(query, pos);
+        if (isKeyword(query, pos, end, "WITH")) {
+            return getMainStatementTypeOfWith(query, end);
+        }
+        return getQueryTypeByKeyword(query, pos, end);
+    }
+
+    /**
+     * Returns normalized form of the query to group queries that differ only by literal values.
+     *
+     * <ul>
+     * <li>comments are removed and consecutive whitespaces are collapsed into a single space
+     * <li>string and numeric literals are replaced with {@code ?}
+     * <li>list of placeholders is collapsed. e.g.: {@code in (?, ?, ?)} becomes {@code in (?)}
+     * <li>unquoted words are lower cased; quoted identifiers are kept as is
+     * </ul>
+     *
+     * @param query a query string
+     * @return normalized query, or {@code null} when query is {@code null}
+     * @since 1.4
+     */
+    public static String normalizeQuery(String query) {
+        if (query == null) {
+            return null;
+        }
+
+        final int length = query.length();
+        final StringBuilder sb = new StringBuilder(length);
+        int pos = skipWhitespaceAndComments(query, 0);
+        while (pos < length) {
+            final char c = query.charAt(pos);
+            final int next;
+            if (Character.isWhitespace(c) || isCommentStart(query, pos)) {
+                next = skipWhitespaceAndComments(query, pos);
+                if (next < length) {
+                    sb.append(' ');
+                }
+            } else if (c == '\'') {
+                next = skipQuoted(query, pos, c);
+                appendPlaceholder(sb);
+            } else if (c == '"' || c == '`') {
+                next = skipQuoted(query, pos, c);
+                sb.append(query, pos, next);
+            } else if (c == '?') {
+                next = pos + 1;
+                appendPlaceholder(sb);
+            } else if (c >= '0' && c <= '9') {
+                next = findNumberEnd(query, pos);
+                appendPlaceholder(sb);
+            } else if (isWordChar(c)) {
+                next = findWordEnd(query, pos);
+                for (int i = pos; i < next; i++) {
+                    sb.append(Character.toLowerCase(query.charAt(i)));
+                }
+            } else {
+                next = pos + 1;
+                sb.append(c);
+            }
+            pos = next;
+        }
+        return sb.toString();
+    }
+
+    private static void appendPlaceholder(StringBuilder sb) {
+        // collapse "?, ?" into "?"
+        int end = sb.length();
+        if (end > 0 && sb.charAt(end - 1) == ' ') {
+            end--;
+        }
+        if (end > 1 && sb.charAt(end - 1) == ',' && sb.charAt(end - 2) == '?') {
+            sb.setLength(end - 1);
+            return;
+        }
+        sb.append('?');
+    }
+
+    private static int findNumberEnd(String query, int pos) {
+        final int length = query.length();
+        while (pos < length) {
+            final char c = query.charAt(pos);
+            if (isWordChar(c) || c == '.') {
+                pos++;
+            } else if ((c == '+' || c == '-') && (query.charAt(pos - 1) == 'e' || query.charAt(pos - 1) == 'E')) {
+                pos++;  // exponent. e.g.: 1e-3
+            } else {
+                break;
+            }
+        }
+        return pos;
+    }
+
+    private static boolean isCommentStart(String query, int pos) {
+        if (pos + 1 >= query.length()) {
+            return false;
+        }
+        final char c = query.charAt(pos);
+        final char next = query.charAt(pos + 1);
+        return (c == '-' && next == '-') || (c == '/' && next == '*');
+    }
+
+    private static QueryType getQueryTypeByKeyword(String query, int start, int end) {
+        final int keywordLength = end - start;
+        if (keywordLength < 4) {
+            return QueryType.OTHER;  // shortest keyword is 4 chars("CALL", "DROP", "EXEC")
+        }
+
+        switch (query.charAt(start)) {
             case 'S':
             case 's':
-                type = QueryType.SELECT;
+                if (isKeyword(query, start, end, "SELECT")) {
+                    return QueryType.SELECT;
+                }
                 break;
             case 'I':
             case 'i':
-                type = QueryType.INSERT;
+                if (isKeyword(query, start, end, "INSERT")) {
+                    return QueryType.INSERT;
+                }
                 break;
             case 'U':
             case 'u':
-                type = QueryType.UPDATE;
+                if (isKeyword(query, start, end, "UPDATE")) {
+                    return QueryType.UPDATE;
+                }
                 break;
             case 'D':
             case 'd':
-                type = QueryType.DELETE;
+                if (isKeyword(query, start, end, "DELETE")) {
+                    return QueryType.DELETE;
+                } else if (isKeyword(query, start, end, "DROP")) {
+                    return QueryType.DDL;
+                }
+                break;
+            case 'M':
+            case 'm':
+                if (isKeyword(query, start, end, "MERGE")) {
+                    return QueryType.MERGE;
+                }
+                break;
+            case 'C':
+            case 'c':
+                if (isKeyword(query, start, end, "CALL")) {
+                    return QueryType.CALL;
+                } else if (isKeyword(query, start, end, "CREATE")) {
+                    return QueryType.DDL;
+                }
+                break;
+            case 'E':
+            case 'e':
+                if (isKeyword(query, start, end, "EXEC") || isKeyword(query, start, end, "EXECUTE")) {
+                    return QueryType.CALL;
+                }
+                break;
+            case 'R':
+            case 'r':
+                if (isKeyword(query, start, end, "REPLACE")) {
+                    return QueryType.REPLACE;
+                } else if (isKeyword(query, start, end, "RENAME")) {
+                    return QueryType.DDL;
+                }
+                break;
+            case 'A':
+            case 'a':
+                if (isKeyword(query, start, end, "ALTER")) {
+                    return QueryType.DDL;
+                }
+                break;
+            case 'T':
+            case 't':
+                if (isKeyword(query, start, end, "TRUNCATE")) {
+                    return QueryType.DDL;
+                }
                 break;
             default:
-                type = QueryType.OTHER;
+                break;
+        }
+        return QueryType.OTHER;
+    }
+
+    /**
+     * Find the first DML keyword outside of parentheses after {@code WITH}.
+     */
+    private static QueryType getMainStatementTypeOfWith(String query, int pos) {
+        final int length = query.length();
+        int depth = 0;
+        while (pos < length) {
+            pos = skipWhitespaceAndComments(query, pos);
+            if (pos >= length) {
+                break;
+            }
+            final char c = query.charAt(pos);
+            if (c == '(') {
+                depth++;
+                pos++;
+            } else if (c == ')') {
+                depth--;
+                pos++;
+            } else if (c == '\'' || c == '"' || c == '`') {
+                pos = skipQuoted(query, pos, c);
+            } else if (isWordChar(c)) {
+                final int end = findWordEnd(query, pos);
+                if (depth == 0) {
+                    final QueryType type = getQueryTypeByKeyword(query, pos, end);
+                    if (type == QueryType.SELECT || type == QueryType.INSERT || type == QueryType.UPDATE
+                            || type == QueryType.DELETE || type == QueryType.MERGE) {
+                        return type;
+                    }
+                }
+                pos = end;
+            } else {
+                pos++;
+            }
+        }
+        return QueryType.OTHER;
+    }
+
+    private static int skipWhitespaceAndComments(String query, int pos) {
+        final int length = query.length();
+        while (pos < length) {
+            final char c = query.charAt(pos);
+            if (Character.isWhitespace(c)) {
+                pos++;
+            } else if (c == '-' && pos + 1 < length && query.charAt(pos + 1) == '-') {
+                // line comment
+                pos += 2;
+                while (pos < length && query.charAt(pos) != '\n') {
+                    pos++;
+                }
+            } else if (c == '/' && pos + 1 < length && query.charAt(pos + 1) == '*') {
+                // block comment
+                pos = query.indexOf("*/", pos + 2);
+                pos = pos < 0 ? length : pos + 2;
+            } else {
+                break;
+            }
+        }
+        return pos;
+    }
+
+    private static int skipQuoted(String query, int pos, char quote) {
+        final int length = query.length();
+        pos++;
+        while (pos < length) {
+            if (query.charAt(pos++) == quote) {
+                if (pos < length && query.charAt(pos) == quote) {
+                    pos++;  // escaped quote. e.g.: 'it''s'
+                } else {
+                    break;
+                }
+            }
+        }
+        return pos;
+    }
+
+    private static int findWordEnd(String query, int pos) {
+        final int length = query.length();
+        while (pos < length && isWordChar(query.charAt(pos))) {
+            pos++;
         }
-        return type;
+        return pos;
+    }
+
+    private static boolean isWordChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '_';
+    }
+
+    private static boolean isKeyword(String query, int start, int end, String keyword) {
+        return end - start == keyword.length() && query.regionMatches(true, start, keyword, 0, keyword.length());
     }
 
 }
@@ -0,0 +1,144 @@
+package net.ttddyy.dsproxy.listener;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryAnalysis;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.QueryType;
+import net.ttddyy.dsproxy.RepeatedQuery;
+import net.ttddyy.dsproxy.RepeatedQueryHolder;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Detect N+1 selects and inserts/updates not using batch, per request.
+ *
+ * <p>Executions are tracked by query fingerprint in thread local value({@link RepeatedQueryHolder}):
+ * <ul>
+ * <li> {@link RepeatedQuery.Pattern#N_PLUS_ONE}: a select executed with more than select threshold distinct parameters
+ * <li> {@link RepeatedQuery.Pattern#UNBATCHED_WRITE}: an insert or update executed more than write threshold times
+ * without batch({@code executeUpdate} instead of {@code addBatch}/{@code executeBatch})
+ * </ul>
+ *
+ * <p>Up to {@link #setMaxQueries(int)} queries are tracked per request, and distinct parameters are kept only up to
+ * the select threshold, so that memory per request is bounded.
+ *
+ * <p>Same as {@link DataSourceQueryCountListener}, the holder is cleared by
+ * {@link net.ttddyy.dsproxy.support.QueryCounterClearFilter} and query count logging filters, and detected queries
+ * are written by query count logging filters.
+ *
+ * @author Tadaya Tsuyukubo
+ * @see RepeatedQueryHolder
+ * @since 1.4
+ */
+public class RepeatedQueryListener implements QueryExecutionListener, ListenerCapabilities {
+
+    public static final int DEFAULT_SELECT_THRESHOLD = 10;
+    public static final int DEFAULT_WRITE_THRESHOLD = 10;
+    public static final int DEFAULT_MAX_QUERIES = 256;
+
+    private int selectThreshold = DEFAULT_SELECT_THRESHOLD;
+    private int writeThreshold = DEFAULT_WRITE_THRESHOLD;
+    private int maxQueries = DEFAULT_MAX_QUERIES;
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        if (execInfo.isBatch()) {
+            return;  // batch is the expected way for repeated writes
+        }
+        final long elapsedTime = execInfo.getElapsedTime(TimeUnit.NANOSECONDS);
+        for (QueryInfo queryInfo : queryInfoList) {
+            final QueryAnalysis queryAnalysis = queryInfo.getQueryAnalysis();
+            if (queryAnalysis == null) {
+                continue;
+            }
+            final QueryType type = queryAnalysis.getQueryType();
+            final RepeatedQuery.Pattern pattern;
+            if (type == QueryType.SELECT) {
+                pattern = RepeatedQuery.Pattern.N_PLUS_ONE;
+            } else if (type == QueryType.INSERT || type == QueryType.UPDATE) {
+                pattern = RepeatedQuery.Pattern.UNBATCHED_WRITE;
+            } else {
+                continue;
+            }
+
+            RepeatedQuery repeatedQuery = RepeatedQueryHolder.get(queryAnalysis.getFingerprint());
+            if (repeatedQuery == null) {
+                if (RepeatedQueryHolder.size() >= this.maxQueries) {
+                    continue;
+                }
+                repeatedQuery = new RepeatedQuery(pattern, queryAnalysis.getFingerprint(),
+                        queryAnalysis.getNormalizedQuery());
+                RepeatedQueryHolder.put(repeatedQuery);
+            }
+            repeatedQuery.increment(elapsedTime, TimeUnit.NANOSECONDS);
+
+            if (pattern == RepeatedQuery.Pattern.N_PLUS_ONE) {
+                repeatedQuery.addParameters(getParametersHash(queryInfo), this.selectThreshold + 1);
+                if (repeatedQuery.getDistinctParameters() > this.selectThreshold) {
+                    repeatedQuery.setDetected(true);
+                }
+            } else if (repeatedQuery.getCount() > this.writeThreshold) {
+                repeatedQuery.setDetected(true);
+            }
+        }
+    }
+
+    private static int getParametersHash(QueryInfo queryInfo) {
+        // literals are part of the query for statement
+        int hash = queryInfo.getQuery().hashCode();
+        for (List<ParameterSetOperation> parameters : queryInfo.getParametersList()) {
+            for (ParameterSetOperation parameter : parameters) {
+                hash = 31 * hash + Arrays.deepHashCode(parameter.getArgs());
+            }
+        }
+        return hash;
+    }
+
+    public int getSelectThreshold() {
+        return selectThreshold;
+    }
+
+    /**
+     * @param selectThreshold select executed with more distinct parameters than this is reported as N+1
+     */
+    public void setSelectThreshold(int selectThreshold) {
+        this.selectThreshold = selectThreshold;
+    }
+
+    public int getWriteThreshold() {
+        return writeThreshold;
+    }
+
+    /**
+     * @param writeThreshold insert or update executed without batch more than this is reported
+     */
+    public void setWriteThreshold(int writeThreshold) {
+        this.writeThreshold = writeThreshold;
+    }
+
+    public int getMaxQueries() {
+        return maxQueries;
+    }
+
+    /**
+     * @param maxQueries maximum number of queries tracked per request
+     */
+    public void setMaxQueries(int maxQueries) {
+        this.maxQueries = maxQueries;
+    }
+
+    /**
+     * Needs query, parameters and elapsed time in after callback.
+     */
+    @Override
+    public int getCapabilities() {
+        return AFTER_QUERY | PARAMETERS | TIMING;
+    }
+}
@@ -0,0 +1,30 @@
+package net.ttddyy.dsproxy.listener;
+
+import java.util.Random;
+
+/**
+ * Probability sampling shared by listeners.
+ *
+ * @author Tadaya Tsuyukubo
+ * @since 1.4
+ */
+public class SamplingUtils {
+
+    // Random per thread to avoid contention on the shared seed
+    private static final ThreadLocal<Random> random = new ThreadLocal<Random>() {
+        @Override
+        protected Random initialValue() {
+            return new Random();
+        }
+    };
+
+    /**
+     * @param rate probability between {@code 0.0} and {@code 1.0}
+     * @return {@code true} when the current event is sampled. Always {@code true} for {@code 1.0} and always
+     * {@code false} for {@code 0.0}
+     */
+    public static boolean isSampled(double rate) {
+        return rate >= 1.0 || (rate > 0 && random.get().nextDouble() < rate);
+    }
+
+}
@@ -0,0 +1,508 @@
+package net.ttddyy.dsproxy.listener;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryAnalysis;
+import net.ttddyy.dsproxy.QueryAnalysisCache;
+import net.ttddyy.dsproxy.QueryInfo;
+import org.codehaus.mojo.animal_sniffer.IgnoreJRERequirement;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Find slow queries and the application code that issued them.
+ *
+ * <p>An execution is slow when its elapsed time is equal to or longer than the threshold. Threshold is looked up by
+ * query fingerprint({@link QueryAnalysis#getFingerprint()}), then by datasource name, then the default one.
+ *
+ * <p>For slow executions only, the call site is found by walking the current stack up to
+ * {@link #setMaxStackDepth(int)} frames and taking the first frame whose class is not in excluded packages
+ * (datasource-proxy, JDK, and well known JDBC drivers and connection pools by default). Stack capture can be sampled by
+ * {@link #setCallSiteSampleRate(double)}; slow executions without capture are recorded with
+ * {@link #NOT_CAPTURED}.
+ *
+ * <p>Capturing the stack is not free. On Java 9 and later, frames are walked by {@code StackWalker}, so only frames
+ * up to the call site are materialized. On earlier runtimes, {@link Throwable#getStackTrace()} materializes the whole
+ * stack regardless of the max stack depth, which can cost tens of microseconds on deep stacks. Only slow executions
+ * capture the stack; use the sample rate when slow executions are frequent.
+ *
+ * <p>Slow executions are aggregated by fingerprint and call site with count, total and max elapsed time. Number of
+ * aggregates is capped by {@link #setMaxEntries(int)}; slow executions of new pairs beyond the cap are counted by
+ * {@link #getDroppedCount()}.
+ *
+ * <pre>
+ * SlowQueryCallSiteListener listener = new SlowQueryCallSiteListener(500, TimeUnit.MILLISECONDS);
+ * listener.setDataSourceThreshold("reportingDS", 5, TimeUnit.SECONDS);
+ * builder.listener(listener);
+ * listener.schedule(executor, 1, TimeUnit.MINUTES, true, new SnapshotCallback&lt;List&lt;SlowQuery&gt;&gt;() {...});
+ * </pre>
+ *
+ * @author Tadaya Tsuyukubo
+ * @since 1.4
+ */
+public class SlowQueryCallSiteListener implements QueryExecutionListener, ListenerCapabilities {
+
+    public static final String UNKNOWN_CALL_SITE = "(unknown)";
+    public static final String NOT_CAPTURED = "(not captured)";
+
+    public static final int DEFAULT_MAX_STACK_DEPTH = 64;
+    public static final int DEFAULT_MAX_ENTRIES = 1000;
+
+    /**
+     * Package(ends with {@code "."}) or class name prefixes skipped when finding the call site.
+     */
+    public static final List<String> DEFAULT_EXCLUDED_PACKAGES = Collections.unmodifiableList(Arrays.asList(
+            "net.ttddyy.dsproxy.",
+            "java.", "javax.", "sun.", "com.sun.", "jdk.", "$Proxy",
+            // JDBC drivers
+            "org.hsqldb.", "org.h2.", "org.apache.derby.", "com.mysql.", "org.mariadb.jdbc.", "org.postgresql.",
+            "oracle.jdbc.", "com.microsoft.sqlserver.", "com.ibm.db2.", "org.sqlite.",
+            // connection pools
+            "com.zaxxer.hikari.", "org.apache.commons.dbcp.", "org.apache.commons.dbcp2.", "org.apache.tomcat.jdbc.",
+            "com.mchange.v2.c3p0.", "com.jolbox.bonecp.", "org.vibur.dbcp."
+    ));
+
+    /**
+     * Slow executions aggregated by fingerprint and call site.
+     */
+    public static class SlowQuery {
+        private final long fingerprint;
+        private final String normalizedQuery;
+        private final String callSite;
+        private final long count;
+        private final long totalTime;
+        private final long maxTime;
+
+        public SlowQuery(long fingerprint, String normalizedQuery, String callSite, long count, long totalTime,
+                         long maxTime) {
+            this.fingerprint = fingerprint;
+            this.normalizedQuery = normalizedQuery;
+            this.callSite = callSite;
+            this.count = count;
+            this.totalTime = totalTime;
+            this.maxTime = maxTime;
+        }
+
+        public long getFingerprint() {
+            return fingerprint;
+        }
+
+        public String getNormalizedQuery() {
+            return normalizedQuery;
+        }
+
+        /**
+         * @return stack frame of the call site such as {@code com.example.Foo.bar(Foo.java:42)}
+         */
+        public String getCallSite() {
+            return callSite;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getTotalTime(TimeUnit unit) {
+            return unit.convert(totalTime, TimeUnit.NANOSECONDS);
+        }
+
+        public long getMaxTime(TimeUnit unit) {
+            return unit.convert(maxTime, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static final Comparator<SlowQuery> BY_TOTAL_TIME = new Comparator<SlowQuery>() {
+        @Override
+        public int compare(SlowQuery left, SlowQuery right) {
+            return left.totalTime > right.totalTime ? -1 : (left.totalTime == right.totalTime ? 0 : 1);
+        }
+    };
+
+    private static final boolean STACK_WALKER_AVAILABLE = isStackWalkerAvailable();
+
+    private final long defaultThresholdInNanos;
+    private volatile long minimumThresholdInNanos;  // updated when thresholds are set
+    private final ConcurrentMap<String, Long> dataSourceThresholds = new ConcurrentHashMap<String, Long>();
+    private final ConcurrentMap<Long, Long> queryThresholds = new ConcurrentHashMap<Long, Long>();
+    private volatile String[] excludedPackages = DEFAULT_EXCLUDED_PACKAGES.toArray(new String[0]);
+    private volatile int maxStackDepth = DEFAULT_MAX_STACK_DEPTH;
+    private volatile int maxEntries = DEFAULT_MAX_ENTRIES;
+    private volatile double callSiteSampleRate = 1.0;
+
+    private volatile ConcurrentMap<Key, Aggregate> aggregates = new ConcurrentHashMap<Key, Aggregate>();
+    private final AtomicLong droppedCount = new AtomicLong();
+
+    /**
+     * @param threshold default threshold
+     * @param unit      time unit of threshold
+     */
+    public SlowQueryCallSiteListener(long threshold, TimeUnit unit) {
+        this.defaultThresholdInNanos = unit.toNanos(threshold);
+        this.minimumThresholdInNanos = this.defaultThresholdInNanos;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        if (queryInfoList.isEmpty()) {
+            return;
+        }
+        final long elapsedTime = execInfo.getElapsedTime(TimeUnit.NANOSECONDS);
+        if (elapsedTime < this.minimumThresholdInNanos) {
+            return;  // cannot be slow, skip query analysis
+        }
+
+        // statement batch is identified by its first query
+        final QueryAnalysis analysis = queryInfoList.get(0).getQueryAnalysis();
+        if (analysis == null) {
+            return;
+        }
+        if (elapsedTime < getThreshold(execInfo.getDataSourceName(), analysis.getFingerprint())) {
+            return;
+        }
+
+        final String callSite = SamplingUtils.isSampled(this.callSiteSampleRate) ? findCallSite() : NOT_CAPTURED;
+        record(analysis, callSite, elapsedTime);
+    }
+
+    private synchronized void updateMinimumThreshold() {
+        long min = this.defaultThresholdInNanos;
+        for (Long threshold : this.dataSourceThresholds.values()) {
+            min = Math.min(min, threshold);
+        }
+        for (Long threshold : this.queryThresholds.values()) {
+            min = Math.min(min, threshold);
+        }
+        this.minimumThresholdInNanos = min;
+    }
+
+    private long getThreshold(String dataSourceName, long fingerprint) {
+        Long threshold = this.queryThresholds.get(fingerprint);
+        if (threshold == null && dataSourceName != null) {
+            threshold = this.dataSourceThresholds.get(dataSourceName);
+        }
+        return threshold == null ? this.defaultThresholdInNanos : threshold;
+    }
+
+    /**
+     * Find the first stack frame outside of excluded packages.
+     *
+     * @return call site, or {@link #UNKNOWN_CALL_SITE} if not found within max stack depth
+     */
+    protected String findCallSite() {
+        final String[] excluded = this.excludedPackages;
+        if (STACK_WALKER_AVAILABLE) {
+            final String callSite = StackWalkerCallSiteFinder.findCallSite(excluded, this.maxStackDepth);
+            if (callSite != null) {
+                return callSite;
+            }
+            // fall back to the stack trace
+        }
+        final StackTraceElement[] stackTrace = new Throwable().getStackTrace();
+        final int depth = Math.min(stackTrace.length, this.maxStackDepth);
+        for (int i = 0; i < depth; i++) {
+            if (!isExcluded(stackTrace[i].getClassName(), excluded)) {
+                return stackTrace[i].toString();
+            }
+        }
+        return UNKNOWN_CALL_SITE;
+    }
+
+    private static boolean isStackWalkerAvailable() {
+        try {
+            Class.forName("java.lang.StackWalker");
+        } catch (ClassNotFoundException ex) {
+            return false;  // before Java 9
+        }
+        return StackWalkerCallSiteFinder.WALK != null;
+    }
+
+    private static boolean isExcluded(String className, String[] excluded) {
+        for (String prefix : excluded) {
+            if (className.startsWith(prefix)) {
+                // package prefix, or the class itself and its nested classes
+                if (prefix.endsWith(".") || className.length() == prefix.length()
+                        || className.charAt(prefix.length()) == '$' || prefix.startsWith("$")) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private void record(QueryAnalysis analysis, String callSite, long elapsedTime) {
+        final ConcurrentMap<Key, Aggregate> map = this.aggregates;
+        final Key key = new Key(analysis.getFingerprint(), callSite);
+        Aggregate aggregate = map.get(key);
+        if (aggregate == null) {
+            if (map.size() >= this.maxEntries) {
+                this.droppedCount.incrementAndGet();
+                return;
+            }
+            final Aggregate created = new Aggregate(analysis.getNormalizedQuery());
+            aggregate = map.putIfAbsent(key, created);
+            if (aggregate == null) {
+                aggregate = created;
+            }
+        }
+        aggregate.add(elapsedTime);
+    }
+
+    /**
+     * @return slow queries ordered by total elapsed time, longest first
+     */
+    public List<SlowQuery> getSlowQueries() {
+        return toSlowQueries(this.aggregates);
+    }
+
+    /**
+     * Returns current slow queries and starts aggregating from scratch.
+     *
+     * @return slow queries before reset
+     */
+    public List<SlowQuery> getSlowQueriesAndReset() {
+        final ConcurrentMap<Key, Aggregate> previous = this.aggregates;
+        this.aggregates = new ConcurrentHashMap<Key, Aggregate>();
+        return toSlowQueries(previous);
+    }
+
+    private List<SlowQuery> toSlowQueries(Map<Key, Aggregate> map) {
+        final List<SlowQuery> result = new ArrayList<SlowQuery>(map.size());
+        for (Map.Entry<Key, Aggregate> entry : map.entrySet()) {
+            final Key key = entry.getKey();
+            final Aggregate aggregate = entry.getValue();
+            result.add(new SlowQuery(key.fingerprint, aggregate.normalizedQuery, key.callSite,
+                    aggregate.count.get(), aggregate.totalTime.get(), aggregate.maxTime.get()));
+        }
+        Collections.sort(result, BY_TOTAL_TIME);
+        return result;
+    }
+
+    public void clear() {
+        this.aggregates = new ConcurrentHashMap<Key, Aggregate>();
+        this.droppedCount.set(0);
+    }
+
+    /**
+     * Publish slow queries periodically.
+     *
+     * @param executor executor to run the task
+     * @param period   period between snapshots
+     * @param unit     time unit of the period
+     * @param reset    {@code true} to reset after each snapshot, so that each snapshot covers one period
+     * @param callback callback to receive slow queries ordered by total elapsed time, longest first
+     * @return future to cancel the task
+     */
+    public ScheduledFuture<?> schedule(ScheduledExecutorService executor, long period, TimeUnit unit,
+                                       boolean reset, SnapshotCallback<List<SlowQuery>> callback) {
+        return new SnapshotTask<List<SlowQuery>>(reset, callback) {
+            @Override
+            protected List<SlowQuery> snapshot(boolean reset) {
+                return reset ? getSlowQueriesAndReset() : getSlowQueries();
+            }
+        }.schedule(executor, period, unit);
+    }
+
+    /**
+     * @param dataSourceName datasource name
+     * @param threshold      threshold for the datasource
+     * @param unit           time unit of threshold
+     */
+    public void setDataSourceThreshold(String dataSourceName, long threshold, TimeUnit unit) {
+        if (dataSourceName == null) {
+            throw new IllegalArgumentException("dataSourceName must not be null");
+        }
+        if (unit == null) {
+            throw new IllegalArgumentException("unit must not be null");
+        }
+        this.dataSourceThresholds.put(dataSourceName, unit.toNanos(threshold));
+        updateMinimumThreshold();
+    }
+
+    /**
+     * @param query     query. Queries with the same fingerprint share the threshold
+     * @param threshold threshold for the query
+     * @param unit      time unit of threshold
+     */
+    public void setQueryThreshold(String query, long threshold, TimeUnit unit) {
+        if (query == null) {
+            throw new IllegalArgumentException("query must not be null");
+        }
+        if (unit == null) {
+            throw new IllegalArgumentException("unit must not be null");
+        }
+        this.queryThresholds.put(QueryAnalysisCache.getDefault().get(query).getFingerprint(), unit.toNanos(threshold));
+        updateMinimumThreshold();
+    }
+
+    /**
+     * @param excludedPackages package(ends with {@code "."}) or class names to skip when finding the call site
+     */
+    public void setExcludedPackages(List<String> excludedPackages) {
+        this.excludedPackages = excludedPackages.toArray(new String[excludedPackages.size()]);
+    }
+
+    public List<String> getExcludedPackages() {
+        return Collections.unmodifiableList(Arrays.asList(this.excludedPackages));
+    }
+
+    public void setMaxStackDepth(int maxStackDepth) {
+        this.maxStackDepth = maxStackDepth;
+    }
+
+    public void setMaxEntries(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * @param callSiteSampleRate probability to capture the call site of a slow execution. Default is {@code 1.0}
+     */
+    public void setCallSiteSampleRate(double callSiteSampleRate) {
+        if (callSiteSampleRate < 0 || callSiteSampleRate > 1) {
+            throw new IllegalArgumentException("callSiteSampleRate must be between 0 and 1: " + callSiteSampleRate);
+        }
+        this.callSiteSampleRate = callSiteSampleRate;
+    }
+
+    /**
+     * @return number of slow executions not aggregated because of {@link #setMaxEntries(int)}
+     */
+    public long getDroppedCount() {
+        return this.droppedCount.get();
+    }
+
+    /**
+     * Needs query and elapsed time in after callback.
+     */
+    @Override
+    public int getCapabilities() {
+        return AFTER_QUERY | TIMING;
+    }
+
+    /**
+     * Walk frames with {@code StackWalker}, which is looked up reflectively to keep running on Java 6.
+     * Loaded only when {@code StackWalker} is available.
+     */
+    @IgnoreJRERequirement
+    private static final class StackWalkerCallSiteFinder {
+        private static final Object WALKER;
+        private static final Method WALK;
+        private static final Method GET_CLASS_NAME;
+        private static final Method TO_STACK_TRACE_ELEMENT;
+
+        static {
+            Object walker = null;
+            Method walk = null;
+            Method getClassName = null;
+            Method toStackTraceElement = null;
+            try {
+                final Class<?> walkerClass = Class.forName("java.lang.StackWalker");
+                final Class<?> frameClass = Class.forName("java.lang.StackWalker$StackFrame");
+                walker = walkerClass.getMethod("getInstance").invoke(null);
+                getClassName = frameClass.getMethod("getClassName");
+                toStackTraceElement = frameClass.getMethod("toStackTraceElement");
+                walk = walkerClass.getMethod("walk", Function.class);
+            } catch (Exception ex) {
+                walk = null;  // fall back to the stack trace
+            }
+            WALKER = walker;
+            WALK = walk;
+            GET_CLASS_NAME = getClassName;
+            TO_STACK_TRACE_ELEMENT = toStackTraceElement;
+        }
+
+        /**
+         * @return call site, {@link #UNKNOWN_CALL_SITE}, or {@code null} when the stack cannot be walked
+         */
+        private static String findCallSite(final String[] excluded, final int maxStackDepth) {
+            try {
+                return (String) WALK.invoke(WALKER, new Function<Stream<?>, String>() {
+                    @Override
+                    public String apply(Stream<?> frames) {
+                        final Iterator<?> iterator = frames.limit(maxStackDepth).iterator();
+                        try {
+                            while (iterator.hasNext()) {
+                                final Object frame = iterator.next();
+                                if (!isExcluded((String) GET_CLASS_NAME.invoke(frame), excluded)) {
+                                    return TO_STACK_TRACE_ELEMENT.invoke(frame).toString();
+                                }
+                            }
+                        } catch (Exception ex) {
+                            return null;
+                        }
+                        return UNKNOWN_CALL_SITE;
+                    }
+                });
+            } catch (Exception ex) {
+                return null;
+            }
+        }
+    }
+
+    private static final class Key {
+        private final long fingerprint;
+        private final String callSite;
+
+        private Key(long fingerprint, String callSite) {
+            this.fingerprint = fingerprint;
+            this.callSite = callSite;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            final Key other = (Key) o;
+            return this.fingerprint == other.fingerprint && this.callSite.equals(other.callSite);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (int) (this.fingerprint ^ (this.fingerprint >>> 32)) + this.callSite.hashCode();
+        }
+    }
+
+    private static final class Aggregate {
+        private final String normalizedQuery;
+        private final AtomicLong count = new AtomicLong();
+        private final AtomicLong totalTime = new AtomicLong();
+        private final AtomicLong maxTime = new AtomicLong();
+
+        private Aggregate(String normalizedQuery) {
+            this.normalizedQuery = normalizedQuery;
+        }
+
+        private void add(long elapsedTime) {
+            this.count.incrementAndGet();
+            this.totalTime.addAndGet(elapsedTime);
+            long max;
+            while (elapsedTime > (max = this.maxTime.get())) {
+                if (this.maxTime.compareAndSet(max, elapsedTime)) {
+                    break;
+                }
+            }
+        }
+    }
+
+}
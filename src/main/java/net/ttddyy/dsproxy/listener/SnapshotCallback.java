@@ -0,0 +1,16 @@
+package net.ttddyy.dsproxy.listener;
+
+/**
+ * Receive snapshots published periodically by a listener.
+ *
+ * @param <T> type of snapshot
+ * @author Tadaya Tsuyukubo
+ * @see HeavyHitterQueryListener#schedule
+ * @see SlowQueryCallSiteListener#schedule
+ * @since 1.4
+ */
+public interface SnapshotCallback<T> {
+
+    void onSnapshot(T snapshot);
+
+}
@@ -0,0 +1,38 @@
+package net.ttddyy.dsproxy.listener;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodic task that takes a snapshot and passes it to {@link SnapshotCallback}.
+ *
+ * @param <T> type of snapshot
+ * @author Tadaya Tsuyukubo
+ * @since 1.4
+ */
+abstract class SnapshotTask<T> implements Runnable {
+
+    private final boolean reset;
+    private final SnapshotCallback<T> callback;
+
+    protected SnapshotTask(boolean reset, SnapshotCallback<T> callback) {
+        this.reset = reset;
+        this.callback = callback;
+    }
+
+    /**
+     * @param reset {@code true} to reset after taking the snapshot
+     * @return snapshot
+     */
+    protected abstract T snapshot(boolean reset);
+
+    @Override
+    public void run() {
+        this.callback.onSnapshot(snapshot(this.reset));
+    }
+
+    public ScheduledFuture<?> schedule(ScheduledExecutorService executor, long period, TimeUnit unit) {
+        return executor.scheduleAtFixedRate(this, period, period, unit);
+    }
+}
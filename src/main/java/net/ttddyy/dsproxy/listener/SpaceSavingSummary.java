@@ -0,0 +1,149 @@
+package net.ttddyy.dsproxy.listener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Weighted space-saving summary to find heavy hitters with fixed memory.
+ *
+ * <p>At most {@code capacity} keys are monitored. When a new key arrives and the summary is full, the key with the
+ * smallest weight is replaced and the new key inherits its weight as over-estimation error. Any key whose true
+ * weight is more than {@code total / capacity} is guaranteed to be monitored.
+ *
+ * <p>Counters are kept in a binary min-heap indexed from the map, so that finding the smallest counter is {@code O(1)}
+ * and adding weight or replacing the smallest is {@code O(log capacity)}. Space-saving variants with {@code O(1)}
+ * updates (Stream-Summary) rely on unit increments, which does not hold for weights such as elapsed time.
+ *
+ * <p>Not thread-safe.
+ *
+ * @author Tadaya Tsuyukubo
+ * @see HeavyHitterQueryListener
+ * @since 1.4
+ */
+class SpaceSavingSummary {
+
+    static final class Counter {
+        private final long key;
+        private final String label;
+        private long weight;
+        private long error;
+        private int index;  // position in the heap
+
+        private Counter(long key, String label, long weight, long error) {
+            this.key = key;
+            this.label = label;
+            this.weight = weight;
+            this.error = error;
+        }
+    }
+
+    private static final Comparator<Counter> WEIGHT_DESC = new Comparator<Counter>() {
+        @Override
+        public int compare(Counter left, Counter right) {
+            return left.weight < right.weight ? 1 : (left.weight == right.weight ? 0 : -1);
+        }
+    };
+
+    private final int capacity;
+    private final Map<Long, Counter> counters;
+    private final Counter[] heap;
+    private int size;
+
+    SpaceSavingSummary(int capacity) {
+        this.capacity = capacity;
+        this.counters = new HashMap<Long, Counter>(capacity * 2);
+        this.heap = new Counter[capacity];
+    }
+
+    void add(long key, String label, long weight) {
+        final Counter counter = this.counters.get(key);
+        if (counter != null) {
+            counter.weight += weight;
+            siftDown(counter.index);  // weight only grows
+            return;
+        }
+        if (this.size < this.capacity) {
+            final Counter added = new Counter(key, label, weight, 0);
+            added.index = this.size;
+            this.heap[this.size++] = added;
+            this.counters.put(key, added);
+            siftUp(added.index);
+            return;
+        }
+
+        // replace the smallest
+        final Counter min = this.heap[0];
+        this.counters.remove(min.key);
+        final Counter replaced = new Counter(key, label, min.weight + weight, min.weight);
+        replaced.index = 0;
+        this.heap[0] = replaced;
+        this.counters.put(key, replaced);
+        siftDown(0);
+    }
+
+    private void siftUp(int index) {
+        final Counter counter = this.heap[index];
+        while (index > 0) {
+            final int parent = (index - 1) >>> 1;
+            if (this.heap[parent].weight <= counter.weight) {
+                break;
+            }
+            place(this.heap[parent], index);
+            index = parent;
+        }
+        place(counter, index);
+    }
+
+    private void siftDown(int index) {
+        final Counter counter = this.heap[index];
+        final int half = this.size >>> 1;
+        while (index < half) {
+            int child = 2 * index + 1;
+            final int right = child + 1;
+            if (right < this.size && this.heap[right].weight < this.heap[child].weight) {
+                child = right;
+            }
+            if (counter.weight <= this.heap[child].weight) {
+                break;
+            }
+            place(this.heap[child], index);
+            index = child;
+        }
+        place(counter, index);
+    }
+
+    private void place(Counter counter, int index) {
+        this.heap[index] = counter;
+        counter.index = index;
+    }
+
+    /**
+     * @param size max number of entries
+     * @return heavy hitters ordered by descending weight
+     */
+    List<HeavyHitterQueryListener.HeavyHitter> getTop(int size) {
+        final List<Counter> sorted = new ArrayList<Counter>(this.counters.values());
+        Collections.sort(sorted, WEIGHT_DESC);
+        final int resultSize = Math.min(size, sorted.size());
+        final List<HeavyHitterQueryListener.HeavyHitter> result =
+                new ArrayList<HeavyHitterQueryListener.HeavyHitter>(resultSize);
+        for (int i = 0; i < resultSize; i++) {
+            final Counter counter = sorted.get(i);
+            result.add(new HeavyHitterQueryListener.HeavyHitter(counter.key, counter.label, counter.weight,
+                    counter.error));
+        }
+        return result;
+    }
+
+    void clear() {
+        this.counters.clear();
+        Arrays.fill(this.heap, 0, this.size, null);
+        this.size = 0;
+    }
+
+}
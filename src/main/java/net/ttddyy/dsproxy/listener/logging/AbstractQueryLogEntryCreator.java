@@ -1,14 +1,17 @@
 package net.ttddyy.dsproxy.listener.logging;
 
+import net.ttddyy.dsproxy.BatchSummary;
+import net.ttddyy.dsproxy.QueryInfo;
 import net.ttddyy.dsproxy.StatementType;
 import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.SortedMap;
-import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
 
 /**
  * @author Tadaya Tsuyukubo
@@ -29,8 +32,29 @@ public abstract class AbstractQueryLogEntryCreator implements QueryLogEntryCreat
         JSON_SPECIAL_CHARS.put('\t', "\\t");   // horizontal tab
     }
 
+    // lookup table of JSON_SPECIAL_CHARS indexed by character
+    private static final String[] JSON_ESCAPE_TABLE = new String[128];
+
+    static {
+        for (Map.Entry<Character, String> entry : JSON_SPECIAL_CHARS.entrySet()) {
+            JSON_ESCAPE_TABLE[entry.getKey()] = entry.getValue();
+        }
+    }
+
+    // do not keep large buffers for reuse
+    private static final int MAX_REUSABLE_BUFFER_CAPACITY = 8192;
+
     protected ParameterValueConverter setNullParameterValueConverter = new SetNullParameterValueConverter();
     protected ParameterValueConverter registerOutParameterValueConverter = new RegisterOutParameterValueConverter();
+    protected TimeUnit timeUnit = TimeUnit.MILLISECONDS;
+
+    private final ThreadLocal<StringBuilder> buffers = new ThreadLocal<StringBuilder>();
+    private final Comparator<ParameterSetOperation> parameterKeyComparator = new Comparator<ParameterSetOperation>() {
+        @Override
+        public int compare(ParameterSetOperation left, ParameterSetOperation right) {
+            return compareParameterKeys(left, right);
+        }
+    };
 
     /**
      * Comparator considering string as integer.
@@ -52,13 +76,60 @@ public abstract class AbstractQueryLogEntryCreator implements QueryLogEntryCreat
                 return 1; // left is greater;
             }
 
-            try {
+            if (isInteger(left) && isInteger(right)) {
                 int leftInt = Integer.parseInt(left);
                 int rightInt = Integer.parseInt(right);
                 return (leftInt < rightInt) ? -1 : ((leftInt == rightInt) ? 0 : 1);
-            } catch (NumberFormatException e) {
-                return left.compareTo(right);  // use String comparison
             }
+            return left.compareTo(right);  // use String comparison
+        }
+
+        // same as what Integer.parseInt accepts, without paying for NumberFormatException on names
+        private static boolean isInteger(String value) {
+            final int length = value.length();
+            final int start = length > 1 && (value.charAt(0) == '-' || value.charAt(0) == '+') ? 1 : 0;
+            if (length == 0 || length - start > 10) {
+                return false;
+            }
+            for (int i = start; i < length; i++) {
+                char c = value.charAt(i);
+                if (c < '0' || c > '9') {
+                    return false;
+                }
+            }
+            if (length - start < 10) {
+                return true;
+            }
+            final long number = Long.parseLong(value);
+            return Integer.MIN_VALUE <= number && number <= Integer.MAX_VALUE;
+        }
+    }
+
+    private static final StringAsIntegerComparator STRING_AS_INTEGER_COMPARATOR = new StringAsIntegerComparator();
+
+    /**
+     * Take a buffer to write a log entry. The buffer is reused by the same thread after {@link #releaseBuffer}.
+     *
+     * @return empty buffer
+     */
+    protected StringBuilder acquireBuffer() {
+        final StringBuilder sb = this.buffers.get();
+        if (sb == null) {
+            return new StringBuilder(256);
+        }
+        this.buffers.set(null);  // nested calls get a new buffer
+        sb.setLength(0);
+        return sb;
+    }
+
+    /**
+     * Return the buffer taken by {@link #acquireBuffer()}.
+     *
+     * @param sb buffer to return
+     */
+    protected void releaseBuffer(StringBuilder sb) {
+        if (sb.capacity() <= MAX_REUSABLE_BUFFER_CAPACITY) {
+            this.buffers.set(sb);
         }
     }
 
@@ -69,6 +140,52 @@ public abstract class AbstractQueryLogEntryCreator implements QueryLogEntryCreat
         }
     }
 
+    /**
+     * Append the string escaping special characters for JSON.
+     *
+     * @param sb    StringBuilder to write
+     * @param input string to escape. {@code "null"} is written when it is {@code null}
+     * @since 1.4
+     */
+    protected void writeEscapedForJson(StringBuilder sb, String input) {
+        if (input == null) {
+            sb.append("null");
+            return;
+        }
+        final int length = input.length();
+        int start = 0;  // beginning of the chunk that does not need escape
+        for (int i = 0; i < length; i++) {
+            final char c = input.charAt(i);
+            final String escaped = c < JSON_ESCAPE_TABLE.length ? JSON_ESCAPE_TABLE[c] : null;
+            if (escaped != null) {
+                sb.append(input, start, i);
+                sb.append(escaped);
+                start = i + 1;
+            }
+        }
+        sb.append(input, start, length);
+    }
+
+    /**
+     * @param input string to escape
+     * @return escaped string. the given string itself when nothing needs escape
+     * @since 1.4
+     */
+    protected String escapeSpecialCharacterForJson(String input) {
+        if (input == null) {
+            return "null";
+        }
+        for (int i = 0; i < input.length(); i++) {
+            final char c = input.charAt(i);
+            if (c < JSON_ESCAPE_TABLE.length && JSON_ESCAPE_TABLE[c] != null) {
+                final StringBuilder sb = new StringBuilder(input.length() + 16);
+                writeEscapedForJson(sb, input);
+                return sb.toString();
+            }
+        }
+        return input;
+    }
+
     protected String getStatementType(StatementType statementType) {
         if (StatementType.STATEMENT.equals(statementType)) {
             return "Statement";
@@ -81,21 +198,66 @@ public abstract class AbstractQueryLogEntryCreator implements QueryLogEntryCreat
     }
 
     /**
-     * populate param map with sorted by key.
+     * Find summary of a batch execution whose entries are partially retained.
+     *
+     * @param queryInfoList query info list
+     * @return batch summary, or {@code null} if all entries are retained
+     * @since 1.4
+     */
+    protected BatchSummary getTruncatedBatchSummary(List<QueryInfo> queryInfoList) {
+        for (QueryInfo queryInfo : queryInfoList) {
+            BatchSummary batchSummary = queryInfo.getBatchSummary();
+            if (batchSummary != null && batchSummary.isTruncated()) {
+                return batchSummary;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Order parameters by index or name. When the same index or name is set more than once, the last one is used.
+     *
+     * <p>Index(int) keys are compared as numbers. Other keys are compared by {@link StringAsIntegerComparator}
+     * on their string representations.
      *
      * @param params list of ParameterSetOperation
-     * @return a map: key=index/name as string,  value=first value
+     * @return the given list when it is already in order, otherwise a new sorted list
      * @since 1.4
      */
-    protected SortedMap<String, String> getParametersToDisplay(List<ParameterSetOperation> params) {
-        // populate param map with sorted by key: key=index/name, value=first value
-        SortedMap<String, String> paramMap = new TreeMap<String, String>(new StringAsIntegerComparator());
-        for (ParameterSetOperation param : params) {
-            String key = getParameterKeyToDisplay(param);
-            String value = getParameterValueToDisplay(param);
-            paramMap.put(key, value);
+    protected List<ParameterSetOperation> getParametersToDisplay(List<ParameterSetOperation> params) {
+        final int size = params.size();
+        boolean ordered = true;
+        for (int i = 1; i < size; i++) {
+            if (compareParameterKeys(params.get(i - 1), params.get(i)) >= 0) {
+                ordered = false;
+                break;
+            }
         }
-        return paramMap;
+        if (ordered) {
+            return params;  // common case, parameters are set in index order
+        }
+
+        final List<ParameterSetOperation> sorted = new ArrayList<ParameterSetOperation>(params);
+        Collections.sort(sorted, this.parameterKeyComparator);  // stable, keeps the setting order for same key
+        final List<ParameterSetOperation> result = new ArrayList<ParameterSetOperation>(size);
+        for (int i = 0; i < size; i++) {
+            if (i + 1 < size && compareParameterKeys(sorted.get(i), sorted.get(i + 1)) == 0) {
+                continue;  // overwritten by later one
+            }
+            result.add(sorted.get(i));
+        }
+        return result;
+    }
+
+    private int compareParameterKeys(ParameterSetOperation left, ParameterSetOperation right) {
+        final Object leftKey = left.getArgs()[0];
+        final Object rightKey = right.getArgs()[0];
+        if (leftKey instanceof Integer && rightKey instanceof Integer) {
+            final int leftInt = (Integer) leftKey;
+            final int rightInt = (Integer) rightKey;
+            return (leftInt < rightInt) ? -1 : ((leftInt == rightInt) ? 0 : 1);
+        }
+        return STRING_AS_INTEGER_COMPARATOR.compare(leftKey.toString(), rightKey.toString());
     }
 
     /**
@@ -166,4 +328,22 @@ public abstract class AbstractQueryLogEntryCreator implements QueryLogEntryCreat
         this.registerOutParameterValueConverter = registerOutParameterValueConverter;
     }
 
+    /**
+     * Set time unit to display elapsed time. Default is {@link TimeUnit#MILLISECONDS}.
+     *
+     * @param timeUnit time unit
+     * @since 1.4
+     */
+    public void setTimeUnit(TimeUnit timeUnit) {
+        this.timeUnit = timeUnit;
+    }
+
+    /**
+     * @return time unit to display elapsed time
+     * @since 1.4
+     */
+    public TimeUnit getTimeUnit() {
+        return timeUnit;
+    }
+
 }
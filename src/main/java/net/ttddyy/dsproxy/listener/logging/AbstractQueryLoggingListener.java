@@ -2,15 +2,30 @@ package net.ttddyy.dsproxy.listener.logging;
 
 import net.ttddyy.dsproxy.ExecutionInfo;
 import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.ListenerCapabilities;
 import net.ttddyy.dsproxy.listener.QueryExecutionListener;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * @author Tadaya Tsuyukubo
  * @since 1.3
  */
-public abstract class AbstractQueryLoggingListener implements QueryExecutionListener {
+public abstract class AbstractQueryLoggingListener implements QueryExecutionListener, ListenerCapabilities {
+
+    private static final Set<Class<?>> BUILT_IN_LISTENERS = new HashSet<Class<?>>(Arrays.<Class<?>>asList(
+            CommonsQueryLoggingListener.class, JULQueryLoggingListener.class, SLF4JQueryLoggingListener.class,
+            SystemOutQueryLoggingListener.class));
+
+    // resolved once per instance rather than a set lookup on each call
+    private final boolean builtInListener = BUILT_IN_LISTENERS.contains(getClass());
+
+    // subclasses overriding writeLog(String) keep receiving built entries
+    private final boolean lazyLogWritable = isLazyLogWritable(getClass());
 
     protected QueryLogEntryCreator queryLogEntryCreator = new DefaultQueryLogEntryCreator();
     protected boolean writeDataSourceName = true;
@@ -21,16 +36,109 @@ public abstract class AbstractQueryLoggingListener implements QueryExecutionList
 
     @Override
     public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
-        final String entry = getEntry(execInfo, queryInfoList);
-        writeLog(entry);
+        if (!isLogEnabled()) {
+            return;  // skip building the entry
+        }
+        writeLog(execInfo, queryInfoList);
     }
 
     protected String getEntry(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
         return this.queryLogEntryCreator.getLogEntry(execInfo, queryInfoList, this.writeDataSourceName);
     }
 
+    /**
+     * Create a message object that builds the log entry when its {@code toString()} is called for the first time.
+     *
+     * <p>Logging backends that accept message objects can use it to defer building the entry until the message is
+     * actually written.
+     *
+     * @param execInfo      execution info
+     * @param queryInfoList query info list
+     * @return lazily rendered log entry
+     * @since 1.4
+     */
+    protected Object getLazyEntry(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        return new LazyLogEntry(execInfo, queryInfoList);
+    }
+
+    /**
+     * Check whether the logger writes entries at the configured level.
+     *
+     * @return {@code false} to skip building the log entry
+     * @since 1.4
+     */
+    protected boolean isLogEnabled() {
+        return true;
+    }
+
+    /**
+     * Write the log entry for the execution.
+     *
+     * <p>When the class overrides {@link #writeLazyLog(Object)} and no subclass overrides {@link #writeLog(String)}
+     * below it, the lazily rendered entry is passed to {@link #writeLazyLog(Object)}. Otherwise, the entry is built
+     * and passed to {@link #writeLog(String)}.
+     *
+     * <p>Backends may keep the message object and render it later, while the query and parameter values are only
+     * valid during the callback. Therefore, the lazy entry that is not rendered yet copies the values before
+     * returning.
+     *
+     * @param execInfo      execution info
+     * @param queryInfoList query info list
+     * @since 1.4
+     */
+    protected void writeLog(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        if (this.lazyLogWritable) {
+            Object entry = getLazyEntry(execInfo, queryInfoList);
+            writeLazyLog(entry);
+            if (entry instanceof LazyLogEntry) {
+                ((LazyLogEntry) entry).detach();
+            }
+        } else {
+            writeLog(getEntry(execInfo, queryInfoList));
+        }
+    }
+
     protected abstract void writeLog(String message);
 
+    /**
+     * Write the log entry created by {@link #getLazyEntry(ExecutionInfo, List)}.
+     *
+     * <p>Subclasses whose logging backend accepts message objects override this method to pass the entry as is, so
+     * that the backend renders it only when the message is written.
+     *
+     * @param entry lazily rendered log entry
+     * @since 1.4
+     */
+    protected void writeLazyLog(Object entry) {
+        writeLog(entry.toString());
+    }
+
+    private static boolean isLazyLogWritable(Class<?> clazz) {
+        // the closest class declaring either method decides
+        for (Class<?> current = clazz; current != AbstractQueryLoggingListener.class; current = current.getSuperclass()) {
+            try {
+                if (declaresMethod(current, "writeLazyLog", Object.class)) {
+                    return true;
+                }
+                if (declaresMethod(current, "writeLog", String.class)) {
+                    return false;
+                }
+            } catch (SecurityException ex) {
+                return false;  // cannot tell, keep the entry going through writeLog(String)
+            }
+        }
+        return false;
+    }
+
+    private static boolean declaresMethod(Class<?> clazz, String name, Class<?> parameterType) {
+        try {
+            clazz.getDeclaredMethod(name, parameterType);
+            return true;
+        } catch (NoSuchMethodException ex) {
+            return false;
+        }
+    }
+
     /**
      * Specify logger name.
      *
@@ -60,4 +168,50 @@ public abstract class AbstractQueryLoggingListener implements QueryExecutionList
         this.writeDataSourceName = writeDataSourceName;
     }
 
+    /**
+     * Logging listeners write entries in after callback; {@link QueryLogEntryCreator} may use any of the values.
+     * Other subclasses are treated as {@link #ALL} unless they override this method, since they may override
+     * callbacks.
+     *
+     * @since 1.4
+     */
+    @Override
+    public int getCapabilities() {
+        if (!this.builtInListener) {
+            return ALL;
+        }
+        return AFTER_QUERY | PARAMETERS | RESULT | TIMING;
+    }
+
+    private class LazyLogEntry {
+        private volatile ExecutionInfo execInfo;
+        private volatile List<QueryInfo> queryInfoList;
+        private volatile String entry;
+
+        private LazyLogEntry(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            this.execInfo = execInfo;
+            this.queryInfoList = queryInfoList;
+        }
+
+        @Override
+        public String toString() {
+            if (this.entry == null) {
+                this.entry = getEntry(this.execInfo, this.queryInfoList);
+            }
+            return this.entry;
+        }
+
+        private void detach() {
+            if (this.entry != null) {
+                return;
+            }
+            List<QueryInfo> copies = new ArrayList<QueryInfo>(this.queryInfoList.size());
+            for (QueryInfo queryInfo : this.queryInfoList) {
+                copies.add(new QueryInfo(queryInfo));
+            }
+            this.queryInfoList = copies;
+            this.execInfo = new ExecutionInfo(this.execInfo);
+        }
+    }
+
 }
@@ -14,11 +14,26 @@ public class CommonsQueryLoggingListener extends AbstractQueryLoggingListener {
     protected Log log = LogFactory.getLog(CommonsQueryLoggingListener.class);
     protected CommonsLogLevel logLevel = CommonsLogLevel.DEBUG; // default DEBUG
 
+    @Override
+    protected boolean isLogEnabled() {
+        return CommonsLogUtils.isLogEnabled(this.log, this.logLevel);
+    }
+
     @Override
     protected void writeLog(String message) {
         CommonsLogUtils.writeLog(log, this.logLevel, message);
     }
 
+    /**
+     * Pass the entry as a message object, so that the log builds it only when writing the message.
+     *
+     * @since 1.4
+     */
+    @Override
+    protected void writeLazyLog(Object entry) {
+        CommonsLogUtils.writeLog(this.log, this.logLevel, entry);
+    }
+
     public void setLogLevel(CommonsLogLevel logLevel) {
         this.logLevel = logLevel;
     }
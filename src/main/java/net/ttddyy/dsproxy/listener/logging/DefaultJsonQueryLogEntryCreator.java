@@ -1,14 +1,12 @@
 package net.ttddyy.dsproxy.listener.logging;
 
+import net.ttddyy.dsproxy.BatchSummary;
 import net.ttddyy.dsproxy.ExecutionInfo;
 import net.ttddyy.dsproxy.QueryInfo;
 import net.ttddyy.dsproxy.StatementType;
 import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
 
 import java.util.List;
-import java.util.Map;
-import java.util.SortedMap;
-import java.util.TreeMap;
 
 /**
  * @author Tadaya Tsuyukubo
@@ -18,8 +16,26 @@ public class DefaultJsonQueryLogEntryCreator extends AbstractQueryLogEntryCreato
 
     @Override
     public String getLogEntry(ExecutionInfo execInfo, List<QueryInfo> queryInfoList, boolean writeDataSourceName) {
-        StringBuilder sb = new StringBuilder();
+        final StringBuilder sb = acquireBuffer();
+        try {
+            writeLogEntry(sb, execInfo, queryInfoList, writeDataSourceName);
+            return sb.toString();
+        } finally {
+            releaseBuffer(sb);
+        }
+    }
 
+    /**
+     * Write the log entry as json into the given buffer.
+     *
+     * @param sb                  StringBuilder to write
+     * @param execInfo            execution info
+     * @param queryInfoList       query info list
+     * @param writeDataSourceName write datasource name or not
+     * @since 1.4
+     */
+    public void writeLogEntry(StringBuilder sb, ExecutionInfo execInfo, List<QueryInfo> queryInfoList,
+                              boolean writeDataSourceName) {
         sb.append("{");
         if (writeDataSourceName) {
             writeDataSourceNameEntryForJson(sb, execInfo, queryInfoList);
@@ -47,10 +63,11 @@ public class DefaultJsonQueryLogEntryCreator extends AbstractQueryLogEntryCreato
         // Queries
         writeQueriesEntryForJson(sb, execInfo, queryInfoList);
 
-        // Params
-        writeParamsEntryForJson(sb, execInfo, queryInfoList);
+        // BatchSummary
+        writeBatchSummaryEntryForJson(sb, execInfo, queryInfoList);
 
-        return sb.toString();
+        // Params (closes the json object)
+        writeParamsEntryForJson(sb, execInfo, queryInfoList);
     }
 
     /**
@@ -66,7 +83,9 @@ public class DefaultJsonQueryLogEntryCreator extends AbstractQueryLogEntryCreato
     protected void writeDataSourceNameEntryForJson(StringBuilder sb, ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
         String name = execInfo.getDataSourceName();
         sb.append("\"name\":\"");
-        sb.append(name == null ? "" : escapeSpecialCharacterForJson(name));
+        if (name != null) {
+            writeEscapedForJson(sb, name);
+        }
         sb.append("\", ");
     }
 
@@ -82,7 +101,7 @@ public class DefaultJsonQueryLogEntryCreator extends AbstractQueryLogEntryCreato
      */
     protected void writeTimeEntryForJson(StringBuilder sb, ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
         sb.append("\"time\":");
-        sb.append(execInfo.getElapsedTime());
+        sb.append(execInfo.getElapsedTime(this.timeUnit));
         sb.append(", ");
     }
 
@@ -181,8 +200,11 @@ public class DefaultJsonQueryLogEntryCreator extends AbstractQueryLogEntryCreato
     protected void writeQueriesEntryForJson(StringBuilder sb, ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
         sb.append("\"query\":[");
         for (QueryInfo queryInfo : queryInfoList) {
+            if (queryInfo.getQuery() == null && queryInfo.getBatchSummary() != null) {
+                continue;  // only carries the batch summary
+            }
             sb.append("\"");
-            sb.append(escapeSpecialCharacterForJson(queryInfo.getQuery()));
+            writeEscapedForJson(sb, queryInfo.getQuery());
             sb.append("\",");
         }
         chompIfEndWith(sb, ',');
@@ -204,9 +226,8 @@ public class DefaultJsonQueryLogEntryCreator extends AbstractQueryLogEntryCreato
         for (QueryInfo queryInfo : queryInfoList) {
 
             for (List<ParameterSetOperation> parameters : queryInfo.getParametersList()) {
-                Map<String, String> paramMap = getParametersToDisplay(parameters);
                 // parameters per batch
-                writeParamsForSingleEntryForJson(sb, paramMap, execInfo, queryInfoList);
+                writeParamsForSingleEntryForJson(sb, getParametersToDisplay(parameters), execInfo, queryInfoList);
             }
         }
         chompIfEndWith(sb, ',');
@@ -214,35 +235,56 @@ public class DefaultJsonQueryLogEntryCreator extends AbstractQueryLogEntryCreato
         sb.append("}");
     }
 
+    /**
+     * Write batch summary as json when only part of the batch entries are retained.
+     *
+     * <p>default: "batchSummary":{"rowCount":10000,"capturedRowCount":100,"nullCount":3,"totalByteSize":120000},
+     *
+     * @param sb            StringBuilder to write
+     * @param execInfo      execution info
+     * @param queryInfoList query info list
+     * @since 1.4
+     */
+    protected void writeBatchSummaryEntryForJson(StringBuilder sb, ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        BatchSummary batchSummary = getTruncatedBatchSummary(queryInfoList);
+        if (batchSummary == null) {
+            return;
+        }
+        sb.append("\"batchSummary\":{\"rowCount\":");
+        sb.append(batchSummary.getRowCount());
+        sb.append(",\"capturedRowCount\":");
+        sb.append(batchSummary.getCapturedRowCount());
+        sb.append(",\"nullCount\":");
+        sb.append(batchSummary.getNullCount());
+        sb.append(",\"totalByteSize\":");
+        sb.append(batchSummary.getTotalByteSize());
+        sb.append("}, ");
+    }
+
     /**
      * Write parameters for single execution as json.
      *
      * <p>default: {"1":"foo","2":"100"},
      *
      * @param sb            StringBuilder to write
-     * @param paramMap      parameters map
+     * @param sortedParams  parameters in index or name order
      * @param execInfo      execution info
      * @param queryInfoList query info list
-     * @since 1.3.3
+     * @since 1.4
      */
-    protected void writeParamsForSingleEntryForJson(StringBuilder sb, Map<String, String> paramMap, ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
-        // sort
-        SortedMap<String, String> sortedParamMap = new TreeMap<String, String>(new StringAsIntegerComparator());
-        sortedParamMap.putAll(paramMap);
-
-
+    protected void writeParamsForSingleEntryForJson(StringBuilder sb, List<ParameterSetOperation> sortedParams,
+                                                    ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
         sb.append("{");
-        for (Map.Entry<String, String> paramEntry : sortedParamMap.entrySet()) {
-            String key = paramEntry.getKey();
-            Object value = paramEntry.getValue();
+        for (ParameterSetOperation param : sortedParams) {
+            String value = getParameterValueToDisplay(param);
             sb.append("\"");
-            sb.append(escapeSpecialCharacterForJson(key));
+            writeEscapedForJson(sb, getParameterKeyToDisplay(param));
             sb.append("\":");
             if (value == null) {
                 sb.append("null");
             } else {
                 sb.append("\"");
-                sb.append(escapeSpecialCharacterForJson(value.toString()));
+                writeEscapedForJson(sb, value);
                 sb.append("\"");
             }
             sb.append(",");
@@ -269,19 +311,6 @@ public class DefaultJsonQueryLogEntryCreator extends AbstractQueryLogEntryCreato
         }
     }
 
-    protected String escapeSpecialCharacterForJson(String input) {
-        if (input == null) {
-            return "null";
-        }
-        StringBuilder sb = new StringBuilder();
-        for (int i = 0; i < input.length(); i++) {
-            char c = input.charAt(i);
-            String value = JSON_SPECIAL_CHARS.get(c);
-            sb.append(value != null ? value : c);
-        }
-        return sb.toString();
-    }
-
 
     /**
      * @return parameterIndex or parameterName as String
@@ -1,13 +1,12 @@
 package net.ttddyy.dsproxy.listener.logging;
 
+import net.ttddyy.dsproxy.BatchSummary;
 import net.ttddyy.dsproxy.ExecutionInfo;
 import net.ttddyy.dsproxy.QueryInfo;
 import net.ttddyy.dsproxy.StatementType;
 import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
 
 import java.util.List;
-import java.util.Map;
-import java.util.SortedMap;
 
 /**
  * @author Tadaya Tsuyukubo
@@ -17,8 +16,26 @@ public class DefaultQueryLogEntryCreator extends AbstractQueryLogEntryCreator {
 
     @Override
     public String getLogEntry(ExecutionInfo execInfo, List<QueryInfo> queryInfoList, boolean writeDataSourceName) {
-        final StringBuilder sb = new StringBuilder();
+        final StringBuilder sb = acquireBuffer();
+        try {
+            writeLogEntry(sb, execInfo, queryInfoList, writeDataSourceName);
+            return sb.toString();
+        } finally {
+            releaseBuffer(sb);
+        }
+    }
 
+    /**
+     * Write the log entry into the given buffer.
+     *
+     * @param sb                  StringBuilder to write
+     * @param execInfo            execution info
+     * @param queryInfoList       query info list
+     * @param writeDataSourceName write datasource name or not
+     * @since 1.4
+     */
+    public void writeLogEntry(StringBuilder sb, ExecutionInfo execInfo, List<QueryInfo> queryInfoList,
+                              boolean writeDataSourceName) {
         if (writeDataSourceName) {
             writeDataSourceNameEntry(sb, execInfo, queryInfoList);
         }
@@ -47,7 +64,8 @@ public class DefaultQueryLogEntryCreator extends AbstractQueryLogEntryCreator {
         // Params
         writeParamsEntry(sb, execInfo, queryInfoList);
 
-        return sb.toString();
+        // BatchSummary
+        writeBatchSummaryEntry(sb, execInfo, queryInfoList);
     }
 
     /**
@@ -79,7 +97,7 @@ public class DefaultQueryLogEntryCreator extends AbstractQueryLogEntryCreator {
      */
     protected void writeTimeEntry(StringBuilder sb, ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
         sb.append("Time:");
-        sb.append(execInfo.getElapsedTime());
+        sb.append(execInfo.getElapsedTime(this.timeUnit));
         sb.append(", ");
     }
 
@@ -176,6 +194,9 @@ public class DefaultQueryLogEntryCreator extends AbstractQueryLogEntryCreator {
     protected void writeQueriesEntry(StringBuilder sb, ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
         sb.append("Query:[");
         for (QueryInfo queryInfo : queryInfoList) {
+            if (queryInfo.getQuery() == null && queryInfo.getBatchSummary() != null) {
+                continue;  // only carries the batch summary
+            }
             sb.append("\"");
             sb.append(queryInfo.getQuery());
             sb.append("\",");
@@ -203,15 +224,15 @@ public class DefaultQueryLogEntryCreator extends AbstractQueryLogEntryCreator {
 
         for (QueryInfo queryInfo : queryInfoList) {
             for (List<ParameterSetOperation> parameters : queryInfo.getParametersList()) {
-                SortedMap<String, String> paramMap = getParametersToDisplay(parameters);
+                List<ParameterSetOperation> sortedParams = getParametersToDisplay(parameters);
 
                 // parameters per batch.
                 //   for prepared: (val1,val2,...)
                 //   for callable: (key1=val1,key2-val2,...)
                 if (isPrepared) {
-                    writeParamsEntryForSinglePreparedEntry(sb, paramMap, execInfo, queryInfoList);
+                    writeParamsEntryForSinglePreparedEntry(sb, sortedParams, execInfo, queryInfoList);
                 } else {
-                    writeParamsForSingleCallableEntry(sb, paramMap, execInfo, queryInfoList);
+                    writeParamsForSingleCallableEntry(sb, sortedParams, execInfo, queryInfoList);
                 }
 
 
@@ -222,21 +243,48 @@ public class DefaultQueryLogEntryCreator extends AbstractQueryLogEntryCreator {
         sb.append("]");
     }
 
+    /**
+     * Write batch summary when only part of the batch entries are retained.
+     *
+     * <p>default: , BatchSummary:{rowCount:10000, capturedRowCount:100, nullCount:3, totalByteSize:120000}
+     *
+     * @param sb            StringBuilder to write
+     * @param execInfo      execution info
+     * @param queryInfoList query info list
+     * @since 1.4
+     */
+    protected void writeBatchSummaryEntry(StringBuilder sb, ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        BatchSummary batchSummary = getTruncatedBatchSummary(queryInfoList);
+        if (batchSummary == null) {
+            return;
+        }
+        sb.append(", BatchSummary:{rowCount:");
+        sb.append(batchSummary.getRowCount());
+        sb.append(", capturedRowCount:");
+        sb.append(batchSummary.getCapturedRowCount());
+        sb.append(", nullCount:");
+        sb.append(batchSummary.getNullCount());
+        sb.append(", totalByteSize:");
+        sb.append(batchSummary.getTotalByteSize());
+        sb.append("}");
+    }
+
     /**
      * Write query parameters for PreparedStatement.
      *
      * <p>default: Params:[(foo,100),(bar,101)],
      *
      * @param sb            StringBuilder to write
-     * @param paramMap      sorted parameters map
+     * @param sortedParams  parameters in index order
      * @param execInfo      execution info
      * @param queryInfoList query info list
      * @since 1.4
      */
-    protected void writeParamsEntryForSinglePreparedEntry(StringBuilder sb, SortedMap<String, String> paramMap, ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    protected void writeParamsEntryForSinglePreparedEntry(StringBuilder sb, List<ParameterSetOperation> sortedParams,
+                                                          ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
         sb.append("(");
-        for (Map.Entry<String, String> paramEntry : paramMap.entrySet()) {
-            sb.append(paramEntry.getValue());
+        for (ParameterSetOperation param : sortedParams) {
+            sb.append(getParameterValueToDisplay(param));
             sb.append(",");
         }
         chompIfEndWith(sb, ',');
@@ -249,17 +297,18 @@ public class DefaultQueryLogEntryCreator extends AbstractQueryLogEntryCreator {
      * <p>default: (1=foo,2=100),
      *
      * @param sb            StringBuilder to write
-     * @param paramMap      sorted parameters map
+     * @param sortedParams  parameters in index or name order
      * @param execInfo      execution info
      * @param queryInfoList query info list
      * @since 1.4
      */
-    protected void writeParamsForSingleCallableEntry(StringBuilder sb, SortedMap<String, String> paramMap, ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    protected void writeParamsForSingleCallableEntry(StringBuilder sb, List<ParameterSetOperation> sortedParams,
+                                                     ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
         sb.append("(");
-        for (Map.Entry<String, String> paramEntry : paramMap.entrySet()) {
-            sb.append(paramEntry.getKey());
+        for (ParameterSetOperation param : sortedParams) {
+            sb.append(getParameterKeyToDisplay(param));
             sb.append("=");
-            sb.append(paramEntry.getValue());
+            sb.append(getParameterValueToDisplay(param));
             sb.append(",");
         }
         chompIfEndWith(sb, ',');
@@ -14,11 +14,26 @@ public class JULQueryLoggingListener extends AbstractQueryLoggingListener {
     protected Logger logger = Logger.getLogger(JULQueryLoggingListener.class.getName());
     protected Level logLevel = Level.FINE; // default FINE
 
+    @Override
+    protected boolean isLogEnabled() {
+        return this.logger.isLoggable(this.logLevel);
+    }
+
     @Override
     protected void writeLog(String message) {
         this.logger.log(this.logLevel, message);
     }
 
+    /**
+     * Pass the entry as a message parameter, so that the logger builds it only when formatting the message.
+     *
+     * @since 1.4
+     */
+    @Override
+    protected void writeLazyLog(Object entry) {
+        this.logger.log(this.logLevel, "{0}", entry);
+    }
+
     public void setLogLevel(Level logLevel) {
         this.logLevel = logLevel;
     }
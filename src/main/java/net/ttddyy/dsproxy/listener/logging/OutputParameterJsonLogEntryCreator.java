@@ -18,11 +18,11 @@ import java.util.List;
 public class OutputParameterJsonLogEntryCreator extends DefaultJsonQueryLogEntryCreator {
 
     @Override
-    public String getLogEntry(ExecutionInfo execInfo, List<QueryInfo> queryInfoList, boolean writeDataSourceName) {
-        final StringBuilder sb = new StringBuilder();
-        sb.append(super.getLogEntry(execInfo, queryInfoList, writeDataSourceName));
+    public void writeLogEntry(StringBuilder sb, ExecutionInfo execInfo, List<QueryInfo> queryInfoList,
+                              boolean writeDataSourceName) {
+        super.writeLogEntry(sb, execInfo, queryInfoList, writeDataSourceName);
 
-        chompIfEndWith(sb, '}');  // hack to remove closing curly bracket from returned json string
+        chompIfEndWith(sb, '}');  // remove closing curly bracket of the json object
 
         sb.append(",\"outParams\":[");
 
@@ -31,8 +31,7 @@ public class OutputParameterJsonLogEntryCreator extends DefaultJsonQueryLogEntry
             for (List<ParameterSetOperation> parameters : queryInfo.getParametersList()) {
                 sb.append("{");
                 if (hasOutputParameters(parameters)) {
-                    String str = getOutputParameters(parameters, (CallableStatement) execInfo.getStatement());
-                    sb.append(str);
+                    writeOutputParameters(sb, parameters, (CallableStatement) execInfo.getStatement());
                 }
                 sb.append("},");
             }
@@ -41,14 +40,10 @@ public class OutputParameterJsonLogEntryCreator extends DefaultJsonQueryLogEntry
         chompIfEndWith(sb, ',');
         sb.append("]");
         sb.append("}");
-
-        return sb.toString();
     }
 
 
-    private String getOutputParameters(List<ParameterSetOperation> params, CallableStatement st) {
-
-        StringBuilder sb = new StringBuilder();
+    private void writeOutputParameters(StringBuilder sb, List<ParameterSetOperation> params, CallableStatement st) {
         for (ParameterSetOperation param : params) {
             if (!ParameterSetOperation.isRegisterOutParameterOperation(param)) {
                 continue;
@@ -58,7 +53,7 @@ public class OutputParameterJsonLogEntryCreator extends DefaultJsonQueryLogEntry
             Object value = getOutputValueForDisplay(key, st);
 
             sb.append("\"");
-            sb.append(escapeSpecialCharacterForJson(key.toString()));
+            writeEscapedForJson(sb, key.toString());
             sb.append("\":");
 
             if (value == null) {
@@ -69,11 +64,8 @@ public class OutputParameterJsonLogEntryCreator extends DefaultJsonQueryLogEntry
                 sb.append("\"");
             }
             sb.append(",");
-
         }
         chompIfEndWith(sb, ',');
-
-        return sb.toString();
     }
 
     protected Object getOutputValueForDisplay(Object key, CallableStatement cs) {
@@ -18,9 +18,9 @@ import java.util.List;
 public class OutputParameterLogEntryCreator extends DefaultQueryLogEntryCreator {
 
     @Override
-    public String getLogEntry(ExecutionInfo execInfo, List<QueryInfo> queryInfoList, boolean writeDataSourceName) {
-        final StringBuilder sb = new StringBuilder();
-        sb.append(super.getLogEntry(execInfo, queryInfoList, writeDataSourceName));
+    public void writeLogEntry(StringBuilder sb, ExecutionInfo execInfo, List<QueryInfo> queryInfoList,
+                              boolean writeDataSourceName) {
+        super.writeLogEntry(sb, execInfo, queryInfoList, writeDataSourceName);
 
         sb.append(", OutParams:[");
 
@@ -28,8 +28,7 @@ public class OutputParameterLogEntryCreator extends DefaultQueryLogEntryCreator
             for (List<ParameterSetOperation> parameters : queryInfo.getParametersList()) {
                 sb.append("(");
                 if (hasOutputParameters(parameters)) {
-                    String str = getOutputParameters(parameters, (CallableStatement) execInfo.getStatement());
-                    sb.append(str);
+                    writeOutputParameters(sb, parameters, (CallableStatement) execInfo.getStatement());
                 }
                 sb.append("),");
             }
@@ -37,13 +36,10 @@ public class OutputParameterLogEntryCreator extends DefaultQueryLogEntryCreator
 
         chompIfEndWith(sb, ',');
         sb.append("]");
-        return sb.toString();
     }
 
 
-    private String getOutputParameters(List<ParameterSetOperation> params, CallableStatement st) {
-
-        StringBuilder sb = new StringBuilder();
+    private void writeOutputParameters(StringBuilder sb, List<ParameterSetOperation> params, CallableStatement st) {
         for (ParameterSetOperation param : params) {
             if (!ParameterSetOperation.isRegisterOutParameterOperation(param)) {
                 continue;
@@ -56,11 +52,8 @@ public class OutputParameterLogEntryCreator extends DefaultQueryLogEntryCreator
             sb.append("=");
             sb.append(value);
             sb.append(",");
-
         }
         chompIfEndWith(sb, ',');
-
-        return sb.toString();
     }
 
     protected Object getOutputValueForDisplay(Object key, CallableStatement cs) {
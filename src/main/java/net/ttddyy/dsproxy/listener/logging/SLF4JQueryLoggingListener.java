@@ -14,6 +14,21 @@ public class SLF4JQueryLoggingListener extends AbstractQueryLoggingListener {
     protected Logger logger = LoggerFactory.getLogger(SLF4JQueryLoggingListener.class);
     protected SLF4JLogLevel logLevel = SLF4JLogLevel.DEBUG; // default DEBUG
 
+    @Override
+    protected boolean isLogEnabled() {
+        return SLF4JLogUtils.isLogEnabled(this.logger, this.logLevel);
+    }
+
+    /**
+     * Pass the entry as a message argument, so that the logger builds it only when writing the message.
+     *
+     * @since 1.4
+     */
+    @Override
+    protected void writeLazyLog(Object entry) {
+        SLF4JLogUtils.writeLog(this.logger, this.logLevel, "{}", entry);
+    }
+
     @Override
     protected void writeLog(String message) {
         SLF4JLogUtils.writeLog(logger, this.logLevel, message);
@@ -0,0 +1,241 @@
+package net.ttddyy.dsproxy.listener.logging;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryAnalysis;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.ListenerCapabilities;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.listener.SamplingUtils;
+import net.ttddyy.dsproxy.proxy.Ticker;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Write only part of the query logs with a wrapped logging listener.
+ *
+ * <p>An execution is logged when either of the following applies:
+ * <ul>
+ * <li> Tail rules: it failed (when {@link #setLogFailures(boolean)} is enabled), or it took longer than
+ * {@link #setSlowQueryThreshold(long, TimeUnit)}. These are always logged.
+ * <li> Head sampling: it is picked with the probability of {@link #setSampleRate(double)}, and the rate limit of its
+ * query fingerprint({@link QueryAnalysis#getFingerprint()}) is not exceeded.
+ * </ul>
+ *
+ * <p>The rate limit is a token bucket per fingerprint, so a single hot query cannot consume all the log volume.
+ * Fingerprints beyond {@link #DEFAULT_MAX_FINGERPRINTS} share one bucket.
+ *
+ * <p>Skipped executions are not passed to the wrapped listener, so their log entries are never built.
+ *
+ * <pre>
+ * SamplingQueryLoggingListener listener = new SamplingQueryLoggingListener(new SLF4JQueryLoggingListener());
+ * listener.setSampleRate(0.01);
+ * listener.setRateLimit(1, 5);  // per fingerprint, 1 entry per second with burst of 5
+ * listener.setSlowQueryThreshold(1, TimeUnit.SECONDS);
+ * </pre>
+ *
+ * @author Tadaya Tsuyukubo
+ * @since 1.4
+ */
+public class SamplingQueryLoggingListener implements QueryExecutionListener, ListenerCapabilities {
+
+    public static final int DEFAULT_MAX_FINGERPRINTS = 1000;
+
+    private final AbstractQueryLoggingListener delegate;
+    private final Ticker ticker;
+    private final ConcurrentMap<Long, TokenBucket> buckets = new ConcurrentHashMap<Long, TokenBucket>();
+    private volatile TokenBucket overflowBucket;
+
+    private volatile double sampleRate = 1.0;
+    private volatile long nanosPerPermit;  // 0 means no rate limit
+    private volatile int burst;
+    private volatile long slowQueryThresholdInNanos = -1;
+    private volatile boolean logFailures = true;
+
+    private final AtomicLong loggedCount = new AtomicLong();
+    private final AtomicLong skippedCount = new AtomicLong();
+
+    public SamplingQueryLoggingListener(AbstractQueryLoggingListener delegate) {
+        this(delegate, Ticker.DEFAULT);
+    }
+
+    /**
+     * @param delegate logging listener to write sampled executions
+     * @param ticker   time source for rate limit
+     */
+    public SamplingQueryLoggingListener(AbstractQueryLoggingListener delegate, Ticker ticker) {
+        this.delegate = delegate;
+        this.ticker = ticker;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        this.delegate.beforeQuery(execInfo, queryInfoList);
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        if (shouldLog(execInfo, queryInfoList)) {
+            this.loggedCount.incrementAndGet();
+            this.delegate.afterQuery(execInfo, queryInfoList);
+        } else {
+            this.skippedCount.incrementAndGet();
+        }
+    }
+
+    /**
+     * Decide whether to write the log of the execution.
+     *
+     * @param execInfo      execution info
+     * @param queryInfoList query info list
+     * @return {@code true} to write the log
+     */
+    protected boolean shouldLog(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        // tail rules
+        if (this.logFailures && !execInfo.isSuccess()) {
+            return true;
+        }
+        final long threshold = this.slowQueryThresholdInNanos;
+        if (threshold >= 0 && execInfo.getElapsedTime(TimeUnit.NANOSECONDS) >= threshold) {
+            return true;
+        }
+
+        // head sampling
+        if (!SamplingUtils.isSampled(this.sampleRate)) {
+            return false;
+        }
+        return this.nanosPerPermit <= 0 || getBucket(getFingerprint(queryInfoList)).tryAcquire(this.ticker.read());
+    }
+
+    private long getFingerprint(List<QueryInfo> queryInfoList) {
+        if (queryInfoList.isEmpty()) {
+            return 0;
+        }
+        // statement batch is identified by its first query
+        final QueryAnalysis queryAnalysis = queryInfoList.get(0).getQueryAnalysis();
+        return queryAnalysis == null ? 0 : queryAnalysis.getFingerprint();
+    }
+
+    private TokenBucket getBucket(long fingerprint) {
+        final Long key = fingerprint;
+        TokenBucket bucket = this.buckets.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (this.buckets.size() >= DEFAULT_MAX_FINGERPRINTS) {
+            return this.overflowBucket;
+        }
+        bucket = new TokenBucket(this.nanosPerPermit, this.burst, this.ticker.read());
+        final TokenBucket existing = this.buckets.putIfAbsent(key, bucket);
+        return existing != null ? existing : bucket;
+    }
+
+    /**
+     * @param sampleRate probability to log an execution not covered by tail rules, between {@code 0.0} and
+     *                   {@code 1.0}. Default is {@code 1.0}
+     */
+    public void setSampleRate(double sampleRate) {
+        if (sampleRate < 0 || sampleRate > 1) {
+            throw new IllegalArgumentException("sampleRate must be between 0 and 1: " + sampleRate);
+        }
+        this.sampleRate = sampleRate;
+    }
+
+    public double getSampleRate() {
+        return sampleRate;
+    }
+
+    /**
+     * Limit sampled entries per query fingerprint. Tail rules are not limited.
+     *
+     * @param permitsPerSecond entries per second, {@code 0} to disable the limit
+     * @param burst            entries allowed at once
+     */
+    public void setRateLimit(double permitsPerSecond, int burst) {
+        if (permitsPerSecond < 0 || burst < 1) {
+            throw new IllegalArgumentException("permitsPerSecond must not be negative and burst must be positive");
+        }
+        this.burst = burst;
+        if (permitsPerSecond == 0) {
+            this.nanosPerPermit = 0;
+        } else {
+            this.nanosPerPermit = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond));
+        }
+        this.buckets.clear();
+        this.overflowBucket = new TokenBucket(this.nanosPerPermit, burst, this.ticker.read());
+    }
+
+    /**
+     * @param threshold executions taking this long or longer are always logged. negative value disables the rule
+     * @param unit      time unit of threshold
+     */
+    public void setSlowQueryThreshold(long threshold, TimeUnit unit) {
+        this.slowQueryThresholdInNanos = threshold < 0 ? -1 : unit.toNanos(threshold);
+    }
+
+    /**
+     * @param logFailures always log failed executions. Default is {@code true}
+     */
+    public void setLogFailures(boolean logFailures) {
+        this.logFailures = logFailures;
+    }
+
+    public boolean isLogFailures() {
+        return logFailures;
+    }
+
+    /**
+     * @return number of executions passed to the wrapped listener
+     */
+    public long getLoggedCount() {
+        return this.loggedCount.get();
+    }
+
+    /**
+     * @return number of executions not logged
+     */
+    public long getSkippedCount() {
+        return this.skippedCount.get();
+    }
+
+    public AbstractQueryLoggingListener getDelegate() {
+        return this.delegate;
+    }
+
+    /**
+     * @return capabilities of the wrapped listener and {@link #TIMING} for the slow query rule
+     */
+    @Override
+    public int getCapabilities() {
+        return this.delegate.getCapabilities() | TIMING;
+    }
+
+    /**
+     * Token bucket in form of theoretical arrival time. A permit is granted while the bucket is not ahead of the
+     * current time by more than the burst.
+     */
+    private static class TokenBucket {
+        private final long nanosPerPermit;
+        private final long burstTolerance;
+        private long theoreticalArrivalTime;
+
+        private TokenBucket(long nanosPerPermit, int burst, long now) {
+            this.nanosPerPermit = nanosPerPermit;
+            this.burstTolerance = nanosPerPermit * (burst - 1);
+            this.theoreticalArrivalTime = now;
+        }
+
+        private synchronized boolean tryAcquire(long now) {
+            final long tat = this.theoreticalArrivalTime - now > 0 ? this.theoreticalArrivalTime : now;
+            if (tat - now > this.burstTolerance) {
+                return false;
+            }
+            this.theoreticalArrivalTime = tat + this.nanosPerPermit;
+            return true;
+        }
+    }
+
+}
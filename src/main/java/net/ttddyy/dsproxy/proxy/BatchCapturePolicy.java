@@ -0,0 +1,68 @@
+package net.ttddyy.dsproxy.proxy;
+
+/**
+ * Policy to decide how many batch entries are retained by the proxy until batch execution.
+ *
+ * <p>{@link #ALL} keeps every batch entry, which is the default. With a bounded policy created by
+ * {@link #firstRows(int)}, only the first N entries(parameter rows for {@link java.sql.PreparedStatement}, queries for
+ * {@link java.sql.Statement}) are kept, and the rest are counted in {@link net.ttddyy.dsproxy.BatchSummary}.
+ * Batch size reported by {@link net.ttddyy.dsproxy.ExecutionInfo#getBatchSize()} is always exact.
+ *
+ * @author Tadaya Tsuyukubo
+ * @see InterceptorHolder#setBatchCapturePolicy(BatchCapturePolicy)
+ * @see net.ttddyy.dsproxy.QueryInfo#getBatchSummary()
+ * @since 1.4
+ */
+public class BatchCapturePolicy {
+
+    /**
+     * Keep all batch entries.
+     */
+    public static final BatchCapturePolicy ALL = new BatchCapturePolicy(-1);
+
+    /**
+     * Keep first N batch entries and aggregate statistics for all entries.
+     *
+     * @param maxRows max number of entries to keep
+     * @return bounded policy
+     */
+    public static BatchCapturePolicy firstRows(int maxRows) {
+        if (maxRows < 0) {
+            throw new IllegalArgumentException("maxRows must not be negative: " + maxRows);
+        }
+        return new BatchCapturePolicy(maxRows);
+    }
+
+    private final int maxRows;
+
+    private BatchCapturePolicy(int maxRows) {
+        this.maxRows = maxRows;
+    }
+
+    /**
+     * @return true if number of retained entries is bounded
+     */
+    public boolean isBounded() {
+        return this.maxRows >= 0;
+    }
+
+    /**
+     * @return max number of entries to keep. {@code -1} when unbounded
+     */
+    public int getMaxRows() {
+        return this.maxRows;
+    }
+
+    /**
+     * @param capturedRows number of entries already kept
+     * @return true if another entry should be kept
+     */
+    public boolean isCaptureRequired(int capturedRows) {
+        return this.maxRows < 0 || capturedRows < this.maxRows;
+    }
+
+    @Override
+    public String toString() {
+        return isBounded() ? "BatchCapturePolicy[firstRows=" + this.maxRows + "]" : "BatchCapturePolicy[all]";
+    }
+}
@@ -0,0 +1,302 @@
+package net.ttddyy.dsproxy.proxy;
+
+import java.lang.reflect.Method;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Columnar buffer of batch parameters for {@link java.sql.PreparedStatement#addBatch()}.
+ *
+ * <p>Each parameter index(or name) is a column that keeps the argument array of each row. When every row uses the
+ * same setter method for a column, the method is kept once for the column. No per row object is created while
+ * adding rows; {@link #asList()} exposes rows as lazy views and materializes {@link ParameterSetOperation}s only
+ * when a row is accessed.
+ *
+ * <p>When every row of a column uses the same {@code setInt} or {@code setLong}, values are kept unboxed in a
+ * {@code long[]} instead of retaining argument arrays and boxed values, and arguments are boxed again when a row is
+ * accessed. The column switches back to argument arrays when a row uses another setter.
+ *
+ * <p>Buffer is reused: {@link #clear()} keeps allocated columns for the next batch, unless they grew beyond
+ * {@value #MAX_RETAINED_ROW_CAPACITY} rows. Columns of such a large batch are released, so that one large batch does
+ * not pin its arrays for the life of the statement.
+ *
+ * @author Tadaya Tsuyukubo
+ * @since 1.4
+ */
+final class BatchParameterBuffer {
+
+    private static final int INITIAL_ROW_CAPACITY = 16;
+    static final int MAX_RETAINED_ROW_CAPACITY = 1024;
+
+    private static final class Column {
+        private Method method;  // shared by all rows, unless methods array is used
+        private Method[] methods;  // per row setter, created when rows use different setters
+        private Object[][] args;
+
+        // primitive column: every row so far used the same setInt/setLong, values are kept unboxed
+        private boolean primitive;
+        private boolean intValue;  // setInt, otherwise setLong
+        private Object key;  // parameter index or name shared by all rows
+        private long[] values;
+        private boolean[] present;
+
+        private Column(int capacity) {
+            this.args = new Object[capacity][];
+        }
+
+        private void set(int row, Method method, Object[] args) {
+            if (this.method == null && this.methods == null) {
+                // first row decides whether values are kept as primitives
+                this.method = method;
+                if (isPrimitiveSetter(method, args)) {
+                    this.primitive = true;
+                    this.intValue = args[1] instanceof Integer;
+                    this.key = args[0];
+                    if (this.values == null || this.values.length < this.args.length) {
+                        this.values = new long[this.args.length];
+                        this.present = new boolean[this.args.length];
+                    }
+                }
+            } else if (this.primitive && !(this.method.equals(method) && isPrimitiveSetter(method, args))) {
+                inflate();
+            }
+
+            if (this.primitive) {
+                this.values[row] = ((Number) args[1]).longValue();
+                this.present[row] = true;
+                return;
+            }
+
+            if (this.methods != null) {
+                this.methods[row] = method;
+            } else if (!this.method.equals(method)) {
+                // switch to per row methods
+                this.methods = new Method[this.args.length];
+                Arrays.fill(this.methods, this.method);
+                this.methods[row] = method;
+            }
+            this.args[row] = args;
+        }
+
+        private static boolean isPrimitiveSetter(Method method, Object[] args) {
+            if (args == null || args.length != 2) {
+                return false;
+            }
+            final String name = method.getName();
+            return ("setInt".equals(name) && args[1] instanceof Integer)
+                    || ("setLong".equals(name) && args[1] instanceof Long);
+        }
+
+        // box values of previous rows into argument arrays
+        private void inflate() {
+            for (int row = 0; row < this.present.length; row++) {
+                if (this.present[row]) {
+                    this.args[row] = boxedArgs(row);
+                    this.present[row] = false;
+                }
+            }
+            this.primitive = false;
+            this.key = null;
+        }
+
+        private Object[] boxedArgs(int row) {
+            // not a conditional expression, which would promote Integer to Long
+            final Object value;
+            if (this.intValue) {
+                value = Integer.valueOf((int) this.values[row]);
+            } else {
+                value = Long.valueOf(this.values[row]);
+            }
+            return new Object[]{this.key, value};
+        }
+
+        private boolean hasValue(int row) {
+            return this.primitive ? this.present[row] : this.args[row] != null;
+        }
+
+        private Object[] getArgs(int row) {
+            return this.primitive ? boxedArgs(row) : this.args[row];
+        }
+
+        private Method getMethod(int row) {
+            return this.methods != null ? this.methods[row] : this.method;
+        }
+
+        private void grow(int capacity) {
+            this.args = Arrays.copyOf(this.args, capacity);
+            if (this.methods != null) {
+                this.methods = Arrays.copyOf(this.methods, capacity);
+            }
+            if (this.values != null) {
+                this.values = Arrays.copyOf(this.values, capacity);
+                this.present = Arrays.copyOf(this.present, capacity);
+            }
+        }
+
+        private void clear(int rowCount) {
+            Arrays.fill(this.args, 0, rowCount, null);
+            if (this.present != null) {
+                Arrays.fill(this.present, 0, rowCount, false);
+            }
+            this.method = null;
+            this.methods = null;
+            this.primitive = false;
+            this.key = null;
+        }
+    }
+
+    private Column[] indexedColumns = new Column[0];
+    private Map<String, Column> namedColumns;  // created lazily
+    private int rowCapacity = INITIAL_ROW_CAPACITY;
+    private int rowCount;
+
+    private final List<List<ParameterSetOperation>> rows = new AbstractList<List<ParameterSetOperation>>() {
+        @Override
+        public List<ParameterSetOperation> get(int index) {
+            if (index < 0 || index >= rowCount) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + rowCount);
+            }
+            return getRow(index);
+        }
+
+        @Override
+        public int size() {
+            return rowCount;
+        }
+    };
+
+    /**
+     * Add current parameters as a new row.
+     *
+     * @param parameters current parameters
+     */
+    public void addRow(ParameterHolder parameters) {
+        final int row = this.rowCount;
+        if (row == this.rowCapacity) {
+            growRows(this.rowCapacity * 2);
+        }
+
+        final int maxIndex = parameters.getMaxIndex();
+        if (maxIndex >= this.indexedColumns.length) {
+            this.indexedColumns = Arrays.copyOf(this.indexedColumns, maxIndex + 1);
+        }
+        for (int i = 0; i <= maxIndex; i++) {
+            final ParameterSetOperation operation = parameters.get(i);
+            if (operation != null) {
+                Column column = this.indexedColumns[i];
+                if (column == null) {
+                    column = new Column(this.rowCapacity);
+                    this.indexedColumns[i] = column;
+                }
+                column.set(row, operation.getMethod(), operation.getArgs());
+            }
+        }
+
+        final Map<String, ParameterSetOperation> namedOperations = parameters.getNamedOperations();
+        if (namedOperations != null && !namedOperations.isEmpty()) {
+            if (this.namedColumns == null) {
+                this.namedColumns = new LinkedHashMap<String, Column>();
+            }
+            for (Map.Entry<String, ParameterSetOperation> entry : namedOperations.entrySet()) {
+                Column column = this.namedColumns.get(entry.getKey());
+                if (column == null) {
+                    column = new Column(this.rowCapacity);
+                    this.namedColumns.put(entry.getKey(), column);
+                }
+                final ParameterSetOperation operation = entry.getValue();
+                column.set(row, operation.getMethod(), operation.getArgs());
+            }
+        }
+
+        this.rowCount++;
+    }
+
+    public int size() {
+        return this.rowCount;
+    }
+
+    /**
+     * Release references to the arguments and reset row count. Allocated columns are kept unless they are larger than
+     * {@value #MAX_RETAINED_ROW_CAPACITY} rows.
+     */
+    public void clear() {
+        if (this.rowCapacity > MAX_RETAINED_ROW_CAPACITY) {
+            this.indexedColumns = new Column[0];
+            this.namedColumns = null;
+            this.rowCapacity = INITIAL_ROW_CAPACITY;
+            this.rowCount = 0;
+            return;
+        }
+        if (this.rowCount == 0) {
+            return;
+        }
+        for (Column column : this.indexedColumns) {
+            if (column != null) {
+                column.clear(this.rowCount);
+            }
+        }
+        if (this.namedColumns != null) {
+            for (Column column : this.namedColumns.values()) {
+                column.clear(this.rowCount);
+            }
+        }
+        this.rowCount = 0;
+    }
+
+    /**
+     * Materialize parameter set operations of the given row.
+     *
+     * @param row row index
+     * @return a new list of operations in index order followed by named parameters
+     */
+    public List<ParameterSetOperation> getRow(int row) {
+        final List<ParameterSetOperation> operations = new ArrayList<ParameterSetOperation>();
+        for (Column column : this.indexedColumns) {
+            if (column != null && column.hasValue(row)) {
+                operations.add(new ParameterSetOperation(column.getMethod(row), column.getArgs(row)));
+            }
+        }
+        if (this.namedColumns != null) {
+            for (Column column : this.namedColumns.values()) {
+                if (column.hasValue(row)) {
+                    operations.add(new ParameterSetOperation(column.getMethod(row), column.getArgs(row)));
+                }
+            }
+        }
+        return operations;
+    }
+
+    /**
+     * Read-only view of rows. {@code size()} does not materialize rows; each {@code get()} creates a new row list.
+     *
+     * <p>The view reflects the current content of this buffer.
+     *
+     * @return list view of rows
+     */
+    public List<List<ParameterSetOperation>> asList() {
+        return this.rows;
+    }
+
+    int getRowCapacity() {
+        return this.rowCapacity;
+    }
+
+    private void growRows(int capacity) {
+        for (Column column : this.indexedColumns) {
+            if (column != null) {
+                column.grow(capacity);
+            }
+        }
+        if (this.namedColumns != null) {
+            for (Column column : this.namedColumns.values()) {
+                column.grow(capacity);
+            }
+        }
+        this.rowCapacity = capacity;
+    }
+
+}
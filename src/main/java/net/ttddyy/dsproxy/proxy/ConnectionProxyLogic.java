@@ -2,7 +2,6 @@ package net.ttddyy.dsproxy.proxy;
 
 import net.ttddyy.dsproxy.transform.TransformInfo;
 
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.sql.CallableStatement;
 import java.sql.Connection;
@@ -81,12 +80,7 @@ public class ConnectionProxyLogic {
         }
 
         // Invoke method on original Connection.
-        final Object retVal;
-        try {
-            retVal = method.invoke(connection, args);
-        } catch (InvocationTargetException ex) {
-            throw ex.getTargetException();
-        }
+        final Object retVal = MethodUtils.proceedExecution(method, connection, args);
 
         // when it is a call to createStatement, prepareStatement or prepareCall, returns a proxy.
         // most of the time, spring and hibernate use prepareStatement to execute query as batch
@@ -1,7 +1,6 @@
 package net.ttddyy.dsproxy.proxy;
 
 import javax.sql.DataSource;
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.sql.Connection;
 import java.util.Arrays;
@@ -65,16 +64,12 @@ public class DataSourceProxyLogic {
         }
 
         // Invoke method on original datasource.
-        try {
-            final Object retVal = method.invoke(dataSource, args);
+        final Object retVal = MethodUtils.proceedExecution(method, dataSource, args);
 
-            if ("getConnection".equals(methodName)) {
-                return jdbcProxyFactory.createConnection((Connection) retVal, interceptorHolder, dataSourceName);
-            }
-            return retVal;
-        } catch (InvocationTargetException ex) {
-            throw ex.getTargetException();
+        if ("getConnection".equals(methodName)) {
+            return jdbcProxyFactory.createConnection((Connection) retVal, interceptorHolder, dataSourceName);
         }
+        return retVal;
     }
 
     public void setDataSource(DataSource dataSource) {
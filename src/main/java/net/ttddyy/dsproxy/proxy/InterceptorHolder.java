@@ -1,6 +1,7 @@
 package net.ttddyy.dsproxy.proxy;
 
 import net.ttddyy.dsproxy.listener.ChainListener;
+import net.ttddyy.dsproxy.listener.ListenerCapabilities;
 import net.ttddyy.dsproxy.listener.QueryExecutionListener;
 import net.ttddyy.dsproxy.transform.ParameterTransformer;
 import net.ttddyy.dsproxy.transform.QueryTransformer;
@@ -12,6 +13,8 @@ import net.ttddyy.dsproxy.transform.QueryTransformer;
  * @see QueryExecutionListener
  * @see QueryTransformer
  * @see ParameterTransformer
+ * @see Ticker
+ * @see BatchCapturePolicy
  * @since 1.2
  */
 public class InterceptorHolder {
@@ -19,6 +22,8 @@ public class InterceptorHolder {
     private ChainListener chainListener = new ChainListener();  // empty default
     private QueryTransformer queryTransformer = QueryTransformer.DEFAULT;
     private ParameterTransformer parameterTransformer = ParameterTransformer.DEFAULT;
+    private Ticker ticker = Ticker.DEFAULT;
+    private BatchCapturePolicy batchCapturePolicy = BatchCapturePolicy.ALL;
 
     public InterceptorHolder() {
     }
@@ -56,6 +61,16 @@ public class InterceptorHolder {
         this.chainListener.addListener(listener);
     }
 
+    /**
+     * Combined capabilities of registered listeners.
+     *
+     * @return bitmask of {@link ListenerCapabilities}
+     * @since 1.4
+     */
+    public int getListenerCapabilities() {
+        return this.chainListener.getCapabilities();
+    }
+
     public QueryTransformer getQueryTransformer() {
         return queryTransformer;
     }
@@ -71,4 +86,40 @@ public class InterceptorHolder {
     public void setParameterTransformer(ParameterTransformer parameterTransformer) {
         this.parameterTransformer = parameterTransformer;
     }
+
+    /**
+     * @return ticker to measure query execution time
+     * @since 1.4
+     */
+    public Ticker getTicker() {
+        return ticker;
+    }
+
+    /**
+     * Set {@link Ticker} to measure query execution time.
+     *
+     * @param ticker a ticker
+     * @since 1.4
+     */
+    public void setTicker(Ticker ticker) {
+        this.ticker = ticker;
+    }
+
+    /**
+     * @return policy to retain batch entries
+     * @since 1.4
+     */
+    public BatchCapturePolicy getBatchCapturePolicy() {
+        return batchCapturePolicy;
+    }
+
+    /**
+     * Set {@link BatchCapturePolicy} to limit batch entries retained until batch execution.
+     *
+     * @param batchCapturePolicy a batch capture policy
+     * @since 1.4
+     */
+    public void setBatchCapturePolicy(BatchCapturePolicy batchCapturePolicy) {
+        this.batchCapturePolicy = batchCapturePolicy;
+    }
 }
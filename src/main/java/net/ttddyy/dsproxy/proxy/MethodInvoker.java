@@ -0,0 +1,17 @@
+package net.ttddyy.dsproxy.proxy;
+
+/**
+ * Invokes a method on the actual jdbc object with a plain method call instead of reflection.
+ *
+ * <p>An exception thrown by the target method is propagated as is.
+ *
+ * @author Tadaya Tsuyukubo
+ * @see StatementProxyLogic#execute(java.lang.reflect.Method, Object[], MethodInvoker)
+ * @see PreparedStatementProxyLogic#execute(java.lang.reflect.Method, Object[], MethodInvoker)
+ * @since 1.4
+ */
+public interface MethodInvoker {
+
+    Object invoke(Object target, Object[] args) throws Throwable;
+
+}
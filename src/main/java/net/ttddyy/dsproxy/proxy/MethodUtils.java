@@ -17,4 +17,21 @@ public class MethodUtils {
         }
     }
 
+    /**
+     * Lookup a public method, reporting a missing method as {@link IllegalStateException}.
+     *
+     * @param clazz          class or interface to lookup
+     * @param name           method name
+     * @param parameterTypes parameter types
+     * @return method
+     * @since 1.4
+     */
+    public static Method getMethod(Class<?> clazz, String name, Class<?>... parameterTypes) {
+        try {
+            return clazz.getMethod(name, parameterTypes);
+        } catch (NoSuchMethodException ex) {
+            throw new IllegalStateException("Cannot find method " + name + " on " + clazz.getName(), ex);
+        }
+    }
+
 }
@@ -0,0 +1,263 @@
+package net.ttddyy.dsproxy.proxy;
+
+import java.lang.reflect.Method;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Keeps parameter set operations of a {@link java.sql.PreparedStatement} or {@link java.sql.CallableStatement}.
+ *
+ * <p>Index based parameters are stored in a growable array indexed by parameter index. Setting the same index again
+ * updates the existing {@link ParameterSetOperation} in place instead of allocating a new one. Name based
+ * parameters(for {@link java.sql.CallableStatement}) are kept in a map in insertion order.
+ *
+ * <p>Operations are iterated in index order followed by named parameters.
+ *
+ * <p>Values are kept boxed in the argument array of each operation rather than in primitive slots. The array is what
+ * listeners and parameter transformers receive from {@link ParameterSetOperation#getArgs()}, so primitive slots
+ * would only move the boxing to every read. Setters box their arguments only when parameters are captured, see
+ * {@link PreparedStatementProxyLogic#isParameterCaptureRequired()}.
+ *
+ * @author Tadaya Tsuyukubo
+ * @since 1.4
+ */
+final class ParameterHolder {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private ParameterSetOperation[] operations = new ParameterSetOperation[INITIAL_CAPACITY];
+    private boolean[] present = new boolean[INITIAL_CAPACITY];
+    private int maxIndex = -1;  // highest index currently set
+    private int indexedCount;
+
+    private Map<String, ParameterSetOperation> namedOperations;  // created lazily
+    private Map<ParameterKey, ParameterSetOperation> mapView;  // created lazily
+
+    public void set(int index, Method method, Object[] args) {
+        if (index < 0) {
+            // not a valid jdbc parameter index, keep it with name
+            set(Integer.toString(index), method, args);
+            return;
+        }
+        ensureCapacity(index + 1);
+
+        final ParameterSetOperation operation = this.operations[index];
+        if (operation == null) {
+            this.operations[index] = new ParameterSetOperation(method, args);
+        } else {
+            operation.setMethod(method);
+            operation.setArgs(args);
+        }
+        if (!this.present[index]) {
+            this.present[index] = true;
+            this.indexedCount++;
+        }
+        if (index > this.maxIndex) {
+            this.maxIndex = index;
+        }
+    }
+
+    public void set(String name, Method method, Object[] args) {
+        if (this.namedOperations == null) {
+            this.namedOperations = new LinkedHashMap<String, ParameterSetOperation>();
+        }
+        this.namedOperations.put(name, new ParameterSetOperation(method, args));
+    }
+
+    public void set(ParameterKey key, ParameterSetOperation operation) {
+        if (key.isByIndex()) {
+            set(key.getIndex(), operation.getMethod(), operation.getArgs());
+        } else {
+            set(key.getName(), operation.getMethod(), operation.getArgs());
+        }
+    }
+
+    public int size() {
+        return this.indexedCount + (this.namedOperations == null ? 0 : this.namedOperations.size());
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public void clear() {
+        for (int i = 0; i <= this.maxIndex; i++) {
+            if (this.present[i]) {
+                // operation instance is reused, but its values(e.g. streams, large strings) must not be retained
+                this.operations[i].setArgs(null);
+                this.present[i] = false;
+            }
+        }
+        this.maxIndex = -1;
+        this.indexedCount = 0;
+        if (this.namedOperations != null) {
+            this.namedOperations.clear();
+        }
+    }
+
+    /**
+     * Append current operations to the given list.
+     *
+     * <p>Appended operations are owned by this holder and will be updated by subsequent set calls.
+     *
+     * @param list a list to add operations
+     */
+    public void addTo(List<ParameterSetOperation> list) {
+        for (int i = 0; i <= this.maxIndex; i++) {
+            if (this.present[i]) {
+                list.add(this.operations[i]);
+            }
+        }
+        if (this.namedOperations != null) {
+            list.addAll(this.namedOperations.values());
+        }
+    }
+
+    /**
+     * @return highest index currently set, or {@code -1}
+     */
+    public int getMaxIndex() {
+        return this.maxIndex;
+    }
+
+    /**
+     * @param index parameter index
+     * @return operation for the index, or {@code null} when not set
+     */
+    public ParameterSetOperation get(int index) {
+        if (index < 0 || index > this.maxIndex || !this.present[index]) {
+            return null;
+        }
+        return this.operations[index];
+    }
+
+    /**
+     * @return named operations, or {@code null} when none has been set
+     */
+    public Map<String, ParameterSetOperation> getNamedOperations() {
+        return this.namedOperations;
+    }
+
+    /**
+     * Read-only {@link Map} view keyed by {@link ParameterKey}. The view reflects the current content of this holder.
+     *
+     * @return map view
+     */
+    public Map<ParameterKey, ParameterSetOperation> asMap() {
+        if (this.mapView == null) {
+            this.mapView = new MapView();
+        }
+        return this.mapView;
+    }
+
+    private void ensureCapacity(int capacity) {
+        final int length = this.operations.length;
+        if (capacity > length) {
+            final int newLength = Math.max(capacity, length * 2);
+            this.operations = Arrays.copyOf(this.operations, newLength);
+            this.present = Arrays.copyOf(this.present, newLength);
+        }
+    }
+
+    private class MapView extends AbstractMap<ParameterKey, ParameterSetOperation> {
+
+        @Override
+        public int size() {
+            return ParameterHolder.this.size();
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return get(key) != null;
+        }
+
+        @Override
+        public ParameterSetOperation get(Object key) {
+            if (!(key instanceof ParameterKey)) {
+                return null;
+            }
+            final ParameterKey parameterKey = (ParameterKey) key;
+            if (parameterKey.isByIndex() && parameterKey.getIndex() >= 0) {
+                return ParameterHolder.this.get(parameterKey.getIndex());
+            }
+            final String name = parameterKey.isByIndex() ? Integer.toString(parameterKey.getIndex()) : parameterKey.getName();
+            return namedOperations == null ? null : namedOperations.get(name);
+        }
+
+        @Override
+        public Set<Entry<ParameterKey, ParameterSetOperation>> entrySet() {
+            return new AbstractSet<Entry<ParameterKey, ParameterSetOperation>>() {
+                @Override
+                public Iterator<Entry<ParameterKey, ParameterSetOperation>> iterator() {
+                    return new EntryIterator();
+                }
+
+                @Override
+                public int size() {
+                    return ParameterHolder.this.size();
+                }
+            };
+        }
+    }
+
+    private class EntryIterator implements Iterator<Map.Entry<ParameterKey, ParameterSetOperation>> {
+
+        private int nextIndex = findNextIndex(0);
+        private Iterator<Map.Entry<String, ParameterSetOperation>> namedIterator;
+
+        private int findNextIndex(int from) {
+            for (int i = from; i <= maxIndex; i++) {
+                if (present[i]) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private Iterator<Map.Entry<String, ParameterSetOperation>> getNamedIterator() {
+            if (this.namedIterator == null) {
+                Map<String, ParameterSetOperation> named = namedOperations;
+                this.namedIterator = named == null ?
+                        Collections.<String, ParameterSetOperation>emptyMap().entrySet().iterator() :
+                        named.entrySet().iterator();
+            }
+            return this.namedIterator;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.nextIndex >= 0 || getNamedIterator().hasNext();
+        }
+
+        @Override
+        public Map.Entry<ParameterKey, ParameterSetOperation> next() {
+            if (this.nextIndex >= 0) {
+                final int index = this.nextIndex;
+                this.nextIndex = findNextIndex(index + 1);
+                return new AbstractMap.SimpleImmutableEntry<ParameterKey, ParameterSetOperation>(
+                        ParameterKey.valueOf(index), operations[index]);
+            }
+            final Iterator<Map.Entry<String, ParameterSetOperation>> iterator = getNamedIterator();
+            if (!iterator.hasNext()) {
+                throw new NoSuchElementException();
+            }
+            final Map.Entry<String, ParameterSetOperation> entry = iterator.next();
+            return new AbstractMap.SimpleImmutableEntry<ParameterKey, ParameterSetOperation>(
+                    new ParameterKey(entry.getKey()), entry.getValue());
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+}
@@ -10,16 +10,42 @@ public class ParameterKey implements Comparable<ParameterKey> {
         BY_INDEX, BY_NAME
     }
 
-    private int index;
-    private String name;
-    private ParameterKeyType type;
+    private static final int CACHE_SIZE = 128;
+    private static final ParameterKey[] INDEX_KEY_CACHE = new ParameterKey[CACHE_SIZE];
+
+    static {
+        for (int i = 0; i < CACHE_SIZE; i++) {
+            INDEX_KEY_CACHE[i] = new ParameterKey(i);
+        }
+    }
+
+    /**
+     * Returns a {@link ParameterKey} for the given parameter index.
+     *
+     * <p>Keys for commonly used (small) indexes are cached and shared.
+     *
+     * @param index parameter index
+     * @return parameter key
+     */
+    public static ParameterKey valueOf(int index) {
+        if (index >= 0 && index < CACHE_SIZE) {
+            return INDEX_KEY_CACHE[index];
+        }
+        return new ParameterKey(index);
+    }
+
+    private final int index;
+    private final String name;
+    private final ParameterKeyType type;
 
     public ParameterKey(int index) {
         this.index = index;
+        this.name = null;
         this.type = ParameterKeyType.BY_INDEX;
     }
 
     public ParameterKey(String name) {
+        this.index = 0;
         this.name = name;
         this.type = ParameterKeyType.BY_NAME;
     }
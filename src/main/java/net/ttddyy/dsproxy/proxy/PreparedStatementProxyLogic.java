@@ -1,22 +1,23 @@
 package net.ttddyy.dsproxy.proxy;
 
+import net.ttddyy.dsproxy.BatchSummary;
 import net.ttddyy.dsproxy.ExecutionInfo;
 import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.ListenerCapabilities;
 import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.transform.NoOpParameterTransformer;
 import net.ttddyy.dsproxy.transform.ParameterReplacer;
 import net.ttddyy.dsproxy.transform.ParameterTransformer;
 import net.ttddyy.dsproxy.transform.TransformInfo;
 
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.sql.CallableStatement;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
-import java.sql.SQLException;
 import java.util.ArrayList;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Shared logic for {@link PreparedStatement} and {@link CallableStatement} invocation.
@@ -30,13 +31,22 @@ public class PreparedStatementProxyLogic {
     private String query;
     private String dataSourceName;
 
-    // when same key(index/name) is used for parameter set operation, old value will be replaced. To implement that logic
-    // using a map, so that putting same key will override the entry.
-    private Map<ParameterKey, ParameterSetOperation> parameters = new LinkedHashMap<ParameterKey, ParameterSetOperation>();
+    // when same key(index/name) is used for parameter set operation, old value will be replaced.
+    private final ParameterHolder parameters = new ParameterHolder();
     private InterceptorHolder interceptorHolder;
     private JdbcProxyFactory jdbcProxyFactory = JdbcProxyFactory.DEFAULT;
 
-    private List<Map<ParameterKey, ParameterSetOperation>> batchParameters = new ArrayList<Map<ParameterKey, ParameterSetOperation>>();
+    private final BatchParameterBuffer batchParameters = new BatchParameterBuffer();
+    private int batchCount;
+    private final BatchSummary batchSummary = new BatchSummary();
+
+    // reused for each execution
+    private final QueryInfo queryInfo = new QueryInfo();
+    private final List<QueryInfo> queries = new ArrayList<QueryInfo>(1);
+    private final List<List<ParameterSetOperation>> parametersList = new ArrayList<List<ParameterSetOperation>>(1);
+    private final List<ParameterSetOperation> parameterSetOperations = new ArrayList<ParameterSetOperation>();
+    private TransformInfo transformInfo;  // created when parameter transformer is used
+    private boolean parameterCaptureRequired;  // resolved per execution, not on each parameter set
 
     public PreparedStatementProxyLogic() {
     }
@@ -44,155 +54,317 @@ public class PreparedStatementProxyLogic {
     public PreparedStatementProxyLogic(PreparedStatement ps, String query, InterceptorHolder interceptorHolder, String dataSourceName, JdbcProxyFactory jdbcProxyFactory) {
         this.ps = ps;
         this.query = query;
+        this.queryInfo.setQuery(query);
         this.interceptorHolder = interceptorHolder;
+        // query analysis is resolved when a listener first asks the query info, and kept for later executions
         this.dataSourceName = dataSourceName;
         this.jdbcProxyFactory = jdbcProxyFactory;
+        this.parameterCaptureRequired = interceptorHolder != null && resolveParameterCaptureRequired();
     }
 
     public Object invoke(Method method, Object[] args) throws Throwable {
 
-        final String methodName = method.getName();
-
-        if (!StatementMethodNames.METHODS_TO_INTERCEPT.contains(methodName)) {
-            return MethodUtils.proceedExecution(method, ps, args);
-        }
-
-        // special treat for toString method
-        if ("toString".equals(methodName)) {
-            final StringBuilder sb = new StringBuilder();
-            sb.append(ps.getClass().getSimpleName());   // PreparedStatement or CallableStatement
-            sb.append(" [");
-            sb.append(ps.toString());
-            sb.append("]");
-            return sb.toString(); // differentiate toString message.
-        } else if ("getDataSourceName".equals(methodName)) {
-            return dataSourceName;
-        } else if ("getTarget".equals(methodName)) {
-            // ProxyJdbcObject interface has a method to return original object.
-            return ps;
-        }
-
-        if (StatementMethodNames.JDBC4_METHODS.contains(methodName)) {
-            final Class<?> clazz = (Class<?>) args[0];
-            if ("unwrap".equals(methodName)) {
-                return ps.unwrap(clazz);
-            } else if ("isWrapperFor".equals(methodName)) {
-                return ps.isWrapperFor(clazz);
-            }
+        final int action = StatementMethodDispatcher.getAction(method);
+
+        switch (action) {
+            case StatementMethodDispatcher.TO_STRING:
+                // special treat for toString method
+                final StringBuilder sb = new StringBuilder();
+                sb.append(ps.getClass().getSimpleName());   // PreparedStatement or CallableStatement
+                sb.append(" [");
+                sb.append(ps.toString());
+                sb.append("]");
+                return sb.toString(); // differentiate toString message.
+            case StatementMethodDispatcher.GET_DATA_SOURCE_NAME:
+                return dataSourceName;
+            case StatementMethodDispatcher.GET_TARGET:
+                // ProxyJdbcObject interface has a method to return original object.
+                return ps;
+            case StatementMethodDispatcher.UNWRAP:
+                return ps.unwrap((Class<?>) args[0]);
+            case StatementMethodDispatcher.IS_WRAPPER_FOR:
+                return ps.isWrapperFor((Class<?>) args[0]);
+            case StatementMethodDispatcher.GET_CONNECTION:
+                final Connection conn = (Connection) MethodUtils.proceedExecution(method, ps, args);
+                return jdbcProxyFactory.createConnection(conn, interceptorHolder, dataSourceName);
+            case StatementMethodDispatcher.SET_PARAMETER:
+                if (isParameterCaptureRequired()) {
+                    onSetParameter(method, args);
+                }
+                // proceed execution, no need to call listener
+                return MethodUtils.proceedExecution(method, ps, args);
+            case StatementMethodDispatcher.CLEAR_PARAMETERS:
+                onClearParameters();
+                return MethodUtils.proceedExecution(method, ps, args);
+            case StatementMethodDispatcher.ADD_BATCH:
+                onAddBatch();
+                return MethodUtils.proceedExecution(method, ps, args);
+            case StatementMethodDispatcher.CLEAR_BATCH:
+                onClearBatch();
+                return MethodUtils.proceedExecution(method, ps, args);
+            case StatementMethodDispatcher.BATCH_EXECUTION:
+            case StatementMethodDispatcher.QUERY_EXECUTION:
+                return execute(action, method, args, null);
+            default:
+                return MethodUtils.proceedExecution(method, ps, args);
         }
+    }
 
-        if (StatementMethodNames.GET_CONNECTION_METHOD.contains(methodName)) {
-            final Connection conn = (Connection) MethodUtils.proceedExecution(method, ps, args);
-            return jdbcProxyFactory.createConnection(conn, interceptorHolder, dataSourceName);
+    /**
+     * Record a parameter set operation. Caller calls the setter on the actual statement.
+     *
+     * <p>Call only when {@link #isParameterCaptureRequired()} returns {@code true}, so that arguments are not boxed
+     * for nothing.
+     *
+     * @param method setter method
+     * @param args   arguments of the setter, the first one is parameter index or name
+     * @since 1.4
+     */
+    public void onSetParameter(Method method, Object[] args) {
+        // when same key is specified, old value will be overridden
+        if (args[0] instanceof Integer) {
+            parameters.set((Integer) args[0], method, args);
+        } else if (args[0] instanceof String) {
+            parameters.set((String) args[0], method, args);
         }
+    }
 
+    /**
+     * Caller calls {@code clearParameters} on the actual statement.
+     *
+     * @since 1.4
+     */
+    public void onClearParameters() {
+        parameters.clear();
+    }
 
-        if (StatementMethodNames.METHODS_TO_OPERATE_PARAMETER.contains(methodName)) {
+    /**
+     * Move current parameters to the batch. Caller calls {@code addBatch} on the actual statement.
+     *
+     * @throws Throwable thrown by a parameter transformer or re-setting transformed parameters
+     * @since 1.4
+     */
+    public void onAddBatch() throws Throwable {
+        if (isParameterCaptureRequired()) {
+            transformParameters(true, batchCount);
+            final BatchCapturePolicy batchCapturePolicy = interceptorHolder.getBatchCapturePolicy();
+            if (batchCapturePolicy.isBounded()) {
+                summarizeParameters();
+            }
+            if (batchCapturePolicy.isCaptureRequired(batchParameters.size())) {
+                batchParameters.addRow(parameters);
+            }
+        }
+        parameters.clear();
+        batchCount++;
+    }
 
-            // for parameter operation method
-            if (StatementMethodNames.PARAMETER_METHODS.contains(methodName)) {
+    /**
+     * Caller calls {@code clearBatch} on the actual statement.
+     *
+     * @since 1.4
+     */
+    public void onClearBatch() {
+        clearBatchParameters();
+        batchCount = 0;
+    }
 
-                // operation to set or clear parameterOperationHolder
-                if ("clearParameters".equals(methodName)) {
-                    parameters.clear();
-                } else {
+    /**
+     * Perform a query or batch execution method with listeners.
+     *
+     * @param method  execution method
+     * @param args    arguments of the method
+     * @param invoker calls the method on the actual statement without reflection
+     * @return result of the execution
+     * @throws Throwable thrown by the actual statement or listeners
+     * @since 1.4
+     */
+    public Object execute(Method method, Object[] args, MethodInvoker invoker) throws Throwable {
+        return execute(StatementMethodDispatcher.getAction(method), method, args, invoker);
+    }
 
-                    ParameterKey parameterKey;
-                    if (args[0] instanceof Integer) {
-                        parameterKey = new ParameterKey((Integer) args[0]);
-                    } else if (args[0] instanceof String) {
-                        parameterKey = new ParameterKey((String) args[0]);
-                    } else {
-                        return MethodUtils.proceedExecution(method, ps, args);
-                    }
-
-                    // when same key is specified, old value will be overridden
-                    parameters.put(parameterKey, new ParameterSetOperation(method, args));
-                }
+    private Object proceed(Method method, Object[] args, MethodInvoker invoker) throws Throwable {
+        return invoker != null ? invoker.invoke(this.ps, args) : MethodUtils.proceedExecution(method, this.ps, args);
+    }
 
-            } else if (StatementMethodNames.BATCH_PARAM_METHODS.contains(methodName)) {
+    private Object execute(int action, Method method, Object[] args, MethodInvoker invoker) throws Throwable {
+        final int capabilities = interceptorHolder.getListenerCapabilities();
+        final boolean callBefore = (capabilities & ListenerCapabilities.BEFORE_QUERY) != 0;
+        final boolean callAfter = (capabilities & ListenerCapabilities.AFTER_QUERY) != 0;
+        final boolean listened = callBefore || callAfter;
 
-                // Batch parameter operation
-                if ("addBatch".equals(methodName)) {
+        boolean isBatchExecution = false;
+        int batchSize = 0;
 
-                    // TODO: check
-                    transformParameters(true, batchParameters.size());
+        if (action == StatementMethodDispatcher.BATCH_EXECUTION) {
 
-                    // copy values
-                    Map<ParameterKey, ParameterSetOperation> newParams = new LinkedHashMap<ParameterKey, ParameterSetOperation>(parameters);
-                    batchParameters.add(newParams);
+            if (listened) {
+                // one query with multiple parameters. rows are materialized when accessed
+                this.queryInfo.setParametersList(batchParameters.asList());
 
-                    parameters.clear();
-                } else if ("clearBatch".equals(methodName)) {
-                    batchParameters.clear();
+                if (interceptorHolder.getBatchCapturePolicy().isBounded()) {
+                    this.batchSummary.setRowCount(batchCount);
+                    this.batchSummary.setCapturedRowCount(batchParameters.size());
+                    this.queryInfo.setBatchSummary(this.batchSummary);
+                } else {
+                    this.queryInfo.setBatchSummary(null);
                 }
             }
 
-            // proceed execution, no need to call listener
-            return MethodUtils.proceedExecution(method, ps, args);
-        }
-
-
-        // query execution methods
-
-        final List<QueryInfo> queries = new ArrayList<QueryInfo>();
-        boolean isBatchExecution = false;
-        int batchSize = 0;
-
-        if (StatementMethodNames.BATCH_EXEC_METHODS.contains(methodName)) {
+            batchSize = batchCount;
+            batchCount = 0;
+            isBatchExecution = true;
 
-            // one query with multiple parameters
-            QueryInfo queryInfo = new QueryInfo(this.query);
-            for (Map<ParameterKey, ParameterSetOperation> params : batchParameters) {
-                queryInfo.getParametersList().add(new ArrayList<ParameterSetOperation>(params.values()));
+        } else {
+            if (isParameterCaptureRequired()) {
+                transformParameters(false, 0);
             }
-            queries.add(queryInfo);
+            if (listened) {
+                this.parameterSetOperations.clear();
+                parameters.addTo(this.parameterSetOperations);
+                this.parametersList.clear();
+                this.parametersList.add(this.parameterSetOperations);
+                this.queryInfo.setParametersList(this.parametersList);
+                this.queryInfo.setBatchSummary(null);
+            }
+        }
 
-            batchSize = batchParameters.size();
-            batchParameters.clear();
-            isBatchExecution = true;
+        if (!listened) {
+            // no listener consumes this execution
+            try {
+                return proceed(method, args, invoker);
+            } finally {
+                if (isBatchExecution) {
+                    clearBatchParameters();
+                }
+                this.parameterCaptureRequired = resolveParameterCaptureRequired();
+            }
+        }
 
-        } else if (StatementMethodNames.QUERY_EXEC_METHODS.contains(methodName)) {
-            transformParameters(false, 0);
-            QueryInfo queryInfo = new QueryInfo(this.query);
-            queryInfo.getParametersList().add(new ArrayList<ParameterSetOperation>(parameters.values()));
-            queries.add(queryInfo);
+        final List<QueryInfo> queries = this.queries;
+        if (queries.isEmpty()) {
+            queries.add(this.queryInfo);
         }
 
         final QueryExecutionListener listener = interceptorHolder.getListener();
-        listener.beforeQuery(new ExecutionInfo(dataSourceName, this.ps, isBatchExecution, batchSize, method, args), queries);
+        final ExecutionInfo execInfo = new ExecutionInfo(dataSourceName, this.ps, isBatchExecution, batchSize, method, args);
+        if (callBefore) {
+            listener.beforeQuery(execInfo, queries);
+        }
 
         // Invoke method on original Statement.
-        final ExecutionInfo execInfo = new ExecutionInfo(dataSourceName, this.ps, isBatchExecution, batchSize, method, args);
 
+        final boolean timing = (capabilities & ListenerCapabilities.TIMING) != 0;
+        final Ticker ticker = interceptorHolder.getTicker();
+        final long beforeTime = timing ? ticker.read() : 0;
         try {
-            final long beforeTime = System.currentTimeMillis();
-
-            Object retVal = method.invoke(ps, args);
+            Object retVal = proceed(method, args, invoker);
 
-            final long afterTime = System.currentTimeMillis();
-
-            execInfo.setResult(retVal);
-            execInfo.setElapsedTime(afterTime - beforeTime);
+            if ((capabilities & ListenerCapabilities.RESULT) != 0) {
+                execInfo.setResult(retVal);
+            }
             execInfo.setSuccess(true);
 
             return retVal;
-        } catch (InvocationTargetException ex) {
-            execInfo.setThrowable(ex.getTargetException());
+        } catch (Throwable throwable) {
+            execInfo.setThrowable(throwable);
             execInfo.setSuccess(false);
-            throw ex.getTargetException();
+            throw throwable;
         } finally {
-            listener.afterQuery(execInfo, queries);
+            if (timing) {
+                final long afterTime = ticker.read();
+                execInfo.setStartTime(beforeTime);
+                execInfo.setEndTime(afterTime);
+                execInfo.setElapsedTime(afterTime - beforeTime, TimeUnit.NANOSECONDS);
+            }
+            try {
+                if (callAfter) {
+                    listener.afterQuery(execInfo, queries);
+                }
+            } finally {
+                if (isBatchExecution) {
+                    // listeners must not retain parameters, release them right after the callbacks
+                    clearBatchParameters();
+                }
+                // pick up listener or transformer changes for the next execution
+                this.parameterCaptureRequired = resolveParameterCaptureRequired();
+            }
+        }
+    }
+
+    private void clearBatchParameters() {
+        this.batchParameters.clear();
+        this.batchSummary.reset();
+    }
+
+    private void summarizeParameters() {
+        for (int i = 0; i <= this.parameters.getMaxIndex(); i++) {
+            final ParameterSetOperation operation = this.parameters.get(i);
+            if (operation != null) {
+                summarizeParameter(operation);
+            }
         }
+        final Map<String, ParameterSetOperation> namedOperations = this.parameters.getNamedOperations();
+        if (namedOperations != null) {
+            for (ParameterSetOperation operation : namedOperations.values()) {
+                summarizeParameter(operation);
+            }
+        }
+    }
+
+    private void summarizeParameter(ParameterSetOperation operation) {
+        if (ParameterSetOperation.isRegisterOutParameterOperation(operation)) {
+            return;
+        }
+        final Object[] args = operation.getArgs();
+        if (ParameterSetOperation.isSetNullParameterOperation(operation) || args.length < 2 || args[1] == null) {
+            this.batchSummary.incrementNullCount();
+        } else {
+            this.batchSummary.addByteSize(BatchSummary.estimateByteSize(args[1]));
+        }
+    }
+
+    /**
+     * Parameters are captured only when a listener consumes them or a parameter transformer may replace them.
+     *
+     * @return {@code true} when parameter set operations need to be recorded by {@link #onSetParameter}
+     * @since 1.4
+     */
+    public boolean isParameterCaptureRequired() {
+        return this.parameterCaptureRequired;
     }
 
+    private boolean resolveParameterCaptureRequired() {
+        final int capabilities = interceptorHolder.getListenerCapabilities();
+        final boolean listened = (capabilities & (ListenerCapabilities.BEFORE_QUERY | ListenerCapabilities.AFTER_QUERY)) != 0;
+        if (listened && (capabilities & ListenerCapabilities.PARAMETERS) != 0) {
+            return true;
+        }
+        return !isNoOpParameterTransformer(interceptorHolder.getParameterTransformer());
+    }
+
+    private static boolean isNoOpParameterTransformer(ParameterTransformer parameterTransformer) {
+        return parameterTransformer == null || parameterTransformer == ParameterTransformer.DEFAULT
+                || parameterTransformer.getClass() == NoOpParameterTransformer.class;
+    }
 
-    private void transformParameters(boolean isBatch, int count) throws SQLException, IllegalAccessException, InvocationTargetException {
+    private void transformParameters(boolean isBatch, int count) throws Throwable {
 
-        // transform parameters
-        final ParameterReplacer parameterReplacer = new ParameterReplacer(this.parameters);
-        final TransformInfo transformInfo = new TransformInfo(ps.getClass(), dataSourceName, query, isBatch, count);
         final ParameterTransformer parameterTransformer = interceptorHolder.getParameterTransformer();
+        if (isNoOpParameterTransformer(parameterTransformer)) {
+            return;
+        }
+
+        // transform parameters. replacer copies the parameters only when they are modified.
+        final ParameterReplacer parameterReplacer = new ParameterReplacer(this.parameters.asMap());
+        TransformInfo transformInfo = this.transformInfo;
+        if (transformInfo == null) {
+            transformInfo = new TransformInfo(ps.getClass(), dataSourceName, query, isBatch, count);
+            this.transformInfo = transformInfo;
+        } else {
+            transformInfo.setBatch(isBatch);
+            transformInfo.setCount(count);
+        }
         parameterTransformer.transformParameters(parameterReplacer, transformInfo);
 
         if (parameterReplacer.isModified()) {
@@ -202,13 +374,14 @@ public class PreparedStatementProxyLogic {
             // re-set parameters
             Map<ParameterKey, ParameterSetOperation> modifiedParameters = parameterReplacer.getModifiedParameters();
             for (ParameterSetOperation operation : modifiedParameters.values()) {
-                final Method paramMethod = operation.getMethod();
-                final Object[] paramArgs = operation.getArgs();
-                paramMethod.invoke(ps, paramArgs);
+                MethodUtils.proceedExecution(operation.getMethod(), ps, operation.getArgs());
             }
 
             // replace
-            this.parameters = modifiedParameters;
+            this.parameters.clear();
+            for (Map.Entry<ParameterKey, ParameterSetOperation> entry : modifiedParameters.entrySet()) {
+                this.parameters.set(entry.getKey(), entry.getValue());
+            }
         }
     }
 
@@ -0,0 +1,91 @@
+package net.ttddyy.dsproxy.proxy;
+
+import java.lang.reflect.Method;
+import java.sql.CallableStatement;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Resolves {@link Method} to an action code for {@link StatementProxyLogic} and
+ * {@link PreparedStatementProxyLogic}.
+ *
+ * <p>Methods of jdbc statement interfaces are classified once at class initialization. Any other method is
+ * classified by name on first call and cached, so that each invocation costs a single map lookup.
+ *
+ * @author Tadaya Tsuyukubo
+ * @see StatementMethodNames
+ * @since 1.4
+ */
+final class StatementMethodDispatcher {
+
+    static final int PROCEED = 0;
+    static final int TO_STRING = 1;
+    static final int GET_DATA_SOURCE_NAME = 2;
+    static final int GET_TARGET = 3;
+    static final int UNWRAP = 4;
+    static final int IS_WRAPPER_FOR = 5;
+    static final int GET_CONNECTION = 6;
+    static final int SET_PARAMETER = 7;
+    static final int CLEAR_PARAMETERS = 8;
+    static final int ADD_BATCH = 9;
+    static final int CLEAR_BATCH = 10;
+    static final int BATCH_EXECUTION = 11;
+    static final int QUERY_EXECUTION = 12;
+
+    private static final ConcurrentMap<Method, Integer> ACTIONS = new ConcurrentHashMap<Method, Integer>(512);
+
+    static {
+        for (Class<?> clazz : new Class<?>[]{CallableStatement.class, PreparedStatement.class, Statement.class,
+                ProxyJdbcObject.class, DataSourceNameAware.class, Object.class}) {
+            for (Method method : clazz.getMethods()) {
+                ACTIONS.put(method, resolve(method.getName()));
+            }
+        }
+    }
+
+    private StatementMethodDispatcher() {
+    }
+
+    static int getAction(Method method) {
+        Integer action = ACTIONS.get(method);
+        if (action == null) {
+            action = resolve(method.getName());
+            ACTIONS.putIfAbsent(method, action);
+        }
+        return action;
+    }
+
+    private static int resolve(String methodName) {
+        if (!StatementMethodNames.METHODS_TO_INTERCEPT.contains(methodName)) {
+            return PROCEED;
+        } else if ("toString".equals(methodName)) {
+            return TO_STRING;
+        } else if ("getDataSourceName".equals(methodName)) {
+            return GET_DATA_SOURCE_NAME;
+        } else if ("getTarget".equals(methodName)) {
+            return GET_TARGET;
+        } else if ("unwrap".equals(methodName)) {
+            return UNWRAP;
+        } else if ("isWrapperFor".equals(methodName)) {
+            return IS_WRAPPER_FOR;
+        } else if (StatementMethodNames.GET_CONNECTION_METHOD.contains(methodName)) {
+            return GET_CONNECTION;
+        } else if ("clearParameters".equals(methodName)) {
+            return CLEAR_PARAMETERS;
+        } else if (StatementMethodNames.PARAMETER_METHODS.contains(methodName)) {
+            return SET_PARAMETER;
+        } else if ("addBatch".equals(methodName)) {
+            return ADD_BATCH;
+        } else if ("clearBatch".equals(methodName)) {
+            return CLEAR_BATCH;
+        } else if (StatementMethodNames.BATCH_EXEC_METHODS.contains(methodName)) {
+            return BATCH_EXECUTION;
+        } else if (StatementMethodNames.QUERY_EXEC_METHODS.contains(methodName)) {
+            return QUERY_EXECUTION;
+        }
+        return PROCEED;
+    }
+
+}
@@ -1,16 +1,20 @@
 package net.ttddyy.dsproxy.proxy;
 
+import net.ttddyy.dsproxy.BatchSummary;
 import net.ttddyy.dsproxy.ExecutionInfo;
 import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.ListenerCapabilities;
 import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryUtils;
 import net.ttddyy.dsproxy.transform.QueryTransformer;
 import net.ttddyy.dsproxy.transform.TransformInfo;
 
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.sql.Connection;
 import java.sql.Statement;
-import java.util.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Proxy Logic implementation for {@link Statement} methods.
@@ -20,24 +24,16 @@ import java.util.*;
  */
 public class StatementProxyLogic {
 
-    private static final Set<String> METHODS_TO_INTERCEPT = Collections.unmodifiableSet(
-            new HashSet<String>() {
-                {
-                    addAll(StatementMethodNames.BATCH_PARAM_METHODS);
-                    addAll(StatementMethodNames.EXEC_METHODS);
-                    addAll(StatementMethodNames.JDBC4_METHODS);
-                    addAll(StatementMethodNames.GET_CONNECTION_METHOD);
-                    add("getDataSourceName");
-                    add("toString");
-                    add("getTarget"); // from ProxyJdbcObject
-                }
-            }
-    );
-
     private Statement stmt;
     private InterceptorHolder interceptorHolder;
     private String dataSourceName;
     private List<String> batchQueries = new ArrayList<String>();
+    private int batchCount;
+    private final BatchSummary batchSummary = new BatchSummary();
+
+    // reused for each execution
+    private final List<QueryInfo> queries = new ArrayList<QueryInfo>();
+    private final QueryInfo queryInfo = new QueryInfo();
     private JdbcProxyFactory jdbcProxyFactory = JdbcProxyFactory.DEFAULT;
 
     public StatementProxyLogic() {
@@ -53,78 +49,148 @@ public class StatementProxyLogic {
 
     public Object invoke(Method method, Object[] args) throws Throwable {
 
-        final String methodName = method.getName();
-
-        if (!METHODS_TO_INTERCEPT.contains(methodName)) {
-            return MethodUtils.proceedExecution(method, stmt, args);
+        final int action = StatementMethodDispatcher.getAction(method);
+
+        switch (action) {
+            case StatementMethodDispatcher.TO_STRING:
+                // special treat for toString method
+                final StringBuilder sb = new StringBuilder();
+                sb.append(stmt.getClass().getSimpleName());
+                sb.append(" [");
+                sb.append(stmt.toString());
+                sb.append("]");
+                return sb.toString(); // differentiate toString message.
+            case StatementMethodDispatcher.GET_DATA_SOURCE_NAME:
+                return dataSourceName;
+            case StatementMethodDispatcher.GET_TARGET:
+                // ProxyJdbcObject interface has method to return original object.
+                return stmt;
+            case StatementMethodDispatcher.UNWRAP:
+                return stmt.unwrap((Class<?>) args[0]);
+            case StatementMethodDispatcher.IS_WRAPPER_FOR:
+                return stmt.isWrapperFor((Class<?>) args[0]);
+            case StatementMethodDispatcher.GET_CONNECTION:
+                final Connection conn = (Connection) MethodUtils.proceedExecution(method, stmt, args);
+                return jdbcProxyFactory.createConnection(conn, interceptorHolder, dataSourceName);
+            case StatementMethodDispatcher.ADD_BATCH:
+                if (ObjectArrayUtils.isFirstArgString(args)) {
+                    args[0] = onAddBatch((String) args[0]);  // replace to the new query
+                }
+                // proceed execution, no need to call listener
+                return MethodUtils.proceedExecution(method, stmt, args);
+            case StatementMethodDispatcher.CLEAR_BATCH:
+                onClearBatch();
+                // proceed execution, no need to call listener
+                return MethodUtils.proceedExecution(method, stmt, args);
+            case StatementMethodDispatcher.BATCH_EXECUTION:
+            case StatementMethodDispatcher.QUERY_EXECUTION:
+                return execute(action, method, args, null);
+            default:
+                // parameter methods are only intercepted for PreparedStatement and CallableStatement
+                return MethodUtils.proceedExecution(method, stmt, args);
         }
+    }
 
-        // special treat for toString method
-        if ("toString".equals(methodName)) {
-            final StringBuilder sb = new StringBuilder();
-            sb.append(stmt.getClass().getSimpleName());
-            sb.append(" [");
-            sb.append(stmt.toString());
-            sb.append("]");
-            return sb.toString(); // differentiate toString message.
-        } else if ("getDataSourceName".equals(methodName)) {
-            return dataSourceName;
-        } else if ("getTarget".equals(methodName)) {
-            // ProxyJdbcObject interface has method to return original object.
-            return stmt;
+    /**
+     * Transform and record a batch query. Caller calls {@code addBatch} on the actual statement with the returned
+     * query.
+     *
+     * @param query query to add
+     * @return transformed query
+     * @since 1.4
+     */
+    public String onAddBatch(String query) {
+        if (batchCount == 0) {
+            batchSummary.reset();  // new batch
         }
-
-        if (StatementMethodNames.JDBC4_METHODS.contains(methodName)) {
-            final Class<?> clazz = (Class<?>) args[0];
-            if ("unwrap".equals(methodName)) {
-                return stmt.unwrap(clazz);
-            } else if ("isWrapperFor".equals(methodName)) {
-                return stmt.isWrapperFor(clazz);
-            }
+        final QueryTransformer queryTransformer = interceptorHolder.getQueryTransformer();
+        final Class<? extends Statement> clazz = Statement.class;
+        final TransformInfo transformInfo = new TransformInfo(clazz, dataSourceName, query, true, batchCount);
+        final String transformedQuery = queryTransformer.transformQuery(transformInfo);
+
+        final BatchCapturePolicy batchCapturePolicy = interceptorHolder.getBatchCapturePolicy();
+        if (batchCapturePolicy.isCaptureRequired(batchQueries.size())) {
+            batchQueries.add(transformedQuery);
         }
-
-        if (StatementMethodNames.GET_CONNECTION_METHOD.contains(methodName)) {
-            final Connection conn = (Connection) MethodUtils.proceedExecution(method, stmt, args);
-            return jdbcProxyFactory.createConnection(conn, interceptorHolder, dataSourceName);
+        if (batchCapturePolicy.isBounded()) {
+            batchSummary.addByteSize(BatchSummary.estimateByteSize(transformedQuery));
+            batchSummary.incrementQueryTypeCount(QueryUtils.getQueryType(transformedQuery));
         }
+        batchCount++;
+        return transformedQuery;
+    }
 
-        if ("addBatch".equals(methodName) || "clearBatch".equals(methodName)) {
-            if ("addBatch".equals(methodName) && ObjectArrayUtils.isFirstArgString(args)) {
-                final QueryTransformer queryTransformer = interceptorHolder.getQueryTransformer();
-                final String query = (String) args[0];
-                final Class<? extends Statement> clazz = Statement.class;
-                final int batchCount = batchQueries.size();
-                final TransformInfo transformInfo = new TransformInfo(clazz, dataSourceName, query, true, batchCount);
-                final String transformedQuery = queryTransformer.transformQuery(transformInfo);
-                args[0] = transformedQuery;  // replace to the new query
-                batchQueries.add(transformedQuery);
-            } else if ("clearBatch".equals(methodName)) {
-                batchQueries.clear();
-            }
+    /**
+     * Caller calls {@code clearBatch} on the actual statement.
+     *
+     * @since 1.4
+     */
+    public void onClearBatch() {
+        batchQueries.clear();
+        batchCount = 0;
+        batchSummary.reset();
+    }
 
-            // proceed execution, no need to call listener
-            try {
-                return method.invoke(stmt, args);
-            } catch (InvocationTargetException ex) {
-                throw ex.getTargetException();
-            }
-        }
+    /**
+     * Perform a query or batch execution method with listeners. The query in the first argument is replaced with the
+     * transformed one before the invoker is called.
+     *
+     * @param method  execution method
+     * @param args    arguments of the method
+     * @param invoker calls the method on the actual statement without reflection
+     * @return result of the execution
+     * @throws Throwable thrown by the actual statement or listeners
+     * @since 1.4
+     */
+    public Object execute(Method method, Object[] args, MethodInvoker invoker) throws Throwable {
+        return execute(StatementMethodDispatcher.getAction(method), method, args, invoker);
+    }
+
+    private Object proceed(Method method, Object[] args, MethodInvoker invoker) throws Throwable {
+        return invoker != null ? invoker.invoke(this.stmt, args) : MethodUtils.proceedExecution(method, this.stmt, args);
+    }
 
+    private Object execute(int action, Method method, Object[] args, MethodInvoker invoker) throws Throwable {
 
-        final List<QueryInfo> queries = new ArrayList<QueryInfo>();
+        final int capabilities = interceptorHolder.getListenerCapabilities();
+        final boolean callBefore = (capabilities & ListenerCapabilities.BEFORE_QUERY) != 0;
+        final boolean callAfter = (capabilities & ListenerCapabilities.AFTER_QUERY) != 0;
+        final boolean listened = callBefore || callAfter;
+
+        final List<QueryInfo> queries = this.queries;
+        queries.clear();
         boolean isBatchExecute = false;
         int batchSize = 0;
 
-        if (StatementMethodNames.BATCH_EXEC_METHODS.contains(methodName)) {
+        if (action == StatementMethodDispatcher.BATCH_EXECUTION) {
 
-            for (String batchQuery : batchQueries) {
-                queries.add(new QueryInfo(batchQuery));
+            if (listened) {
+                final boolean bounded = interceptorHolder.getBatchCapturePolicy().isBounded();
+                if (bounded) {
+                    this.batchSummary.setRowCount(batchCount);
+                    this.batchSummary.setCapturedRowCount(batchQueries.size());
+                }
+                for (String batchQuery : batchQueries) {
+                    final QueryInfo batchQueryInfo = new QueryInfo(batchQuery);
+                    if (bounded) {
+                        // all entries share the summary of the whole batch
+                        batchQueryInfo.setBatchSummary(this.batchSummary);
+                    }
+                    queries.add(batchQueryInfo);
+                }
+                if (bounded && queries.isEmpty()) {
+                    // nothing captured, a query info without query carries the summary
+                    final QueryInfo summaryQueryInfo = new QueryInfo();
+                    summaryQueryInfo.setBatchSummary(this.batchSummary);
+                    queries.add(summaryQueryInfo);
+                }
             }
-            batchSize = batchQueries.size();
+            batchSize = batchCount;
             batchQueries.clear();
+            batchCount = 0;
             isBatchExecute = true;
 
-        } else if (StatementMethodNames.QUERY_EXEC_METHODS.contains(methodName)) {
+        } else {
 
             if (ObjectArrayUtils.isFirstArgString(args)) {
                 final QueryTransformer queryTransformer = interceptorHolder.getQueryTransformer();
@@ -132,32 +198,51 @@ public class StatementProxyLogic {
                 final TransformInfo transformInfo = new TransformInfo(Statement.class, dataSourceName, query, false, 0);
                 final String transformedQuery = queryTransformer.transformQuery(transformInfo);
                 args[0] = transformedQuery; // replace to the new query
-                queries.add(new QueryInfo(transformedQuery));
+                if (listened) {
+                    this.queryInfo.setQuery(transformedQuery);
+                    queries.add(this.queryInfo);
+                }
             }
         }
 
-        final QueryExecutionListener listener = interceptorHolder.getListener();
-        listener.beforeQuery(new ExecutionInfo(dataSourceName, this.stmt, isBatchExecute, batchSize, method, args), queries);
+        if (!listened) {
+            // no listener consumes this execution
+            return proceed(method, args, invoker);
+        }
 
+        final QueryExecutionListener listener = interceptorHolder.getListener();
         final ExecutionInfo execInfo = new ExecutionInfo(dataSourceName, this.stmt, isBatchExecute, batchSize, method, args);
+        if (callBefore) {
+            listener.beforeQuery(execInfo, queries);
+        }
+
         // Invoke method on original Statement.
+        final boolean timing = (capabilities & ListenerCapabilities.TIMING) != 0;
+        final Ticker ticker = interceptorHolder.getTicker();
+        final long beforeTime = timing ? ticker.read() : 0;
         try {
-            final long beforeTime = System.currentTimeMillis();
+            Object retVal = proceed(method, args, invoker);
 
-            Object retVal = method.invoke(stmt, args);
-
-            final long afterTime = System.currentTimeMillis();
-            execInfo.setResult(retVal);
-            execInfo.setElapsedTime(afterTime - beforeTime);
+            if ((capabilities & ListenerCapabilities.RESULT) != 0) {
+                execInfo.setResult(retVal);
+            }
             execInfo.setSuccess(true);
 
             return retVal;
-        } catch (InvocationTargetException ex) {
-            execInfo.setThrowable(ex.getTargetException());
+        } catch (Throwable throwable) {
+            execInfo.setThrowable(throwable);
             execInfo.setSuccess(false);
-            throw ex.getTargetException();
+            throw throwable;
         } finally {
-            listener.afterQuery(execInfo, queries);
+            if (timing) {
+                final long afterTime = ticker.read();
+                execInfo.setStartTime(beforeTime);
+                execInfo.setEndTime(afterTime);
+                execInfo.setElapsedTime(afterTime - beforeTime, TimeUnit.NANOSECONDS);
+            }
+            if (callAfter) {
+                listener.afterQuery(execInfo, queries);
+            }
         }
 
     }
@@ -0,0 +1,44 @@
+package net.ttddyy.dsproxy.proxy;
+
+/**
+ * Time source to measure query execution time.
+ *
+ * <p>Returned value is in nanoseconds and only meaningful to compute elapsed time between two reads.
+ *
+ * @author Tadaya Tsuyukubo
+ * @see InterceptorHolder#setTicker(Ticker)
+ * @since 1.4
+ */
+public interface Ticker {
+
+    /**
+     * Monotonic ticker backed by {@link System#nanoTime()}.
+     */
+    static final Ticker NANO_TIME = new Ticker() {
+        public long read() {
+            return System.nanoTime();
+        }
+    };
+
+    /**
+     * Coarse ticker backed by {@link System#currentTimeMillis()}.
+     *
+     * <p>Resolution is milliseconds and it is affected by wall clock adjustment.
+     */
+    static final Ticker CURRENT_TIME_MILLIS = new Ticker() {
+        public long read() {
+            return System.currentTimeMillis() * 1000000L;
+        }
+    };
+
+    /**
+     * use {@link #NANO_TIME} as default.
+     */
+    static final Ticker DEFAULT = NANO_TIME;
+
+    /**
+     * @return current time in nanoseconds
+     */
+    long read();
+
+}
@@ -0,0 +1,67 @@
+package net.ttddyy.dsproxy.proxy.delegate;
+
+import net.ttddyy.dsproxy.proxy.ConnectionProxyLogic;
+import net.ttddyy.dsproxy.proxy.DataSourceProxyLogic;
+import net.ttddyy.dsproxy.proxy.InterceptorHolder;
+import net.ttddyy.dsproxy.proxy.JdbcProxyFactory;
+import net.ttddyy.dsproxy.proxy.PreparedStatementProxyLogic;
+import net.ttddyy.dsproxy.proxy.StatementProxyLogic;
+
+import javax.sql.DataSource;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+
+/**
+ * {@link net.ttddyy.dsproxy.proxy.JdbcProxyFactory} implementation that returns concrete delegating classes
+ * instead of dynamic proxies.
+ *
+ * <p>Intercepted methods call the same proxy logic classes as {@link net.ttddyy.dsproxy.proxy.jdk.JdkJdbcProxyFactory},
+ * other methods are plain calls on the actual jdbc object without reflection.
+ *
+ * @author Tadaya Tsuyukubo
+ * @since 1.4
+ */
+public class DelegateJdbcProxyFactory implements JdbcProxyFactory {
+
+    public DataSource createDataSource(DataSource dataSource, InterceptorHolder interceptorHolder, String dataSourceName) {
+        return new DelegatingDataSource(dataSource,
+                new DataSourceProxyLogic(dataSource, interceptorHolder, dataSourceName, this));
+    }
+
+    public Connection createConnection(Connection connection, InterceptorHolder interceptorHolder) {
+        return createConnection(connection, interceptorHolder, "");
+    }
+
+    public Connection createConnection(Connection connection, InterceptorHolder interceptorHolder, String dataSourceName) {
+        return new DelegatingConnection(connection,
+                new ConnectionProxyLogic(connection, interceptorHolder, dataSourceName, this));
+    }
+
+    public Statement createStatement(Statement statement, InterceptorHolder interceptorHolder) {
+        return createStatement(statement, interceptorHolder, "");
+    }
+
+    public Statement createStatement(Statement statement, InterceptorHolder interceptorHolder, String dataSourceName) {
+        return new DelegatingStatement(statement,
+                new StatementProxyLogic(statement, interceptorHolder, dataSourceName, this));
+    }
+
+    public PreparedStatement createPreparedStatement(PreparedStatement preparedStatement, String query,
+                                                     InterceptorHolder interceptorHolder) {
+        return createPreparedStatement(preparedStatement, query, interceptorHolder, "");
+    }
+
+    public PreparedStatement createPreparedStatement(PreparedStatement preparedStatement, String query,
+                                                     InterceptorHolder interceptorHolder, String dataSourceName) {
+        return new DelegatingPreparedStatement(preparedStatement,
+                new PreparedStatementProxyLogic(preparedStatement, query, interceptorHolder, dataSourceName, this));
+    }
+
+    public CallableStatement createCallableStatement(CallableStatement callableStatement, String query,
+                                                     InterceptorHolder interceptorHolder, String dataSourceName) {
+        return new DelegatingCallableStatement(callableStatement,
+                new PreparedStatementProxyLogic(callableStatement, query, interceptorHolder, dataSourceName, this));
+    }
+}
@@ -0,0 +1,1906 @@
+package net.ttddyy.dsproxy.proxy.delegate;
+
+import net.ttddyy.dsproxy.proxy.MethodInvoker;
+import net.ttddyy.dsproxy.proxy.MethodUtils;
+import net.ttddyy.dsproxy.proxy.PreparedStatementProxyLogic;
+import net.ttddyy.dsproxy.proxy.ProxyJdbcObject;
+import org.codehaus.mojo.animal_sniffer.IgnoreJRERequirement;
+
+import java.io.InputStream;
+import java.io.Reader;
+import java.lang.reflect.Method;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.math.BigDecimal;
+import java.net.URL;
+import java.sql.Array;
+import java.sql.Blob;
+import java.sql.CallableStatement;
+import java.sql.Clob;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.NClob;
+import java.sql.ParameterMetaData;
+import java.sql.Ref;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.RowId;
+import java.sql.SQLException;
+import java.sql.SQLType;
+import java.sql.SQLWarning;
+import java.sql.SQLXML;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.Calendar;
+import java.util.Map;
+
+/**
+ * {@link CallableStatement} implementation that delegates to the actual statement and routes
+ * parameter, batch, execution, {@code getConnection} and wrapper calls through
+ * {@link PreparedStatementProxyLogic}.
+ *
+ * <p>Methods that the proxy logic does not intercept are plain calls on the actual object.
+ *
+ * @author Tadaya Tsuyukubo
+ * @see DelegateJdbcProxyFactory
+ * @since 1.4
+ */
+public class DelegatingCallableStatement implements CallableStatement, ProxyJdbcObject {
+
+    private static final Method TO_STRING = MethodUtils.getMethod(Object.class, "toString");
+    private static final Method REGISTER_OUT_PARAMETER_INT_INT =
+            MethodUtils.getMethod(CallableStatement.class, "registerOutParameter", int.class, int.class);
+    private static final Method REGISTER_OUT_PARAMETER_INT_INT_INT =
+            MethodUtils.getMethod(CallableStatement.class, "registerOutParameter", int.class, int.class, int.class);
+    private static final Method REGISTER_OUT_PARAMETER_INT_INT_STRING =
+            MethodUtils.getMethod(CallableStatement.class, "registerOutParameter", int.class, int.class, String.class);
+    private static final Method REGISTER_OUT_PARAMETER_STRING_INT =
+            MethodUtils.getMethod(CallableStatement.class, "registerOutParameter", String.class, int.class);
+    private static final Method REGISTER_OUT_PARAMETER_STRING_INT_INT =
+            MethodUtils.getMethod(CallableStatement.class, "registerOutParameter", String.class, int.class, int.class);
+    private static final Method REGISTER_OUT_PARAMETER_STRING_INT_STRING =
+            MethodUtils.getMethod(CallableStatement.class, "registerOutParameter", String.class, int.class, String.class);
+    private static final Method SET_URL_STRING_URL =
+            MethodUtils.getMethod(CallableStatement.class, "setURL", String.class, URL.class);
+    private static final Method SET_NULL_STRING_INT =
+            MethodUtils.getMethod(CallableStatement.class, "setNull", String.class, int.class);
+    private static final Method SET_BOOLEAN_STRING_BOOLEAN =
+            MethodUtils.getMethod(CallableStatement.class, "setBoolean", String.class, boolean.class);
+    private static final Method SET_BYTE_STRING_BYTE =
+            MethodUtils.getMethod(CallableStatement.class, "setByte", String.class, byte.class);
+    private static final Method SET_SHORT_STRING_SHORT =
+            MethodUtils.getMethod(CallableStatement.class, "setShort", String.class, short.class);
+    private static final Method SET_INT_STRING_INT =
+            MethodUtils.getMethod(CallableStatement.class, "setInt", String.class, int.class);
+    private static final Method SET_LONG_STRING_LONG =
+            MethodUtils.getMethod(CallableStatement.class, "setLong", String.class, long.class);
+    private static final Method SET_FLOAT_STRING_FLOAT =
+            MethodUtils.getMethod(CallableStatement.class, "setFloat", String.class, float.class);
+    private static final Method SET_DOUBLE_STRING_DOUBLE =
+            MethodUtils.getMethod(CallableStatement.class, "setDouble", String.class, double.class);
+    private static final Method SET_BIG_DECIMAL_STRING_BIG_DECIMAL =
+            MethodUtils.getMethod(CallableStatement.class, "setBigDecimal", String.class, BigDecimal.class);
+    private static final Method SET_STRING_STRING_STRING =
+            MethodUtils.getMethod(CallableStatement.class, "setString", String.class, String.class);
+    private static final Method SET_BYTES_STRING_BYTE_ARRAY =
+            MethodUtils.getMethod(CallableStatement.class, "setBytes", String.class, byte[].class);
+    private static final Method SET_DATE_STRING_DATE =
+            MethodUtils.getMethod(CallableStatement.class, "setDate", String.class, Date.class);
+    private static final Method SET_TIME_STRING_TIME =
+            MethodUtils.getMethod(CallableStatement.class, "setTime", String.class, Time.class);
+    private static final Method SET_TIMESTAMP_STRING_TIMESTAMP =
+            MethodUtils.getMethod(CallableStatement.class, "setTimestamp", String.class, Timestamp.class);
+    private static final Method SET_ASCII_STREAM_STRING_INPUT_STREAM_INT =
+            MethodUtils.getMethod(CallableStatement.class, "setAsciiStream", String.class, InputStream.class, int.class);
+    private static final Method SET_BINARY_STREAM_STRING_INPUT_STREAM_INT =
+            MethodUtils.getMethod(CallableStatement.class, "setBinaryStream", String.class, InputStream.class, int.class);
+    private static final Method SET_OBJECT_STRING_OBJECT_INT_INT =
+            MethodUtils.getMethod(CallableStatement.class, "setObject", String.class, Object.class, int.class, int.class);
+    private static final Method SET_OBJECT_STRING_OBJECT_INT =
+            MethodUtils.getMethod(CallableStatement.class, "setObject", String.class, Object.class, int.class);
+    private static final Method SET_OBJECT_STRING_OBJECT =
+            MethodUtils.getMethod(CallableStatement.class, "setObject", String.class, Object.class);
+    private static final Method SET_CHARACTER_STREAM_STRING_READER_INT =
+            MethodUtils.getMethod(CallableStatement.class, "setCharacterStream", String.class, Reader.class, int.class);
+    private static final Method SET_DATE_STRING_DATE_CALENDAR =
+            MethodUtils.getMethod(CallableStatement.class, "setDate", String.class, Date.class, Calendar.class);
+    private static final Method SET_TIME_STRING_TIME_CALENDAR =
+            MethodUtils.getMethod(CallableStatement.class, "setTime", String.class, Time.class, Calendar.class);
+    private static final Method SET_TIMESTAMP_STRING_TIMESTAMP_CALENDAR =
+            MethodUtils.getMethod(CallableStatement.class, "setTimestamp", String.class, Timestamp.class, Calendar.class);
+    private static final Method SET_NULL_STRING_INT_STRING =
+            MethodUtils.getMethod(CallableStatement.class, "setNull", String.class, int.class, String.class);
+    private static final Method SET_ROW_ID_STRING_ROW_ID =
+            MethodUtils.getMethod(CallableStatement.class, "setRowId", String.class, RowId.class);
+    private static final Method SET_NSTRING_STRING_STRING =
+            MethodUtils.getMethod(CallableStatement.class, "setNString", String.class, String.class);
+    private static final Method SET_NCHARACTER_STREAM_STRING_READER_LONG =
+            MethodUtils.getMethod(CallableStatement.class, "setNCharacterStream", String.class, Reader.class, long.class);
+    private static final Method SET_NCLOB_STRING_NCLOB =
+            MethodUtils.getMethod(CallableStatement.class, "setNClob", String.class, NClob.class);
+    private static final Method SET_CLOB_STRING_READER_LONG =
+            MethodUtils.getMethod(CallableStatement.class, "setClob", String.class, Reader.class, long.class);
+    private static final Method SET_BLOB_STRING_INPUT_STREAM_LONG =
+            MethodUtils.getMethod(CallableStatement.class, "setBlob", String.class, InputStream.class, long.class);
+    private static final Method SET_NCLOB_STRING_READER_LONG =
+            MethodUtils.getMethod(CallableStatement.class, "setNClob", String.class, Reader.class, long.class);
+    private static final Method SET_SQLXML_STRING_SQLXML =
+            MethodUtils.getMethod(CallableStatement.class, "setSQLXML", String.class, SQLXML.class);
+    private static final Method SET_BLOB_STRING_BLOB =
+            MethodUtils.getMethod(CallableStatement.class, "setBlob", String.class, Blob.class);
+    private static final Method SET_CLOB_STRING_CLOB =
+            MethodUtils.getMethod(CallableStatement.class, "setClob", String.class, Clob.class);
+    private static final Method SET_ASCII_STREAM_STRING_INPUT_STREAM_LONG =
+            MethodUtils.getMethod(CallableStatement.class, "setAsciiStream", String.class, InputStream.class, long.class);
+    private static final Method SET_BINARY_STREAM_STRING_INPUT_STREAM_LONG =
+            MethodUtils.getMethod(CallableStatement.class, "setBinaryStream", String.class, InputStream.class, long.class);
+    private static final Method SET_CHARACTER_STREAM_STRING_READER_LONG =
+            MethodUtils.getMethod(CallableStatement.class, "setCharacterStream", String.class, Reader.class, long.class);
+    private static final Method SET_ASCII_STREAM_STRING_INPUT_STREAM =
+            MethodUtils.getMethod(CallableStatement.class, "setAsciiStream", String.class, InputStream.class);
+    private static final Method SET_BINARY_STREAM_STRING_INPUT_STREAM =
+            MethodUtils.getMethod(CallableStatement.class, "setBinaryStream", String.class, InputStream.class);
+    private static final Method SET_CHARACTER_STREAM_STRING_READER =
+            MethodUtils.getMethod(CallableStatement.class, "setCharacterStream", String.class, Reader.class);
+    private static final Method SET_NCHARACTER_STREAM_STRING_READER =
+            MethodUtils.getMethod(CallableStatement.class, "setNCharacterStream", String.class, Reader.class);
+    private static final Method SET_CLOB_STRING_READER =
+            MethodUtils.getMethod(CallableStatement.class, "setClob", String.class, Reader.class);
+    private static final Method SET_BLOB_STRING_INPUT_STREAM =
+            MethodUtils.getMethod(CallableStatement.class, "setBlob", String.class, InputStream.class);
+    private static final Method SET_NCLOB_STRING_READER =
+            MethodUtils.getMethod(CallableStatement.class, "setNClob", String.class, Reader.class);
+    private static final Method EXECUTE_QUERY = MethodUtils.getMethod(CallableStatement.class, "executeQuery");
+    private static final Method EXECUTE_UPDATE = MethodUtils.getMethod(CallableStatement.class, "executeUpdate");
+    private static final Method SET_NULL_INT_INT =
+            MethodUtils.getMethod(CallableStatement.class, "setNull", int.class, int.class);
+    private static final Method SET_BOOLEAN_INT_BOOLEAN =
+            MethodUtils.getMethod(CallableStatement.class, "setBoolean", int.class, boolean.class);
+    private static final Method SET_BYTE_INT_BYTE =
+            MethodUtils.getMethod(CallableStatement.class, "setByte", int.class, byte.class);
+    private static final Method SET_SHORT_INT_SHORT =
+            MethodUtils.getMethod(CallableStatement.class, "setShort", int.class, short.class);
+    private static final Method SET_INT_INT_INT =
+            MethodUtils.getMethod(CallableStatement.class, "setInt", int.class, int.class);
+    private static final Method SET_LONG_INT_LONG =
+            MethodUtils.getMethod(CallableStatement.class, "setLong", int.class, long.class);
+    private static final Method SET_FLOAT_INT_FLOAT =
+            MethodUtils.getMethod(CallableStatement.class, "setFloat", int.class, float.class);
+    private static final Method SET_DOUBLE_INT_DOUBLE =
+            MethodUtils.getMethod(CallableStatement.class, "setDouble", int.class, double.class);
+    private static final Method SET_BIG_DECIMAL_INT_BIG_DECIMAL =
+            MethodUtils.getMethod(CallableStatement.class, "setBigDecimal", int.class, BigDecimal.class);
+    private static final Method SET_STRING_INT_STRING =
+            MethodUtils.getMethod(CallableStatement.class, "setString", int.class, String.class);
+    private static final Method SET_BYTES_INT_BYTE_ARRAY =
+            MethodUtils.getMethod(CallableStatement.class, "setBytes", int.class, byte[].class);
+    private static final Method SET_DATE_INT_DATE =
+            MethodUtils.getMethod(CallableStatement.class, "setDate", int.class, Date.class);
+    private static final Method SET_TIME_INT_TIME =
+            MethodUtils.getMethod(CallableStatement.class, "setTime", int.class, Time.class);
+    private static final Method SET_TIMESTAMP_INT_TIMESTAMP =
+            MethodUtils.getMethod(CallableStatement.class, "setTimestamp", int.class, Timestamp.class);
+    private static final Method SET_ASCII_STREAM_INT_INPUT_STREAM_INT =
+            MethodUtils.getMethod(CallableStatement.class, "setAsciiStream", int.class, InputStream.class, int.class);
+    private static final Method SET_UNICODE_STREAM =
+            MethodUtils.getMethod(CallableStatement.class, "setUnicodeStream", int.class, InputStream.class, int.class);
+    private static final Method SET_BINARY_STREAM_INT_INPUT_STREAM_INT =
+            MethodUtils.getMethod(CallableStatement.class, "setBinaryStream", int.class, InputStream.class, int.class);
+    private static final Method SET_OBJECT_INT_OBJECT_INT =
+            MethodUtils.getMethod(CallableStatement.class, "setObject", int.class, Object.class, int.class);
+    private static final Method SET_OBJECT_INT_OBJECT =
+            MethodUtils.getMethod(CallableStatement.class, "setObject", int.class, Object.class);
+    private static final Method EXECUTE = MethodUtils.getMethod(CallableStatement.class, "execute");
+    private static final Method SET_CHARACTER_STREAM_INT_READER_INT =
+            MethodUtils.getMethod(CallableStatement.class, "setCharacterStream", int.class, Reader.class, int.class);
+    private static final Method SET_REF =
+            MethodUtils.getMethod(CallableStatement.class, "setRef", int.class, Ref.class);
+    private static final Method SET_BLOB_INT_BLOB =
+            MethodUtils.getMethod(CallableStatement.class, "setBlob", int.class, Blob.class);
+    private static final Method SET_CLOB_INT_CLOB =
+            MethodUtils.getMethod(CallableStatement.class, "setClob", int.class, Clob.class);
+    private static final Method SET_ARRAY =
+            MethodUtils.getMethod(CallableStatement.class, "setArray", int.class, Array.class);
+    private static final Method SET_DATE_INT_DATE_CALENDAR =
+            MethodUtils.getMethod(CallableStatement.class, "setDate", int.class, Date.class, Calendar.class);
+    private static final Method SET_TIME_INT_TIME_CALENDAR =
+            MethodUtils.getMethod(CallableStatement.class, "setTime", int.class, Time.class, Calendar.class);
+    private static final Method SET_TIMESTAMP_INT_TIMESTAMP_CALENDAR =
+            MethodUtils.getMethod(CallableStatement.class, "setTimestamp", int.class, Timestamp.class, Calendar.class);
+    private static final Method SET_NULL_INT_INT_STRING =
+            MethodUtils.getMethod(CallableStatement.class, "setNull", int.class, int.class, String.class);
+    private static final Method SET_URL_INT_URL =
+            MethodUtils.getMethod(CallableStatement.class, "setURL", int.class, URL.class);
+    private static final Method SET_ROW_ID_INT_ROW_ID =
+            MethodUtils.getMethod(CallableStatement.class, "setRowId", int.class, RowId.class);
+    private static final Method SET_NSTRING_INT_STRING =
+            MethodUtils.getMethod(CallableStatement.class, "setNString", int.class, String.class);
+    private static final Method SET_NCHARACTER_STREAM_INT_READER_LONG =
+            MethodUtils.getMethod(CallableStatement.class, "setNCharacterStream", int.class, Reader.class, long.class);
+    private static final Method SET_NCLOB_INT_NCLOB =
+            MethodUtils.getMethod(CallableStatement.class, "setNClob", int.class, NClob.class);
+    private static final Method SET_CLOB_INT_READER_LONG =
+            MethodUtils.getMethod(CallableStatement.class, "setClob", int.class, Reader.class, long.class);
+    private static final Method SET_BLOB_INT_INPUT_STREAM_LONG =
+            MethodUtils.getMethod(CallableStatement.class, "setBlob", int.class, InputStream.class, long.class);
+    private static final Method SET_NCLOB_INT_READER_LONG =
+            MethodUtils.getMethod(CallableStatement.class, "setNClob", int.class, Reader.class, long.class);
+    private static final Method SET_SQLXML_INT_SQLXML =
+            MethodUtils.getMethod(CallableStatement.class, "setSQLXML", int.class, SQLXML.class);
+    private static final Method SET_OBJECT_INT_OBJECT_INT_INT =
+            MethodUtils.getMethod(CallableStatement.class, "setObject", int.class, Object.class, int.class, int.class);
+    private static final Method SET_ASCII_STREAM_INT_INPUT_STREAM_LONG =
+            MethodUtils.getMethod(CallableStatement.class, "setAsciiStream", int.class, InputStream.class, long.class);
+    private static final Method SET_BINARY_STREAM_INT_INPUT_STREAM_LONG =
+            MethodUtils.getMethod(CallableStatement.class, "setBinaryStream", int.class, InputStream.class, long.class);
+    private static final Method SET_CHARACTER_STREAM_INT_READER_LONG =
+            MethodUtils.getMethod(CallableStatement.class, "setCharacterStream", int.class, Reader.class, long.class);
+    private static final Method SET_ASCII_STREAM_INT_INPUT_STREAM =
+            MethodUtils.getMethod(CallableStatement.class, "setAsciiStream", int.class, InputStream.class);
+    private static final Method SET_BINARY_STREAM_INT_INPUT_STREAM =
+            MethodUtils.getMethod(CallableStatement.class, "setBinaryStream", int.class, InputStream.class);
+    private static final Method SET_CHARACTER_STREAM_INT_READER =
+            MethodUtils.getMethod(CallableStatement.class, "setCharacterStream", int.class, Reader.class);
+    private static final Method SET_NCHARACTER_STREAM_INT_READER =
+            MethodUtils.getMethod(CallableStatement.class, "setNCharacterStream", int.class, Reader.class);
+    private static final Method SET_CLOB_INT_READER =
+            MethodUtils.getMethod(CallableStatement.class, "setClob", int.class, Reader.class);
+    private static final Method SET_BLOB_INT_INPUT_STREAM =
+            MethodUtils.getMethod(CallableStatement.class, "setBlob", int.class, InputStream.class);
+    private static final Method SET_NCLOB_INT_READER =
+            MethodUtils.getMethod(CallableStatement.class, "setNClob", int.class, Reader.class);
+    private static final Method EXECUTE_QUERY_STRING =
+            MethodUtils.getMethod(CallableStatement.class, "executeQuery", String.class);
+    private static final Method EXECUTE_UPDATE_STRING =
+            MethodUtils.getMethod(CallableStatement.class, "executeUpdate", String.class);
+    private static final Method EXECUTE_STRING =
+            MethodUtils.getMethod(CallableStatement.class, "execute", String.class);
+    private static final Method ADD_BATCH_STRING =
+            MethodUtils.getMethod(CallableStatement.class, "addBatch", String.class);
+    private static final Method EXECUTE_BATCH = MethodUtils.getMethod(CallableStatement.class, "executeBatch");
+    private static final Method GET_CONNECTION = MethodUtils.getMethod(CallableStatement.class, "getConnection");
+    private static final Method EXECUTE_UPDATE_STRING_INT =
+            MethodUtils.getMethod(CallableStatement.class, "executeUpdate", String.class, int.class);
+    private static final Method EXECUTE_UPDATE_STRING_INT_ARRAY =
+            MethodUtils.getMethod(CallableStatement.class, "executeUpdate", String.class, int[].class);
+    private static final Method EXECUTE_UPDATE_STRING_STRING_ARRAY =
+            MethodUtils.getMethod(CallableStatement.class, "executeUpdate", String.class, String[].class);
+    private static final Method EXECUTE_STRING_INT =
+            MethodUtils.getMethod(CallableStatement.class, "execute", String.class, int.class);
+    private static final Method EXECUTE_STRING_INT_ARRAY =
+            MethodUtils.getMethod(CallableStatement.class, "execute", String.class, int[].class);
+    private static final Method EXECUTE_STRING_STRING_ARRAY =
+            MethodUtils.getMethod(CallableStatement.class, "execute", String.class, String[].class);
+    private static final Method UNWRAP = MethodUtils.getMethod(CallableStatement.class, "unwrap", Class.class);
+    private static final Method IS_WRAPPER_FOR =
+            MethodUtils.getMethod(CallableStatement.class, "isWrapperFor", Class.class);
+
+    /**
+     * Holds JDBC 4.2 (Java 8) methods so that older runtimes never resolve them.
+     */
+    private static class Jdbc42Methods {
+        private static final Method SET_OBJECT_STRING_OBJECT_SQLTYPE_INT =
+                MethodUtils.getMethod(CallableStatement.class, "setObject", String.class, Object.class, SQLType.class, int.class);
+        private static final Method SET_OBJECT_STRING_OBJECT_SQLTYPE =
+                MethodUtils.getMethod(CallableStatement.class, "setObject", String.class, Object.class, SQLType.class);
+        private static final Method REGISTER_OUT_PARAMETER_INT_SQLTYPE =
+                MethodUtils.getMethod(CallableStatement.class, "registerOutParameter", int.class, SQLType.class);
+        private static final Method REGISTER_OUT_PARAMETER_INT_SQLTYPE_INT =
+                MethodUtils.getMethod(CallableStatement.class, "registerOutParameter", int.class, SQLType.class, int.class);
+        private static final Method REGISTER_OUT_PARAMETER_INT_SQLTYPE_STRING =
+                MethodUtils.getMethod(CallableStatement.class, "registerOutParameter", int.class, SQLType.class, String.class);
+        private static final Method REGISTER_OUT_PARAMETER_STRING_SQLTYPE =
+                MethodUtils.getMethod(CallableStatement.class, "registerOutParameter", String.class, SQLType.class);
+        private static final Method REGISTER_OUT_PARAMETER_STRING_SQLTYPE_INT =
+                MethodUtils.getMethod(CallableStatement.class, "registerOutParameter", String.class, SQLType.class, int.class);
+        private static final Method REGISTER_OUT_PARAMETER_STRING_SQLTYPE_STRING =
+                MethodUtils.getMethod(CallableStatement.class, "registerOutParameter", String.class, SQLType.class, String.class);
+        private static final Method SET_OBJECT_INT_OBJECT_SQLTYPE_INT =
+                MethodUtils.getMethod(CallableStatement.class, "setObject", int.class, Object.class, SQLType.class, int.class);
+        private static final Method SET_OBJECT_INT_OBJECT_SQLTYPE =
+                MethodUtils.getMethod(CallableStatement.class, "setObject", int.class, Object.class, SQLType.class);
+        private static final Method EXECUTE_LARGE_UPDATE =
+                MethodUtils.getMethod(CallableStatement.class, "executeLargeUpdate");
+        private static final Method EXECUTE_LARGE_BATCH =
+                MethodUtils.getMethod(CallableStatement.class, "executeLargeBatch");
+        private static final Method EXECUTE_LARGE_UPDATE_STRING =
+                MethodUtils.getMethod(CallableStatement.class, "executeLargeUpdate", String.class);
+        private static final Method EXECUTE_LARGE_UPDATE_STRING_INT =
+                MethodUtils.getMethod(CallableStatement.class, "executeLargeUpdate", String.class, int.class);
+        private static final Method EXECUTE_LARGE_UPDATE_STRING_INT_ARRAY =
+                MethodUtils.getMethod(CallableStatement.class, "executeLargeUpdate", String.class, int[].class);
+        private static final Method EXECUTE_LARGE_UPDATE_STRING_STRING_ARRAY =
+                MethodUtils.getMethod(CallableStatement.class, "executeLargeUpdate", String.class, String[].class);
+    }
+
+    private final CallableStatement callableStatement;
+    private final PreparedStatementProxyLogic logic;
+
+    public DelegatingCallableStatement(CallableStatement callableStatement, PreparedStatementProxyLogic logic) {
+        this.callableStatement = callableStatement;
+        this.logic = logic;
+    }
+
+    private Object invoke(Method method, Object[] args) throws SQLException {
+        try {
+            return this.logic.invoke(method, args);
+        } catch (Throwable ex) {
+            throw StatementInvokers.rethrow(ex);
+        }
+    }
+
+    private Object execute(Method method, Object[] args, MethodInvoker invoker) throws SQLException {
+        try {
+            return this.logic.execute(method, args, invoker);
+        } catch (Throwable ex) {
+            throw StatementInvokers.rethrow(ex);
+        }
+    }
+
+    @Override
+    public Object getTarget() {
+        return this.callableStatement;
+    }
+
+    @Override
+    public String toString() {
+        try {
+            return (String) invoke(TO_STRING, null);
+        } catch (SQLException ex) {
+            throw new UndeclaredThrowableException(ex);
+        }
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return this.callableStatement.equals(obj);
+    }
+
+    @Override
+    public int hashCode() {
+        return this.callableStatement.hashCode();
+    }
+
+    @Override
+    public void registerOutParameter(int parameterIndex, int sqlType) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(REGISTER_OUT_PARAMETER_INT_INT, new Object[]{parameterIndex, sqlType});
+        }
+        this.callableStatement.registerOutParameter(parameterIndex, sqlType);
+    }
+
+    @Override
+    public void registerOutParameter(int parameterIndex, int sqlType, int scale) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(REGISTER_OUT_PARAMETER_INT_INT_INT, new Object[]{parameterIndex, sqlType, scale});
+        }
+        this.callableStatement.registerOutParameter(parameterIndex, sqlType, scale);
+    }
+
+    @Override
+    public boolean wasNull() throws SQLException {
+        return this.callableStatement.wasNull();
+    }
+
+    @Override
+    public String getString(int parameterIndex) throws SQLException {
+        return this.callableStatement.getString(parameterIndex);
+    }
+
+    @Override
+    public boolean getBoolean(int parameterIndex) throws SQLException {
+        return this.callableStatement.getBoolean(parameterIndex);
+    }
+
+    @Override
+    public byte getByte(int parameterIndex) throws SQLException {
+        return this.callableStatement.getByte(parameterIndex);
+    }
+
+    @Override
+    public short getShort(int parameterIndex) throws SQLException {
+        return this.callableStatement.getShort(parameterIndex);
+    }
+
+    @Override
+    public int getInt(int parameterIndex) throws SQLException {
+        return this.callableStatement.getInt(parameterIndex);
+    }
+
+    @Override
+    public long getLong(int parameterIndex) throws SQLException {
+        return this.callableStatement.getLong(parameterIndex);
+    }
+
+    @Override
+    public float getFloat(int parameterIndex) throws SQLException {
+        return this.callableStatement.getFloat(parameterIndex);
+    }
+
+    @Override
+    public double getDouble(int parameterIndex) throws SQLException {
+        return this.callableStatement.getDouble(parameterIndex);
+    }
+
+    @Override
+    @SuppressWarnings("deprecation")
+    public BigDecimal getBigDecimal(int parameterIndex, int scale) throws SQLException {
+        return this.callableStatement.getBigDecimal(parameterIndex, scale);
+    }
+
+    @Override
+    public byte[] getBytes(int parameterIndex) throws SQLException {
+        return this.callableStatement.getBytes(parameterIndex);
+    }
+
+    @Override
+    public Date getDate(int parameterIndex) throws SQLException {
+        return this.callableStatement.getDate(parameterIndex);
+    }
+
+    @Override
+    public Time getTime(int parameterIndex) throws SQLException {
+        return this.callableStatement.getTime(parameterIndex);
+    }
+
+    @Override
+    public Timestamp getTimestamp(int parameterIndex) throws SQLException {
+        return this.callableStatement.getTimestamp(parameterIndex);
+    }
+
+    @Override
+    public Object getObject(int parameterIndex) throws SQLException {
+        return this.callableStatement.getObject(parameterIndex);
+    }
+
+    @Override
+    public BigDecimal getBigDecimal(int parameterIndex) throws SQLException {
+        return this.callableStatement.getBigDecimal(parameterIndex);
+    }
+
+    @Override
+    public Object getObject(int parameterIndex, Map<String,Class<?>> map) throws SQLException {
+        return this.callableStatement.getObject(parameterIndex, map);
+    }
+
+    @Override
+    public Ref getRef(int parameterIndex) throws SQLException {
+        return this.callableStatement.getRef(parameterIndex);
+    }
+
+    @Override
+    public Blob getBlob(int parameterIndex) throws SQLException {
+        return this.callableStatement.getBlob(parameterIndex);
+    }
+
+    @Override
+    public Clob getClob(int parameterIndex) throws SQLException {
+        return this.callableStatement.getClob(parameterIndex);
+    }
+
+    @Override
+    public Array getArray(int parameterIndex) throws SQLException {
+        return this.callableStatement.getArray(parameterIndex);
+    }
+
+    @Override
+    public Date getDate(int parameterIndex, Calendar cal) throws SQLException {
+        return this.callableStatement.getDate(parameterIndex, cal);
+    }
+
+    @Override
+    public Time getTime(int parameterIndex, Calendar cal) throws SQLException {
+        return this.callableStatement.getTime(parameterIndex, cal);
+    }
+
+    @Override
+    public Timestamp getTimestamp(int parameterIndex, Calendar cal) throws SQLException {
+        return this.callableStatement.getTimestamp(parameterIndex, cal);
+    }
+
+    @Override
+    public void registerOutParameter(int parameterIndex, int sqlType, String typeName) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(REGISTER_OUT_PARAMETER_INT_INT_STRING,
+                    new Object[]{parameterIndex, sqlType, typeName});
+        }
+        this.callableStatement.registerOutParameter(parameterIndex, sqlType, typeName);
+    }
+
+    @Override
+    public void registerOutParameter(String parameterName, int sqlType) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(REGISTER_OUT_PARAMETER_STRING_INT, new Object[]{parameterName, sqlType});
+        }
+        this.callableStatement.registerOutParameter(parameterName, sqlType);
+    }
+
+    @Override
+    public void registerOutParameter(String parameterName, int sqlType, int scale) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(REGISTER_OUT_PARAMETER_STRING_INT_INT,
+                    new Object[]{parameterName, sqlType, scale});
+        }
+        this.callableStatement.registerOutParameter(parameterName, sqlType, scale);
+    }
+
+    @Override
+    public void registerOutParameter(String parameterName, int sqlType, String typeName) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(REGISTER_OUT_PARAMETER_STRING_INT_STRING,
+                    new Object[]{parameterName, sqlType, typeName});
+        }
+        this.callableStatement.registerOutParameter(parameterName, sqlType, typeName);
+    }
+
+    @Override
+    public URL getURL(int parameterIndex) throws SQLException {
+        return this.callableStatement.getURL(parameterIndex);
+    }
+
+    @Override
+    public void setURL(String parameterName, URL val) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_URL_STRING_URL, new Object[]{parameterName, val});
+        }
+        this.callableStatement.setURL(parameterName, val);
+    }
+
+    @Override
+    public void setNull(String parameterName, int sqlType) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_NULL_STRING_INT, new Object[]{parameterName, sqlType});
+        }
+        this.callableStatement.setNull(parameterName, sqlType);
+    }
+
+    @Override
+    public void setBoolean(String parameterName, boolean x) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_BOOLEAN_STRING_BOOLEAN, new Object[]{parameterName, x});
+        }
+        this.callableStatement.setBoolean(parameterName, x);
+    }
+
+    @Override
+    public void setByte(String parameterName, byte x) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_BYTE_STRING_BYTE, new Object[]{parameterName, x});
+        }
+        this.callableStatement.setByte(parameterName, x);
+    }
+
+    @Override
+    public void setShort(String parameterName, short x) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_SHORT_STRING_SHORT, new Object[]{parameterName, x});
+        }
+        this.callableStatement.setShort(parameterName, x);
+    }
+
+    @Override
+    public void setInt(String parameterName, int x) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_INT_STRING_INT, new Object[]{parameterName, x});
+        }
+        this.callableStatement.setInt(parameterName, x);
+    }
+
+    @Override
+    public void setLong(String parameterName, long x) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_LONG_STRING_LONG, new Object[]{parameterName, x});
+        }
+        this.callableStatement.setLong(parameterName, x);
+    }
+
+    @Override
+    public void setFloat(String parameterName, float x) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_FLOAT_STRING_FLOAT, new Object[]{parameterName, x});
+        }
+        this.callableStatement.setFloat(parameterName, x);
+    }
+
+    @Override
+    public void setDouble(String parameterName, double x) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_DOUBLE_STRING_DOUBLE, new Object[]{parameterName, x});
+        }
+        this.callableStatement.setDouble(parameterName, x);
+    }
+
+    @Override
+    public void setBigDecimal(String parameterName, BigDecimal x) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_BIG_DECIMAL_STRING_BIG_DECIMAL, new Object[]{parameterName, x});
+        }
+        this.callableStatement.setBigDecimal(parameterName, x);
+    }
+
+    @Override
+    public void setString(String parameterName, String x) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_STRING_STRING_STRING, new Object[]{parameterName, x});
+        }
+        this.callableStatement.setString(parameterName, x);
+    }
+
+    @Override
+    public void setBytes(String parameterName, byte[] x) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_BYTES_STRING_BYTE_ARRAY, new Object[]{parameterName, x});
+        }
+        this.callableStatement.setBytes(parameterName, x);
+    }
+
+    @Override
+    public void setDate(String parameterName, Date x) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_DATE_STRING_DATE, new Object[]{parameterName, x});
+        }
+        this.callableStatement.setDate(parameterName, x);
+    }
+
+    @Override
+    public void setTime(String parameterName, Time x) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_TIME_STRING_TIME, new Object[]{parameterName, x});
+        }
+        this.callableStatement.setTime(parameterName, x);
+    }
+
+    @Override
+    public void setTimestamp(String parameterName, Timestamp x) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_TIMESTAMP_STRING_TIMESTAMP, new Object[]{parameterName, x});
+        }
+        this.callableStatement.setTimestamp(parameterName, x);
+    }
+
+    @Override
+    public void setAsciiStream(String parameterName, InputStream x, int length) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_ASCII_STREAM_STRING_INPUT_STREAM_INT, new Object[]{parameterName, x, length});
+        }
+        this.callableStatement.setAsciiStream(parameterName, x, length);
+    }
+
+    @Override
+    public void setBinaryStream(String parameterName, InputStream x, int length) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_BINARY_STREAM_STRING_INPUT_STREAM_INT,
+                    new Object[]{parameterName, x, length});
+        }
+        this.callableStatement.setBinaryStream(parameterName, x, length);
+    }
+
+    @Override
+    public void setObject(String parameterName, Object x, int targetSqlType, int scale) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_OBJECT_STRING_OBJECT_INT_INT,
+                    new Object[]{parameterName, x, targetSqlType, scale});
+        }
+        this.callableStatement.setObject(parameterName, x, targetSqlType, scale);
+    }
+
+    @Override
+    public void setObject(String parameterName, Object x, int targetSqlType) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_OBJECT_STRING_OBJECT_INT, new Object[]{parameterName, x, targetSqlType});
+        }
+        this.callableStatement.setObject(parameterName, x, targetSqlType);
+    }
+
+    @Override
+    public void setObject(String parameterName, Object x) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_OBJECT_STRING_OBJECT, new Object[]{parameterName, x});
+        }
+        this.callableStatement.setObject(parameterName, x);
+    }
+
+    @Override
+    public void setCharacterStream(String parameterName, Reader reader, int length) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_CHARACTER_STREAM_STRING_READER_INT,
+                    new Object[]{parameterName, reader, length});
+        }
+        this.callableStatement.setCharacterStream(parameterName, reader, length);
+    }
+
+    @Override
+    public void setDate(String parameterName, Date x, Calendar cal) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_DATE_STRING_DATE_CALENDAR, new Object[]{parameterName, x, cal});
+        }
+        this.callableStatement.setDate(parameterName, x, cal);
+    }
+
+    @Override
+    public void setTime(String parameterName, Time x, Calendar cal) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_TIME_STRING_TIME_CALENDAR, new Object[]{parameterName, x, cal});
+        }
+        this.callableStatement.setTime(parameterName, x, cal);
+    }
+
+    @Override
+    public void setTimestamp(String parameterName, Timestamp x, Calendar cal) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_TIMESTAMP_STRING_TIMESTAMP_CALENDAR, new Object[]{parameterName, x, cal});
+        }
+        this.callableStatement.setTimestamp(parameterName, x, cal);
+    }
+
+    @Override
+    public void setNull(String parameterName, int sqlType, String typeName) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_NULL_STRING_INT_STRING, new Object[]{parameterName, sqlType, typeName});
+        }
+        this.callableStatement.setNull(parameterName, sqlType, typeName);
+    }
+
+    @Override
+    public String getString(String parameterName) throws SQLException {
+        return this.callableStatement.getString(parameterName);
+    }
+
+    @Override
+    public boolean getBoolean(String parameterName) throws SQLException {
+        return this.callableStatement.getBoolean(parameterName);
+    }
+
+    @Override
+    public byte getByte(String parameterName) throws SQLException {
+        return this.callableStatement.getByte(parameterName);
+    }
+
+    @Override
+    public short getShort(String parameterName) throws SQLException {
+        return this.callableStatement.getShort(parameterName);
+    }
+
+    @Override
+    public int getInt(String parameterName) throws SQLException {
+        return this.callableStatement.getInt(parameterName);
+    }
+
+    @Override
+    public long getLong(String parameterName) throws SQLException {
+        return this.callableStatement.getLong(parameterName);
+    }
+
+    @Override
+    public float getFloat(String parameterName) throws SQLException {
+        return this.callableStatement.getFloat(parameterName);
+    }
+
+    @Override
+    public double getDouble(String parameterName) throws SQLException {
+        return this.callableStatement.getDouble(parameterName);
+    }
+
+    @Override
+    public byte[] getBytes(String parameterName) throws SQLException {
+        return this.callableStatement.getBytes(parameterName);
+    }
+
+    @Override
+    public Date getDate(String parameterName) throws SQLException {
+        return this.callableStatement.getDate(parameterName);
+    }
+
+    @Override
+    public Time getTime(String parameterName) throws SQLException {
+        return this.callableStatement.getTime(parameterName);
+    }
+
+    @Override
+    public Timestamp getTimestamp(String parameterName) throws SQLException {
+        return this.callableStatement.getTimestamp(parameterName);
+    }
+
+    @Override
+    public Object getObject(String parameterName) throws SQLException {
+        return this.callableStatement.getObject(parameterName);
+    }
+
+    @Override
+    public BigDecimal getBigDecimal(String parameterName) throws SQLException {
+        return this.callableStatement.getBigDecimal(parameterName);
+    }
+
+    @Override
+    public Object getObject(String parameterName, Map<String,Class<?>> map) throws SQLException {
+        return this.callableStatement.getObject(parameterName, map);
+    }
+
+    @Override
+    public Ref getRef(String parameterName) throws SQLException {
+        return this.callableStatement.getRef(parameterName);
+    }
+
+    @Override
+    public Blob getBlob(String parameterName) throws SQLException {
+        return this.callableStatement.getBlob(parameterName);
+    }
+
+    @Override
+    public Clob getClob(String parameterName) throws SQLException {
+        return this.callableStatement.getClob(parameterName);
+    }
+
+    @Override
+    public Array getArray(String parameterName) throws SQLException {
+        return this.callableStatement.getArray(parameterName);
+    }
+
+    @Override
+    public Date getDate(String parameterName, Calendar cal) throws SQLException {
+        return this.callableStatement.getDate(parameterName, cal);
+    }
+
+    @Override
+    public Time getTime(String parameterName, Calendar cal) throws SQLException {
+        return this.callableStatement.getTime(parameterName, cal);
+    }
+
+    @Override
+    public Timestamp getTimestamp(String parameterName, Calendar cal) throws SQLException {
+        return this.callableStatement.getTimestamp(parameterName, cal);
+    }
+
+    @Override
+    public URL getURL(String parameterName) throws SQLException {
+        return this.callableStatement.getURL(parameterName);
+    }
+
+    @Override
+    public RowId getRowId(int parameterIndex) throws SQLException {
+        return this.callableStatement.getRowId(parameterIndex);
+    }
+
+    @Override
+    public RowId getRowId(String parameterName) throws SQLException {
+        return this.callableStatement.getRowId(parameterName);
+    }
+
+    @Override
+    public void setRowId(String parameterName, RowId x) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_ROW_ID_STRING_ROW_ID, new Object[]{parameterName, x});
+        }
+        this.callableStatement.setRowId(parameterName, x);
+    }
+
+    @Override
+    public void setNString(String parameterName, String value) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_NSTRING_STRING_STRING, new Object[]{parameterName, value});
+        }
+        this.callableStatement.setNString(parameterName, value);
+    }
+
+    @Override
+    public void setNCharacterStream(String parameterName, Reader value, long length) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_NCHARACTER_STREAM_STRING_READER_LONG,
+                    new Object[]{parameterName, value, length});
+        }
+        this.callableStatement.setNCharacterStream(parameterName, value, length);
+    }
+
+    @Override
+    public void setNClob(String parameterName, NClob value) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_NCLOB_STRING_NCLOB, new Object[]{parameterName, value});
+        }
+        this.callableStatement.setNClob(parameterName, value);
+    }
+
+    @Override
+    public void setClob(String parameterName, Reader reader, long length) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_CLOB_STRING_READER_LONG, new Object[]{parameterName, reader, length});
+        }
+        this.callableStatement.setClob(parameterName, reader, length);
+    }
+
+    @Override
+    public void setBlob(String parameterName, InputStream inputStream, long length) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_BLOB_STRING_INPUT_STREAM_LONG,
+                    new Object[]{parameterName, inputStream, length});
+        }
+        this.callableStatement.setBlob(parameterName, inputStream, length);
+    }
+
+    @Override
+    public void setNClob(String parameterName, Reader reader, long length) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_NCLOB_STRING_READER_LONG, new Object[]{parameterName, reader, length});
+        }
+        this.callableStatement.setNClob(parameterName, reader, length);
+    }
+
+    @Override
+    public NClob getNClob(int parameterIndex) throws SQLException {
+        return this.callableStatement.getNClob(parameterIndex);
+    }
+
+    @Override
+    public NClob getNClob(String parameterName) throws SQLException {
+        return this.callableStatement.getNClob(parameterName);
+    }
+
+    @Override
+    public void setSQLXML(String parameterName, SQLXML xmlObject) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_SQLXML_STRING_SQLXML, new Object[]{parameterName, xmlObject});
+        }
+        this.callableStatement.setSQLXML(parameterName, xmlObject);
+    }
+
+    @Override
+    public SQLXML getSQLXML(int parameterIndex) throws SQLException {
+        return this.callableStatement.getSQLXML(parameterIndex);
+    }
+
+    @Override
+    public SQLXML getSQLXML(String parameterName) throws SQLException {
+        return this.callableStatement.getSQLXML(parameterName);
+    }
+
+    @Override
+    public String getNString(int parameterIndex) throws SQLException {
+        return this.callableStatement.getNString(parameterIndex);
+    }
+
+    @Override
+    public String getNString(String parameterName) throws SQLException {
+        return this.callableStatement.getNString(parameterName);
+    }
+
+    @Override
+    public Reader getNCharacterStream(int parameterIndex) throws SQLException {
+        return this.callableStatement.getNCharacterStream(parameterIndex);
+    }
+
+    @Override
+    public Reader getNCharacterStream(String parameterName) throws SQLException {
+        return this.callableStatement.getNCharacterStream(parameterName);
+    }
+
+    @Override
+    public Reader getCharacterStream(int parameterIndex) throws SQLException {
+        return this.callableStatement.getCharacterStream(parameterIndex);
+    }
+
+    @Override
+    public Reader getCharacterStream(String parameterName) throws SQLException {
+        return this.callableStatement.getCharacterStream(parameterName);
+    }
+
+    @Override
+    public void setBlob(String parameterName, Blob x) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_BLOB_STRING_BLOB, new Object[]{parameterName, x});
+        }
+        this.callableStatement.setBlob(parameterName, x);
+    }
+
+    @Override
+    public void setClob(String parameterName, Clob x) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_CLOB_STRING_CLOB, new Object[]{parameterName, x});
+        }
+        this.callableStatement.setClob(parameterName, x);
+    }
+
+    @Override
+    public void setAsciiStream(String parameterName, InputStream x, long length) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_ASCII_STREAM_STRING_INPUT_STREAM_LONG,
+                    new Object[]{parameterName, x, length});
+        }
+        this.callableStatement.setAsciiStream(parameterName, x, length);
+    }
+
+    @Override
+    public void setBinaryStream(String parameterName, InputStream x, long length) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_BINARY_STREAM_STRING_INPUT_STREAM_LONG,
+                    new Object[]{parameterName, x, length});
+        }
+        this.callableStatement.setBinaryStream(parameterName, x, length);
+    }
+
+    @Override
+    public void setCharacterStream(String parameterName, Reader reader, long length) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_CHARACTER_STREAM_STRING_READER_LONG,
+                    new Object[]{parameterName, reader, length});
+        }
+        this.callableStatement.setCharacterStream(parameterName, reader, length);
+    }
+
+    @Override
+    public void setAsciiStream(String parameterName, InputStream x) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_ASCII_STREAM_STRING_INPUT_STREAM, new Object[]{parameterName, x});
+        }
+        this.callableStatement.setAsciiStream(parameterName, x);
+    }
+
+    @Override
+    public void setBinaryStream(String parameterName, InputStream x) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_BINARY_STREAM_STRING_INPUT_STREAM, new Object[]{parameterName, x});
+        }
+        this.callableStatement.setBinaryStream(parameterName, x);
+    }
+
+    @Override
+    public void setCharacterStream(String parameterName, Reader reader) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_CHARACTER_STREAM_STRING_READER, new Object[]{parameterName, reader});
+        }
+        this.callableStatement.setCharacterStream(parameterName, reader);
+    }
+
+    @Override
+    public void setNCharacterStream(String parameterName, Reader value) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_NCHARACTER_STREAM_STRING_READER, new Object[]{parameterName, value});
+        }
+        this.callableStatement.setNCharacterStream(parameterName, value);
+    }
+
+    @Override
+    public void setClob(String parameterName, Reader reader) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_CLOB_STRING_READER, new Object[]{parameterName, reader});
+        }
+        this.callableStatement.setClob(parameterName, reader);
+    }
+
+    @Override
+    public void setBlob(String parameterName, InputStream inputStream) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_BLOB_STRING_INPUT_STREAM, new Object[]{parameterName, inputStream});
+        }
+        this.callableStatement.setBlob(parameterName, inputStream);
+    }
+
+    @Override
+    public void setNClob(String parameterName, Reader reader) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_NCLOB_STRING_READER, new Object[]{parameterName, reader});
+        }
+        this.callableStatement.setNClob(parameterName, reader);
+    }
+
+    @Override
+    @IgnoreJRERequirement
+    public <T> T getObject(int parameterIndex, Class<T> type) throws SQLException {
+        return this.callableStatement.getObject(parameterIndex, type);
+    }
+
+    @Override
+    @IgnoreJRERequirement
+    public <T> T getObject(String parameterName, Class<T> type) throws SQLException {
+        return this.callableStatement.getObject(parameterName, type);
+    }
+
+    @Override
+    @IgnoreJRERequirement
+    public void setObject(String parameterName, Object x, SQLType targetSqlType, int scaleOrLength) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(Jdbc42Methods.SET_OBJECT_STRING_OBJECT_SQLTYPE_INT,
+                    new Object[]{parameterName, x, targetSqlType, scaleOrLength});
+        }
+        this.callableStatement.setObject(parameterName, x, targetSqlType, scaleOrLength);
+    }
+
+    @Override
+    @IgnoreJRERequirement
+    public void setObject(String parameterName, Object x, SQLType targetSqlType) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(Jdbc42Methods.SET_OBJECT_STRING_OBJECT_SQLTYPE,
+                    new Object[]{parameterName, x, targetSqlType});
+        }
+        this.callableStatement.setObject(parameterName, x, targetSqlType);
+    }
+
+    @Override
+    @IgnoreJRERequirement
+    public void registerOutParameter(int parameterIndex, SQLType sqlType) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(Jdbc42Methods.REGISTER_OUT_PARAMETER_INT_SQLTYPE,
+                    new Object[]{parameterIndex, sqlType});
+        }
+        this.callableStatement.registerOutParameter(parameterIndex, sqlType);
+    }
+
+    @Override
+    @IgnoreJRERequirement
+    public void registerOutParameter(int parameterIndex, SQLType sqlType, int scale) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(Jdbc42Methods.REGISTER_OUT_PARAMETER_INT_SQLTYPE_INT,
+                    new Object[]{parameterIndex, sqlType, scale});
+        }
+        this.callableStatement.registerOutParameter(parameterIndex, sqlType, scale);
+    }
+
+    @Override
+    @IgnoreJRERequirement
+    public void registerOutParameter(int parameterIndex, SQLType sqlType, String typeName) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(Jdbc42Methods.REGISTER_OUT_PARAMETER_INT_SQLTYPE_STRING,
+                    new Object[]{parameterIndex, sqlType, typeName});
+        }
+        this.callableStatement.registerOutParameter(parameterIndex, sqlType, typeName);
+    }
+
+    @Override
+    @IgnoreJRERequirement
+    public void registerOutParameter(String parameterName, SQLType sqlType) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(Jdbc42Methods.REGISTER_OUT_PARAMETER_STRING_SQLTYPE,
+                    new Object[]{parameterName, sqlType});
+        }
+        this.callableStatement.registerOutParameter(parameterName, sqlType);
+    }
+
+    @Override
+    @IgnoreJRERequirement
+    public void registerOutParameter(String parameterName, SQLType sqlType, int scale) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(Jdbc42Methods.REGISTER_OUT_PARAMETER_STRING_SQLTYPE_INT,
+                    new Object[]{parameterName, sqlType, scale});
+        }
+        this.callableStatement.registerOutParameter(parameterName, sqlType, scale);
+    }
+
+    @Override
+    @IgnoreJRERequirement
+    public void registerOutParameter(String parameterName, SQLType sqlType, String typeName) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(Jdbc42Methods.REGISTER_OUT_PARAMETER_STRING_SQLTYPE_STRING,
+                    new Object[]{parameterName, sqlType, typeName});
+        }
+        this.callableStatement.registerOutParameter(parameterName, sqlType, typeName);
+    }
+
+    @Override
+    public ResultSet executeQuery() throws SQLException {
+        return (ResultSet) execute(EXECUTE_QUERY, null, StatementInvokers.EXECUTE_QUERY);
+    }
+
+    @Override
+    public int executeUpdate() throws SQLException {
+        return (Integer) execute(EXECUTE_UPDATE, null, StatementInvokers.EXECUTE_UPDATE);
+    }
+
+    @Override
+    public void setNull(int parameterIndex, int sqlType) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_NULL_INT_INT, new Object[]{parameterIndex, sqlType});
+        }
+        this.callableStatement.setNull(parameterIndex, sqlType);
+    }
+
+    @Override
+    public void setBoolean(int parameterIndex, boolean x) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_BOOLEAN_INT_BOOLEAN, new Object[]{parameterIndex, x});
+        }
+        this.callableStatement.setBoolean(parameterIndex, x);
+    }
+
+    @Override
+    public void setByte(int parameterIndex, byte x) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_BYTE_INT_BYTE, new Object[]{parameterIndex, x});
+        }
+        this.callableStatement.setByte(parameterIndex, x);
+    }
+
+    @Override
+    public void setShort(int parameterIndex, short x) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_SHORT_INT_SHORT, new Object[]{parameterIndex, x});
+        }
+        this.callableStatement.setShort(parameterIndex, x);
+    }
+
+    @Override
+    public void setInt(int parameterIndex, int x) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_INT_INT_INT, new Object[]{parameterIndex, x});
+        }
+        this.callableStatement.setInt(parameterIndex, x);
+    }
+
+    @Override
+    public void setLong(int parameterIndex, long x) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_LONG_INT_LONG, new Object[]{parameterIndex, x});
+        }
+        this.callableStatement.setLong(parameterIndex, x);
+    }
+
+    @Override
+    public void setFloat(int parameterIndex, float x) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_FLOAT_INT_FLOAT, new Object[]{parameterIndex, x});
+        }
+        this.callableStatement.setFloat(parameterIndex, x);
+    }
+
+    @Override
+    public void setDouble(int parameterIndex, double x) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_DOUBLE_INT_DOUBLE, new Object[]{parameterIndex, x});
+        }
+        this.callableStatement.setDouble(parameterIndex, x);
+    }
+
+    @Override
+    public void setBigDecimal(int parameterIndex, BigDecimal x) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_BIG_DECIMAL_INT_BIG_DECIMAL, new Object[]{parameterIndex, x});
+        }
+        this.callableStatement.setBigDecimal(parameterIndex, x);
+    }
+
+    @Override
+    public void setString(int parameterIndex, String x) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_STRING_INT_STRING, new Object[]{parameterIndex, x});
+        }
+        this.callableStatement.setString(parameterIndex, x);
+    }
+
+    @Override
+    public void setBytes(int parameterIndex, byte[] x) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_BYTES_INT_BYTE_ARRAY, new Object[]{parameterIndex, x});
+        }
+        this.callableStatement.setBytes(parameterIndex, x);
+    }
+
+    @Override
+    public void setDate(int parameterIndex, Date x) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_DATE_INT_DATE, new Object[]{parameterIndex, x});
+        }
+        this.callableStatement.setDate(parameterIndex, x);
+    }
+
+    @Override
+    public void setTime(int parameterIndex, Time x) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_TIME_INT_TIME, new Object[]{parameterIndex, x});
+        }
+        this.callableStatement.setTime(parameterIndex, x);
+    }
+
+    @Override
+    public void setTimestamp(int parameterIndex, Timestamp x) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_TIMESTAMP_INT_TIMESTAMP, new Object[]{parameterIndex, x});
+        }
+        this.callableStatement.setTimestamp(parameterIndex, x);
+    }
+
+    @Override
+    public void setAsciiStream(int parameterIndex, InputStream x, int length) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_ASCII_STREAM_INT_INPUT_STREAM_INT, new Object[]{parameterIndex, x, length});
+        }
+        this.callableStatement.setAsciiStream(parameterIndex, x, length);
+    }
+
+    @Override
+    @SuppressWarnings("deprecation")
+    public void setUnicodeStream(int parameterIndex, InputStream x, int length) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_UNICODE_STREAM, new Object[]{parameterIndex, x, length});
+        }
+        this.callableStatement.setUnicodeStream(parameterIndex, x, length);
+    }
+
+    @Override
+    public void setBinaryStream(int parameterIndex, InputStream x, int length) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_BINARY_STREAM_INT_INPUT_STREAM_INT, new Object[]{parameterIndex, x, length});
+        }
+        this.callableStatement.setBinaryStream(parameterIndex, x, length);
+    }
+
+    @Override
+    public void clearParameters() throws SQLException {
+        this.logic.onClearParameters();
+        this.callableStatement.clearParameters();
+    }
+
+    @Override
+    public void setObject(int parameterIndex, Object x, int targetSqlType) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_OBJECT_INT_OBJECT_INT, new Object[]{parameterIndex, x, targetSqlType});
+        }
+        this.callableStatement.setObject(parameterIndex, x, targetSqlType);
+    }
+
+    @Override
+    public void setObject(int parameterIndex, Object x) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_OBJECT_INT_OBJECT, new Object[]{parameterIndex, x});
+        }
+        this.callableStatement.setObject(parameterIndex, x);
+    }
+
+    @Override
+    public boolean execute() throws SQLException {
+        return (Boolean) execute(EXECUTE, null, StatementInvokers.EXECUTE);
+    }
+
+    @Override
+    public void addBatch() throws SQLException {
+        try {
+            this.logic.onAddBatch();
+        } catch (Throwable ex) {
+            throw StatementInvokers.rethrow(ex);
+        }
+        this.callableStatement.addBatch();
+    }
+
+    @Override
+    public void setCharacterStream(int parameterIndex, Reader reader, int length) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_CHARACTER_STREAM_INT_READER_INT,
+                    new Object[]{parameterIndex, reader, length});
+        }
+        this.callableStatement.setCharacterStream(parameterIndex, reader, length);
+    }
+
+    @Override
+    public void setRef(int parameterIndex, Ref x) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_REF, new Object[]{parameterIndex, x});
+        }
+        this.callableStatement.setRef(parameterIndex, x);
+    }
+
+    @Override
+    public void setBlob(int parameterIndex, Blob x) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_BLOB_INT_BLOB, new Object[]{parameterIndex, x});
+        }
+        this.callableStatement.setBlob(parameterIndex, x);
+    }
+
+    @Override
+    public void setClob(int parameterIndex, Clob x) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_CLOB_INT_CLOB, new Object[]{parameterIndex, x});
+        }
+        this.callableStatement.setClob(parameterIndex, x);
+    }
+
+    @Override
+    public void setArray(int parameterIndex, Array x) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_ARRAY, new Object[]{parameterIndex, x});
+        }
+        this.callableStatement.setArray(parameterIndex, x);
+    }
+
+    @Override
+    public ResultSetMetaData getMetaData() throws SQLException {
+        return this.callableStatement.getMetaData();
+    }
+
+    @Override
+    public void setDate(int parameterIndex, Date x, Calendar cal) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_DATE_INT_DATE_CALENDAR, new Object[]{parameterIndex, x, cal});
+        }
+        this.callableStatement.setDate(parameterIndex, x, cal);
+    }
+
+    @Override
+    public void setTime(int parameterIndex, Time x, Calendar cal) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_TIME_INT_TIME_CALENDAR, new Object[]{parameterIndex, x, cal});
+        }
+        this.callableStatement.setTime(parameterIndex, x, cal);
+    }
+
+    @Override
+    public void setTimestamp(int parameterIndex, Timestamp x, Calendar cal) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_TIMESTAMP_INT_TIMESTAMP_CALENDAR, new Object[]{parameterIndex, x, cal});
+        }
+        this.callableStatement.setTimestamp(parameterIndex, x, cal);
+    }
+
+    @Override
+    public void setNull(int parameterIndex, int sqlType, String typeName) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_NULL_INT_INT_STRING, new Object[]{parameterIndex, sqlType, typeName});
+        }
+        this.callableStatement.setNull(parameterIndex, sqlType, typeName);
+    }
+
+    @Override
+    public void setURL(int parameterIndex, URL x) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_URL_INT_URL, new Object[]{parameterIndex, x});
+        }
+        this.callableStatement.setURL(parameterIndex, x);
+    }
+
+    @Override
+    public ParameterMetaData getParameterMetaData() throws SQLException {
+        return this.callableStatement.getParameterMetaData();
+    }
+
+    @Override
+    public void setRowId(int parameterIndex, RowId x) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_ROW_ID_INT_ROW_ID, new Object[]{parameterIndex, x});
+        }
+        this.callableStatement.setRowId(parameterIndex, x);
+    }
+
+    @Override
+    public void setNString(int parameterIndex, String value) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_NSTRING_INT_STRING, new Object[]{parameterIndex, value});
+        }
+        this.callableStatement.setNString(parameterIndex, value);
+    }
+
+    @Override
+    public void setNCharacterStream(int parameterIndex, Reader value, long length) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_NCHARACTER_STREAM_INT_READER_LONG,
+                    new Object[]{parameterIndex, value, length});
+        }
+        this.callableStatement.setNCharacterStream(parameterIndex, value, length);
+    }
+
+    @Override
+    public void setNClob(int parameterIndex, NClob value) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_NCLOB_INT_NCLOB, new Object[]{parameterIndex, value});
+        }
+        this.callableStatement.setNClob(parameterIndex, value);
+    }
+
+    @Override
+    public void setClob(int parameterIndex, Reader reader, long length) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_CLOB_INT_READER_LONG, new Object[]{parameterIndex, reader, length});
+        }
+        this.callableStatement.setClob(parameterIndex, reader, length);
+    }
+
+    @Override
+    public void setBlob(int parameterIndex, InputStream inputStream, long length) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_BLOB_INT_INPUT_STREAM_LONG,
+                    new Object[]{parameterIndex, inputStream, length});
+        }
+        this.callableStatement.setBlob(parameterIndex, inputStream, length);
+    }
+
+    @Override
+    public void setNClob(int parameterIndex, Reader reader, long length) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_NCLOB_INT_READER_LONG, new Object[]{parameterIndex, reader, length});
+        }
+        this.callableStatement.setNClob(parameterIndex, reader, length);
+    }
+
+    @Override
+    public void setSQLXML(int parameterIndex, SQLXML xmlObject) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_SQLXML_INT_SQLXML, new Object[]{parameterIndex, xmlObject});
+        }
+        this.callableStatement.setSQLXML(parameterIndex, xmlObject);
+    }
+
+    @Override
+    public void setObject(int parameterIndex, Object x, int targetSqlType, int scaleOrLength) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_OBJECT_INT_OBJECT_INT_INT,
+                    new Object[]{parameterIndex, x, targetSqlType, scaleOrLength});
+        }
+        this.callableStatement.setObject(parameterIndex, x, targetSqlType, scaleOrLength);
+    }
+
+    @Override
+    public void setAsciiStream(int parameterIndex, InputStream x, long length) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_ASCII_STREAM_INT_INPUT_STREAM_LONG, new Object[]{parameterIndex, x, length});
+        }
+        this.callableStatement.setAsciiStream(parameterIndex, x, length);
+    }
+
+    @Override
+    public void setBinaryStream(int parameterIndex, InputStream x, long length) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_BINARY_STREAM_INT_INPUT_STREAM_LONG, new Object[]{parameterIndex, x, length});
+        }
+        this.callableStatement.setBinaryStream(parameterIndex, x, length);
+    }
+
+    @Override
+    public void setCharacterStream(int parameterIndex, Reader reader, long length) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_CHARACTER_STREAM_INT_READER_LONG,
+                    new Object[]{parameterIndex, reader, length});
+        }
+        this.callableStatement.setCharacterStream(parameterIndex, reader, length);
+    }
+
+    @Override
+    public void setAsciiStream(int parameterIndex, InputStream x) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_ASCII_STREAM_INT_INPUT_STREAM, new Object[]{parameterIndex, x});
+        }
+        this.callableStatement.setAsciiStream(parameterIndex, x);
+    }
+
+    @Override
+    public void setBinaryStream(int parameterIndex, InputStream x) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_BINARY_STREAM_INT_INPUT_STREAM, new Object[]{parameterIndex, x});
+        }
+        this.callableStatement.setBinaryStream(parameterIndex, x);
+    }
+
+    @Override
+    public void setCharacterStream(int parameterIndex, Reader reader) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_CHARACTER_STREAM_INT_READER, new Object[]{parameterIndex, reader});
+        }
+        this.callableStatement.setCharacterStream(parameterIndex, reader);
+    }
+
+    @Override
+    public void setNCharacterStream(int parameterIndex, Reader value) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_NCHARACTER_STREAM_INT_READER, new Object[]{parameterIndex, value});
+        }
+        this.callableStatement.setNCharacterStream(parameterIndex, value);
+    }
+
+    @Override
+    public void setClob(int parameterIndex, Reader reader) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_CLOB_INT_READER, new Object[]{parameterIndex, reader});
+        }
+        this.callableStatement.setClob(parameterIndex, reader);
+    }
+
+    @Override
+    public void setBlob(int parameterIndex, InputStream inputStream) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_BLOB_INT_INPUT_STREAM, new Object[]{parameterIndex, inputStream});
+        }
+        this.callableStatement.setBlob(parameterIndex, inputStream);
+    }
+
+    @Override
+    public void setNClob(int parameterIndex, Reader reader) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_NCLOB_INT_READER, new Object[]{parameterIndex, reader});
+        }
+        this.callableStatement.setNClob(parameterIndex, reader);
+    }
+
+    @Override
+    @IgnoreJRERequirement
+    public void setObject(int parameterIndex, Object x, SQLType targetSqlType, int scaleOrLength) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(Jdbc42Methods.SET_OBJECT_INT_OBJECT_SQLTYPE_INT,
+                    new Object[]{parameterIndex, x, targetSqlType, scaleOrLength});
+        }
+        this.callableStatement.setObject(parameterIndex, x, targetSqlType, scaleOrLength);
+    }
+
+    @Override
+    @IgnoreJRERequirement
+    public void setObject(int parameterIndex, Object x, SQLType targetSqlType) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(Jdbc42Methods.SET_OBJECT_INT_OBJECT_SQLTYPE,
+                    new Object[]{parameterIndex, x, targetSqlType});
+        }
+        this.callableStatement.setObject(parameterIndex, x, targetSqlType);
+    }
+
+    @Override
+    @IgnoreJRERequirement
+    public long executeLargeUpdate() throws SQLException {
+        return (Long) execute(Jdbc42Methods.EXECUTE_LARGE_UPDATE, null,
+                StatementInvokers.Jdbc42Invokers.EXECUTE_LARGE_UPDATE);
+    }
+
+    @Override
+    public ResultSet executeQuery(String sql) throws SQLException {
+        return (ResultSet) invoke(EXECUTE_QUERY_STRING, new Object[]{sql});
+    }
+
+    @Override
+    public int executeUpdate(String sql) throws SQLException {
+        return (Integer) invoke(EXECUTE_UPDATE_STRING, new Object[]{sql});
+    }
+
+    @Override
+    public void close() throws SQLException {
+        this.callableStatement.close();
+    }
+
+    @Override
+    public int getMaxFieldSize() throws SQLException {
+        return this.callableStatement.getMaxFieldSize();
+    }
+
+    @Override
+    public void setMaxFieldSize(int max) throws SQLException {
+        this.callableStatement.setMaxFieldSize(max);
+    }
+
+    @Override
+    public int getMaxRows() throws SQLException {
+        return this.callableStatement.getMaxRows();
+    }
+
+    @Override
+    public void setMaxRows(int max) throws SQLException {
+        this.callableStatement.setMaxRows(max);
+    }
+
+    @Override
+    public void setEscapeProcessing(boolean enable) throws SQLException {
+        this.callableStatement.setEscapeProcessing(enable);
+    }
+
+    @Override
+    public int getQueryTimeout() throws SQLException {
+        return this.callableStatement.getQueryTimeout();
+    }
+
+    @Override
+    public void setQueryTimeout(int seconds) throws SQLException {
+        this.callableStatement.setQueryTimeout(seconds);
+    }
+
+    @Override
+    public void cancel() throws SQLException {
+        this.callableStatement.cancel();
+    }
+
+    @Override
+    public SQLWarning getWarnings() throws SQLException {
+        return this.callableStatement.getWarnings();
+    }
+
+    @Override
+    public void clearWarnings() throws SQLException {
+        this.callableStatement.clearWarnings();
+    }
+
+    @Override
+    public void setCursorName(String name) throws SQLException {
+        this.callableStatement.setCursorName(name);
+    }
+
+    @Override
+    public boolean execute(String sql) throws SQLException {
+        return (Boolean) invoke(EXECUTE_STRING, new Object[]{sql});
+    }
+
+    @Override
+    public ResultSet getResultSet() throws SQLException {
+        return this.callableStatement.getResultSet();
+    }
+
+    @Override
+    public int getUpdateCount() throws SQLException {
+        return this.callableStatement.getUpdateCount();
+    }
+
+    @Override
+    public boolean getMoreResults() throws SQLException {
+        return this.callableStatement.getMoreResults();
+    }
+
+    @Override
+    public void setFetchDirection(int direction) throws SQLException {
+        this.callableStatement.setFetchDirection(direction);
+    }
+
+    @Override
+    public int getFetchDirection() throws SQLException {
+        return this.callableStatement.getFetchDirection();
+    }
+
+    @Override
+    public void setFetchSize(int rows) throws SQLException {
+        this.callableStatement.setFetchSize(rows);
+    }
+
+    @Override
+    public int getFetchSize() throws SQLException {
+        return this.callableStatement.getFetchSize();
+    }
+
+    @Override
+    public int getResultSetConcurrency() throws SQLException {
+        return this.callableStatement.getResultSetConcurrency();
+    }
+
+    @Override
+    public int getResultSetType() throws SQLException {
+        return this.callableStatement.getResultSetType();
+    }
+
+    @Override
+    public void addBatch(String sql) throws SQLException {
+        invoke(ADD_BATCH_STRING, new Object[]{sql});
+    }
+
+    @Override
+    public void clearBatch() throws SQLException {
+        this.logic.onClearBatch();
+        this.callableStatement.clearBatch();
+    }
+
+    @Override
+    public int[] executeBatch() throws SQLException {
+        return (int[]) execute(EXECUTE_BATCH, null, StatementInvokers.EXECUTE_BATCH);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return (Connection) invoke(GET_CONNECTION, null);
+    }
+
+    @Override
+    public boolean getMoreResults(int current) throws SQLException {
+        return this.callableStatement.getMoreResults(current);
+    }
+
+    @Override
+    public ResultSet getGeneratedKeys() throws SQLException {
+        return this.callableStatement.getGeneratedKeys();
+    }
+
+    @Override
+    public int executeUpdate(String sql, int autoGeneratedKeys) throws SQLException {
+        return (Integer) invoke(EXECUTE_UPDATE_STRING_INT, new Object[]{sql, autoGeneratedKeys});
+    }
+
+    @Override
+    public int executeUpdate(String sql, int[] columnIndexes) throws SQLException {
+        return (Integer) invoke(EXECUTE_UPDATE_STRING_INT_ARRAY, new Object[]{sql, columnIndexes});
+    }
+
+    @Override
+    public int executeUpdate(String sql, String[] columnNames) throws SQLException {
+        return (Integer) invoke(EXECUTE_UPDATE_STRING_STRING_ARRAY, new Object[]{sql, columnNames});
+    }
+
+    @Override
+    public boolean execute(String sql, int autoGeneratedKeys) throws SQLException {
+        return (Boolean) invoke(EXECUTE_STRING_INT, new Object[]{sql, autoGeneratedKeys});
+    }
+
+    @Override
+    public boolean execute(String sql, int[] columnIndexes) throws SQLException {
+        return (Boolean) invoke(EXECUTE_STRING_INT_ARRAY, new Object[]{sql, columnIndexes});
+    }
+
+    @Override
+    public boolean execute(String sql, String[] columnNames) throws SQLException {
+        return (Boolean) invoke(EXECUTE_STRING_STRING_ARRAY, new Object[]{sql, columnNames});
+    }
+
+    @Override
+    public int getResultSetHoldability() throws SQLException {
+        return this.callableStatement.getResultSetHoldability();
+    }
+
+    @Override
+    public boolean isClosed() throws SQLException {
+        return this.callableStatement.isClosed();
+    }
+
+    @Override
+    public void setPoolable(boolean poolable) throws SQLException {
+        this.callableStatement.setPoolable(poolable);
+    }
+
+    @Override
+    public boolean isPoolable() throws SQLException {
+        return this.callableStatement.isPoolable();
+    }
+
+    @Override
+    @IgnoreJRERequirement
+    public void closeOnCompletion() throws SQLException {
+        this.callableStatement.closeOnCompletion();
+    }
+
+    @Override
+    @IgnoreJRERequirement
+    public boolean isCloseOnCompletion() throws SQLException {
+        return this.callableStatement.isCloseOnCompletion();
+    }
+
+    @Override
+    @IgnoreJRERequirement
+    public long getLargeUpdateCount() throws SQLException {
+        return this.callableStatement.getLargeUpdateCount();
+    }
+
+    @Override
+    @IgnoreJRERequirement
+    public void setLargeMaxRows(long max) throws SQLException {
+        this.callableStatement.setLargeMaxRows(max);
+    }
+
+    @Override
+    @IgnoreJRERequirement
+    public long getLargeMaxRows() throws SQLException {
+        return this.callableStatement.getLargeMaxRows();
+    }
+
+    @Override
+    @IgnoreJRERequirement
+    public long[] executeLargeBatch() throws SQLException {
+        return (long[]) execute(Jdbc42Methods.EXECUTE_LARGE_BATCH, null,
+                StatementInvokers.Jdbc42Invokers.EXECUTE_LARGE_BATCH);
+    }
+
+    @Override
+    @IgnoreJRERequirement
+    public long executeLargeUpdate(String sql) throws SQLException {
+        return (Long) invoke(Jdbc42Methods.EXECUTE_LARGE_UPDATE_STRING, new Object[]{sql});
+    }
+
+    @Override
+    @IgnoreJRERequirement
+    public long executeLargeUpdate(String sql, int autoGeneratedKeys) throws SQLException {
+        return (Long) invoke(Jdbc42Methods.EXECUTE_LARGE_UPDATE_STRING_INT, new Object[]{sql, autoGeneratedKeys});
+    }
+
+    @Override
+    @IgnoreJRERequirement
+    public long executeLargeUpdate(String sql, int[] columnIndexes) throws SQLException {
+        return (Long) invoke(Jdbc42Methods.EXECUTE_LARGE_UPDATE_STRING_INT_ARRAY, new Object[]{sql, columnIndexes});
+    }
+
+    @Override
+    @IgnoreJRERequirement
+    public long executeLargeUpdate(String sql, String[] columnNames) throws SQLException {
+        return (Long) invoke(Jdbc42Methods.EXECUTE_LARGE_UPDATE_STRING_STRING_ARRAY, new Object[]{sql, columnNames});
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        return (T) invoke(UNWRAP, new Object[]{iface});
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return (Boolean) invoke(IS_WRAPPER_FOR, new Object[]{iface});
+    }
+
+}
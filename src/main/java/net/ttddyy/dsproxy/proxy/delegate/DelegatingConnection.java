@@ -0,0 +1,384 @@
+package net.ttddyy.dsproxy.proxy.delegate;
+
+import net.ttddyy.dsproxy.proxy.ConnectionProxyLogic;
+import net.ttddyy.dsproxy.proxy.MethodUtils;
+import net.ttddyy.dsproxy.proxy.ProxyJdbcObject;
+import org.codehaus.mojo.animal_sniffer.IgnoreJRERequirement;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.sql.Array;
+import java.sql.Blob;
+import java.sql.CallableStatement;
+import java.sql.Clob;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.NClob;
+import java.sql.PreparedStatement;
+import java.sql.SQLClientInfoException;
+import java.sql.SQLException;
+import java.sql.SQLWarning;
+import java.sql.SQLXML;
+import java.sql.Savepoint;
+import java.sql.Statement;
+import java.sql.Struct;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.Executor;
+
+/**
+ * {@link Connection} implementation that delegates to the actual connection and routes
+ * statement creation and wrapper calls through {@link ConnectionProxyLogic}.
+ *
+ * <p>Methods that the proxy logic does not intercept are plain calls on the actual object.
+ *
+ * @author Tadaya Tsuyukubo
+ * @see DelegateJdbcProxyFactory
+ * @since 1.4
+ */
+public class DelegatingConnection implements Connection, ProxyJdbcObject {
+
+    private static final Method TO_STRING = MethodUtils.getMethod(Object.class, "toString");
+    private static final Method CREATE_STATEMENT = MethodUtils.getMethod(Connection.class, "createStatement");
+    private static final Method PREPARE_STATEMENT_STRING =
+            MethodUtils.getMethod(Connection.class, "prepareStatement", String.class);
+    private static final Method PREPARE_CALL_STRING =
+            MethodUtils.getMethod(Connection.class, "prepareCall", String.class);
+    private static final Method CREATE_STATEMENT_INT_INT =
+            MethodUtils.getMethod(Connection.class, "createStatement", int.class, int.class);
+    private static final Method PREPARE_STATEMENT_STRING_INT_INT =
+            MethodUtils.getMethod(Connection.class, "prepareStatement", String.class, int.class, int.class);
+    private static final Method PREPARE_CALL_STRING_INT_INT =
+            MethodUtils.getMethod(Connection.class, "prepareCall", String.class, int.class, int.class);
+    private static final Method CREATE_STATEMENT_INT_INT_INT =
+            MethodUtils.getMethod(Connection.class, "createStatement", int.class, int.class, int.class);
+    private static final Method PREPARE_STATEMENT_STRING_INT_INT_INT =
+            MethodUtils.getMethod(Connection.class, "prepareStatement", String.class, int.class, int.class, int.class);
+    private static final Method PREPARE_CALL_STRING_INT_INT_INT =
+            MethodUtils.getMethod(Connection.class, "prepareCall", String.class, int.class, int.class, int.class);
+    private static final Method PREPARE_STATEMENT_STRING_INT =
+            MethodUtils.getMethod(Connection.class, "prepareStatement", String.class, int.class);
+    private static final Method PREPARE_STATEMENT_STRING_INT_ARRAY =
+            MethodUtils.getMethod(Connection.class, "prepareStatement", String.class, int[].class);
+    private static final Method PREPARE_STATEMENT_STRING_STRING_ARRAY =
+            MethodUtils.getMethod(Connection.class, "prepareStatement", String.class, String[].class);
+    private static final Method UNWRAP = MethodUtils.getMethod(Connection.class, "unwrap", Class.class);
+    private static final Method IS_WRAPPER_FOR = MethodUtils.getMethod(Connection.class, "isWrapperFor", Class.class);
+
+    private final Connection connection;
+    private final ConnectionProxyLogic logic;
+
+    public DelegatingConnection(Connection connection, ConnectionProxyLogic logic) {
+        this.connection = connection;
+        this.logic = logic;
+    }
+
+    private Object invoke(Method method, Object[] args) throws SQLException {
+        try {
+            return this.logic.invoke(method, args);
+        } catch (Throwable ex) {
+            throw StatementInvokers.rethrow(ex);
+        }
+    }
+
+    @Override
+    public Object getTarget() {
+        return this.connection;
+    }
+
+    @Override
+    public String toString() {
+        try {
+            return (String) invoke(TO_STRING, null);
+        } catch (SQLException ex) {
+            throw new UndeclaredThrowableException(ex);
+        }
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return this.connection.equals(obj);
+    }
+
+    @Override
+    public int hashCode() {
+        return this.connection.hashCode();
+    }
+
+    @Override
+    public Statement createStatement() throws SQLException {
+        return (Statement) invoke(CREATE_STATEMENT, null);
+    }
+
+    @Override
+    public PreparedStatement prepareStatement(String sql) throws SQLException {
+        return (PreparedStatement) invoke(PREPARE_STATEMENT_STRING, new Object[]{sql});
+    }
+
+    @Override
+    public CallableStatement prepareCall(String sql) throws SQLException {
+        return (CallableStatement) invoke(PREPARE_CALL_STRING, new Object[]{sql});
+    }
+
+    @Override
+    public String nativeSQL(String sql) throws SQLException {
+        return this.connection.nativeSQL(sql);
+    }
+
+    @Override
+    public void setAutoCommit(boolean autoCommit) throws SQLException {
+        this.connection.setAutoCommit(autoCommit);
+    }
+
+    @Override
+    public boolean getAutoCommit() throws SQLException {
+        return this.connection.getAutoCommit();
+    }
+
+    @Override
+    public void commit() throws SQLException {
+        this.connection.commit();
+    }
+
+    @Override
+    public void rollback() throws SQLException {
+        this.connection.rollback();
+    }
+
+    @Override
+    public void close() throws SQLException {
+        this.connection.close();
+    }
+
+    @Override
+    public boolean isClosed() throws SQLException {
+        return this.connection.isClosed();
+    }
+
+    @Override
+    public DatabaseMetaData getMetaData() throws SQLException {
+        return this.connection.getMetaData();
+    }
+
+    @Override
+    public void setReadOnly(boolean readOnly) throws SQLException {
+        this.connection.setReadOnly(readOnly);
+    }
+
+    @Override
+    public boolean isReadOnly() throws SQLException {
+        return this.connection.isReadOnly();
+    }
+
+    @Override
+    public void setCatalog(String catalog) throws SQLException {
+        this.connection.setCatalog(catalog);
+    }
+
+    @Override
+    public String getCatalog() throws SQLException {
+        return this.connection.getCatalog();
+    }
+
+    @Override
+    public void setTransactionIsolation(int level) throws SQLException {
+        this.connection.setTransactionIsolation(level);
+    }
+
+    @Override
+    public int getTransactionIsolation() throws SQLException {
+        return this.connection.getTransactionIsolation();
+    }
+
+    @Override
+    public SQLWarning getWarnings() throws SQLException {
+        return this.connection.getWarnings();
+    }
+
+    @Override
+    public void clearWarnings() throws SQLException {
+        this.connection.clearWarnings();
+    }
+
+    @Override
+    public Statement createStatement(int resultSetType, int resultSetConcurrency) throws SQLException {
+        return (Statement) invoke(CREATE_STATEMENT_INT_INT, new Object[]{resultSetType, resultSetConcurrency});
+    }
+
+    @Override
+    public PreparedStatement prepareStatement(String sql, int resultSetType, int resultSetConcurrency) throws SQLException {
+        return (PreparedStatement) invoke(PREPARE_STATEMENT_STRING_INT_INT, new Object[]{sql, resultSetType, resultSetConcurrency});
+    }
+
+    @Override
+    public CallableStatement prepareCall(String sql, int resultSetType, int resultSetConcurrency) throws SQLException {
+        return (CallableStatement) invoke(PREPARE_CALL_STRING_INT_INT, new Object[]{sql, resultSetType, resultSetConcurrency});
+    }
+
+    @Override
+    public Map<String,Class<?>> getTypeMap() throws SQLException {
+        return this.connection.getTypeMap();
+    }
+
+    @Override
+    public void setTypeMap(Map<String,Class<?>> map) throws SQLException {
+        this.connection.setTypeMap(map);
+    }
+
+    @Override
+    public void setHoldability(int holdability) throws SQLException {
+        this.connection.setHoldability(holdability);
+    }
+
+    @Override
+    public int getHoldability() throws SQLException {
+        return this.connection.getHoldability();
+    }
+
+    @Override
+    public Savepoint setSavepoint() throws SQLException {
+        return this.connection.setSavepoint();
+    }
+
+    @Override
+    public Savepoint setSavepoint(String name) throws SQLException {
+        return this.connection.setSavepoint(name);
+    }
+
+    @Override
+    public void rollback(Savepoint savepoint) throws SQLException {
+        this.connection.rollback(savepoint);
+    }
+
+    @Override
+    public void releaseSavepoint(Savepoint savepoint) throws SQLException {
+        this.connection.releaseSavepoint(savepoint);
+    }
+
+    @Override
+    public Statement createStatement(int resultSetType, int resultSetConcurrency, int resultSetHoldability) throws SQLException {
+        return (Statement) invoke(CREATE_STATEMENT_INT_INT_INT, new Object[]{resultSetType, resultSetConcurrency, resultSetHoldability});
+    }
+
+    @Override
+    public PreparedStatement prepareStatement(String sql, int resultSetType, int resultSetConcurrency, int resultSetHoldability) throws SQLException {
+        return (PreparedStatement) invoke(PREPARE_STATEMENT_STRING_INT_INT_INT, new Object[]{sql, resultSetType, resultSetConcurrency, resultSetHoldability});
+    }
+
+    @Override
+    public CallableStatement prepareCall(String sql, int resultSetType, int resultSetConcurrency, int resultSetHoldability) throws SQLException {
+        return (CallableStatement) invoke(PREPARE_CALL_STRING_INT_INT_INT, new Object[]{sql, resultSetType, resultSetConcurrency, resultSetHoldability});
+    }
+
+    @Override
+    public PreparedStatement prepareStatement(String sql, int autoGeneratedKeys) throws SQLException {
+        return (PreparedStatement) invoke(PREPARE_STATEMENT_STRING_INT, new Object[]{sql, autoGeneratedKeys});
+    }
+
+    @Override
+    public PreparedStatement prepareStatement(String sql, int[] columnIndexes) throws SQLException {
+        return (PreparedStatement) invoke(PREPARE_STATEMENT_STRING_INT_ARRAY, new Object[]{sql, columnIndexes});
+    }
+
+    @Override
+    public PreparedStatement prepareStatement(String sql, String[] columnNames) throws SQLException {
+        return (PreparedStatement) invoke(PREPARE_STATEMENT_STRING_STRING_ARRAY, new Object[]{sql, columnNames});
+    }
+
+    @Override
+    public Clob createClob() throws SQLException {
+        return this.connection.createClob();
+    }
+
+    @Override
+    public Blob createBlob() throws SQLException {
+        return this.connection.createBlob();
+    }
+
+    @Override
+    public NClob createNClob() throws SQLException {
+        return this.connection.createNClob();
+    }
+
+    @Override
+    public SQLXML createSQLXML() throws SQLException {
+        return this.connection.createSQLXML();
+    }
+
+    @Override
+    public boolean isValid(int timeout) throws SQLException {
+        return this.connection.isValid(timeout);
+    }
+
+    @Override
+    public void setClientInfo(String name, String value) throws SQLClientInfoException {
+        this.connection.setClientInfo(name, value);
+    }
+
+    @Override
+    public void setClientInfo(Properties properties) throws SQLClientInfoException {
+        this.connection.setClientInfo(properties);
+    }
+
+    @Override
+    public String getClientInfo(String name) throws SQLException {
+        return this.connection.getClientInfo(name);
+    }
+
+    @Override
+    public Properties getClientInfo() throws SQLException {
+        return this.connection.getClientInfo();
+    }
+
+    @Override
+    public Array createArrayOf(String typeName, Object[] elements) throws SQLException {
+        return this.connection.createArrayOf(typeName, elements);
+    }
+
+    @Override
+    public Struct createStruct(String typeName, Object[] attributes) throws SQLException {
+        return this.connection.createStruct(typeName, attributes);
+    }
+
+    @Override
+    @IgnoreJRERequirement
+    public void setSchema(String schema) throws SQLException {
+        this.connection.setSchema(schema);
+    }
+
+    @Override
+    @IgnoreJRERequirement
+    public String getSchema() throws SQLException {
+        return this.connection.getSchema();
+    }
+
+    @Override
+    @IgnoreJRERequirement
+    public void abort(Executor executor) throws SQLException {
+        this.connection.abort(executor);
+    }
+
+    @Override
+    @IgnoreJRERequirement
+    public void setNetworkTimeout(Executor executor, int milliseconds) throws SQLException {
+        this.connection.setNetworkTimeout(executor, milliseconds);
+    }
+
+    @Override
+    @IgnoreJRERequirement
+    public int getNetworkTimeout() throws SQLException {
+        return this.connection.getNetworkTimeout();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        return (T) invoke(UNWRAP, new Object[]{iface});
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return (Boolean) invoke(IS_WRAPPER_FOR, new Object[]{iface});
+    }
+
+}
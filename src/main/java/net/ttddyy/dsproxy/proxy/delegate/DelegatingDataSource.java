@@ -0,0 +1,123 @@
+package net.ttddyy.dsproxy.proxy.delegate;
+
+import net.ttddyy.dsproxy.proxy.DataSourceProxyLogic;
+import net.ttddyy.dsproxy.proxy.MethodUtils;
+import net.ttddyy.dsproxy.proxy.ProxyJdbcObject;
+import org.codehaus.mojo.animal_sniffer.IgnoreJRERequirement;
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.lang.reflect.Method;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.logging.Logger;
+
+/**
+ * {@link DataSource} implementation that delegates to the actual datasource and routes
+ * {@code getConnection} and wrapper calls through {@link DataSourceProxyLogic}.
+ *
+ * <p>Methods that the proxy logic does not intercept are plain calls on the actual object.
+ *
+ * @author Tadaya Tsuyukubo
+ * @see DelegateJdbcProxyFactory
+ * @since 1.4
+ */
+public class DelegatingDataSource implements DataSource, ProxyJdbcObject {
+
+    private static final Method TO_STRING = MethodUtils.getMethod(Object.class, "toString");
+    private static final Method GET_CONNECTION = MethodUtils.getMethod(DataSource.class, "getConnection");
+    private static final Method GET_CONNECTION_STRING_STRING =
+            MethodUtils.getMethod(DataSource.class, "getConnection", String.class, String.class);
+    private static final Method UNWRAP = MethodUtils.getMethod(DataSource.class, "unwrap", Class.class);
+    private static final Method IS_WRAPPER_FOR = MethodUtils.getMethod(DataSource.class, "isWrapperFor", Class.class);
+
+    private final DataSource dataSource;
+    private final DataSourceProxyLogic logic;
+
+    public DelegatingDataSource(DataSource dataSource, DataSourceProxyLogic logic) {
+        this.dataSource = dataSource;
+        this.logic = logic;
+    }
+
+    private Object invoke(Method method, Object[] args) throws SQLException {
+        try {
+            return this.logic.invoke(method, args);
+        } catch (Throwable ex) {
+            throw StatementInvokers.rethrow(ex);
+        }
+    }
+
+    @Override
+    public Object getTarget() {
+        return this.dataSource;
+    }
+
+    @Override
+    public String toString() {
+        try {
+            return (String) invoke(TO_STRING, null);
+        } catch (SQLException ex) {
+            throw new UndeclaredThrowableException(ex);
+        }
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return this.dataSource.equals(obj);
+    }
+
+    @Override
+    public int hashCode() {
+        return this.dataSource.hashCode();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return (Connection) invoke(GET_CONNECTION, null);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return (Connection) invoke(GET_CONNECTION_STRING_STRING, new Object[]{username, password});
+    }
+
+    @Override
+    public PrintWriter getLogWriter() throws SQLException {
+        return this.dataSource.getLogWriter();
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) throws SQLException {
+        this.dataSource.setLogWriter(out);
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) throws SQLException {
+        this.dataSource.setLoginTimeout(seconds);
+    }
+
+    @Override
+    public int getLoginTimeout() throws SQLException {
+        return this.dataSource.getLoginTimeout();
+    }
+
+    @Override
+    @IgnoreJRERequirement
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        return this.dataSource.getParentLogger();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        return (T) invoke(UNWRAP, new Object[]{iface});
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return (Boolean) invoke(IS_WRAPPER_FOR, new Object[]{iface});
+    }
+
+}
@@ -0,0 +1,975 @@
+package net.ttddyy.dsproxy.proxy.delegate;
+
+import net.ttddyy.dsproxy.proxy.MethodInvoker;
+import net.ttddyy.dsproxy.proxy.MethodUtils;
+import net.ttddyy.dsproxy.proxy.PreparedStatementProxyLogic;
+import net.ttddyy.dsproxy.proxy.ProxyJdbcObject;
+import org.codehaus.mojo.animal_sniffer.IgnoreJRERequirement;
+
+import java.io.InputStream;
+import java.io.Reader;
+import java.lang.reflect.Method;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.math.BigDecimal;
+import java.net.URL;
+import java.sql.Array;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.NClob;
+import java.sql.ParameterMetaData;
+import java.sql.PreparedStatement;
+import java.sql.Ref;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.RowId;
+import java.sql.SQLException;
+import java.sql.SQLType;
+import java.sql.SQLWarning;
+import java.sql.SQLXML;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.Calendar;
+
+/**
+ * {@link PreparedStatement} implementation that delegates to the actual statement and routes
+ * parameter, batch, execution, {@code getConnection} and wrapper calls through
+ * {@link PreparedStatementProxyLogic}.
+ *
+ * <p>Methods that the proxy logic does not intercept are plain calls on the actual object.
+ *
+ * @author Tadaya Tsuyukubo
+ * @see DelegateJdbcProxyFactory
+ * @since 1.4
+ */
+public class DelegatingPreparedStatement implements PreparedStatement, ProxyJdbcObject {
+
+    private static final Method TO_STRING = MethodUtils.getMethod(Object.class, "toString");
+    private static final Method EXECUTE_QUERY = MethodUtils.getMethod(PreparedStatement.class, "executeQuery");
+    private static final Method EXECUTE_UPDATE = MethodUtils.getMethod(PreparedStatement.class, "executeUpdate");
+    private static final Method SET_NULL_INT_INT =
+            MethodUtils.getMethod(PreparedStatement.class, "setNull", int.class, int.class);
+    private static final Method SET_BOOLEAN =
+            MethodUtils.getMethod(PreparedStatement.class, "setBoolean", int.class, boolean.class);
+    private static final Method SET_BYTE =
+            MethodUtils.getMethod(PreparedStatement.class, "setByte", int.class, byte.class);
+    private static final Method SET_SHORT =
+            MethodUtils.getMethod(PreparedStatement.class, "setShort", int.class, short.class);
+    private static final Method SET_INT =
+            MethodUtils.getMethod(PreparedStatement.class, "setInt", int.class, int.class);
+    private static final Method SET_LONG =
+            MethodUtils.getMethod(PreparedStatement.class, "setLong", int.class, long.class);
+    private static final Method SET_FLOAT =
+            MethodUtils.getMethod(PreparedStatement.class, "setFloat", int.class, float.class);
+    private static final Method SET_DOUBLE =
+            MethodUtils.getMethod(PreparedStatement.class, "setDouble", int.class, double.class);
+    private static final Method SET_BIG_DECIMAL =
+            MethodUtils.getMethod(PreparedStatement.class, "setBigDecimal", int.class, BigDecimal.class);
+    private static final Method SET_STRING =
+            MethodUtils.getMethod(PreparedStatement.class, "setString", int.class, String.class);
+    private static final Method SET_BYTES =
+            MethodUtils.getMethod(PreparedStatement.class, "setBytes", int.class, byte[].class);
+    private static final Method SET_DATE_INT_DATE =
+            MethodUtils.getMethod(PreparedStatement.class, "setDate", int.class, Date.class);
+    private static final Method SET_TIME_INT_TIME =
+            MethodUtils.getMethod(PreparedStatement.class, "setTime", int.class, Time.class);
+    private static final Method SET_TIMESTAMP_INT_TIMESTAMP =
+            MethodUtils.getMethod(PreparedStatement.class, "setTimestamp", int.class, Timestamp.class);
+    private static final Method SET_ASCII_STREAM_INT_INPUT_STREAM_INT =
+            MethodUtils.getMethod(PreparedStatement.class, "setAsciiStream", int.class, InputStream.class, int.class);
+    private static final Method SET_UNICODE_STREAM =
+            MethodUtils.getMethod(PreparedStatement.class, "setUnicodeStream", int.class, InputStream.class, int.class);
+    private static final Method SET_BINARY_STREAM_INT_INPUT_STREAM_INT =
+            MethodUtils.getMethod(PreparedStatement.class, "setBinaryStream", int.class, InputStream.class, int.class);
+    private static final Method SET_OBJECT_INT_OBJECT_INT =
+            MethodUtils.getMethod(PreparedStatement.class, "setObject", int.class, Object.class, int.class);
+    private static final Method SET_OBJECT_INT_OBJECT =
+            MethodUtils.getMethod(PreparedStatement.class, "setObject", int.class, Object.class);
+    private static final Method EXECUTE = MethodUtils.getMethod(PreparedStatement.class, "execute");
+    private static final Method SET_CHARACTER_STREAM_INT_READER_INT =
+            MethodUtils.getMethod(PreparedStatement.class, "setCharacterStream", int.class, Reader.class, int.class);
+    private static final Method SET_REF =
+            MethodUtils.getMethod(PreparedStatement.class, "setRef", int.class, Ref.class);
+    private static final Method SET_BLOB_INT_BLOB =
+            MethodUtils.getMethod(PreparedStatement.class, "setBlob", int.class, Blob.class);
+    private static final Method SET_CLOB_INT_CLOB =
+            MethodUtils.getMethod(PreparedStatement.class, "setClob", int.class, Clob.class);
+    private static final Method SET_ARRAY =
+            MethodUtils.getMethod(PreparedStatement.class, "setArray", int.class, Array.class);
+    private static final Method SET_DATE_INT_DATE_CALENDAR =
+            MethodUtils.getMethod(PreparedStatement.class, "setDate", int.class, Date.class, Calendar.class);
+    private static final Method SET_TIME_INT_TIME_CALENDAR =
+            MethodUtils.getMethod(PreparedStatement.class, "setTime", int.class, Time.class, Calendar.class);
+    private static final Method SET_TIMESTAMP_INT_TIMESTAMP_CALENDAR =
+            MethodUtils.getMethod(PreparedStatement.class, "setTimestamp", int.class, Timestamp.class, Calendar.class);
+    private static final Method SET_NULL_INT_INT_STRING =
+            MethodUtils.getMethod(PreparedStatement.class, "setNull", int.class, int.class, String.class);
+    private static final Method SET_URL =
+            MethodUtils.getMethod(PreparedStatement.class, "setURL", int.class, URL.class);
+    private static final Method SET_ROW_ID =
+            MethodUtils.getMethod(PreparedStatement.class, "setRowId", int.class, RowId.class);
+    private static final Method SET_NSTRING =
+            MethodUtils.getMethod(PreparedStatement.class, "setNString", int.class, String.class);
+    private static final Method SET_NCHARACTER_STREAM_INT_READER_LONG =
+            MethodUtils.getMethod(PreparedStatement.class, "setNCharacterStream", int.class, Reader.class, long.class);
+    private static final Method SET_NCLOB_INT_NCLOB =
+            MethodUtils.getMethod(PreparedStatement.class, "setNClob", int.class, NClob.class);
+    private static final Method SET_CLOB_INT_READER_LONG =
+            MethodUtils.getMethod(PreparedStatement.class, "setClob", int.class, Reader.class, long.class);
+    private static final Method SET_BLOB_INT_INPUT_STREAM_LONG =
+            MethodUtils.getMethod(PreparedStatement.class, "setBlob", int.class, InputStream.class, long.class);
+    private static final Method SET_NCLOB_INT_READER_LONG =
+            MethodUtils.getMethod(PreparedStatement.class, "setNClob", int.class, Reader.class, long.class);
+    private static final Method SET_SQLXML =
+            MethodUtils.getMethod(PreparedStatement.class, "setSQLXML", int.class, SQLXML.class);
+    private static final Method SET_OBJECT_INT_OBJECT_INT_INT =
+            MethodUtils.getMethod(PreparedStatement.class, "setObject", int.class, Object.class, int.class, int.class);
+    private static final Method SET_ASCII_STREAM_INT_INPUT_STREAM_LONG =
+            MethodUtils.getMethod(PreparedStatement.class, "setAsciiStream", int.class, InputStream.class, long.class);
+    private static final Method SET_BINARY_STREAM_INT_INPUT_STREAM_LONG =
+            MethodUtils.getMethod(PreparedStatement.class, "setBinaryStream", int.class, InputStream.class, long.class);
+    private static final Method SET_CHARACTER_STREAM_INT_READER_LONG =
+            MethodUtils.getMethod(PreparedStatement.class, "setCharacterStream", int.class, Reader.class, long.class);
+    private static final Method SET_ASCII_STREAM_INT_INPUT_STREAM =
+            MethodUtils.getMethod(PreparedStatement.class, "setAsciiStream", int.class, InputStream.class);
+    private static final Method SET_BINARY_STREAM_INT_INPUT_STREAM =
+            MethodUtils.getMethod(PreparedStatement.class, "setBinaryStream", int.class, InputStream.class);
+    private static final Method SET_CHARACTER_STREAM_INT_READER =
+            MethodUtils.getMethod(PreparedStatement.class, "setCharacterStream", int.class, Reader.class);
+    private static final Method SET_NCHARACTER_STREAM_INT_READER =
+            MethodUtils.getMethod(PreparedStatement.class, "setNCharacterStream", int.class, Reader.class);
+    private static final Method SET_CLOB_INT_READER =
+            MethodUtils.getMethod(PreparedStatement.class, "setClob", int.class, Reader.class);
+    private static final Method SET_BLOB_INT_INPUT_STREAM =
+            MethodUtils.getMethod(PreparedStatement.class, "setBlob", int.class, InputStream.class);
+    private static final Method SET_NCLOB_INT_READER =
+            MethodUtils.getMethod(PreparedStatement.class, "setNClob", int.class, Reader.class);
+    private static final Method EXECUTE_QUERY_STRING =
+            MethodUtils.getMethod(PreparedStatement.class, "executeQuery", String.class);
+    private static final Method EXECUTE_UPDATE_STRING =
+            MethodUtils.getMethod(PreparedStatement.class, "executeUpdate", String.class);
+    private static final Method EXECUTE_STRING =
+            MethodUtils.getMethod(PreparedStatement.class, "execute", String.class);
+    private static final Method ADD_BATCH_STRING =
+            MethodUtils.getMethod(PreparedStatement.class, "addBatch", String.class);
+    private static final Method EXECUTE_BATCH = MethodUtils.getMethod(PreparedStatement.class, "executeBatch");
+    private static final Method GET_CONNECTION = MethodUtils.getMethod(PreparedStatement.class, "getConnection");
+    private static final Method EXECUTE_UPDATE_STRING_INT =
+            MethodUtils.getMethod(PreparedStatement.class, "executeUpdate", String.class, int.class);
+    private static final Method EXECUTE_UPDATE_STRING_INT_ARRAY =
+            MethodUtils.getMethod(PreparedStatement.class, "executeUpdate", String.class, int[].class);
+    private static final Method EXECUTE_UPDATE_STRING_STRING_ARRAY =
+            MethodUtils.getMethod(PreparedStatement.class, "executeUpdate", String.class, String[].class);
+    private static final Method EXECUTE_STRING_INT =
+            MethodUtils.getMethod(PreparedStatement.class, "execute", String.class, int.class);
+    private static final Method EXECUTE_STRING_INT_ARRAY =
+            MethodUtils.getMethod(PreparedStatement.class, "execute", String.class, int[].class);
+    private static final Method EXECUTE_STRING_STRING_ARRAY =
+            MethodUtils.getMethod(PreparedStatement.class, "execute", String.class, String[].class);
+    private static final Method UNWRAP = MethodUtils.getMethod(PreparedStatement.class, "unwrap", Class.class);
+    private static final Method IS_WRAPPER_FOR =
+            MethodUtils.getMethod(PreparedStatement.class, "isWrapperFor", Class.class);
+
+    /**
+     * Holds JDBC 4.2 (Java 8) methods so that older runtimes never resolve them.
+     */
+    private static class Jdbc42Methods {
+        private static final Method SET_OBJECT_INT_OBJECT_SQLTYPE_INT =
+                MethodUtils.getMethod(PreparedStatement.class, "setObject", int.class, Object.class, SQLType.class, int.class);
+        private static final Method SET_OBJECT_INT_OBJECT_SQLTYPE =
+                MethodUtils.getMethod(PreparedStatement.class, "setObject", int.class, Object.class, SQLType.class);
+        private static final Method EXECUTE_LARGE_UPDATE =
+                MethodUtils.getMethod(PreparedStatement.class, "executeLargeUpdate");
+        private static final Method EXECUTE_LARGE_BATCH =
+                MethodUtils.getMethod(PreparedStatement.class, "executeLargeBatch");
+        private static final Method EXECUTE_LARGE_UPDATE_STRING =
+                MethodUtils.getMethod(PreparedStatement.class, "executeLargeUpdate", String.class);
+        private static final Method EXECUTE_LARGE_UPDATE_STRING_INT =
+                MethodUtils.getMethod(PreparedStatement.class, "executeLargeUpdate", String.class, int.class);
+        private static final Method EXECUTE_LARGE_UPDATE_STRING_INT_ARRAY =
+                MethodUtils.getMethod(PreparedStatement.class, "executeLargeUpdate", String.class, int[].class);
+        private static final Method EXECUTE_LARGE_UPDATE_STRING_STRING_ARRAY =
+                MethodUtils.getMethod(PreparedStatement.class, "executeLargeUpdate", String.class, String[].class);
+    }
+
+    private final PreparedStatement preparedStatement;
+    private final PreparedStatementProxyLogic logic;
+
+    public DelegatingPreparedStatement(PreparedStatement preparedStatement, PreparedStatementProxyLogic logic) {
+        this.preparedStatement = preparedStatement;
+        this.logic = logic;
+    }
+
+    private Object invoke(Method method, Object[] args) throws SQLException {
+        try {
+            return this.logic.invoke(method, args);
+        } catch (Throwable ex) {
+            throw StatementInvokers.rethrow(ex);
+        }
+    }
+
+    private Object execute(Method method, Object[] args, MethodInvoker invoker) throws SQLException {
+        try {
+            return this.logic.execute(method, args, invoker);
+        } catch (Throwable ex) {
+            throw StatementInvokers.rethrow(ex);
+        }
+    }
+
+    @Override
+    public Object getTarget() {
+        return this.preparedStatement;
+    }
+
+    @Override
+    public String toString() {
+        try {
+            return (String) invoke(TO_STRING, null);
+        } catch (SQLException ex) {
+            throw new UndeclaredThrowableException(ex);
+        }
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return this.preparedStatement.equals(obj);
+    }
+
+    @Override
+    public int hashCode() {
+        return this.preparedStatement.hashCode();
+    }
+
+    @Override
+    public ResultSet executeQuery() throws SQLException {
+        return (ResultSet) execute(EXECUTE_QUERY, null, StatementInvokers.EXECUTE_QUERY);
+    }
+
+    @Override
+    public int executeUpdate() throws SQLException {
+        return (Integer) execute(EXECUTE_UPDATE, null, StatementInvokers.EXECUTE_UPDATE);
+    }
+
+    @Override
+    public void setNull(int parameterIndex, int sqlType) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_NULL_INT_INT, new Object[]{parameterIndex, sqlType});
+        }
+        this.preparedStatement.setNull(parameterIndex, sqlType);
+    }
+
+    @Override
+    public void setBoolean(int parameterIndex, boolean x) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_BOOLEAN, new Object[]{parameterIndex, x});
+        }
+        this.preparedStatement.setBoolean(parameterIndex, x);
+    }
+
+    @Override
+    public void setByte(int parameterIndex, byte x) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_BYTE, new Object[]{parameterIndex, x});
+        }
+        this.preparedStatement.setByte(parameterIndex, x);
+    }
+
+    @Override
+    public void setShort(int parameterIndex, short x) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_SHORT, new Object[]{parameterIndex, x});
+        }
+        this.preparedStatement.setShort(parameterIndex, x);
+    }
+
+    @Override
+    public void setInt(int parameterIndex, int x) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_INT, new Object[]{parameterIndex, x});
+        }
+        this.preparedStatement.setInt(parameterIndex, x);
+    }
+
+    @Override
+    public void setLong(int parameterIndex, long x) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_LONG, new Object[]{parameterIndex, x});
+        }
+        this.preparedStatement.setLong(parameterIndex, x);
+    }
+
+    @Override
+    public void setFloat(int parameterIndex, float x) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_FLOAT, new Object[]{parameterIndex, x});
+        }
+        this.preparedStatement.setFloat(parameterIndex, x);
+    }
+
+    @Override
+    public void setDouble(int parameterIndex, double x) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_DOUBLE, new Object[]{parameterIndex, x});
+        }
+        this.preparedStatement.setDouble(parameterIndex, x);
+    }
+
+    @Override
+    public void setBigDecimal(int parameterIndex, BigDecimal x) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_BIG_DECIMAL, new Object[]{parameterIndex, x});
+        }
+        this.preparedStatement.setBigDecimal(parameterIndex, x);
+    }
+
+    @Override
+    public void setString(int parameterIndex, String x) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_STRING, new Object[]{parameterIndex, x});
+        }
+        this.preparedStatement.setString(parameterIndex, x);
+    }
+
+    @Override
+    public void setBytes(int parameterIndex, byte[] x) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_BYTES, new Object[]{parameterIndex, x});
+        }
+        this.preparedStatement.setBytes(parameterIndex, x);
+    }
+
+    @Override
+    public void setDate(int parameterIndex, Date x) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_DATE_INT_DATE, new Object[]{parameterIndex, x});
+        }
+        this.preparedStatement.setDate(parameterIndex, x);
+    }
+
+    @Override
+    public void setTime(int parameterIndex, Time x) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_TIME_INT_TIME, new Object[]{parameterIndex, x});
+        }
+        this.preparedStatement.setTime(parameterIndex, x);
+    }
+
+    @Override
+    public void setTimestamp(int parameterIndex, Timestamp x) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_TIMESTAMP_INT_TIMESTAMP, new Object[]{parameterIndex, x});
+        }
+        this.preparedStatement.setTimestamp(parameterIndex, x);
+    }
+
+    @Override
+    public void setAsciiStream(int parameterIndex, InputStream x, int length) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_ASCII_STREAM_INT_INPUT_STREAM_INT, new Object[]{parameterIndex, x, length});
+        }
+        this.preparedStatement.setAsciiStream(parameterIndex, x, length);
+    }
+
+    @Override
+    @SuppressWarnings("deprecation")
+    public void setUnicodeStream(int parameterIndex, InputStream x, int length) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_UNICODE_STREAM, new Object[]{parameterIndex, x, length});
+        }
+        this.preparedStatement.setUnicodeStream(parameterIndex, x, length);
+    }
+
+    @Override
+    public void setBinaryStream(int parameterIndex, InputStream x, int length) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_BINARY_STREAM_INT_INPUT_STREAM_INT, new Object[]{parameterIndex, x, length});
+        }
+        this.preparedStatement.setBinaryStream(parameterIndex, x, length);
+    }
+
+    @Override
+    public void clearParameters() throws SQLException {
+        this.logic.onClearParameters();
+        this.preparedStatement.clearParameters();
+    }
+
+    @Override
+    public void setObject(int parameterIndex, Object x, int targetSqlType) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_OBJECT_INT_OBJECT_INT, new Object[]{parameterIndex, x, targetSqlType});
+        }
+        this.preparedStatement.setObject(parameterIndex, x, targetSqlType);
+    }
+
+    @Override
+    public void setObject(int parameterIndex, Object x) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_OBJECT_INT_OBJECT, new Object[]{parameterIndex, x});
+        }
+        this.preparedStatement.setObject(parameterIndex, x);
+    }
+
+    @Override
+    public boolean execute() throws SQLException {
+        return (Boolean) execute(EXECUTE, null, StatementInvokers.EXECUTE);
+    }
+
+    @Override
+    public void addBatch() throws SQLException {
+        try {
+            this.logic.onAddBatch();
+        } catch (Throwable ex) {
+            throw StatementInvokers.rethrow(ex);
+        }
+        this.preparedStatement.addBatch();
+    }
+
+    @Override
+    public void setCharacterStream(int parameterIndex, Reader reader, int length) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_CHARACTER_STREAM_INT_READER_INT,
+                    new Object[]{parameterIndex, reader, length});
+        }
+        this.preparedStatement.setCharacterStream(parameterIndex, reader, length);
+    }
+
+    @Override
+    public void setRef(int parameterIndex, Ref x) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_REF, new Object[]{parameterIndex, x});
+        }
+        this.preparedStatement.setRef(parameterIndex, x);
+    }
+
+    @Override
+    public void setBlob(int parameterIndex, Blob x) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_BLOB_INT_BLOB, new Object[]{parameterIndex, x});
+        }
+        this.preparedStatement.setBlob(parameterIndex, x);
+    }
+
+    @Override
+    public void setClob(int parameterIndex, Clob x) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_CLOB_INT_CLOB, new Object[]{parameterIndex, x});
+        }
+        this.preparedStatement.setClob(parameterIndex, x);
+    }
+
+    @Override
+    public void setArray(int parameterIndex, Array x) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_ARRAY, new Object[]{parameterIndex, x});
+        }
+        this.preparedStatement.setArray(parameterIndex, x);
+    }
+
+    @Override
+    public ResultSetMetaData getMetaData() throws SQLException {
+        return this.preparedStatement.getMetaData();
+    }
+
+    @Override
+    public void setDate(int parameterIndex, Date x, Calendar cal) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_DATE_INT_DATE_CALENDAR, new Object[]{parameterIndex, x, cal});
+        }
+        this.preparedStatement.setDate(parameterIndex, x, cal);
+    }
+
+    @Override
+    public void setTime(int parameterIndex, Time x, Calendar cal) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_TIME_INT_TIME_CALENDAR, new Object[]{parameterIndex, x, cal});
+        }
+        this.preparedStatement.setTime(parameterIndex, x, cal);
+    }
+
+    @Override
+    public void setTimestamp(int parameterIndex, Timestamp x, Calendar cal) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_TIMESTAMP_INT_TIMESTAMP_CALENDAR, new Object[]{parameterIndex, x, cal});
+        }
+        this.preparedStatement.setTimestamp(parameterIndex, x, cal);
+    }
+
+    @Override
+    public void setNull(int parameterIndex, int sqlType, String typeName) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_NULL_INT_INT_STRING, new Object[]{parameterIndex, sqlType, typeName});
+        }
+        this.preparedStatement.setNull(parameterIndex, sqlType, typeName);
+    }
+
+    @Override
+    public void setURL(int parameterIndex, URL x) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_URL, new Object[]{parameterIndex, x});
+        }
+        this.preparedStatement.setURL(parameterIndex, x);
+    }
+
+    @Override
+    public ParameterMetaData getParameterMetaData() throws SQLException {
+        return this.preparedStatement.getParameterMetaData();
+    }
+
+    @Override
+    public void setRowId(int parameterIndex, RowId x) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_ROW_ID, new Object[]{parameterIndex, x});
+        }
+        this.preparedStatement.setRowId(parameterIndex, x);
+    }
+
+    @Override
+    public void setNString(int parameterIndex, String value) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_NSTRING, new Object[]{parameterIndex, value});
+        }
+        this.preparedStatement.setNString(parameterIndex, value);
+    }
+
+    @Override
+    public void setNCharacterStream(int parameterIndex, Reader value, long length) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_NCHARACTER_STREAM_INT_READER_LONG,
+                    new Object[]{parameterIndex, value, length});
+        }
+        this.preparedStatement.setNCharacterStream(parameterIndex, value, length);
+    }
+
+    @Override
+    public void setNClob(int parameterIndex, NClob value) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_NCLOB_INT_NCLOB, new Object[]{parameterIndex, value});
+        }
+        this.preparedStatement.setNClob(parameterIndex, value);
+    }
+
+    @Override
+    public void setClob(int parameterIndex, Reader reader, long length) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_CLOB_INT_READER_LONG, new Object[]{parameterIndex, reader, length});
+        }
+        this.preparedStatement.setClob(parameterIndex, reader, length);
+    }
+
+    @Override
+    public void setBlob(int parameterIndex, InputStream inputStream, long length) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_BLOB_INT_INPUT_STREAM_LONG,
+                    new Object[]{parameterIndex, inputStream, length});
+        }
+        this.preparedStatement.setBlob(parameterIndex, inputStream, length);
+    }
+
+    @Override
+    public void setNClob(int parameterIndex, Reader reader, long length) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_NCLOB_INT_READER_LONG, new Object[]{parameterIndex, reader, length});
+        }
+        this.preparedStatement.setNClob(parameterIndex, reader, length);
+    }
+
+    @Override
+    public void setSQLXML(int parameterIndex, SQLXML xmlObject) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_SQLXML, new Object[]{parameterIndex, xmlObject});
+        }
+        this.preparedStatement.setSQLXML(parameterIndex, xmlObject);
+    }
+
+    @Override
+    public void setObject(int parameterIndex, Object x, int targetSqlType, int scaleOrLength) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_OBJECT_INT_OBJECT_INT_INT,
+                    new Object[]{parameterIndex, x, targetSqlType, scaleOrLength});
+        }
+        this.preparedStatement.setObject(parameterIndex, x, targetSqlType, scaleOrLength);
+    }
+
+    @Override
+    public void setAsciiStream(int parameterIndex, InputStream x, long length) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_ASCII_STREAM_INT_INPUT_STREAM_LONG, new Object[]{parameterIndex, x, length});
+        }
+        this.preparedStatement.setAsciiStream(parameterIndex, x, length);
+    }
+
+    @Override
+    public void setBinaryStream(int parameterIndex, InputStream x, long length) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_BINARY_STREAM_INT_INPUT_STREAM_LONG, new Object[]{parameterIndex, x, length});
+        }
+        this.preparedStatement.setBinaryStream(parameterIndex, x, length);
+    }
+
+    @Override
+    public void setCharacterStream(int parameterIndex, Reader reader, long length) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_CHARACTER_STREAM_INT_READER_LONG,
+                    new Object[]{parameterIndex, reader, length});
+        }
+        this.preparedStatement.setCharacterStream(parameterIndex, reader, length);
+    }
+
+    @Override
+    public void setAsciiStream(int parameterIndex, InputStream x) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_ASCII_STREAM_INT_INPUT_STREAM, new Object[]{parameterIndex, x});
+        }
+        this.preparedStatement.setAsciiStream(parameterIndex, x);
+    }
+
+    @Override
+    public void setBinaryStream(int parameterIndex, InputStream x) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_BINARY_STREAM_INT_INPUT_STREAM, new Object[]{parameterIndex, x});
+        }
+        this.preparedStatement.setBinaryStream(parameterIndex, x);
+    }
+
+    @Override
+    public void setCharacterStream(int parameterIndex, Reader reader) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_CHARACTER_STREAM_INT_READER, new Object[]{parameterIndex, reader});
+        }
+        this.preparedStatement.setCharacterStream(parameterIndex, reader);
+    }
+
+    @Override
+    public void setNCharacterStream(int parameterIndex, Reader value) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_NCHARACTER_STREAM_INT_READER, new Object[]{parameterIndex, value});
+        }
+        this.preparedStatement.setNCharacterStream(parameterIndex, value);
+    }
+
+    @Override
+    public void setClob(int parameterIndex, Reader reader) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_CLOB_INT_READER, new Object[]{parameterIndex, reader});
+        }
+        this.preparedStatement.setClob(parameterIndex, reader);
+    }
+
+    @Override
+    public void setBlob(int parameterIndex, InputStream inputStream) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_BLOB_INT_INPUT_STREAM, new Object[]{parameterIndex, inputStream});
+        }
+        this.preparedStatement.setBlob(parameterIndex, inputStream);
+    }
+
+    @Override
+    public void setNClob(int parameterIndex, Reader reader) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(SET_NCLOB_INT_READER, new Object[]{parameterIndex, reader});
+        }
+        this.preparedStatement.setNClob(parameterIndex, reader);
+    }
+
+    @Override
+    @IgnoreJRERequirement
+    public void setObject(int parameterIndex, Object x, SQLType targetSqlType, int scaleOrLength) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(Jdbc42Methods.SET_OBJECT_INT_OBJECT_SQLTYPE_INT,
+                    new Object[]{parameterIndex, x, targetSqlType, scaleOrLength});
+        }
+        this.preparedStatement.setObject(parameterIndex, x, targetSqlType, scaleOrLength);
+    }
+
+    @Override
+    @IgnoreJRERequirement
+    public void setObject(int parameterIndex, Object x, SQLType targetSqlType) throws SQLException {
+        if (this.logic.isParameterCaptureRequired()) {
+            this.logic.onSetParameter(Jdbc42Methods.SET_OBJECT_INT_OBJECT_SQLTYPE,
+                    new Object[]{parameterIndex, x, targetSqlType});
+        }
+        this.preparedStatement.setObject(parameterIndex, x, targetSqlType);
+    }
+
+    @Override
+    @IgnoreJRERequirement
+    public long executeLargeUpdate() throws SQLException {
+        return (Long) execute(Jdbc42Methods.EXECUTE_LARGE_UPDATE, null,
+                StatementInvokers.Jdbc42Invokers.EXECUTE_LARGE_UPDATE);
+    }
+
+    @Override
+    public ResultSet executeQuery(String sql) throws SQLException {
+        return (ResultSet) invoke(EXECUTE_QUERY_STRING, new Object[]{sql});
+    }
+
+    @Override
+    public int executeUpdate(String sql) throws SQLException {
+        return (Integer) invoke(EXECUTE_UPDATE_STRING, new Object[]{sql});
+    }
+
+    @Override
+    public void close() throws SQLException {
+        this.preparedStatement.close();
+    }
+
+    @Override
+    public int getMaxFieldSize() throws SQLException {
+        return this.preparedStatement.getMaxFieldSize();
+    }
+
+    @Override
+    public void setMaxFieldSize(int max) throws SQLException {
+        this.preparedStatement.setMaxFieldSize(max);
+    }
+
+    @Override
+    public int getMaxRows() throws SQLException {
+        return this.preparedStatement.getMaxRows();
+    }
+
+    @Override
+    public void setMaxRows(int max) throws SQLException {
+        this.preparedStatement.setMaxRows(max);
+    }
+
+    @Override
+    public void setEscapeProcessing(boolean enable) throws SQLException {
+        this.preparedStatement.setEscapeProcessing(enable);
+    }
+
+    @Override
+    public int getQueryTimeout() throws SQLException {
+        return this.preparedStatement.getQueryTimeout();
+    }
+
+    @Override
+    public void setQueryTimeout(int seconds) throws SQLException {
+        this.preparedStatement.setQueryTimeout(seconds);
+    }
+
+    @Override
+    public void cancel() throws SQLException {
+        this.preparedStatement.cancel();
+    }
+
+    @Override
+    public SQLWarning getWarnings() throws SQLException {
+        return this.preparedStatement.getWarnings();
+    }
+
+    @Override
+    public void clearWarnings() throws SQLException {
+        this.preparedStatement.clearWarnings();
+    }
+
+    @Override
+    public void setCursorName(String name) throws SQLException {
+        this.preparedStatement.setCursorName(name);
+    }
+
+    @Override
+    public boolean execute(String sql) throws SQLException {
+        return (Boolean) invoke(EXECUTE_STRING, new Object[]{sql});
+    }
+
+    @Override
+    public ResultSet getResultSet() throws SQLException {
+        return this.preparedStatement.getResultSet();
+    }
+
+    @Override
+    public int getUpdateCount() throws SQLException {
+        return this.preparedStatement.getUpdateCount();
+    }
+
+    @Override
+    public boolean getMoreResults() throws SQLException {
+        return this.preparedStatement.getMoreResults();
+    }
+
+    @Override
+    public void setFetchDirection(int direction) throws SQLException {
+        this.preparedStatement.setFetchDirection(direction);
+    }
+
+    @Override
+    public int getFetchDirection() throws SQLException {
+        return this.preparedStatement.getFetchDirection();
+    }
+
+    @Override
+    public void setFetchSize(int rows) throws SQLException {
+        this.preparedStatement.setFetchSize(rows);
+    }
+
+    @Override
+    public int getFetchSize() throws SQLException {
+        return this.preparedStatement.getFetchSize();
+    }
+
+    @Override
+    public int getResultSetConcurrency() throws SQLException {
+        return this.preparedStatement.getResultSetConcurrency();
+    }
+
+    @Override
+    public int getResultSetType() throws SQLException {
+        return this.preparedStatement.getResultSetType();
+    }
+
+    @Override
+    public void addBatch(String sql) throws SQLException {
+        invoke(ADD_BATCH_STRING, new Object[]{sql});
+    }
+
+    @Override
+    public void clearBatch() throws SQLException {
+        this.logic.onClearBatch();
+        this.preparedStatement.clearBatch();
+    }
+
+    @Override
+    public int[] executeBatch() throws SQLException {
+        return (int[]) execute(EXECUTE_BATCH, null, StatementInvokers.EXECUTE_BATCH);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return (Connection) invoke(GET_CONNECTION, null);
+    }
+
+    @Override
+    public boolean getMoreResults(int current) throws SQLException {
+        return this.preparedStatement.getMoreResults(current);
+    }
+
+    @Override
+    public ResultSet getGeneratedKeys() throws SQLException {
+        return this.preparedStatement.getGeneratedKeys();
+    }
+
+    @Override
+    public int executeUpdate(String sql, int autoGeneratedKeys) throws SQLException {
+        return (Integer) invoke(EXECUTE_UPDATE_STRING_INT, new Object[]{sql, autoGeneratedKeys});
+    }
+
+    @Override
+    public int executeUpdate(String sql, int[] columnIndexes) throws SQLException {
+        return (Integer) invoke(EXECUTE_UPDATE_STRING_INT_ARRAY, new Object[]{sql, columnIndexes});
+    }
+
+    @Override
+    public int executeUpdate(String sql, String[] columnNames) throws SQLException {
+        return (Integer) invoke(EXECUTE_UPDATE_STRING_STRING_ARRAY, new Object[]{sql, columnNames});
+    }
+
+    @Override
+    public boolean execute(String sql, int autoGeneratedKeys) throws SQLException {
+        return (Boolean) invoke(EXECUTE_STRING_INT, new Object[]{sql, autoGeneratedKeys});
+    }
+
+    @Override
+    public boolean execute(String sql, int[] columnIndexes) throws SQLException {
+        return (Boolean) invoke(EXECUTE_STRING_INT_ARRAY, new Object[]{sql, columnIndexes});
+    }
+
+    @Override
+    public boolean execute(String sql, String[] columnNames) throws SQLException {
+        return (Boolean) invoke(EXECUTE_STRING_STRING_ARRAY, new Object[]{sql, columnNames});
+    }
+
+    @Override
+    public int getResultSetHoldability() throws SQLException {
+        return this.preparedStatement.getResultSetHoldability();
+    }
+
+    @Override
+    public boolean isClosed() throws SQLException {
+        return this.preparedStatement.isClosed();
+    }
+
+    @Override
+    public void setPoolable(boolean poolable) throws SQLException {
+        this.preparedStatement.setPoolable(poolable);
+    }
+
+    @Override
+    public boolean isPoolable() throws SQLException {
+        return this.preparedStatement.isPoolable();
+    }
+
+    @Override
+    @IgnoreJRERequirement
+    public void closeOnCompletion() throws SQLException {
+        this.preparedStatement.closeOnCompletion();
+    }
+
+    @Override
+    @IgnoreJRERequirement
+    public boolean isCloseOnCompletion() throws SQLException {
+        return this.preparedStatement.isCloseOnCompletion();
+    }
+
+    @Override
+    @IgnoreJRERequirement
+    public long getLargeUpdateCount() throws SQLException {
+        return this.preparedStatement.getLargeUpdateCount();
+    }
+
+    @Override
+    @IgnoreJRERequirement
+    public void setLargeMaxRows(long max) throws SQLException {
+        this.preparedStatement.setLargeMaxRows(max);
+    }
+
+    @Override
+    @IgnoreJRERequirement
+    public long getLargeMaxRows() throws SQLException {
+        return this.preparedStatement.getLargeMaxRows();
+    }
+
+    @Override
+    @IgnoreJRERequirement
+    public long[] executeLargeBatch() throws SQLException {
+        return (long[]) execute(Jdbc42Methods.EXECUTE_LARGE_BATCH, null,
+                StatementInvokers.Jdbc42Invokers.EXECUTE_LARGE_BATCH);
+    }
+
+    @Override
+    @IgnoreJRERequirement
+    public long executeLargeUpdate(String sql) throws SQLException {
+        return (Long) invoke(Jdbc42Methods.EXECUTE_LARGE_UPDATE_STRING, new Object[]{sql});
+    }
+
+    @Override
+    @IgnoreJRERequirement
+    public long executeLargeUpdate(String sql, int autoGeneratedKeys) throws SQLException {
+        return (Long) invoke(Jdbc42Methods.EXECUTE_LARGE_UPDATE_STRING_INT, new Object[]{sql, autoGeneratedKeys});
+    }
+
+    @Override
+    @IgnoreJRERequirement
+    public long executeLargeUpdate(String sql, int[] columnIndexes) throws SQLException {
+        return (Long) invoke(Jdbc42Methods.EXECUTE_LARGE_UPDATE_STRING_INT_ARRAY, new Object[]{sql, columnIndexes});
+    }
+
+    @Override
+    @IgnoreJRERequirement
+    public long executeLargeUpdate(String sql, String[] columnNames) throws SQLException {
+        return (Long) invoke(Jdbc42Methods.EXECUTE_LARGE_UPDATE_STRING_STRING_ARRAY, new Object[]{sql, columnNames});
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        return (T) invoke(UNWRAP, new Object[]{iface});
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return (Boolean) invoke(IS_WRAPPER_FOR, new Object[]{iface});
+    }
+
+}
@@ -0,0 +1,397 @@
+package net.ttddyy.dsproxy.proxy.delegate;
+
+import net.ttddyy.dsproxy.proxy.MethodInvoker;
+import net.ttddyy.dsproxy.proxy.MethodUtils;
+import net.ttddyy.dsproxy.proxy.ProxyJdbcObject;
+import net.ttddyy.dsproxy.proxy.StatementProxyLogic;
+import org.codehaus.mojo.animal_sniffer.IgnoreJRERequirement;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLWarning;
+import java.sql.Statement;
+
+/**
+ * {@link Statement} implementation that delegates to the actual statement and routes
+ * batch, execution, {@code getConnection} and wrapper calls through {@link StatementProxyLogic}.
+ *
+ * <p>Methods that the proxy logic does not intercept are plain calls on the actual object.
+ *
+ * @author Tadaya Tsuyukubo
+ * @see DelegateJdbcProxyFactory
+ * @since 1.4
+ */
+public class DelegatingStatement implements Statement, ProxyJdbcObject {
+
+    private static final Method TO_STRING = MethodUtils.getMethod(Object.class, "toString");
+    private static final Method EXECUTE_QUERY = MethodUtils.getMethod(Statement.class, "executeQuery", String.class);
+    private static final Method EXECUTE_UPDATE_STRING =
+            MethodUtils.getMethod(Statement.class, "executeUpdate", String.class);
+    private static final Method EXECUTE_STRING = MethodUtils.getMethod(Statement.class, "execute", String.class);
+    private static final Method EXECUTE_BATCH = MethodUtils.getMethod(Statement.class, "executeBatch");
+    private static final Method GET_CONNECTION = MethodUtils.getMethod(Statement.class, "getConnection");
+    private static final Method EXECUTE_UPDATE_STRING_INT =
+            MethodUtils.getMethod(Statement.class, "executeUpdate", String.class, int.class);
+    private static final Method EXECUTE_UPDATE_STRING_INT_ARRAY =
+            MethodUtils.getMethod(Statement.class, "executeUpdate", String.class, int[].class);
+    private static final Method EXECUTE_UPDATE_STRING_STRING_ARRAY =
+            MethodUtils.getMethod(Statement.class, "executeUpdate", String.class, String[].class);
+    private static final Method EXECUTE_STRING_INT =
+            MethodUtils.getMethod(Statement.class, "execute", String.class, int.class);
+    private static final Method EXECUTE_STRING_INT_ARRAY =
+            MethodUtils.getMethod(Statement.class, "execute", String.class, int[].class);
+    private static final Method EXECUTE_STRING_STRING_ARRAY =
+            MethodUtils.getMethod(Statement.class, "execute", String.class, String[].class);
+    private static final Method UNWRAP = MethodUtils.getMethod(Statement.class, "unwrap", Class.class);
+    private static final Method IS_WRAPPER_FOR = MethodUtils.getMethod(Statement.class, "isWrapperFor", Class.class);
+
+    /**
+     * Holds JDBC 4.2 (Java 8) methods so that older runtimes never resolve them.
+     */
+    private static class Jdbc42Methods {
+        private static final Method EXECUTE_LARGE_BATCH = MethodUtils.getMethod(Statement.class, "executeLargeBatch");
+        private static final Method EXECUTE_LARGE_UPDATE_STRING =
+                MethodUtils.getMethod(Statement.class, "executeLargeUpdate", String.class);
+        private static final Method EXECUTE_LARGE_UPDATE_STRING_INT =
+                MethodUtils.getMethod(Statement.class, "executeLargeUpdate", String.class, int.class);
+        private static final Method EXECUTE_LARGE_UPDATE_STRING_INT_ARRAY =
+                MethodUtils.getMethod(Statement.class, "executeLargeUpdate", String.class, int[].class);
+        private static final Method EXECUTE_LARGE_UPDATE_STRING_STRING_ARRAY =
+                MethodUtils.getMethod(Statement.class, "executeLargeUpdate", String.class, String[].class);
+    }
+
+    private final Statement statement;
+    private final StatementProxyLogic logic;
+
+    public DelegatingStatement(Statement statement, StatementProxyLogic logic) {
+        this.statement = statement;
+        this.logic = logic;
+    }
+
+    private Object invoke(Method method, Object[] args) throws SQLException {
+        try {
+            return this.logic.invoke(method, args);
+        } catch (Throwable ex) {
+            throw StatementInvokers.rethrow(ex);
+        }
+    }
+
+    private Object execute(Method method, Object[] args, MethodInvoker invoker) throws SQLException {
+        try {
+            return this.logic.execute(method, args, invoker);
+        } catch (Throwable ex) {
+            throw StatementInvokers.rethrow(ex);
+        }
+    }
+
+    @Override
+    public Object getTarget() {
+        return this.statement;
+    }
+
+    @Override
+    public String toString() {
+        try {
+            return (String) invoke(TO_STRING, null);
+        } catch (SQLException ex) {
+            throw new UndeclaredThrowableException(ex);
+        }
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return this.statement.equals(obj);
+    }
+
+    @Override
+    public int hashCode() {
+        return this.statement.hashCode();
+    }
+
+    @Override
+    public ResultSet executeQuery(String sql) throws SQLException {
+        return (ResultSet) execute(EXECUTE_QUERY, new Object[]{sql}, StatementInvokers.EXECUTE_QUERY_STRING);
+    }
+
+    @Override
+    public int executeUpdate(String sql) throws SQLException {
+        return (Integer) execute(EXECUTE_UPDATE_STRING, new Object[]{sql}, StatementInvokers.EXECUTE_UPDATE_STRING);
+    }
+
+    @Override
+    public void close() throws SQLException {
+        this.statement.close();
+    }
+
+    @Override
+    public int getMaxFieldSize() throws SQLException {
+        return this.statement.getMaxFieldSize();
+    }
+
+    @Override
+    public void setMaxFieldSize(int max) throws SQLException {
+        this.statement.setMaxFieldSize(max);
+    }
+
+    @Override
+    public int getMaxRows() throws SQLException {
+        return this.statement.getMaxRows();
+    }
+
+    @Override
+    public void setMaxRows(int max) throws SQLException {
+        this.statement.setMaxRows(max);
+    }
+
+    @Override
+    public void setEscapeProcessing(boolean enable) throws SQLException {
+        this.statement.setEscapeProcessing(enable);
+    }
+
+    @Override
+    public int getQueryTimeout() throws SQLException {
+        return this.statement.getQueryTimeout();
+    }
+
+    @Override
+    public void setQueryTimeout(int seconds) throws SQLException {
+        this.statement.setQueryTimeout(seconds);
+    }
+
+    @Override
+    public void cancel() throws SQLException {
+        this.statement.cancel();
+    }
+
+    @Override
+    public SQLWarning getWarnings() throws SQLException {
+        return this.statement.getWarnings();
+    }
+
+    @Override
+    public void clearWarnings() throws SQLException {
+        this.statement.clearWarnings();
+    }
+
+    @Override
+    public void setCursorName(String name) throws SQLException {
+        this.statement.setCursorName(name);
+    }
+
+    @Override
+    public boolean execute(String sql) throws SQLException {
+        return (Boolean) execute(EXECUTE_STRING, new Object[]{sql}, StatementInvokers.EXECUTE_STRING);
+    }
+
+    @Override
+    public ResultSet getResultSet() throws SQLException {
+        return this.statement.getResultSet();
+    }
+
+    @Override
+    public int getUpdateCount() throws SQLException {
+        return this.statement.getUpdateCount();
+    }
+
+    @Override
+    public boolean getMoreResults() throws SQLException {
+        return this.statement.getMoreResults();
+    }
+
+    @Override
+    public void setFetchDirection(int direction) throws SQLException {
+        this.statement.setFetchDirection(direction);
+    }
+
+    @Override
+    public int getFetchDirection() throws SQLException {
+        return this.statement.getFetchDirection();
+    }
+
+    @Override
+    public void setFetchSize(int rows) throws SQLException {
+        this.statement.setFetchSize(rows);
+    }
+
+    @Override
+    public int getFetchSize() throws SQLException {
+        return this.statement.getFetchSize();
+    }
+
+    @Override
+    public int getResultSetConcurrency() throws SQLException {
+        return this.statement.getResultSetConcurrency();
+    }
+
+    @Override
+    public int getResultSetType() throws SQLException {
+        return this.statement.getResultSetType();
+    }
+
+    @Override
+    public void addBatch(String sql) throws SQLException {
+        this.statement.addBatch(this.logic.onAddBatch(sql));
+    }
+
+    @Override
+    public void clearBatch() throws SQLException {
+        this.logic.onClearBatch();
+        this.statement.clearBatch();
+    }
+
+    @Override
+    public int[] executeBatch() throws SQLException {
+        return (int[]) execute(EXECUTE_BATCH, null, StatementInvokers.EXECUTE_BATCH);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return (Connection) invoke(GET_CONNECTION, null);
+    }
+
+    @Override
+    public boolean getMoreResults(int current) throws SQLException {
+        return this.statement.getMoreResults(current);
+    }
+
+    @Override
+    public ResultSet getGeneratedKeys() throws SQLException {
+        return this.statement.getGeneratedKeys();
+    }
+
+    @Override
+    public int executeUpdate(String sql, int autoGeneratedKeys) throws SQLException {
+        return (Integer) execute(EXECUTE_UPDATE_STRING_INT, new Object[]{sql, autoGeneratedKeys},
+                StatementInvokers.EXECUTE_UPDATE_STRING_INT);
+    }
+
+    @Override
+    public int executeUpdate(String sql, int[] columnIndexes) throws SQLException {
+        return (Integer) execute(EXECUTE_UPDATE_STRING_INT_ARRAY, new Object[]{sql, columnIndexes},
+                StatementInvokers.EXECUTE_UPDATE_STRING_INT_ARRAY);
+    }
+
+    @Override
+    public int executeUpdate(String sql, String[] columnNames) throws SQLException {
+        return (Integer) execute(EXECUTE_UPDATE_STRING_STRING_ARRAY, new Object[]{sql, columnNames},
+                StatementInvokers.EXECUTE_UPDATE_STRING_STRING_ARRAY);
+    }
+
+    @Override
+    public boolean execute(String sql, int autoGeneratedKeys) throws SQLException {
+        return (Boolean) execute(EXECUTE_STRING_INT, new Object[]{sql, autoGeneratedKeys},
+                StatementInvokers.EXECUTE_STRING_INT);
+    }
+
+    @Override
+    public boolean execute(String sql, int[] columnIndexes) throws SQLException {
+        return (Boolean) execute(EXECUTE_STRING_INT_ARRAY, new Object[]{sql, columnIndexes},
+                StatementInvokers.EXECUTE_STRING_INT_ARRAY);
+    }
+
+    @Override
+    public boolean execute(String sql, String[] columnNames) throws SQLException {
+        return (Boolean) execute(EXECUTE_STRING_STRING_ARRAY, new Object[]{sql, columnNames},
+                StatementInvokers.EXECUTE_STRING_STRING_ARRAY);
+    }
+
+    @Override
+    public int getResultSetHoldability() throws SQLException {
+        return this.statement.getResultSetHoldability();
+    }
+
+    @Override
+    public boolean isClosed() throws SQLException {
+        return this.statement.isClosed();
+    }
+
+    @Override
+    public void setPoolable(boolean poolable) throws SQLException {
+        this.statement.setPoolable(poolable);
+    }
+
+    @Override
+    public boolean isPoolable() throws SQLException {
+        return this.statement.isPoolable();
+    }
+
+    @Override
+    @IgnoreJRERequirement
+    public void closeOnCompletion() throws SQLException {
+        this.statement.closeOnCompletion();
+    }
+
+    @Override
+    @IgnoreJRERequirement
+    public boolean isCloseOnCompletion() throws SQLException {
+        return this.statement.isCloseOnCompletion();
+    }
+
+    @Override
+    @IgnoreJRERequirement
+    public long getLargeUpdateCount() throws SQLException {
+        return this.statement.getLargeUpdateCount();
+    }
+
+    @Override
+    @IgnoreJRERequirement
+    public void setLargeMaxRows(long max) throws SQLException {
+        this.statement.setLargeMaxRows(max);
+    }
+
+    @Override
+    @IgnoreJRERequirement
+    public long getLargeMaxRows() throws SQLException {
+        return this.statement.getLargeMaxRows();
+    }
+
+    @Override
+    @IgnoreJRERequirement
+    public long[] executeLargeBatch() throws SQLException {
+        return (long[]) execute(Jdbc42Methods.EXECUTE_LARGE_BATCH, null,
+                StatementInvokers.Jdbc42Invokers.EXECUTE_LARGE_BATCH);
+    }
+
+    @Override
+    @IgnoreJRERequirement
+    public long executeLargeUpdate(String sql) throws SQLException {
+        return (Long) execute(Jdbc42Methods.EXECUTE_LARGE_UPDATE_STRING, new Object[]{sql},
+                StatementInvokers.Jdbc42Invokers.EXECUTE_LARGE_UPDATE_STRING);
+    }
+
+    @Override
+    @IgnoreJRERequirement
+    public long executeLargeUpdate(String sql, int autoGeneratedKeys) throws SQLException {
+        return (Long) execute(Jdbc42Methods.EXECUTE_LARGE_UPDATE_STRING_INT, new Object[]{sql, autoGeneratedKeys},
+                StatementInvokers.Jdbc42Invokers.EXECUTE_LARGE_UPDATE_STRING_INT);
+    }
+
+    @Override
+    @IgnoreJRERequirement
+    public long executeLargeUpdate(String sql, int[] columnIndexes) throws SQLException {
+        return (Long) execute(Jdbc42Methods.EXECUTE_LARGE_UPDATE_STRING_INT_ARRAY, new Object[]{sql, columnIndexes},
+                StatementInvokers.Jdbc42Invokers.EXECUTE_LARGE_UPDATE_STRING_INT_ARRAY);
+    }
+
+    @Override
+    @IgnoreJRERequirement
+    public long executeLargeUpdate(String sql, String[] columnNames) throws SQLException {
+        return (Long) execute(Jdbc42Methods.EXECUTE_LARGE_UPDATE_STRING_STRING_ARRAY, new Object[]{sql, columnNames},
+                StatementInvokers.Jdbc42Invokers.EXECUTE_LARGE_UPDATE_STRING_STRING_ARRAY);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        return (T) invoke(UNWRAP, new Object[]{iface});
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return (Boolean) invoke(IS_WRAPPER_FOR, new Object[]{iface});
+    }
+
+}
@@ -0,0 +1,188 @@
+package net.ttddyy.dsproxy.proxy.delegate;
+
+import net.ttddyy.dsproxy.proxy.MethodInvoker;
+import org.codehaus.mojo.animal_sniffer.IgnoreJRERequirement;
+
+import java.lang.reflect.UndeclaredThrowableException;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * {@link MethodInvoker}s that call execution methods on the actual statement without reflection.
+ *
+ * <p>Execution methods that take a query read it from the argument array, so that a query replaced by the query
+ * transformer is used.
+ *
+ * @author Tadaya Tsuyukubo
+ * @since 1.4
+ */
+final class StatementInvokers {
+
+    static final MethodInvoker EXECUTE_QUERY = new MethodInvoker() {
+        @Override
+        public Object invoke(Object target, Object[] args) throws SQLException {
+            return ((PreparedStatement) target).executeQuery();
+        }
+    };
+
+    static final MethodInvoker EXECUTE_UPDATE = new MethodInvoker() {
+        @Override
+        public Object invoke(Object target, Object[] args) throws SQLException {
+            return ((PreparedStatement) target).executeUpdate();
+        }
+    };
+
+    static final MethodInvoker EXECUTE = new MethodInvoker() {
+        @Override
+        public Object invoke(Object target, Object[] args) throws SQLException {
+            return ((PreparedStatement) target).execute();
+        }
+    };
+
+    static final MethodInvoker EXECUTE_BATCH = new MethodInvoker() {
+        @Override
+        public Object invoke(Object target, Object[] args) throws SQLException {
+            return ((Statement) target).executeBatch();
+        }
+    };
+
+    static final MethodInvoker EXECUTE_QUERY_STRING = new MethodInvoker() {
+        @Override
+        public Object invoke(Object target, Object[] args) throws SQLException {
+            return ((Statement) target).executeQuery((String) args[0]);
+        }
+    };
+
+    static final MethodInvoker EXECUTE_UPDATE_STRING = new MethodInvoker() {
+        @Override
+        public Object invoke(Object target, Object[] args) throws SQLException {
+            return ((Statement) target).executeUpdate((String) args[0]);
+        }
+    };
+
+    static final MethodInvoker EXECUTE_STRING = new MethodInvoker() {
+        @Override
+        public Object invoke(Object target, Object[] args) throws SQLException {
+            return ((Statement) target).execute((String) args[0]);
+        }
+    };
+
+    static final MethodInvoker EXECUTE_UPDATE_STRING_INT = new MethodInvoker() {
+        @Override
+        public Object invoke(Object target, Object[] args) throws SQLException {
+            return ((Statement) target).executeUpdate((String) args[0], (Integer) args[1]);
+        }
+    };
+
+    static final MethodInvoker EXECUTE_UPDATE_STRING_INT_ARRAY = new MethodInvoker() {
+        @Override
+        public Object invoke(Object target, Object[] args) throws SQLException {
+            return ((Statement) target).executeUpdate((String) args[0], (int[]) args[1]);
+        }
+    };
+
+    static final MethodInvoker EXECUTE_UPDATE_STRING_STRING_ARRAY = new MethodInvoker() {
+        @Override
+        public Object invoke(Object target, Object[] args) throws SQLException {
+            return ((Statement) target).executeUpdate((String) args[0], (String[]) args[1]);
+        }
+    };
+
+    static final MethodInvoker EXECUTE_STRING_INT = new MethodInvoker() {
+        @Override
+        public Object invoke(Object target, Object[] args) throws SQLException {
+            return ((Statement) target).execute((String) args[0], (Integer) args[1]);
+        }
+    };
+
+    static final MethodInvoker EXECUTE_STRING_INT_ARRAY = new MethodInvoker() {
+        @Override
+        public Object invoke(Object target, Object[] args) throws SQLException {
+            return ((Statement) target).execute((String) args[0], (int[]) args[1]);
+        }
+    };
+
+    static final MethodInvoker EXECUTE_STRING_STRING_ARRAY = new MethodInvoker() {
+        @Override
+        public Object invoke(Object target, Object[] args) throws SQLException {
+            return ((Statement) target).execute((String) args[0], (String[]) args[1]);
+        }
+    };
+
+    /**
+     * Holds JDBC 4.2 (Java 8) invokers so that older runtimes never resolve them.
+     */
+    static class Jdbc42Invokers {
+
+        static final MethodInvoker EXECUTE_LARGE_UPDATE = new MethodInvoker() {
+            @Override
+            @IgnoreJRERequirement
+            public Object invoke(Object target, Object[] args) throws SQLException {
+                return ((PreparedStatement) target).executeLargeUpdate();
+            }
+        };
+
+        static final MethodInvoker EXECUTE_LARGE_BATCH = new MethodInvoker() {
+            @Override
+            @IgnoreJRERequirement
+            public Object invoke(Object target, Object[] args) throws SQLException {
+                return ((Statement) target).executeLargeBatch();
+            }
+        };
+
+        static final MethodInvoker EXECUTE_LARGE_UPDATE_STRING = new MethodInvoker() {
+            @Override
+            @IgnoreJRERequirement
+            public Object invoke(Object target, Object[] args) throws SQLException {
+                return ((Statement) target).executeLargeUpdate((String) args[0]);
+            }
+        };
+
+        static final MethodInvoker EXECUTE_LARGE_UPDATE_STRING_INT = new MethodInvoker() {
+            @Override
+            @IgnoreJRERequirement
+            public Object invoke(Object target, Object[] args) throws SQLException {
+                return ((Statement) target).executeLargeUpdate((String) args[0], (Integer) args[1]);
+            }
+        };
+
+        static final MethodInvoker EXECUTE_LARGE_UPDATE_STRING_INT_ARRAY = new MethodInvoker() {
+            @Override
+            @IgnoreJRERequirement
+            public Object invoke(Object target, Object[] args) throws SQLException {
+                return ((Statement) target).executeLargeUpdate((String) args[0], (int[]) args[1]);
+            }
+        };
+
+        static final MethodInvoker EXECUTE_LARGE_UPDATE_STRING_STRING_ARRAY = new MethodInvoker() {
+            @Override
+            @IgnoreJRERequirement
+            public Object invoke(Object target, Object[] args) throws SQLException {
+                return ((Statement) target).executeLargeUpdate((String) args[0], (String[]) args[1]);
+            }
+        };
+
+    }
+
+    private StatementInvokers() {
+    }
+
+    /**
+     * Rethrow what the proxy logic threw as it is declared by the jdbc methods.
+     *
+     * @param ex thrown by the proxy logic
+     * @return {@link SQLException} to throw
+     */
+    static SQLException rethrow(Throwable ex) {
+        if (ex instanceof SQLException) {
+            return (SQLException) ex;
+        } else if (ex instanceof RuntimeException) {
+            throw (RuntimeException) ex;
+        } else if (ex instanceof Error) {
+            throw (Error) ex;
+        }
+        throw new UndeclaredThrowableException(ex);
+    }
+
+}
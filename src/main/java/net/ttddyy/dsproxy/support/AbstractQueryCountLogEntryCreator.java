@@ -0,0 +1,105 @@
+package net.ttddyy.dsproxy.support;
+
+import net.ttddyy.dsproxy.RepeatedQuery;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Base class of {@link QueryCountLogEntryCreator} implementing log messages other than query counts.
+ *
+ * <p>Custom implementations extending this class only need to implement query count log messages.
+ *
+ * @author Tadaya Tsuyukubo
+ * @since 1.4
+ */
+public abstract class AbstractQueryCountLogEntryCreator implements QueryCountLogEntryCreator {
+
+    protected TimeUnit timeUnit = TimeUnit.MILLISECONDS;
+
+    /**
+     * Create log message for a repeated query. Time is displayed in {@link #getTimeUnit()}.
+     *
+     * <p>default: Query:"select * from foo where id = ?", Pattern:N_PLUS_ONE, Count:20, Time:15
+     *
+     * @param repeatedQuery repeated query
+     * @return log message
+     * @since 1.4
+     */
+    @Override
+    public String getRepeatedQueryLogMessage(RepeatedQuery repeatedQuery) {
+        final StringBuilder sb = new StringBuilder();
+        sb.append("Query:\"");
+        sb.append(repeatedQuery.getNormalizedQuery());
+        sb.append("\", ");
+
+        sb.append("Pattern:");
+        sb.append(repeatedQuery.getPattern());
+        sb.append(", ");
+
+        sb.append("Count:");
+        sb.append(repeatedQuery.getCount());
+        sb.append(", ");
+
+        sb.append("Time:");
+        sb.append(repeatedQuery.getTime(this.timeUnit));
+        return sb.toString();
+    }
+
+    /**
+     * Create log message for a repeated query in JSON format.
+     *
+     * @param repeatedQuery repeated query
+     * @return log message
+     * @see #getRepeatedQueryLogMessage(RepeatedQuery)
+     * @since 1.4
+     */
+    @Override
+    public String getRepeatedQueryLogMessageAsJson(RepeatedQuery repeatedQuery) {
+        final StringBuilder sb = new StringBuilder();
+        sb.append("{");
+        sb.append("\"query\":\"");
+        appendEscapedForJson(sb, repeatedQuery.getNormalizedQuery());
+        sb.append("\", ");
+
+        sb.append("\"pattern\":\"");
+        sb.append(repeatedQuery.getPattern());
+        sb.append("\", ");
+
+        sb.append("\"count\":");
+        sb.append(repeatedQuery.getCount());
+        sb.append(", ");
+
+        sb.append("\"time\":");
+        sb.append(repeatedQuery.getTime(this.timeUnit));
+        sb.append("}");
+        return sb.toString();
+    }
+
+    protected void appendEscapedForJson(StringBuilder sb, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                sb.append('\\');
+            }
+            sb.append(c);
+        }
+    }
+
+    /**
+     * Set time unit to display total time. Default is {@link TimeUnit#MILLISECONDS}.
+     *
+     * @param timeUnit time unit
+     * @since 1.4
+     */
+    public void setTimeUnit(TimeUnit timeUnit) {
+        this.timeUnit = timeUnit;
+    }
+
+    /**
+     * @return time unit to display total time
+     * @since 1.4
+     */
+    public TimeUnit getTimeUnit() {
+        return timeUnit;
+    }
+}
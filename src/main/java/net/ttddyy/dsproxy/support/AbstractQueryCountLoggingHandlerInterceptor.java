@@ -1,13 +1,14 @@
 package net.ttddyy.dsproxy.support;
 
+import net.ttddyy.dsproxy.DataSourceIdRegistry;
 import net.ttddyy.dsproxy.QueryCount;
 import net.ttddyy.dsproxy.QueryCountHolder;
+import net.ttddyy.dsproxy.RepeatedQuery;
+import net.ttddyy.dsproxy.RepeatedQueryHolder;
 import org.springframework.web.servlet.handler.HandlerInterceptorAdapter;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
-import java.util.Collections;
-import java.util.List;
 
 /**
  * @author Tadaya Tsuyukubo
@@ -22,11 +23,13 @@ public abstract class AbstractQueryCountLoggingHandlerInterceptor extends Handle
     @Override
     public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) throws Exception {
 
-        List<String> dsNames = QueryCountHolder.getDataSourceNamesAsList();
-        Collections.sort(dsNames);
-
-        for (String dsName : dsNames) {
-            QueryCount count = QueryCountHolder.get(dsName);
+        // datasource ids in name order
+        for (int dsId : DataSourceIdRegistry.getIdsOrderedByName()) {
+            final QueryCount count = QueryCountHolder.get(dsId);
+            if (count == null) {
+                continue;
+            }
+            final String dsName = DataSourceIdRegistry.getName(dsId);
             String logEntry;
             if (this.writeAsJson) {
                 logEntry = logFormatter.getLogMessageAsJson(dsName, count);
@@ -36,8 +39,20 @@ public abstract class AbstractQueryCountLoggingHandlerInterceptor extends Handle
             writeLog(logEntry);
         }
 
+        // N+1 selects and unbatched writes detected by RepeatedQueryListener
+        for (RepeatedQuery repeatedQuery : RepeatedQueryHolder.getDetected()) {
+            String logEntry;
+            if (this.writeAsJson) {
+                logEntry = this.logFormatter.getRepeatedQueryLogMessageAsJson(repeatedQuery);
+            } else {
+                logEntry = this.logFormatter.getRepeatedQueryLogMessage(repeatedQuery);
+            }
+            writeLog(logEntry);
+        }
+
         if (clearQueryCounter) {
             QueryCountHolder.clear();
+            RepeatedQueryHolder.clear();
         }
 
     }
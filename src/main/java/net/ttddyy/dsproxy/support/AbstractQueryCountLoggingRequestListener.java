@@ -1,11 +1,13 @@
 package net.ttddyy.dsproxy.support;
 
+import net.ttddyy.dsproxy.DataSourceIdRegistry;
 import net.ttddyy.dsproxy.QueryCount;
 import net.ttddyy.dsproxy.QueryCountHolder;
+import net.ttddyy.dsproxy.RepeatedQuery;
+import net.ttddyy.dsproxy.RepeatedQueryHolder;
 
 import javax.servlet.ServletRequestEvent;
 import javax.servlet.ServletRequestListener;
-import java.util.Collections;
 import java.util.List;
 
 /**
@@ -24,11 +26,13 @@ public abstract class AbstractQueryCountLoggingRequestListener implements Servle
     @Override
     public void requestDestroyed(ServletRequestEvent sre) {
 
-        List<String> dsNames = QueryCountHolder.getDataSourceNamesAsList();
-        Collections.sort(dsNames);
-
-        for (String dsName : dsNames) {
-            QueryCount count = QueryCountHolder.get(dsName);
+        // datasource ids in name order
+        for (int dsId : DataSourceIdRegistry.getIdsOrderedByName()) {
+            final QueryCount count = QueryCountHolder.get(dsId);
+            if (count == null) {
+                continue;
+            }
+            final String dsName = DataSourceIdRegistry.getName(dsId);
             String logEntry;
             if (this.writeAsJson) {
                 logEntry = logFormatter.getLogMessageAsJson(dsName, count);
@@ -38,7 +42,19 @@ public abstract class AbstractQueryCountLoggingRequestListener implements Servle
             writeLog(sre, logEntry);
         }
 
+        // N+1 selects and unbatched writes detected by RepeatedQueryListener
+        for (RepeatedQuery repeatedQuery : RepeatedQueryHolder.getDetected()) {
+            String logEntry;
+            if (this.writeAsJson) {
+                logEntry = this.logFormatter.getRepeatedQueryLogMessageAsJson(repeatedQuery);
+            } else {
+                logEntry = this.logFormatter.getRepeatedQueryLogMessage(repeatedQuery);
+            }
+            writeLog(sre, logEntry);
+        }
+
         QueryCountHolder.clear();
+        RepeatedQueryHolder.clear();
     }
 
     protected abstract void writeLog(ServletRequestEvent servletRequestEvent, String logEntry);
@@ -1,12 +1,14 @@
 package net.ttddyy.dsproxy.support;
 
+import net.ttddyy.dsproxy.DataSourceIdRegistry;
 import net.ttddyy.dsproxy.QueryCount;
 import net.ttddyy.dsproxy.QueryCountHolder;
+import net.ttddyy.dsproxy.RepeatedQuery;
+import net.ttddyy.dsproxy.RepeatedQueryHolder;
 
 import javax.servlet.*;
 import java.io.IOException;
-import java.util.Collections;
-import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Servlet filter to output query statistics.
@@ -29,6 +31,10 @@ import java.util.List;
  *       <param-name>clearQueryCounter</param-name>
  *       <param-value>false</param-value>
  *     <init-param>
+ *     <init-param>
+ *       <param-name>timeUnit</param-name>
+ *       <param-value>MICROSECONDS</param-value>
+ *     <init-param>
  *   </filter>
  * }
  * </pre>
@@ -42,6 +48,7 @@ public abstract class AbstractQueryCountLoggingServletFilter implements Filter {
     public static final String CLEAR_QUERY_COUNTER_PARAM = "clearQueryCounter";
     public static final String LOG_LEVEL_PARAM = "logLevel";
     public static final String FORMAT_PARAM = "format";
+    public static final String TIME_UNIT_PARAM = "timeUnit";
 
     protected boolean clearQueryCounter = true;
     protected boolean writeAsJson = false;
@@ -66,17 +73,25 @@ public abstract class AbstractQueryCountLoggingServletFilter implements Filter {
             this.writeAsJson = true;
         }
 
+        String timeUnitParam = filterConfig.getInitParameter(TIME_UNIT_PARAM);
+        if (timeUnitParam != null && this.logFormatter instanceof AbstractQueryCountLogEntryCreator) {
+            final TimeUnit timeUnit = TimeUnit.valueOf(timeUnitParam.toUpperCase());
+            ((AbstractQueryCountLogEntryCreator) this.logFormatter).setTimeUnit(timeUnit);
+        }
+
     }
 
     @Override
     public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain) throws IOException, ServletException {
         chain.doFilter(request, response);
 
-        final List<String> dsNames = QueryCountHolder.getDataSourceNamesAsList();
-        Collections.sort(dsNames);
-
-        for (String dsName : dsNames) {
-            QueryCount count = QueryCountHolder.get(dsName);
+        // datasource ids in name order
+        for (int dsId : DataSourceIdRegistry.getIdsOrderedByName()) {
+            final QueryCount count = QueryCountHolder.get(dsId);
+            if (count == null) {
+                continue;
+            }
+            final String dsName = DataSourceIdRegistry.getName(dsId);
             String message;
             if (this.writeAsJson) {
                 message = this.logFormatter.getLogMessageAsJson(dsName, count);
@@ -86,8 +101,20 @@ public abstract class AbstractQueryCountLoggingServletFilter implements Filter {
             writeLog(message);
         }
 
+        // N+1 selects and unbatched writes detected by RepeatedQueryListener
+        for (RepeatedQuery repeatedQuery : RepeatedQueryHolder.getDetected()) {
+            String message;
+            if (this.writeAsJson) {
+                message = this.logFormatter.getRepeatedQueryLogMessageAsJson(repeatedQuery);
+            } else {
+                message = this.logFormatter.getRepeatedQueryLogMessage(repeatedQuery);
+            }
+            writeLog(message);
+        }
+
         if (clearQueryCounter) {
             QueryCountHolder.clear();
+            RepeatedQueryHolder.clear();
         }
     }
 
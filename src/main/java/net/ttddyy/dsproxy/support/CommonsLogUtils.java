@@ -9,6 +9,18 @@ import org.apache.commons.logging.Log;
 public class CommonsLogUtils {
 
     public static void writeLog(Log log, CommonsLogLevel logLevel, String message) {
+        writeLog(log, logLevel, (Object) message);
+    }
+
+    /**
+     * Write a message object, which the log renders only when it writes the message.
+     *
+     * @param log      log
+     * @param logLevel log level
+     * @param message  message object
+     * @since 1.4
+     */
+    public static void writeLog(Log log, CommonsLogLevel logLevel, Object message) {
         switch (logLevel) {
             case DEBUG:
                 log.debug(message);
@@ -31,4 +43,30 @@ public class CommonsLogUtils {
         }
     }
 
+    /**
+     * Check whether the given level is enabled on the log.
+     *
+     * @param log      log
+     * @param logLevel log level
+     * @return {@code true} if messages at the level are written
+     * @since 1.4
+     */
+    public static boolean isLogEnabled(Log log, CommonsLogLevel logLevel) {
+        switch (logLevel) {
+            case DEBUG:
+                return log.isDebugEnabled();
+            case ERROR:
+                return log.isErrorEnabled();
+            case FATAL:
+                return log.isFatalEnabled();
+            case INFO:
+                return log.isInfoEnabled();
+            case TRACE:
+                return log.isTraceEnabled();
+            case WARN:
+                return log.isWarnEnabled();
+        }
+        return false;
+    }
+
 }
@@ -1,13 +1,19 @@
 package net.ttddyy.dsproxy.support;
 
+import net.ttddyy.dsproxy.LatencyHistogram;
 import net.ttddyy.dsproxy.QueryCount;
+import net.ttddyy.dsproxy.QueryType;
+import net.ttddyy.dsproxy.StatementType;
+import net.ttddyy.dsproxy.listener.QueryLatencyListener;
 
 /**
  * Default implementation of {@link QueryCountLogEntryCreator}.
  *
  * @author Tadaya Tsuyukubo
  */
-public class DefaultQueryCountLogEntryCreator implements QueryCountLogEntryCreator {
+public class DefaultQueryCountLogEntryCreator extends AbstractQueryCountLogEntryCreator {
+
+    private boolean writeBreakdown = false;
 
     public String getLogMessage(String datasourceName, QueryCount queryCount) {
         final StringBuilder sb = new StringBuilder();
@@ -16,7 +22,7 @@ public class DefaultQueryCountLogEntryCreator implements QueryCountLogEntryCreat
         sb.append(", ");
 
         sb.append("Time:");
-        sb.append(queryCount.getTime());
+        sb.append(queryCount.getTime(this.timeUnit));
         sb.append(", ");
 
         sb.append("Total:");
@@ -62,6 +68,10 @@ public class DefaultQueryCountLogEntryCreator implements QueryCountLogEntryCreat
         sb.append("Callable:");
         sb.append(queryCount.getCallable());
 
+        if (this.writeBreakdown) {
+            writeBreakdown(sb, queryCount, false);
+        }
+
         return sb.toString();
     }
 
@@ -80,7 +90,7 @@ public class DefaultQueryCountLogEntryCreator implements QueryCountLogEntryCreat
         sb.append(", ");
 
         sb.append("\"time\":");
-        sb.append(queryCount.getTime());
+        sb.append(queryCount.getTime(this.timeUnit));
         sb.append(", ");
 
         sb.append("\"total\":");
@@ -125,7 +135,157 @@ public class DefaultQueryCountLogEntryCreator implements QueryCountLogEntryCreat
 
         sb.append("\"callable\":");
         sb.append(queryCount.getCallable());
+
+        if (this.writeBreakdown) {
+            writeBreakdown(sb, queryCount, true);
+        }
         sb.append("}");
         return sb.toString();
     }
+
+    /**
+     * Write time by query type and statement type, and affected rows by query type.
+     * Called only when {@link #setWriteBreakdown(boolean)} is enabled.
+     *
+     * <p>default: , SelectTime:1, InsertTime:2, ..., CallableTime:0, InsertRows:3, ..., OtherRows:0
+     * <p>json: , "selectTime":1, "insertTime":2, ..., "callableTime":0, "insertRows":3, ..., "otherRows":0
+     *
+     * @param sb         StringBuilder to write
+     * @param queryCount query count
+     * @param json       {@code true} to write in JSON format
+     * @since 1.4
+     */
+    protected void writeBreakdown(StringBuilder sb, QueryCount queryCount, boolean json) {
+        writeEntry(sb, json, "select", "Time", queryCount.getTime(QueryType.SELECT, this.timeUnit));
+        writeEntry(sb, json, "insert", "Time", queryCount.getTime(QueryType.INSERT, this.timeUnit));
+        writeEntry(sb, json, "update", "Time", queryCount.getTime(QueryType.UPDATE, this.timeUnit));
+        writeEntry(sb, json, "delete", "Time", queryCount.getTime(QueryType.DELETE, this.timeUnit));
+        writeEntry(sb, json, "other", "Time", queryCount.getTime(QueryType.OTHER, this.timeUnit));
+        writeEntry(sb, json, "statement", "Time", queryCount.getTime(StatementType.STATEMENT, this.timeUnit));
+        writeEntry(sb, json, "prepared", "Time", queryCount.getTime(StatementType.PREPARED, this.timeUnit));
+        writeEntry(sb, json, "callable", "Time", queryCount.getTime(StatementType.CALLABLE, this.timeUnit));
+        // rows of select are not available from update counts
+        writeEntry(sb, json, "insert", "Rows", queryCount.getRows(QueryType.INSERT));
+        writeEntry(sb, json, "update", "Rows", queryCount.getRows(QueryType.UPDATE));
+        writeEntry(sb, json, "delete", "Rows", queryCount.getRows(QueryType.DELETE));
+        writeEntry(sb, json, "other", "Rows", queryCount.getRows(QueryType.OTHER));
+    }
+
+    private void writeEntry(StringBuilder sb, boolean json, String prefix, String suffix, long value) {
+        sb.append(", ");
+        if (json) {
+            sb.append("\"");
+            sb.append(prefix);
+            sb.append(suffix);
+            sb.append("\":");
+        } else {
+            sb.append(Character.toUpperCase(prefix.charAt(0)));
+            sb.append(prefix, 1, prefix.length());
+            sb.append(suffix);
+            sb.append(":");
+        }
+        sb.append(value);
+    }
+
+    /**
+     * Create log message for latency of a query. Values are displayed in {@link #getTimeUnit()}.
+     *
+     * <p>default: Query:"select * from foo where id = ?", Count:10, Mean:2, P50:2, P95:4, P99:5, Max:5
+     *
+     * @param queryLatency latency of a query
+     * @return log message
+     * @since 1.4
+     */
+    public String getLatencyLogMessage(QueryLatencyListener.QueryLatency queryLatency) {
+        final LatencyHistogram.Snapshot snapshot = queryLatency.getSnapshot();
+        final StringBuilder sb = new StringBuilder();
+        sb.append("Query:\"");
+        sb.append(queryLatency.getNormalizedQuery());
+        sb.append("\", ");
+
+        sb.append("Count:");
+        sb.append(snapshot.getCount());
+        sb.append(", ");
+
+        sb.append("Mean:");
+        sb.append(snapshot.getMean(this.timeUnit));
+        sb.append(", ");
+
+        sb.append("P50:");
+        sb.append(snapshot.getMedian(this.timeUnit));
+        sb.append(", ");
+
+        sb.append("P95:");
+        sb.append(snapshot.get95thPercentile(this.timeUnit));
+        sb.append(", ");
+
+        sb.append("P99:");
+        sb.append(snapshot.get99thPercentile(this.timeUnit));
+        sb.append(", ");
+
+        sb.append("Max:");
+        sb.append(snapshot.getMax(this.timeUnit));
+        return sb.toString();
+    }
+
+    /**
+     * Create log message for latency of a query in JSON format.
+     *
+     * @param queryLatency latency of a query
+     * @return log message
+     * @see #getLatencyLogMessage(QueryLatencyListener.QueryLatency)
+     * @since 1.4
+     */
+    public String getLatencyLogMessageAsJson(QueryLatencyListener.QueryLatency queryLatency) {
+        final LatencyHistogram.Snapshot snapshot = queryLatency.getSnapshot();
+        final StringBuilder sb = new StringBuilder();
+        sb.append("{");
+        sb.append("\"query\":\"");
+        appendEscapedForJson(sb, queryLatency.getNormalizedQuery());
+        sb.append("\", ");
+
+        sb.append("\"count\":");
+        sb.append(snapshot.getCount());
+        sb.append(", ");
+
+        sb.append("\"mean\":");
+        sb.append(snapshot.getMean(this.timeUnit));
+        sb.append(", ");
+
+        sb.append("\"p50\":");
+        sb.append(snapshot.getMedian(this.timeUnit));
+        sb.append(", ");
+
+        sb.append("\"p95\":");
+        sb.append(snapshot.get95thPercentile(this.timeUnit));
+        sb.append(", ");
+
+        sb.append("\"p99\":");
+        sb.append(snapshot.get99thPercentile(this.timeUnit));
+        sb.append(", ");
+
+        sb.append("\"max\":");
+        sb.append(snapshot.getMax(this.timeUnit));
+        sb.append("}");
+        return sb.toString();
+    }
+
+    /**
+     * Append time and rows by query type and statement type to the log message. Default is {@code false}, so that
+     * the default log format stays the same.
+     *
+     * @param writeBreakdown {@code true} to write the breakdown
+     * @since 1.4
+     */
+    public void setWriteBreakdown(boolean writeBreakdown) {
+        this.writeBreakdown = writeBreakdown;
+    }
+
+    /**
+     * @return {@code true} when the breakdown is written
+     * @since 1.4
+     */
+    public boolean isWriteBreakdown() {
+        return writeBreakdown;
+    }
 }
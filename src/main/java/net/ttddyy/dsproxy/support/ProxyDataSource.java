@@ -1,5 +1,6 @@
 package net.ttddyy.dsproxy.support;
 
+import net.ttddyy.dsproxy.DataSourceIdRegistry;
 import net.ttddyy.dsproxy.listener.QueryExecutionListener;
 import net.ttddyy.dsproxy.proxy.InterceptorHolder;
 import net.ttddyy.dsproxy.proxy.JdbcProxyFactory;
@@ -91,6 +92,7 @@ public class ProxyDataSource implements DataSource, Closeable {
 
     public void setDataSourceName(String dataSourceName) {
         this.dataSourceName = dataSourceName;
+        DataSourceIdRegistry.getId(dataSourceName);  // assign id up front for per datasource counters
     }
 
     public String getDataSourceName() {
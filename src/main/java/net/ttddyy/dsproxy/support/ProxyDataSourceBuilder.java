@@ -1,6 +1,7 @@
 package net.ttddyy.dsproxy.support;
 
 import net.ttddyy.dsproxy.listener.DataSourceQueryCountListener;
+import net.ttddyy.dsproxy.listener.GlobalQueryCountListener;
 import net.ttddyy.dsproxy.listener.QueryExecutionListener;
 import net.ttddyy.dsproxy.listener.logging.CommonsLogLevel;
 import net.ttddyy.dsproxy.listener.logging.CommonsQueryLoggingListener;
@@ -9,6 +10,9 @@ import net.ttddyy.dsproxy.listener.logging.JULQueryLoggingListener;
 import net.ttddyy.dsproxy.listener.logging.SLF4JLogLevel;
 import net.ttddyy.dsproxy.listener.logging.SLF4JQueryLoggingListener;
 import net.ttddyy.dsproxy.listener.logging.SystemOutQueryLoggingListener;
+import net.ttddyy.dsproxy.proxy.BatchCapturePolicy;
+import net.ttddyy.dsproxy.proxy.JdbcProxyFactory;
+import net.ttddyy.dsproxy.proxy.Ticker;
 import net.ttddyy.dsproxy.transform.ParameterTransformer;
 import net.ttddyy.dsproxy.transform.QueryTransformer;
 
@@ -39,11 +43,15 @@ public class ProxyDataSourceBuilder {
     private String julLoggerName;
     private boolean createSysOutQueryListener;
     private boolean createDataSourceQueryCountListener;
+    private boolean createGlobalQueryCountListener;
     private boolean jsonFormat;
     private List<QueryExecutionListener> queryExecutionListeners = new ArrayList<QueryExecutionListener>();
 
     private ParameterTransformer parameterTransformer;
     private QueryTransformer queryTransformer;
+    private JdbcProxyFactory jdbcProxyFactory;
+    private Ticker ticker;
+    private BatchCapturePolicy batchCapturePolicy;
 
     public static ProxyDataSourceBuilder create() {
         return new ProxyDataSourceBuilder();
@@ -248,6 +256,17 @@ public class ProxyDataSourceBuilder {
         return this;
     }
 
+    /**
+     * Create {@link net.ttddyy.dsproxy.listener.GlobalQueryCountListener} to count queries across all threads.
+     *
+     * @return builder
+     * @since 1.4
+     */
+    public ProxyDataSourceBuilder countQueryGlobally() {
+        this.createGlobalQueryCountListener = true;
+        return this;
+    }
+
     /**
      * Register given listener.
      *
@@ -302,6 +321,61 @@ public class ProxyDataSourceBuilder {
         return this;
     }
 
+    /**
+     * Set {@link net.ttddyy.dsproxy.proxy.JdbcProxyFactory} to create proxy jdbc objects.
+     *
+     * <p>Default is {@link net.ttddyy.dsproxy.proxy.jdk.JdkJdbcProxyFactory}. To avoid dynamic proxy and reflection
+     * for non-intercepted methods, use {@link net.ttddyy.dsproxy.proxy.delegate.DelegateJdbcProxyFactory}.
+     *
+     * @param jdbcProxyFactory a jdbc-proxy-factory to use
+     * @return builder
+     * @since 1.4
+     */
+    public ProxyDataSourceBuilder jdbcProxyFactory(JdbcProxyFactory jdbcProxyFactory) {
+        this.jdbcProxyFactory = jdbcProxyFactory;
+        return this;
+    }
+
+    /**
+     * Set {@link net.ttddyy.dsproxy.proxy.Ticker} to measure query execution time.
+     *
+     * <p>Default is {@link net.ttddyy.dsproxy.proxy.Ticker#NANO_TIME}.
+     *
+     * @param ticker a ticker to use
+     * @return builder
+     * @since 1.4
+     */
+    public ProxyDataSourceBuilder ticker(Ticker ticker) {
+        this.ticker = ticker;
+        return this;
+    }
+
+    /**
+     * Set {@link BatchCapturePolicy} to limit batch entries retained by proxy.
+     *
+     * <p>Default is {@link BatchCapturePolicy#ALL}.
+     *
+     * @param batchCapturePolicy a batch capture policy
+     * @return builder
+     * @since 1.4
+     */
+    public ProxyDataSourceBuilder batchCapturePolicy(BatchCapturePolicy batchCapturePolicy) {
+        this.batchCapturePolicy = batchCapturePolicy;
+        return this;
+    }
+
+    /**
+     * Retain only first N batch entries and aggregate statistics for the rest.
+     *
+     * @param maxRows max number of batch entries to retain
+     * @return builder
+     * @see BatchCapturePolicy#firstRows(int)
+     * @since 1.4
+     */
+    public ProxyDataSourceBuilder captureFirstBatchRows(int maxRows) {
+        return batchCapturePolicy(BatchCapturePolicy.firstRows(maxRows));
+    }
+
     public ProxyDataSource build() {
         ProxyDataSource proxyDataSource = new ProxyDataSource();
 
@@ -367,6 +441,9 @@ public class ProxyDataSourceBuilder {
         if (this.createDataSourceQueryCountListener) {
             listeners.add(new DataSourceQueryCountListener());
         }
+        if (this.createGlobalQueryCountListener) {
+            listeners.add(new GlobalQueryCountListener());
+        }
 
         // explicitly added listeners
         listeners.addAll(this.queryExecutionListeners);
@@ -382,6 +459,17 @@ public class ProxyDataSourceBuilder {
             proxyDataSource.getInterceptorHolder().setParameterTransformer(this.parameterTransformer);
         }
 
+        if (this.ticker != null) {
+            proxyDataSource.getInterceptorHolder().setTicker(this.ticker);
+        }
+        if (this.batchCapturePolicy != null) {
+            proxyDataSource.getInterceptorHolder().setBatchCapturePolicy(this.batchCapturePolicy);
+        }
+
+        if (this.jdbcProxyFactory != null) {
+            proxyDataSource.setJdbcProxyFactory(this.jdbcProxyFactory);
+        }
+
         return proxyDataSource;
     }
 }
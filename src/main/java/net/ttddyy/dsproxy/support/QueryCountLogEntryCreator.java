@@ -1,12 +1,28 @@
 package net.ttddyy.dsproxy.support;
 
 import net.ttddyy.dsproxy.QueryCount;
+import net.ttddyy.dsproxy.RepeatedQuery;
 
 /**
  * @author Tadaya Tsuyukubo
+ * @see AbstractQueryCountLogEntryCreator
  */
 public interface QueryCountLogEntryCreator {
 
     String getLogMessage(String datasourceName, QueryCount queryCount);
     String getLogMessageAsJson(String datasourceName, QueryCount queryCount);
+
+    /**
+     * @param repeatedQuery repeated query detected by {@link net.ttddyy.dsproxy.listener.RepeatedQueryListener}
+     * @return log message
+     * @since 1.4
+     */
+    String getRepeatedQueryLogMessage(RepeatedQuery repeatedQuery);
+
+    /**
+     * @param repeatedQuery repeated query detected by {@link net.ttddyy.dsproxy.listener.RepeatedQueryListener}
+     * @return log message in JSON format
+     * @since 1.4
+     */
+    String getRepeatedQueryLogMessageAsJson(RepeatedQuery repeatedQuery);
 }
@@ -1,6 +1,7 @@
 package net.ttddyy.dsproxy.support;
 
 import net.ttddyy.dsproxy.QueryCountHolder;
+import net.ttddyy.dsproxy.RepeatedQueryHolder;
 
 import javax.servlet.Filter;
 import javax.servlet.FilterChain;
@@ -14,6 +15,8 @@ import java.io.IOException;
  * Servlet filter to clear the {@link net.ttddyy.dsproxy.QueryCount} stored in thread local at the end of the
  * http servlet request lifecycle when {@link net.ttddyy.dsproxy.listener.DataSourceQueryCountListener} is used.
  *
+ * <p>{@link net.ttddyy.dsproxy.RepeatedQueryHolder} is cleared as well.
+ *
  * @author Tadaya Tsuyukubo
  * @see QueryCounterClearHandlerInterceptor
  * @see QueryCounterClearServletRequestListener
@@ -26,6 +29,7 @@ public class QueryCounterClearFilter implements Filter {
         chain.doFilter(request, response);
 
         QueryCountHolder.clear();
+        RepeatedQueryHolder.clear();
     }
 
     public void destroy() {
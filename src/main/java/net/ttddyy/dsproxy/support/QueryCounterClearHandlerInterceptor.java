@@ -1,6 +1,7 @@
 package net.ttddyy.dsproxy.support;
 
 import net.ttddyy.dsproxy.QueryCountHolder;
+import net.ttddyy.dsproxy.RepeatedQueryHolder;
 import org.springframework.web.servlet.handler.HandlerInterceptorAdapter;
 
 import javax.servlet.http.HttpServletRequest;
@@ -10,6 +11,8 @@ import javax.servlet.http.HttpServletResponse;
  * Spring {@link org.springframework.web.servlet.HandlerInterceptor} to clear {@link net.ttddyy.dsproxy.QueryCount}
  * stored in thread local when {@link net.ttddyy.dsproxy.listener.DataSourceQueryCountListener} is used.
  *
+ * <p>{@link net.ttddyy.dsproxy.RepeatedQueryHolder} is cleared as well.
+ *
  * @author Tadaya Tsuyukubo
  * @see QueryCounterClearFilter
  * @see QueryCounterClearServletRequestListener
@@ -19,6 +22,7 @@ public class QueryCounterClearHandlerInterceptor extends HandlerInterceptorAdapt
     @Override
     public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) throws Exception {
         QueryCountHolder.clear();
+        RepeatedQueryHolder.clear();
     }
 
 }
\ No newline at end of file
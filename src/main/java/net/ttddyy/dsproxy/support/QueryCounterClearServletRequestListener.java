@@ -1,6 +1,7 @@
 package net.ttddyy.dsproxy.support;
 
 import net.ttddyy.dsproxy.QueryCountHolder;
+import net.ttddyy.dsproxy.RepeatedQueryHolder;
 
 import javax.servlet.ServletRequestEvent;
 import javax.servlet.ServletRequestListener;
@@ -9,6 +10,8 @@ import javax.servlet.ServletRequestListener;
  * {@link javax.servlet.ServletRequestListener} to clear {@link net.ttddyy.dsproxy.QueryCount} stored in
  * thread local when {@link net.ttddyy.dsproxy.listener.DataSourceQueryCountListener} is used.
  *
+ * <p>{@link net.ttddyy.dsproxy.RepeatedQueryHolder} is cleared as well.
+ *
  * @author Tadaya Tsuyukubo
  * @see QueryCounterClearFilter
  * @see QueryCounterClearHandlerInterceptor
@@ -20,6 +23,7 @@ public class QueryCounterClearServletRequestListener implements ServletRequestLi
 
     public void requestDestroyed(ServletRequestEvent sre) {
         QueryCountHolder.clear();
+        RepeatedQueryHolder.clear();
     }
 
 }
@@ -28,4 +28,57 @@ public class SLF4JLogUtils {
         }
     }
 
+    /**
+     * Write a log with a parameterized message. The argument is converted to string only when the message is written.
+     *
+     * @param logger   logger
+     * @param logLevel log level
+     * @param format   message format
+     * @param arg      message argument
+     * @since 1.4
+     */
+    public static void writeLog(Logger logger, SLF4JLogLevel logLevel, String format, Object arg) {
+        switch (logLevel) {
+            case DEBUG:
+                logger.debug(format, arg);
+                break;
+            case ERROR:
+                logger.error(format, arg);
+                break;
+            case INFO:
+                logger.info(format, arg);
+                break;
+            case TRACE:
+                logger.trace(format, arg);
+                break;
+            case WARN:
+                logger.warn(format, arg);
+                break;
+        }
+    }
+
+    /**
+     * Check whether the given level is enabled on the logger.
+     *
+     * @param logger   logger
+     * @param logLevel log level
+     * @return {@code true} if messages at the level are written
+     * @since 1.4
+     */
+    public static boolean isLogEnabled(Logger logger, SLF4JLogLevel logLevel) {
+        switch (logLevel) {
+            case DEBUG:
+                return logger.isDebugEnabled();
+            case ERROR:
+                return logger.isErrorEnabled();
+            case INFO:
+                return logger.isInfoEnabled();
+            case TRACE:
+                return logger.isTraceEnabled();
+            case WARN:
+                return logger.isWarnEnabled();
+        }
+        return false;
+    }
+
 }
@@ -2,11 +2,14 @@ package net.ttddyy.dsproxy.support.tags;
 
 import net.ttddyy.dsproxy.QueryCount;
 import net.ttddyy.dsproxy.QueryCountHolder;
+import net.ttddyy.dsproxy.QueryType;
+import net.ttddyy.dsproxy.StatementType;
 
 import javax.servlet.jsp.JspException;
 import javax.servlet.jsp.JspWriter;
 import javax.servlet.jsp.tagext.SimpleTagSupport;
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Implementation of "metrics" custom tag.
@@ -60,6 +63,30 @@ public class MetricsTag extends SimpleTagSupport {
             sb.append(count.getFailure());
         } else if ("time".equalsIgnoreCase(metric)) {
             sb.append(count.getTime());
+        } else if ("selectTime".equalsIgnoreCase(metric)) {
+            sb.append(count.getTime(QueryType.SELECT, TimeUnit.MILLISECONDS));
+        } else if ("insertTime".equalsIgnoreCase(metric)) {
+            sb.append(count.getTime(QueryType.INSERT, TimeUnit.MILLISECONDS));
+        } else if ("updateTime".equalsIgnoreCase(metric)) {
+            sb.append(count.getTime(QueryType.UPDATE, TimeUnit.MILLISECONDS));
+        } else if ("deleteTime".equalsIgnoreCase(metric)) {
+            sb.append(count.getTime(QueryType.DELETE, TimeUnit.MILLISECONDS));
+        } else if ("otherTime".equalsIgnoreCase(metric)) {
+            sb.append(count.getTime(QueryType.OTHER, TimeUnit.MILLISECONDS));
+        } else if ("statementTime".equalsIgnoreCase(metric)) {
+            sb.append(count.getTime(StatementType.STATEMENT, TimeUnit.MILLISECONDS));
+        } else if ("preparedTime".equalsIgnoreCase(metric)) {
+            sb.append(count.getTime(StatementType.PREPARED, TimeUnit.MILLISECONDS));
+        } else if ("callableTime".equalsIgnoreCase(metric)) {
+            sb.append(count.getTime(StatementType.CALLABLE, TimeUnit.MILLISECONDS));
+        } else if ("insertRows".equalsIgnoreCase(metric)) {
+            sb.append(count.getRows(QueryType.INSERT));
+        } else if ("updateRows".equalsIgnoreCase(metric)) {
+            sb.append(count.getRows(QueryType.UPDATE));
+        } else if ("deleteRows".equalsIgnoreCase(metric)) {
+            sb.append(count.getRows(QueryType.DELETE));
+        } else if ("otherRows".equalsIgnoreCase(metric)) {
+            sb.append(count.getRows(QueryType.OTHER));
         }
 
         final JspWriter writer = getJspContext().getOut();
@@ -0,0 +1,202 @@
+package net.ttddyy.dsproxy.transform;
+
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link QueryTransformer} decorator that memoizes transformed queries.
+ *
+ * <p>Result is cached by statement class, datasource name, query and batch flag of {@link TransformInfo}. The
+ * delegate is called once per distinct key, so it must be deterministic for the key. In particular,
+ * {@link TransformInfo#getCount()} is not part of the key; do not use this class when the transformation depends
+ * on the order in batch.
+ *
+ * <p>Cache is bounded and evicts least recently used entry. To reduce lock contention on hits, entries are split
+ * into segments by key hash, each with its own lock and recency order, so eviction is least recently used within a
+ * segment. Caches smaller than {@code 32} entries have a single segment.
+ *
+ * <pre>
+ * builder.queryTransformer(new CachingQueryTransformer(new MyTransformer(), 1000));
+ * </pre>
+ *
+ * @author Tadaya Tsuyukubo
+ * @since 1.4
+ */
+public class CachingQueryTransformer implements QueryTransformer {
+
+    public static final int DEFAULT_MAX_SIZE = 1024;
+
+    private static final int MAX_SEGMENTS = 16;
+    private static final int MIN_SEGMENT_SIZE = 16;
+
+    private static final class CacheKey {
+        private final Class<? extends Statement> clazz;
+        private final String dataSourceName;
+        private final String query;
+        private final boolean batch;
+        private final int hash;
+
+        private CacheKey(TransformInfo transformInfo) {
+            this.clazz = transformInfo.getClazz();
+            this.dataSourceName = transformInfo.getDataSourceName();
+            this.query = transformInfo.getQuery();
+            this.batch = transformInfo.isBatch();
+
+            int result = this.clazz != null ? this.clazz.hashCode() : 0;
+            result = 31 * result + (this.dataSourceName != null ? this.dataSourceName.hashCode() : 0);
+            result = 31 * result + (this.query != null ? this.query.hashCode() : 0);
+            result = 31 * result + (this.batch ? 1 : 0);
+            this.hash = result;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof CacheKey)) {
+                return false;
+            }
+            final CacheKey that = (CacheKey) o;
+            return this.hash == that.hash && this.batch == that.batch && this.clazz == that.clazz
+                    && equals(this.query, that.query) && equals(this.dataSourceName, that.dataSourceName);
+        }
+
+        private static boolean equals(String a, String b) {
+            return a == null ? b == null : a.equals(b);
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hash;
+        }
+    }
+
+    /**
+     * Map in access order that evicts the eldest entry when it exceeds max size.
+     */
+    private static final class LruCache extends LinkedHashMap<CacheKey, String> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int maxSize;
+
+        private LruCache(int maxSize) {
+            super(16, 0.75f, true);
+            this.maxSize = maxSize;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<CacheKey, String> eldest) {
+            return size() > this.maxSize;
+        }
+    }
+
+    private final QueryTransformer delegate;
+    private final int maxSize;
+    private final LruCache[] segments;
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+
+    public CachingQueryTransformer(QueryTransformer delegate) {
+        this(delegate, DEFAULT_MAX_SIZE);
+    }
+
+    public CachingQueryTransformer(QueryTransformer delegate, int maxSize) {
+        if (delegate == null) {
+            throw new IllegalArgumentException("delegate must not be null");
+        }
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("maxSize must be positive: " + maxSize);
+        }
+        this.delegate = delegate;
+        this.maxSize = maxSize;
+
+        int segmentCount = 1;
+        while (segmentCount < MAX_SEGMENTS && segmentCount * 2 * MIN_SEGMENT_SIZE <= maxSize) {
+            segmentCount <<= 1;
+        }
+        this.segments = new LruCache[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            // spread the remainder so that segments add up to maxSize
+            this.segments[i] = new LruCache(maxSize / segmentCount + (i < maxSize % segmentCount ? 1 : 0));
+        }
+    }
+
+    private LruCache getSegment(CacheKey key) {
+        final int hash = key.hashCode();
+        return this.segments[(hash ^ (hash >>> 16)) & (this.segments.length - 1)];
+    }
+
+    @Override
+    public String transformQuery(TransformInfo transformInfo) {
+        final CacheKey key = new CacheKey(transformInfo);
+        final LruCache segment = getSegment(key);
+        String transformed;
+        synchronized (segment) {
+            transformed = segment.get(key);
+        }
+        if (transformed != null) {
+            this.hitCount.incrementAndGet();
+            return transformed;
+        }
+
+        // call delegate outside of the lock. concurrent misses for the same key may call it more than once.
+        this.missCount.incrementAndGet();
+        transformed = this.delegate.transformQuery(transformInfo);
+        if (transformed != null) {
+            synchronized (segment) {
+                segment.put(key, transformed);
+            }
+        }
+        return transformed;
+    }
+
+    public QueryTransformer getDelegate() {
+        return delegate;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public int size() {
+        int size = 0;
+        for (LruCache segment : this.segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * @return number of calls returned from the cache
+     */
+    public long getHitCount() {
+        return this.hitCount.get();
+    }
+
+    /**
+     * @return number of calls delegated to the wrapped transformer
+     */
+    public long getMissCount() {
+        return this.missCount.get();
+    }
+
+    /**
+     * Remove cached queries and reset hit/miss counters.
+     */
+    public void clear() {
+        for (LruCache segment : this.segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+        this.hitCount.set(0);
+        this.missCount.set(0);
+    }
+
+}
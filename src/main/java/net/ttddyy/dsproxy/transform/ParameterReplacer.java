@@ -1,6 +1,7 @@
 package net.ttddyy.dsproxy.transform;
 
 
+import net.ttddyy.dsproxy.proxy.MethodUtils;
 import net.ttddyy.dsproxy.proxy.ParameterKey;
 import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
 
@@ -20,20 +21,231 @@ import java.util.Map;
  */
 public class ParameterReplacer {
 
-    private Map<ParameterKey, ParameterSetOperation> parameters = new LinkedHashMap<ParameterKey, ParameterSetOperation>();
+    private static final Method SET_NULL_INT_INT =
+            MethodUtils.getMethod(PreparedStatement.class, "setNull", int.class, int.class);
+    private static final Method SET_BOOLEAN_INT_BOOLEAN =
+            MethodUtils.getMethod(PreparedStatement.class, "setBoolean", int.class, boolean.class);
+    private static final Method SET_BYTE_INT_BYTE =
+            MethodUtils.getMethod(PreparedStatement.class, "setByte", int.class, byte.class);
+    private static final Method SET_SHORT_INT_SHORT =
+            MethodUtils.getMethod(PreparedStatement.class, "setShort", int.class, short.class);
+    private static final Method SET_INT_INT_INT =
+            MethodUtils.getMethod(PreparedStatement.class, "setInt", int.class, int.class);
+    private static final Method SET_LONG_INT_LONG =
+            MethodUtils.getMethod(PreparedStatement.class, "setLong", int.class, long.class);
+    private static final Method SET_FLOAT_INT_FLOAT =
+            MethodUtils.getMethod(PreparedStatement.class, "setFloat", int.class, float.class);
+    private static final Method SET_DOUBLE_INT_DOUBLE =
+            MethodUtils.getMethod(PreparedStatement.class, "setDouble", int.class, double.class);
+    private static final Method SET_BIG_DECIMAL_INT_BIG_DECIMAL =
+            MethodUtils.getMethod(PreparedStatement.class, "setBigDecimal", int.class, BigDecimal.class);
+    private static final Method SET_STRING_INT_STRING =
+            MethodUtils.getMethod(PreparedStatement.class, "setString", int.class, String.class);
+    private static final Method SET_BYTES_INT_BYTE_ARRAY =
+            MethodUtils.getMethod(PreparedStatement.class, "setBytes", int.class, byte[].class);
+    private static final Method SET_DATE_INT_DATE =
+            MethodUtils.getMethod(PreparedStatement.class, "setDate", int.class, Date.class);
+    private static final Method SET_TIME_INT_TIME =
+            MethodUtils.getMethod(PreparedStatement.class, "setTime", int.class, Time.class);
+    private static final Method SET_TIMESTAMP_INT_TIMESTAMP =
+            MethodUtils.getMethod(PreparedStatement.class, "setTimestamp", int.class, Timestamp.class);
+    private static final Method SET_ASCII_STREAM_INT_INPUT_STREAM_INT =
+            MethodUtils.getMethod(PreparedStatement.class, "setAsciiStream", int.class, InputStream.class, int.class);
+    private static final Method SET_UNICODE_STREAM_INT_INPUT_STREAM_INT =
+            MethodUtils.getMethod(PreparedStatement.class, "setUnicodeStream", int.class, InputStream.class, int.class);
+    private static final Method SET_BINARY_STREAM_INT_INPUT_STREAM_INT =
+            MethodUtils.getMethod(PreparedStatement.class, "setBinaryStream", int.class, InputStream.class, int.class);
+    private static final Method SET_OBJECT_INT_OBJECT_INT =
+            MethodUtils.getMethod(PreparedStatement.class, "setObject", int.class, Object.class, int.class);
+    private static final Method SET_OBJECT_INT_OBJECT =
+            MethodUtils.getMethod(PreparedStatement.class, "setObject", int.class, Object.class);
+    private static final Method SET_CHARACTER_STREAM_INT_READER_INT =
+            MethodUtils.getMethod(PreparedStatement.class, "setCharacterStream", int.class, Reader.class, int.class);
+    private static final Method SET_REF_INT_REF =
+            MethodUtils.getMethod(PreparedStatement.class, "setRef", int.class, Ref.class);
+    private static final Method SET_BLOB_INT_BLOB =
+            MethodUtils.getMethod(PreparedStatement.class, "setBlob", int.class, Blob.class);
+    private static final Method SET_CLOB_INT_CLOB =
+            MethodUtils.getMethod(PreparedStatement.class, "setClob", int.class, Clob.class);
+    private static final Method SET_ARRAY_INT_ARRAY =
+            MethodUtils.getMethod(PreparedStatement.class, "setArray", int.class, Array.class);
+    private static final Method SET_DATE_INT_DATE_CALENDAR =
+            MethodUtils.getMethod(PreparedStatement.class, "setDate", int.class, Date.class, Calendar.class);
+    private static final Method SET_TIME_INT_TIME_CALENDAR =
+            MethodUtils.getMethod(PreparedStatement.class, "setTime", int.class, Time.class, Calendar.class);
+    private static final Method SET_TIMESTAMP_INT_TIMESTAMP_CALENDAR =
+            MethodUtils.getMethod(PreparedStatement.class, "setTimestamp", int.class, Timestamp.class, Calendar.class);
+    private static final Method SET_NULL_INT_INT_STRING =
+            MethodUtils.getMethod(PreparedStatement.class, "setNull", int.class, int.class, String.class);
+    private static final Method SET_URL_INT_URL =
+            MethodUtils.getMethod(PreparedStatement.class, "setURL", int.class, URL.class);
+    private static final Method SET_ROW_ID_INT_ROW_ID =
+            MethodUtils.getMethod(PreparedStatement.class, "setRowId", int.class, RowId.class);
+    private static final Method SET_N_STRING_INT_STRING =
+            MethodUtils.getMethod(PreparedStatement.class, "setNString", int.class, String.class);
+    private static final Method SET_N_CHARACTER_STREAM_INT_READER_LONG =
+            MethodUtils.getMethod(PreparedStatement.class, "setNCharacterStream", int.class, Reader.class, long.class);
+    private static final Method SET_N_CLOB_INT_N_CLOB =
+            MethodUtils.getMethod(PreparedStatement.class, "setNClob", int.class, NClob.class);
+    private static final Method SET_CLOB_INT_READER_LONG =
+            MethodUtils.getMethod(PreparedStatement.class, "setClob", int.class, Reader.class, long.class);
+    private static final Method SET_BLOB_INT_INPUT_STREAM_LONG =
+            MethodUtils.getMethod(PreparedStatement.class, "setBlob", int.class, InputStream.class, long.class);
+    private static final Method SET_N_CLOB_INT_READER_LONG =
+            MethodUtils.getMethod(PreparedStatement.class, "setNClob", int.class, Reader.class, long.class);
+    private static final Method SET_SQLXML_INT_SQLXML =
+            MethodUtils.getMethod(PreparedStatement.class, "setSQLXML", int.class, SQLXML.class);
+    private static final Method SET_OBJECT_INT_OBJECT_INT_INT =
+            MethodUtils.getMethod(PreparedStatement.class, "setObject", int.class, Object.class, int.class, int.class);
+    private static final Method SET_ASCII_STREAM_INT_INPUT_STREAM_LONG =
+            MethodUtils.getMethod(PreparedStatement.class, "setAsciiStream", int.class, InputStream.class, long.class);
+    private static final Method SET_BINARY_STREAM_INT_INPUT_STREAM_LONG =
+            MethodUtils.getMethod(PreparedStatement.class, "setBinaryStream", int.class, InputStream.class, long.class);
+    private static final Method SET_CHARACTER_STREAM_INT_READER_LONG =
+            MethodUtils.getMethod(PreparedStatement.class, "setCharacterStream", int.class, Reader.class, long.class);
+    private static final Method SET_ASCII_STREAM_INT_INPUT_STREAM =
+            MethodUtils.getMethod(PreparedStatement.class, "setAsciiStream", int.class, InputStream.class);
+    private static final Method SET_BINARY_STREAM_INT_INPUT_STREAM =
+            MethodUtils.getMethod(PreparedStatement.class, "setBinaryStream", int.class, InputStream.class);
+    private static final Method SET_CHARACTER_STREAM_INT_READER =
+            MethodUtils.getMethod(PreparedStatement.class, "setCharacterStream", int.class, Reader.class);
+    private static final Method SET_N_CHARACTER_STREAM_INT_READER =
+            MethodUtils.getMethod(PreparedStatement.class, "setNCharacterStream", int.class, Reader.class);
+    private static final Method SET_CLOB_INT_READER =
+            MethodUtils.getMethod(PreparedStatement.class, "setClob", int.class, Reader.class);
+    private static final Method SET_BLOB_INT_INPUT_STREAM =
+            MethodUtils.getMethod(PreparedStatement.class, "setBlob", int.class, InputStream.class);
+    private static final Method SET_N_CLOB_INT_READER =
+            MethodUtils.getMethod(PreparedStatement.class, "setNClob", int.class, Reader.class);
+    private static final Method SET_NULL_STRING_INT =
+            MethodUtils.getMethod(CallableStatement.class, "setNull", String.class, int.class);
+    private static final Method SET_BOOLEAN_STRING_BOOLEAN =
+            MethodUtils.getMethod(CallableStatement.class, "setBoolean", String.class, boolean.class);
+    private static final Method SET_BYTE_STRING_BYTE =
+            MethodUtils.getMethod(CallableStatement.class, "setByte", String.class, byte.class);
+    private static final Method SET_SHORT_STRING_SHORT =
+            MethodUtils.getMethod(CallableStatement.class, "setShort", String.class, short.class);
+    private static final Method SET_INT_STRING_INT =
+            MethodUtils.getMethod(CallableStatement.class, "setInt", String.class, int.class);
+    private static final Method SET_LONG_STRING_LONG =
+            MethodUtils.getMethod(CallableStatement.class, "setLong", String.class, long.class);
+    private static final Method SET_FLOAT_STRING_FLOAT =
+            MethodUtils.getMethod(CallableStatement.class, "setFloat", String.class, float.class);
+    private static final Method SET_DOUBLE_STRING_DOUBLE =
+            MethodUtils.getMethod(CallableStatement.class, "setDouble", String.class, double.class);
+    private static final Method SET_BIG_DECIMAL_STRING_BIG_DECIMAL =
+            MethodUtils.getMethod(CallableStatement.class, "setBigDecimal", String.class, BigDecimal.class);
+    private static final Method SET_STRING_STRING_STRING =
+            MethodUtils.getMethod(CallableStatement.class, "setString", String.class, String.class);
+    private static final Method SET_BYTES_STRING_BYTE_ARRAY =
+            MethodUtils.getMethod(CallableStatement.class, "setBytes", String.class, byte[].class);
+    private static final Method SET_DATE_STRING_DATE =
+            MethodUtils.getMethod(CallableStatement.class, "setDate", String.class, Date.class);
+    private static final Method SET_TIME_STRING_TIME =
+            MethodUtils.getMethod(CallableStatement.class, "setTime", String.class, Time.class);
+    private static final Method SET_TIMESTAMP_STRING_TIMESTAMP =
+            MethodUtils.getMethod(CallableStatement.class, "setTimestamp", String.class, Timestamp.class);
+    private static final Method SET_ASCII_STREAM_STRING_INPUT_STREAM_INT =
+            MethodUtils.getMethod(CallableStatement.class, "setAsciiStream", String.class, InputStream.class, int.class);
+    private static final Method SET_BINARY_STREAM_STRING_INPUT_STREAM_INT =
+            MethodUtils.getMethod(CallableStatement.class, "setBinaryStream", String.class, InputStream.class, int.class);
+    private static final Method SET_OBJECT_STRING_OBJECT_INT_INT =
+            MethodUtils.getMethod(CallableStatement.class, "setObject", String.class, Object.class, int.class, int.class);
+    private static final Method SET_OBJECT_STRING_OBJECT_INT =
+            MethodUtils.getMethod(CallableStatement.class, "setObject", String.class, Object.class, int.class);
+    private static final Method SET_OBJECT_STRING_OBJECT =
+            MethodUtils.getMethod(CallableStatement.class, "setObject", String.class, Object.class);
+    private static final Method SET_CHARACTER_STREAM_STRING_READER_INT =
+            MethodUtils.getMethod(CallableStatement.class, "setCharacterStream", String.class, Reader.class, int.class);
+    private static final Method SET_DATE_STRING_DATE_CALENDAR =
+            MethodUtils.getMethod(CallableStatement.class, "setDate", String.class, Date.class, Calendar.class);
+    private static final Method SET_TIME_STRING_TIME_CALENDAR =
+            MethodUtils.getMethod(CallableStatement.class, "setTime", String.class, Time.class, Calendar.class);
+    private static final Method SET_TIMESTAMP_STRING_TIMESTAMP_CALENDAR =
+            MethodUtils.getMethod(CallableStatement.class, "setTimestamp", String.class, Timestamp.class, Calendar.class);
+    private static final Method SET_NULL_STRING_INT_STRING =
+            MethodUtils.getMethod(CallableStatement.class, "setNull", String.class, int.class, String.class);
+    private static final Method SET_ROW_ID_STRING_ROW_ID =
+            MethodUtils.getMethod(CallableStatement.class, "setRowId", String.class, RowId.class);
+    private static final Method SET_N_STRING_STRING_STRING =
+            MethodUtils.getMethod(CallableStatement.class, "setNString", String.class, String.class);
+    private static final Method SET_N_CHARACTER_STREAM_STRING_READER_LONG =
+            MethodUtils.getMethod(CallableStatement.class, "setNCharacterStream", String.class, Reader.class, long.class);
+    private static final Method SET_N_CLOB_STRING_N_CLOB =
+            MethodUtils.getMethod(CallableStatement.class, "setNClob", String.class, NClob.class);
+    private static final Method SET_CLOB_STRING_READER_LONG =
+            MethodUtils.getMethod(CallableStatement.class, "setClob", String.class, Reader.class, long.class);
+    private static final Method SET_BLOB_STRING_INPUT_STREAM_LONG =
+            MethodUtils.getMethod(CallableStatement.class, "setBlob", String.class, InputStream.class, long.class);
+    private static final Method SET_N_CLOB_STRING_READER_LONG =
+            MethodUtils.getMethod(CallableStatement.class, "setNClob", String.class, Reader.class, long.class);
+    private static final Method SET_SQLXML_STRING_SQLXML =
+            MethodUtils.getMethod(CallableStatement.class, "setSQLXML", String.class, SQLXML.class);
+    private static final Method SET_BLOB_STRING_BLOB =
+            MethodUtils.getMethod(CallableStatement.class, "setBlob", String.class, Blob.class);
+    private static final Method SET_CLOB_STRING_CLOB =
+            MethodUtils.getMethod(CallableStatement.class, "setClob", String.class, Clob.class);
+    private static final Method SET_ASCII_STREAM_STRING_INPUT_STREAM_LONG =
+            MethodUtils.getMethod(CallableStatement.class, "setAsciiStream", String.class, InputStream.class, long.class);
+    private static final Method SET_BINARY_STREAM_STRING_INPUT_STREAM_LONG =
+            MethodUtils.getMethod(CallableStatement.class, "setBinaryStream", String.class, InputStream.class, long.class);
+    private static final Method SET_CHARACTER_STREAM_STRING_READER_LONG =
+            MethodUtils.getMethod(CallableStatement.class, "setCharacterStream", String.class, Reader.class, long.class);
+    private static final Method SET_ASCII_STREAM_STRING_INPUT_STREAM =
+            MethodUtils.getMethod(CallableStatement.class, "setAsciiStream", String.class, InputStream.class);
+    private static final Method SET_BINARY_STREAM_STRING_INPUT_STREAM =
+            MethodUtils.getMethod(CallableStatement.class, "setBinaryStream", String.class, InputStream.class);
+    private static final Method SET_CHARACTER_STREAM_STRING_READER =
+            MethodUtils.getMethod(CallableStatement.class, "setCharacterStream", String.class, Reader.class);
+    private static final Method SET_N_CHARACTER_STREAM_STRING_READER =
+            MethodUtils.getMethod(CallableStatement.class, "setNCharacterStream", String.class, Reader.class);
+    private static final Method SET_CLOB_STRING_READER =
+            MethodUtils.getMethod(CallableStatement.class, "setClob", String.class, Reader.class);
+    private static final Method SET_BLOB_STRING_INPUT_STREAM =
+            MethodUtils.getMethod(CallableStatement.class, "setBlob", String.class, InputStream.class);
+    private static final Method SET_N_CLOB_STRING_READER =
+            MethodUtils.getMethod(CallableStatement.class, "setNClob", String.class, Reader.class);
+    private static final Method REGISTER_OUT_PARAMETER_INT_INT =
+            MethodUtils.getMethod(CallableStatement.class, "registerOutParameter", int.class, int.class);
+    private static final Method REGISTER_OUT_PARAMETER_INT_INT_INT =
+            MethodUtils.getMethod(CallableStatement.class, "registerOutParameter", int.class, int.class, int.class);
+    private static final Method REGISTER_OUT_PARAMETER_INT_INT_STRING =
+            MethodUtils.getMethod(CallableStatement.class, "registerOutParameter", int.class, int.class, String.class);
+    private static final Method REGISTER_OUT_PARAMETER_STRING_INT =
+            MethodUtils.getMethod(CallableStatement.class, "registerOutParameter", String.class, int.class);
+    private static final Method REGISTER_OUT_PARAMETER_STRING_INT_INT =
+            MethodUtils.getMethod(CallableStatement.class, "registerOutParameter", String.class, int.class, int.class);
+    private static final Method REGISTER_OUT_PARAMETER_STRING_INT_STRING =
+            MethodUtils.getMethod(CallableStatement.class, "registerOutParameter", String.class, int.class, String.class);
+
+    // copy-on-write: given parameters are copied when they are modified for the first time
+    private Map<ParameterKey, ParameterSetOperation> parameters;
     private boolean modified = false;
 
     public ParameterReplacer() {
+        this.parameters = new LinkedHashMap<ParameterKey, ParameterSetOperation>();
     }
 
+    /**
+     * Given map is not modified. It is copied only when parameters are replaced or cleared.
+     *
+     * @param parameters current parameters
+     */
     public ParameterReplacer(Map<ParameterKey, ParameterSetOperation> parameters) {
-        // make a copy
-        this.parameters.putAll(parameters);
+        this.parameters = parameters;
+    }
+
+    private Map<ParameterKey, ParameterSetOperation> getParametersForWrite() {
+        if (!this.modified) {
+            this.parameters = new LinkedHashMap<ParameterKey, ParameterSetOperation>(this.parameters);
+            this.modified = true;
+        }
+        return this.parameters;
     }
 
     @SuppressWarnings("unchecked")
     public <T> T getValue(int index) {
-        ParameterKey parameterKey = new ParameterKey(index);
+        ParameterKey parameterKey = ParameterKey.valueOf(index);
         return (T) this.parameters.get(parameterKey).getArgs()[1];  // index 1 in arguments is always value
     }
 
@@ -44,28 +256,22 @@ public class ParameterReplacer {
     }
 
     public void clearParameters() {
-        this.parameters.clear();
-        modified = true;
-    }
-
-    private Method getDeclaredMethod(Class<?> clazz, String methodName, Class<?>... parameterTypes) {
-        try {
-            return clazz.getDeclaredMethod(methodName, parameterTypes);
-        } catch (NoSuchMethodException e) {
-            throw new RuntimeException(e);
+        if (this.modified) {
+            this.parameters.clear();
+        } else {
+            this.parameters = new LinkedHashMap<ParameterKey, ParameterSetOperation>();
+            this.modified = true;
         }
     }
 
     private void record(int parameterIndex, Method paramMethod, Object... args) {
-        ParameterKey parameterKey = new ParameterKey(parameterIndex);
-        this.parameters.put(parameterKey, new ParameterSetOperation(paramMethod, args));
-        modified = true;
+        ParameterKey parameterKey = ParameterKey.valueOf(parameterIndex);
+        getParametersForWrite().put(parameterKey, new ParameterSetOperation(paramMethod, args));
     }
 
     private void recordByName(String parameterName, Method paramMethod, Object... args) {
         ParameterKey parameterKey = new ParameterKey(parameterName);
-        this.parameters.put(parameterKey, new ParameterSetOperation(paramMethod, args));
-        modified = true;
+        getParametersForWrite().put(parameterKey, new ParameterSetOperation(paramMethod, args));
     }
 
     public boolean isModified() {
@@ -80,406 +286,406 @@ public class ParameterReplacer {
     //////  Parameter set operations for PreparedStatement
 
     public void setNull(int parameterIndex, int sqlType) {
-        record(parameterIndex, getDeclaredMethod(PreparedStatement.class, "setNull", int.class, int.class), parameterIndex, sqlType);
+        record(parameterIndex, SET_NULL_INT_INT, parameterIndex, sqlType);
     }
 
     public void setBoolean(int parameterIndex, boolean x) {
-        record(parameterIndex, getDeclaredMethod(PreparedStatement.class, "setBoolean", int.class, boolean.class), parameterIndex, x);
+        record(parameterIndex, SET_BOOLEAN_INT_BOOLEAN, parameterIndex, x);
     }
 
     public void setByte(int parameterIndex, byte x) {
-        record(parameterIndex, getDeclaredMethod(PreparedStatement.class, "setByte", int.class, byte.class), parameterIndex, x);
+        record(parameterIndex, SET_BYTE_INT_BYTE, parameterIndex, x);
     }
 
     public void setShort(int parameterIndex, short x) {
-        record(parameterIndex, getDeclaredMethod(PreparedStatement.class, "setShort", int.class, short.class), parameterIndex, x);
+        record(parameterIndex, SET_SHORT_INT_SHORT, parameterIndex, x);
     }
 
     public void setInt(int parameterIndex, int x) {
-        record(parameterIndex, getDeclaredMethod(PreparedStatement.class, "setInt", int.class, int.class), parameterIndex, x);
+        record(parameterIndex, SET_INT_INT_INT, parameterIndex, x);
     }
 
     public void setLong(int parameterIndex, long x) {
-        record(parameterIndex, getDeclaredMethod(PreparedStatement.class, "setLong", int.class, long.class), parameterIndex, x);
+        record(parameterIndex, SET_LONG_INT_LONG, parameterIndex, x);
     }
 
     public void setFloat(int parameterIndex, float x) {
-        record(parameterIndex, getDeclaredMethod(PreparedStatement.class, "setFloat", int.class, float.class), parameterIndex, x);
+        record(parameterIndex, SET_FLOAT_INT_FLOAT, parameterIndex, x);
     }
 
     public void setDouble(int parameterIndex, double x) {
-        record(parameterIndex, getDeclaredMethod(PreparedStatement.class, "setDouble", int.class, double.class), parameterIndex, x);
+        record(parameterIndex, SET_DOUBLE_INT_DOUBLE, parameterIndex, x);
     }
 
     public void setBigDecimal(int parameterIndex, BigDecimal x) {
-        record(parameterIndex, getDeclaredMethod(PreparedStatement.class, "setBigDecimal", int.class, BigDecimal.class), parameterIndex, x);
+        record(parameterIndex, SET_BIG_DECIMAL_INT_BIG_DECIMAL, parameterIndex, x);
     }
 
     public void setString(int parameterIndex, String x) {
-        record(parameterIndex, getDeclaredMethod(PreparedStatement.class, "setString", int.class, String.class), parameterIndex, x);
+        record(parameterIndex, SET_STRING_INT_STRING, parameterIndex, x);
     }
 
     public void setBytes(int parameterIndex, byte x[]) {
-        record(parameterIndex, getDeclaredMethod(PreparedStatement.class, "setBytes", int.class, byte[].class), parameterIndex, x);
+        record(parameterIndex, SET_BYTES_INT_BYTE_ARRAY, parameterIndex, x);
     }
 
     public void setDate(int parameterIndex, java.sql.Date x) {
-        record(parameterIndex, getDeclaredMethod(PreparedStatement.class, "setDate", int.class, Date.class), parameterIndex, x);
+        record(parameterIndex, SET_DATE_INT_DATE, parameterIndex, x);
     }
 
     public void setTime(int parameterIndex, java.sql.Time x) {
-        record(parameterIndex, getDeclaredMethod(PreparedStatement.class, "setTime", int.class, Time.class), parameterIndex, x);
+        record(parameterIndex, SET_TIME_INT_TIME, parameterIndex, x);
     }
 
     public void setTimestamp(int parameterIndex, java.sql.Timestamp x) {
-        record(parameterIndex, getDeclaredMethod(PreparedStatement.class, "setTimestamp", int.class, Timestamp.class), parameterIndex, x);
+        record(parameterIndex, SET_TIMESTAMP_INT_TIMESTAMP, parameterIndex, x);
     }
 
     public void setAsciiStream(int parameterIndex, java.io.InputStream x, int length) {
-        record(parameterIndex, getDeclaredMethod(PreparedStatement.class, "setAsciiStream", int.class, InputStream.class, int.class), parameterIndex, x, length);
+        record(parameterIndex, SET_ASCII_STREAM_INT_INPUT_STREAM_INT, parameterIndex, x, length);
     }
 
     public void setUnicodeStream(int parameterIndex, java.io.InputStream x, int length) {
-        record(parameterIndex, getDeclaredMethod(PreparedStatement.class, "setUnicodeStream", int.class, InputStream.class, int.class), parameterIndex, x, length);
+        record(parameterIndex, SET_UNICODE_STREAM_INT_INPUT_STREAM_INT, parameterIndex, x, length);
     }
 
     public void setBinaryStream(int parameterIndex, java.io.InputStream x, int length) {
-        record(parameterIndex, getDeclaredMethod(PreparedStatement.class, "setBinaryStream", int.class, InputStream.class, int.class), parameterIndex, x, length);
+        record(parameterIndex, SET_BINARY_STREAM_INT_INPUT_STREAM_INT, parameterIndex, x, length);
     }
 
     public void setObject(int parameterIndex, Object x, int targetSqlType) {
-        record(parameterIndex, getDeclaredMethod(PreparedStatement.class, "setObject", int.class, Object.class, int.class, int.class), parameterIndex, x, targetSqlType);
+        record(parameterIndex, SET_OBJECT_INT_OBJECT_INT, parameterIndex, x, targetSqlType);
     }
 
     public void setObject(int parameterIndex, Object x) {
-        record(parameterIndex, getDeclaredMethod(PreparedStatement.class, "setObject", int.class, Object.class), parameterIndex, x);
+        record(parameterIndex, SET_OBJECT_INT_OBJECT, parameterIndex, x);
     }
 
     //--------------------------JDBC 2.0-----------------------------
     public void setCharacterStream(int parameterIndex, java.io.Reader reader, int length) {
-        record(parameterIndex, getDeclaredMethod(PreparedStatement.class, "setCharacterStream", int.class, Reader.class, int.class), parameterIndex, reader, length);
+        record(parameterIndex, SET_CHARACTER_STREAM_INT_READER_INT, parameterIndex, reader, length);
     }
 
     public void setRef(int parameterIndex, Ref x) {
-        record(parameterIndex, getDeclaredMethod(PreparedStatement.class, "setRef", int.class, Ref.class), parameterIndex, x);
+        record(parameterIndex, SET_REF_INT_REF, parameterIndex, x);
     }
 
     public void setBlob(int parameterIndex, Blob x) {
-        record(parameterIndex, getDeclaredMethod(PreparedStatement.class, "setBlob", int.class, Blob.class), parameterIndex, x);
+        record(parameterIndex, SET_BLOB_INT_BLOB, parameterIndex, x);
     }
 
     public void setClob(int parameterIndex, Clob x) {
-        record(parameterIndex, getDeclaredMethod(PreparedStatement.class, "setClob", int.class, Clob.class), parameterIndex, x);
+        record(parameterIndex, SET_CLOB_INT_CLOB, parameterIndex, x);
     }
 
     public void setArray(int parameterIndex, Array x) {
-        record(parameterIndex, getDeclaredMethod(PreparedStatement.class, "setArray", int.class, Array.class), parameterIndex, x);
+        record(parameterIndex, SET_ARRAY_INT_ARRAY, parameterIndex, x);
     }
 
     public void setDate(int parameterIndex, java.sql.Date x, Calendar cal) {
-        record(parameterIndex, getDeclaredMethod(PreparedStatement.class, "setDate", int.class, Date.class, Calendar.class), parameterIndex, x, cal);
+        record(parameterIndex, SET_DATE_INT_DATE_CALENDAR, parameterIndex, x, cal);
     }
 
     public void setTime(int parameterIndex, java.sql.Time x, Calendar cal) {
-        record(parameterIndex, getDeclaredMethod(PreparedStatement.class, "setTime", int.class, Time.class, Calendar.class), parameterIndex, x, cal);
+        record(parameterIndex, SET_TIME_INT_TIME_CALENDAR, parameterIndex, x, cal);
     }
 
     public void setTimestamp(int parameterIndex, java.sql.Timestamp x, Calendar cal) {
-        record(parameterIndex, getDeclaredMethod(PreparedStatement.class, "setTimestamp", int.class, Timestamp.class, Calendar.class), parameterIndex, x, cal);
+        record(parameterIndex, SET_TIMESTAMP_INT_TIMESTAMP_CALENDAR, parameterIndex, x, cal);
     }
 
     public void setNull(int parameterIndex, int sqlType, String typeName) {
-        record(parameterIndex, getDeclaredMethod(PreparedStatement.class, "setNull", int.class, int.class, String.class), parameterIndex, sqlType, typeName);
+        record(parameterIndex, SET_NULL_INT_INT_STRING, parameterIndex, sqlType, typeName);
     }
 
     //------------------------- JDBC 3.0 -----------------------------------
     public void setURL(int parameterIndex, java.net.URL x) {
-        record(parameterIndex, getDeclaredMethod(PreparedStatement.class, "setURL", int.class, URL.class), parameterIndex, x);
+        record(parameterIndex, SET_URL_INT_URL, parameterIndex, x);
     }
 
     public void setRowId(int parameterIndex, RowId x) {
-        record(parameterIndex, getDeclaredMethod(PreparedStatement.class, "setRowId", int.class, RowId.class), parameterIndex, x);
+        record(parameterIndex, SET_ROW_ID_INT_ROW_ID, parameterIndex, x);
     }
 
     public void setNString(int parameterIndex, String value) {
-        record(parameterIndex, getDeclaredMethod(PreparedStatement.class, "setNString", int.class, String.class), parameterIndex, value);
+        record(parameterIndex, SET_N_STRING_INT_STRING, parameterIndex, value);
     }
 
     public void setNCharacterStream(int parameterIndex, Reader value, long length) {
-        record(parameterIndex, getDeclaredMethod(PreparedStatement.class, "setNCharacterStream", int.class, Reader.class, long.class), parameterIndex, value, length);
+        record(parameterIndex, SET_N_CHARACTER_STREAM_INT_READER_LONG, parameterIndex, value, length);
     }
 
     public void setNClob(int parameterIndex, NClob value) {
-        record(parameterIndex, getDeclaredMethod(PreparedStatement.class, "setNClob", int.class, NClob.class), parameterIndex, value);
+        record(parameterIndex, SET_N_CLOB_INT_N_CLOB, parameterIndex, value);
     }
 
     public void setClob(int parameterIndex, Reader reader, long length) {
-        record(parameterIndex, getDeclaredMethod(PreparedStatement.class, "setClob", int.class, Reader.class, long.class), parameterIndex, reader, length);
+        record(parameterIndex, SET_CLOB_INT_READER_LONG, parameterIndex, reader, length);
     }
 
     public void setBlob(int parameterIndex, InputStream inputStream, long length) {
-        record(parameterIndex, getDeclaredMethod(PreparedStatement.class, "setBlob", int.class, InputStream.class, long.class), parameterIndex, inputStream, length);
+        record(parameterIndex, SET_BLOB_INT_INPUT_STREAM_LONG, parameterIndex, inputStream, length);
     }
 
     public void setNClob(int parameterIndex, Reader reader, long length) {
-        record(parameterIndex, getDeclaredMethod(PreparedStatement.class, "setNClob", int.class, Reader.class, long.class), parameterIndex, reader, length);
+        record(parameterIndex, SET_N_CLOB_INT_READER_LONG, parameterIndex, reader, length);
     }
 
     public void setSQLXML(int parameterIndex, SQLXML xmlObject) {
-        record(parameterIndex, getDeclaredMethod(PreparedStatement.class, "setSQLXML", int.class, SQLXML.class), parameterIndex, xmlObject);
+        record(parameterIndex, SET_SQLXML_INT_SQLXML, parameterIndex, xmlObject);
     }
 
     public void setObject(int parameterIndex, Object x, int targetSqlType, int scaleOrLength) {
-        record(parameterIndex, getDeclaredMethod(PreparedStatement.class, "setObject", int.class, Object.class, int.class, int.class), parameterIndex, x, targetSqlType, scaleOrLength);
+        record(parameterIndex, SET_OBJECT_INT_OBJECT_INT_INT, parameterIndex, x, targetSqlType, scaleOrLength);
     }
 
     public void setAsciiStream(int parameterIndex, java.io.InputStream x, long length) {
-        record(parameterIndex, getDeclaredMethod(PreparedStatement.class, "setAsciiStream", int.class, InputStream.class, long.class), parameterIndex, x, length);
+        record(parameterIndex, SET_ASCII_STREAM_INT_INPUT_STREAM_LONG, parameterIndex, x, length);
     }
 
     public void setBinaryStream(int parameterIndex, java.io.InputStream x, long length) {
-        record(parameterIndex, getDeclaredMethod(PreparedStatement.class, "setBinaryStream", int.class, InputStream.class, long.class), parameterIndex, x, length);
+        record(parameterIndex, SET_BINARY_STREAM_INT_INPUT_STREAM_LONG, parameterIndex, x, length);
     }
 
     public void setCharacterStream(int parameterIndex, java.io.Reader reader, long length) {
-        record(parameterIndex, getDeclaredMethod(PreparedStatement.class, "setCharacterStream", int.class, Reader.class, long.class), parameterIndex, reader, length);
+        record(parameterIndex, SET_CHARACTER_STREAM_INT_READER_LONG, parameterIndex, reader, length);
     }
 
     public void setAsciiStream(int parameterIndex, java.io.InputStream x) {
-        record(parameterIndex, getDeclaredMethod(PreparedStatement.class, "setAsciiStream", int.class, InputStream.class), parameterIndex, x);
+        record(parameterIndex, SET_ASCII_STREAM_INT_INPUT_STREAM, parameterIndex, x);
     }
 
     public void setBinaryStream(int parameterIndex, java.io.InputStream x) {
-        record(parameterIndex, getDeclaredMethod(PreparedStatement.class, "setBinaryStream", int.class, InputStream.class), parameterIndex, x);
+        record(parameterIndex, SET_BINARY_STREAM_INT_INPUT_STREAM, parameterIndex, x);
     }
 
     public void setCharacterStream(int parameterIndex, java.io.Reader reader) {
-        record(parameterIndex, getDeclaredMethod(PreparedStatement.class, "setCharacterStream", int.class, Reader.class), parameterIndex, reader);
+        record(parameterIndex, SET_CHARACTER_STREAM_INT_READER, parameterIndex, reader);
     }
 
     public void setNCharacterStream(int parameterIndex, Reader value) {
-        record(parameterIndex, getDeclaredMethod(PreparedStatement.class, "setNCharacterStream", int.class, Reader.class), parameterIndex, value);
+        record(parameterIndex, SET_N_CHARACTER_STREAM_INT_READER, parameterIndex, value);
     }
 
     public void setClob(int parameterIndex, Reader reader) {
-        record(parameterIndex, getDeclaredMethod(PreparedStatement.class, "setClob", int.class, Reader.class), parameterIndex, reader);
+        record(parameterIndex, SET_CLOB_INT_READER, parameterIndex, reader);
     }
 
     public void setBlob(int parameterIndex, InputStream inputStream) {
-        record(parameterIndex, getDeclaredMethod(PreparedStatement.class, "setBlob", int.class, InputStream.class), parameterIndex, inputStream);
+        record(parameterIndex, SET_BLOB_INT_INPUT_STREAM, parameterIndex, inputStream);
     }
 
     public void setNClob(int parameterIndex, Reader reader) {
-        record(parameterIndex, getDeclaredMethod(PreparedStatement.class, "setNClob", int.class, Reader.class), parameterIndex, reader);
+        record(parameterIndex, SET_N_CLOB_INT_READER, parameterIndex, reader);
     }
 
 
     //////  Parameter set operations for CallableStatement
 
     public void setNull(String parameterName, int sqlType) {
-        recordByName(parameterName, getDeclaredMethod(CallableStatement.class, "setNull", String.class, int.class), parameterName, sqlType);
+        recordByName(parameterName, SET_NULL_STRING_INT, parameterName, sqlType);
     }
 
     public void setBoolean(String parameterName, boolean x) {
-        recordByName(parameterName, getDeclaredMethod(CallableStatement.class, "setBoolean", String.class, boolean.class), parameterName, x);
+        recordByName(parameterName, SET_BOOLEAN_STRING_BOOLEAN, parameterName, x);
     }
 
     public void setByte(String parameterName, byte x) {
-        recordByName(parameterName, getDeclaredMethod(CallableStatement.class, "setByte", String.class, byte.class), parameterName, x);
+        recordByName(parameterName, SET_BYTE_STRING_BYTE, parameterName, x);
     }
 
     public void setShort(String parameterName, short x) {
-        recordByName(parameterName, getDeclaredMethod(CallableStatement.class, "setShort", String.class, short.class), parameterName, x);
+        recordByName(parameterName, SET_SHORT_STRING_SHORT, parameterName, x);
     }
 
     public void setInt(String parameterName, int x) {
-        recordByName(parameterName, getDeclaredMethod(CallableStatement.class, "setInt", String.class, int.class), parameterName, x);
+        recordByName(parameterName, SET_INT_STRING_INT, parameterName, x);
     }
 
     public void setLong(String parameterName, long x) {
-        recordByName(parameterName, getDeclaredMethod(CallableStatement.class, "setLong", String.class, long.class), parameterName, x);
+        recordByName(parameterName, SET_LONG_STRING_LONG, parameterName, x);
     }
 
     public void setFloat(String parameterName, float x) {
-        recordByName(parameterName, getDeclaredMethod(CallableStatement.class, "setFloat", String.class, float.class), parameterName, x);
+        recordByName(parameterName, SET_FLOAT_STRING_FLOAT, parameterName, x);
     }
 
     public void setDouble(String parameterName, double x) {
-        recordByName(parameterName, getDeclaredMethod(CallableStatement.class, "setDouble", String.class, double.class), parameterName, x);
+        recordByName(parameterName, SET_DOUBLE_STRING_DOUBLE, parameterName, x);
     }
 
     public void setBigDecimal(String parameterName, BigDecimal x) {
-        recordByName(parameterName, getDeclaredMethod(CallableStatement.class, "setBigDecimal", String.class, BigDecimal.class), parameterName, x);
+        recordByName(parameterName, SET_BIG_DECIMAL_STRING_BIG_DECIMAL, parameterName, x);
     }
 
     public void setString(String parameterName, String x) {
-        recordByName(parameterName, getDeclaredMethod(CallableStatement.class, "setString", String.class, String.class), parameterName, x);
+        recordByName(parameterName, SET_STRING_STRING_STRING, parameterName, x);
     }
 
     public void setBytes(String parameterName, byte x[]) {
-        recordByName(parameterName, getDeclaredMethod(CallableStatement.class, "setBytes", String.class, byte[].class), parameterName, x);
+        recordByName(parameterName, SET_BYTES_STRING_BYTE_ARRAY, parameterName, x);
     }
 
     public void setDate(String parameterName, Date x) {
-        recordByName(parameterName, getDeclaredMethod(CallableStatement.class, "setDate", String.class, Date.class), parameterName, x);
+        recordByName(parameterName, SET_DATE_STRING_DATE, parameterName, x);
     }
 
     public void setTime(String parameterName, Time x) {
-        recordByName(parameterName, getDeclaredMethod(CallableStatement.class, "setTime", String.class, Time.class), parameterName, x);
+        recordByName(parameterName, SET_TIME_STRING_TIME, parameterName, x);
     }
 
     public void setTimestamp(String parameterName, Timestamp x) {
-        recordByName(parameterName, getDeclaredMethod(CallableStatement.class, "setTimestamp", String.class, Timestamp.class), parameterName, x);
+        recordByName(parameterName, SET_TIMESTAMP_STRING_TIMESTAMP, parameterName, x);
     }
 
     public void setAsciiStream(String parameterName, InputStream x, int length) {
-        recordByName(parameterName, getDeclaredMethod(CallableStatement.class, "setAsciiStream", String.class, InputStream.class, int.class), parameterName, x, length);
+        recordByName(parameterName, SET_ASCII_STREAM_STRING_INPUT_STREAM_INT, parameterName, x, length);
     }
 
     public void setBinaryStream(String parameterName, InputStream x, int length) {
-        recordByName(parameterName, getDeclaredMethod(CallableStatement.class, "setBinaryStream", String.class, InputStream.class, int.class), parameterName, x, length);
+        recordByName(parameterName, SET_BINARY_STREAM_STRING_INPUT_STREAM_INT, parameterName, x, length);
     }
 
     public void setObject(String parameterName, Object x, int targetSqlType, int scale) {
-        recordByName(parameterName, getDeclaredMethod(CallableStatement.class, "setObject", String.class, Object.class, int.class, int.class), parameterName, x, targetSqlType, scale);
+        recordByName(parameterName, SET_OBJECT_STRING_OBJECT_INT_INT, parameterName, x, targetSqlType, scale);
     }
 
     public void setObject(String parameterName, Object x, int targetSqlType) {
-        recordByName(parameterName, getDeclaredMethod(CallableStatement.class, "setObject", String.class, Object.class, int.class), parameterName, x, targetSqlType);
+        recordByName(parameterName, SET_OBJECT_STRING_OBJECT_INT, parameterName, x, targetSqlType);
     }
 
     public void setObject(String parameterName, Object x) {
-        recordByName(parameterName, getDeclaredMethod(CallableStatement.class, "setObject", String.class, Object.class), parameterName, x);
+        recordByName(parameterName, SET_OBJECT_STRING_OBJECT, parameterName, x);
     }
 
     public void setCharacterStream(String parameterName, Reader reader, int length) {
-        recordByName(parameterName, getDeclaredMethod(CallableStatement.class, "setCharacterStream", String.class, Reader.class, int.class), parameterName, reader, length);
+        recordByName(parameterName, SET_CHARACTER_STREAM_STRING_READER_INT, parameterName, reader, length);
     }
 
     public void setDate(String parameterName, Date x, Calendar cal) {
-        recordByName(parameterName, getDeclaredMethod(CallableStatement.class, "setDate", String.class, Date.class, Calendar.class), parameterName, x, cal);
+        recordByName(parameterName, SET_DATE_STRING_DATE_CALENDAR, parameterName, x, cal);
     }
 
     public void setTime(String parameterName, Time x, Calendar cal) {
-        recordByName(parameterName, getDeclaredMethod(CallableStatement.class, "setTime", String.class, Time.class, Calendar.class), parameterName, x, cal);
+        recordByName(parameterName, SET_TIME_STRING_TIME_CALENDAR, parameterName, x, cal);
     }
 
     public void setTimestamp(String parameterName, Timestamp x, Calendar cal) {
-        recordByName(parameterName, getDeclaredMethod(CallableStatement.class, "setTimestamp", String.class, Timestamp.class, Calendar.class), parameterName, x, cal);
+        recordByName(parameterName, SET_TIMESTAMP_STRING_TIMESTAMP_CALENDAR, parameterName, x, cal);
     }
 
     public void setNull(String parameterName, int sqlType, String typeName) {
-        recordByName(parameterName, getDeclaredMethod(CallableStatement.class, "setNull", String.class, int.class, String.class), parameterName, sqlType, typeName);
+        recordByName(parameterName, SET_NULL_STRING_INT_STRING, parameterName, sqlType, typeName);
     }
 
     // since 1.6
     public void setRowId(String parameterName, RowId x) {
-        recordByName(parameterName, getDeclaredMethod(CallableStatement.class, "setRowId", String.class, RowId.class), parameterName, x);
+        recordByName(parameterName, SET_ROW_ID_STRING_ROW_ID, parameterName, x);
     }
 
     public void setNString(String parameterName, String value) {
-        recordByName(parameterName, getDeclaredMethod(CallableStatement.class, "setNString", String.class, String.class), parameterName, value);
+        recordByName(parameterName, SET_N_STRING_STRING_STRING, parameterName, value);
     }
 
     public void setNCharacterStream(String parameterName, Reader value, long length) {
-        recordByName(parameterName, getDeclaredMethod(CallableStatement.class, "setNCharacterStream", String.class, Reader.class, long.class), parameterName, value, length);
+        recordByName(parameterName, SET_N_CHARACTER_STREAM_STRING_READER_LONG, parameterName, value, length);
     }
 
     public void setNClob(String parameterName, NClob value) {
-        recordByName(parameterName, getDeclaredMethod(CallableStatement.class, "setNClob", String.class, NClob.class), parameterName, value);
+        recordByName(parameterName, SET_N_CLOB_STRING_N_CLOB, parameterName, value);
     }
 
     public void setClob(String parameterName, Reader reader, long length) {
-        recordByName(parameterName, getDeclaredMethod(CallableStatement.class, "setClob", String.class, Reader.class, long.class), parameterName, reader, length);
+        recordByName(parameterName, SET_CLOB_STRING_READER_LONG, parameterName, reader, length);
     }
 
     public void setBlob(String parameterName, InputStream inputStream, long length) {
-        recordByName(parameterName, getDeclaredMethod(CallableStatement.class, "setBlob", String.class, InputStream.class, long.class), parameterName, inputStream, length);
+        recordByName(parameterName, SET_BLOB_STRING_INPUT_STREAM_LONG, parameterName, inputStream, length);
     }
 
     public void setNClob(String parameterName, Reader reader, long length) {
-        recordByName(parameterName, getDeclaredMethod(CallableStatement.class, "setNClob", String.class, Reader.class, long.class), parameterName, reader, length);
+        recordByName(parameterName, SET_N_CLOB_STRING_READER_LONG, parameterName, reader, length);
     }
 
     public void setSQLXML(String parameterName, SQLXML xmlObject) {
-        recordByName(parameterName, getDeclaredMethod(CallableStatement.class, "setSQLXML", String.class, SQLXML.class), parameterName, xmlObject);
+        recordByName(parameterName, SET_SQLXML_STRING_SQLXML, parameterName, xmlObject);
     }
 
     public void setBlob(String parameterName, Blob x) {
-        recordByName(parameterName, getDeclaredMethod(CallableStatement.class, "setBlob", String.class, Blob.class), parameterName, x);
+        recordByName(parameterName, SET_BLOB_STRING_BLOB, parameterName, x);
     }
 
     public void setClob(String parameterName, Clob x) {
-        recordByName(parameterName, getDeclaredMethod(CallableStatement.class, "setClob", String.class, Clob.class), parameterName, x);
+        recordByName(parameterName, SET_CLOB_STRING_CLOB, parameterName, x);
     }
 
     public void setAsciiStream(String parameterName, InputStream x, long length) {
-        recordByName(parameterName, getDeclaredMethod(CallableStatement.class, "setAsciiStream", String.class, InputStream.class, long.class), parameterName, x, length);
+        recordByName(parameterName, SET_ASCII_STREAM_STRING_INPUT_STREAM_LONG, parameterName, x, length);
     }
 
     public void setBinaryStream(String parameterName, InputStream x, long length) {
-        recordByName(parameterName, getDeclaredMethod(CallableStatement.class, "setBinaryStream", String.class, InputStream.class), parameterName, x, length);
+        recordByName(parameterName, SET_BINARY_STREAM_STRING_INPUT_STREAM_LONG, parameterName, x, length);
     }
 
     public void setCharacterStream(String parameterName, Reader reader, long length) {
-        recordByName(parameterName, getDeclaredMethod(CallableStatement.class, "setCharacterStream", String.class, Reader.class, long.class), parameterName, reader, length);
+        recordByName(parameterName, SET_CHARACTER_STREAM_STRING_READER_LONG, parameterName, reader, length);
     }
 
     public void setAsciiStream(String parameterName, InputStream x) {
-        recordByName(parameterName, getDeclaredMethod(CallableStatement.class, "setAsciiStream", String.class, InputStream.class), parameterName, x);
+        recordByName(parameterName, SET_ASCII_STREAM_STRING_INPUT_STREAM, parameterName, x);
     }
 
     public void setBinaryStream(String parameterName, InputStream x) {
-        recordByName(parameterName, getDeclaredMethod(CallableStatement.class, "setBinaryStream", String.class, InputStream.class), parameterName, x);
+        recordByName(parameterName, SET_BINARY_STREAM_STRING_INPUT_STREAM, parameterName, x);
     }
 
     public void setCharacterStream(String parameterName, Reader reader) {
-        recordByName(parameterName, getDeclaredMethod(CallableStatement.class, "setCharacterStream", String.class, Reader.class), parameterName, reader);
+        recordByName(parameterName, SET_CHARACTER_STREAM_STRING_READER, parameterName, reader);
     }
 
     public void setNCharacterStream(String parameterName, Reader value) {
-        recordByName(parameterName, getDeclaredMethod(CallableStatement.class, "setNCharacterStream", String.class, Reader.class), parameterName, value);
+        recordByName(parameterName, SET_N_CHARACTER_STREAM_STRING_READER, parameterName, value);
     }
 
     public void setClob(String parameterName, Reader reader) {
-        recordByName(parameterName, getDeclaredMethod(CallableStatement.class, "setClob", String.class, Reader.class), parameterName, reader);
+        recordByName(parameterName, SET_CLOB_STRING_READER, parameterName, reader);
     }
 
     public void setBlob(String parameterName, InputStream inputStream) {
-        recordByName(parameterName, getDeclaredMethod(CallableStatement.class, "setBlob", String.class, InputStream.class), parameterName, inputStream);
+        recordByName(parameterName, SET_BLOB_STRING_INPUT_STREAM, parameterName, inputStream);
     }
 
     public void setNClob(String parameterName, Reader reader) {
-        recordByName(parameterName, getDeclaredMethod(CallableStatement.class, "setNClob", String.class, Reader.class), parameterName, reader);
+        recordByName(parameterName, SET_N_CLOB_STRING_READER, parameterName, reader);
     }
 
 
     //////  Output parameter operations for CallableStatement
 
     public void registerOutParameter(int parameterIndex, int sqlType) {
-        record(parameterIndex, getDeclaredMethod(CallableStatement.class, "registerOutParameter", int.class, int.class), parameterIndex, sqlType);
+        record(parameterIndex, REGISTER_OUT_PARAMETER_INT_INT, parameterIndex, sqlType);
     }
 
     public void registerOutParameter(int parameterIndex, int sqlType, int scale) {
-        record(parameterIndex, getDeclaredMethod(CallableStatement.class, "registerOutParameter", int.class, int.class, int.class), parameterIndex, sqlType, scale);
+        record(parameterIndex, REGISTER_OUT_PARAMETER_INT_INT_INT, parameterIndex, sqlType, scale);
     }
 
     //--------------------------JDBC 2.0-----------------------------
     public void registerOutParameter(int parameterIndex, int sqlType, String typeName) {
-        record(parameterIndex, getDeclaredMethod(CallableStatement.class, "registerOutParameter", int.class, int.class, int.class), parameterIndex, sqlType, typeName);
+        record(parameterIndex, REGISTER_OUT_PARAMETER_INT_INT_STRING, parameterIndex, sqlType, typeName);
     }
     //--------------------------JDBC 3.0-----------------------------
 
     public void registerOutParameter(String parameterName, int sqlType) {
-        recordByName(parameterName, getDeclaredMethod(CallableStatement.class, "registerOutParameter", String.class, int.class), parameterName, sqlType);
+        recordByName(parameterName, REGISTER_OUT_PARAMETER_STRING_INT, parameterName, sqlType);
     }
 
     public void registerOutParameter(String parameterName, int sqlType, int scale) {
-        recordByName(parameterName, getDeclaredMethod(CallableStatement.class, "registerOutParameter", String.class, int.class, int.class), parameterName, sqlType, scale);
+        recordByName(parameterName, REGISTER_OUT_PARAMETER_STRING_INT_INT, parameterName, sqlType, scale);
     }
 
     public void registerOutParameter(String parameterName, int sqlType, String typeName) {
-        recordByName(parameterName, getDeclaredMethod(CallableStatement.class, "registerOutParameter", String.class, int.class, String.class), parameterName, sqlType, typeName);
+        recordByName(parameterName, REGISTER_OUT_PARAMETER_STRING_INT_STRING, parameterName, sqlType, typeName);
     }
 
 }
@@ -0,0 +1,48 @@
+package net.ttddyy.dsproxy;
+
+import net.ttddyy.dsproxy.listener.ListenerCapabilities;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Pass copies of {@link QueryInfo} to the delegate, so that a mock listener can verify the queries after the
+ * execution. Proxies reuse query infos and release batch parameters right after the callbacks.
+ *
+ * @author Tadaya Tsuyukubo
+ */
+public class CopyingQueryExecutionListener implements QueryExecutionListener, ListenerCapabilities {
+
+    private final QueryExecutionListener delegate;
+
+    public CopyingQueryExecutionListener(QueryExecutionListener delegate) {
+        this.delegate = delegate;
+    }
+
+    public static List<QueryInfo> copy(List<QueryInfo> queryInfoList) {
+        List<QueryInfo> copies = new ArrayList<QueryInfo>(queryInfoList.size());
+        for (QueryInfo queryInfo : queryInfoList) {
+            copies.add(new QueryInfo(queryInfo));
+        }
+        return copies;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        this.delegate.beforeQuery(execInfo, copy(queryInfoList));
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        this.delegate.afterQuery(execInfo, copy(queryInfoList));
+    }
+
+    @Override
+    public int getCapabilities() {
+        if (this.delegate instanceof ListenerCapabilities) {
+            return ((ListenerCapabilities) this.delegate).getCapabilities();
+        }
+        return ALL;
+    }
+}
@@ -0,0 +1,53 @@
+package net.ttddyy.dsproxy;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author Tadaya Tsuyukubo
+ */
+public class DataSourceIdRegistryTest {
+
+    @Test
+    public void getId() {
+        int id = DataSourceIdRegistry.getId("registry-test-ds");
+        assertThat(DataSourceIdRegistry.getId("registry-test-ds")).isEqualTo(id);
+        assertThat(DataSourceIdRegistry.findId("registry-test-ds")).isEqualTo(id);
+        assertThat(DataSourceIdRegistry.getName(id)).isEqualTo("registry-test-ds");
+        assertThat(DataSourceIdRegistry.size()).isGreaterThan(id);
+
+        assertThat(DataSourceIdRegistry.findId("registry-test-unknown")).isEqualTo(-1);
+
+        int nullId = DataSourceIdRegistry.getId(null);
+        assertThat(DataSourceIdRegistry.findId(null)).isEqualTo(nullId);
+        assertThat(DataSourceIdRegistry.getName(nullId)).isNull();
+    }
+
+    @Test
+    public void getIdsOrderedByName() {
+        int b = DataSourceIdRegistry.getId("registry-order-b");
+        int a = DataSourceIdRegistry.getId("registry-order-a");
+        int nullId = DataSourceIdRegistry.getId(null);
+
+        int[] ids = DataSourceIdRegistry.getIdsOrderedByName();
+        assertThat(ids).hasSize(DataSourceIdRegistry.size());
+        assertThat(ids[0]).isEqualTo(nullId);
+
+        int indexOfA = -1;
+        int indexOfB = -1;
+        for (int i = 0; i < ids.length; i++) {
+            if (ids[i] == a) {
+                indexOfA = i;
+            } else if (ids[i] == b) {
+                indexOfB = i;
+            }
+        }
+        assertThat(indexOfA).isLessThan(indexOfB);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void getNameWithUnknownId() {
+        DataSourceIdRegistry.getName(Integer.MAX_VALUE);
+    }
+}
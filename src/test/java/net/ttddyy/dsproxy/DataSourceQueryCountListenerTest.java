@@ -7,6 +7,7 @@ import org.junit.Test;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.BDDMockito.given;
@@ -32,6 +33,7 @@ public class DataSourceQueryCountListenerTest {
         executionInfo = mock(ExecutionInfo.class);
         given(executionInfo.getDataSourceName()).willReturn("testDS");
         given(executionInfo.getElapsedTime()).willReturn(123L);
+        given(executionInfo.getElapsedTime(TimeUnit.NANOSECONDS)).willReturn(TimeUnit.MILLISECONDS.toNanos(123));
         given(executionInfo.getStatementType()).willReturn(StatementType.STATEMENT);
 
 
@@ -123,4 +125,94 @@ public class DataSourceQueryCountListenerTest {
         assertThat(queryCount.getCallable()).as("num of callable").isEqualTo(callable);
     }
 
+    @Test
+    public void timeAndRowsByType() {
+        given(queryInfo.getQuery()).willReturn("update emp set id = 1");
+        given(executionInfo.getStatementType()).willReturn(StatementType.PREPARED);
+        given(executionInfo.getResult()).willReturn(5);
+        listener.afterQuery(executionInfo, queryInfoList);
+
+        QueryCount queryCount = QueryCountHolder.get("testDS");
+        assertThat(queryCount.getTime(QueryType.UPDATE, TimeUnit.MILLISECONDS)).isEqualTo(123L);
+        assertThat(queryCount.getTime(QueryType.SELECT, TimeUnit.MILLISECONDS)).isEqualTo(0L);
+        assertThat(queryCount.getTime(StatementType.PREPARED, TimeUnit.MILLISECONDS)).isEqualTo(123L);
+        assertThat(queryCount.getTime(StatementType.STATEMENT, TimeUnit.MILLISECONDS)).isEqualTo(0L);
+        assertThat(queryCount.getRows(QueryType.UPDATE)).isEqualTo(5L);
+        assertThat(queryCount.getRows(QueryType.INSERT)).isEqualTo(0L);
+    }
+
+    @Test
+    public void timeAndRowsByTypeWithStatementBatch() {
+        QueryInfo insertQueryInfo = mock(QueryInfo.class);
+        given(insertQueryInfo.getQuery()).willReturn("insert into emp (id) values (1)");
+        QueryInfo deleteQueryInfo = mock(QueryInfo.class);
+        given(deleteQueryInfo.getQuery()).willReturn("delete from emp where id = 2");
+        queryInfoList.clear();
+        queryInfoList.add(insertQueryInfo);
+        queryInfoList.add(deleteQueryInfo);
+
+        given(executionInfo.getElapsedTime(TimeUnit.NANOSECONDS)).willReturn(101L);
+        given(executionInfo.getResult()).willReturn(new int[]{1, 3});
+        listener.afterQuery(executionInfo, queryInfoList);
+
+        // time is divided evenly, remainder goes to the first query
+        QueryCount queryCount = QueryCountHolder.get("testDS");
+        assertThat(queryCount.getTime(QueryType.INSERT, TimeUnit.NANOSECONDS)).isEqualTo(51L);
+        assertThat(queryCount.getTime(QueryType.DELETE, TimeUnit.NANOSECONDS)).isEqualTo(50L);
+        assertThat(queryCount.getTime(StatementType.STATEMENT, TimeUnit.NANOSECONDS)).isEqualTo(101L);
+        assertThat(queryCount.getRows(QueryType.INSERT)).isEqualTo(1L);
+        assertThat(queryCount.getRows(QueryType.DELETE)).isEqualTo(3L);
+    }
+
+    @Test
+    public void truncatedStatementBatch() {
+        BatchSummary batchSummary = new BatchSummary();
+        batchSummary.setRowCount(4);
+        batchSummary.setCapturedRowCount(1);
+        batchSummary.incrementQueryTypeCount(QueryType.INSERT);
+        batchSummary.incrementQueryTypeCount(QueryType.DELETE);
+        batchSummary.incrementQueryTypeCount(QueryType.INSERT);
+        batchSummary.incrementQueryTypeCount(QueryType.INSERT);
+
+        given(queryInfo.getQuery()).willReturn("insert into emp (id) values (1)");
+        given(queryInfo.getBatchSummary()).willReturn(batchSummary);
+        given(executionInfo.getElapsedTime(TimeUnit.NANOSECONDS)).willReturn(100L);
+        given(executionInfo.getResult()).willReturn(new int[]{1, 2, 3, 4});
+        listener.afterQuery(executionInfo, queryInfoList);
+
+        // entries not captured are counted from the summary
+        QueryCount queryCount = QueryCountHolder.get("testDS");
+        assertThat(queryCount.getInsert()).isEqualTo(3);
+        assertThat(queryCount.getDelete()).isEqualTo(1);
+        assertThat(queryCount.getTotal()).isEqualTo(1);
+        assertThat(queryCount.getTime(QueryType.INSERT, TimeUnit.NANOSECONDS)).isEqualTo(75L);
+        assertThat(queryCount.getTime(QueryType.DELETE, TimeUnit.NANOSECONDS)).isEqualTo(25L);
+
+        // rows of entries not captured go to the most frequent type among them
+        assertThat(queryCount.getRows(QueryType.INSERT)).isEqualTo(10L);
+        assertThat(queryCount.getRows(QueryType.DELETE)).isEqualTo(0L);
+    }
+
+    @Test
+    public void statementBatchWithoutCapturedEntry() {
+        BatchSummary batchSummary = new BatchSummary();
+        batchSummary.setRowCount(3);
+        batchSummary.setCapturedRowCount(0);
+        batchSummary.incrementQueryTypeCount(QueryType.DELETE);
+        batchSummary.incrementQueryTypeCount(QueryType.DELETE);
+        batchSummary.incrementQueryTypeCount(QueryType.DELETE);
+
+        given(queryInfo.getQuery()).willReturn(null);
+        given(queryInfo.getBatchSummary()).willReturn(batchSummary);
+        given(executionInfo.getElapsedTime(TimeUnit.NANOSECONDS)).willReturn(100L);
+        given(executionInfo.getResult()).willReturn(new int[]{1, 1, 1});
+        listener.afterQuery(executionInfo, queryInfoList);
+
+        QueryCount queryCount = QueryCountHolder.get("testDS");
+        assertThat(queryCount.getDelete()).isEqualTo(3);
+        assertThat(queryCount.getOther()).isEqualTo(0);
+        assertThat(queryCount.getTime(QueryType.DELETE, TimeUnit.NANOSECONDS)).isEqualTo(100L);
+        assertThat(queryCount.getRows(QueryType.DELETE)).isEqualTo(3L);
+    }
+
 }
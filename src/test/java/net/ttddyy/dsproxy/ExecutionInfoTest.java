@@ -32,4 +32,17 @@ public class ExecutionInfoTest {
         assertThat(executionInfo.getStatementType()).isEqualTo(StatementType.CALLABLE);
 
     }
+
+    @Test
+    public void customValues() {
+        ExecutionInfo executionInfo = new ExecutionInfo();
+        assertThat(executionInfo.getCustomValue("foo", String.class)).isNull();
+
+        executionInfo.addCustomValue("foo", "FOO");
+        executionInfo.addCustomValue("bar", 100);
+
+        assertThat(executionInfo.getCustomValue("foo", String.class)).isEqualTo("FOO");
+        assertThat(executionInfo.getCustomValue("bar", Integer.class)).isEqualTo(100);
+        assertThat(executionInfo.getCustomValue("baz", Object.class)).isNull();
+    }
 }
@@ -0,0 +1,95 @@
+package net.ttddyy.dsproxy;
+
+import net.ttddyy.dsproxy.listener.GlobalQueryCountListener;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import static net.ttddyy.dsproxy.QueryInfoBuilder.queries;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author Tadaya Tsuyukubo
+ */
+public class GlobalQueryCountListenerTest {
+
+    @After
+    public void tearDown() {
+        GlobalQueryCountHolder.clear();
+    }
+
+    private ExecutionInfoBuilder prepared(String dataSourceName) {
+        return ExecutionInfoBuilder.create().dataSourceName(dataSourceName).elapsedTime(10)
+                .statementType(StatementType.PREPARED);
+    }
+
+    @Test
+    public void afterQuery() {
+        GlobalQueryCountListener listener = new GlobalQueryCountListener();
+        listener.afterQuery(prepared("myDS").success(true).build(), queries("select 1"));
+        listener.afterQuery(prepared("myDS").success(false).build(),
+                queries("insert into foo values (1)", "delete from foo"));
+        listener.afterQuery(prepared("otherDS").success(true).build(), queries("update foo set id = 1"));
+        listener.afterQuery(prepared(null).success(true).build(), queries("create table foo (id int)"));
+
+        GlobalQueryCount.Snapshot snapshot = GlobalQueryCountHolder.get("myDS").snapshot();
+        assertThat(snapshot.getTotal()).isEqualTo(2);
+        assertThat(snapshot.getSuccess()).isEqualTo(1);
+        assertThat(snapshot.getFailure()).isEqualTo(1);
+        assertThat(snapshot.getSelect()).isEqualTo(1);
+        assertThat(snapshot.getInsert()).isEqualTo(1);
+        assertThat(snapshot.getDelete()).isEqualTo(1);
+        assertThat(snapshot.getPrepared()).isEqualTo(2);
+        assertThat(snapshot.getTime(TimeUnit.MILLISECONDS)).isEqualTo(20);
+
+        assertThat(GlobalQueryCountHolder.get(null).snapshot().getOther()).isEqualTo(1);
+        assertThat(GlobalQueryCountHolder.getDataSourceNames()).containsOnly("myDS", "otherDS", "");
+
+        GlobalQueryCount.Snapshot grandTotal = GlobalQueryCountHolder.getGrandTotal();
+        assertThat(grandTotal.getTotal()).isEqualTo(4);
+        assertThat(grandTotal.getUpdate()).isEqualTo(1);
+        assertThat(grandTotal.getTime(TimeUnit.MILLISECONDS)).isEqualTo(40);
+    }
+
+    @Test
+    public void snapshotAndReset() {
+        GlobalQueryCountListener listener = new GlobalQueryCountListener();
+        listener.afterQuery(prepared("myDS").success(true).build(), queries("select 1"));
+
+        GlobalQueryCount count = GlobalQueryCountHolder.get("myDS");
+        assertThat(count.snapshotAndReset().getSelect()).isEqualTo(1);
+        assertThat(count.snapshot().getSelect()).isEqualTo(0);
+
+        listener.afterQuery(prepared("myDS").success(true).build(), queries("select 1"));
+        GlobalQueryCountHolder.reset();
+        assertThat(GlobalQueryCountHolder.get("myDS").snapshot().getTotal()).isEqualTo(0);
+        assertThat(GlobalQueryCountHolder.getDataSourceNames()).containsOnly("myDS");
+    }
+
+    @Test
+    public void truncatedStatementBatch() {
+        BatchSummary batchSummary = new BatchSummary();
+        batchSummary.setRowCount(4);
+        batchSummary.setCapturedRowCount(1);
+        batchSummary.incrementQueryTypeCount(QueryType.INSERT);
+        batchSummary.incrementQueryTypeCount(QueryType.DELETE);
+        batchSummary.incrementQueryTypeCount(QueryType.INSERT);
+        batchSummary.incrementQueryTypeCount(QueryType.INSERT);
+
+        QueryInfo queryInfo = QueryInfoBuilder.create().query("insert into foo values (1)").build();
+        queryInfo.setBatchSummary(batchSummary);
+
+        GlobalQueryCountListener listener = new GlobalQueryCountListener();
+        listener.afterQuery(ExecutionInfoBuilder.create().dataSourceName("myDS").success(true).batch(true)
+                .statementType(StatementType.STATEMENT).build(), Collections.singletonList(queryInfo));
+
+        // entries not captured are counted from the summary
+        GlobalQueryCount.Snapshot snapshot = GlobalQueryCountHolder.get("myDS").snapshot();
+        assertThat(snapshot.getTotal()).isEqualTo(1);
+        assertThat(snapshot.getInsert()).isEqualTo(3);
+        assertThat(snapshot.getDelete()).isEqualTo(1);
+        assertThat(snapshot.getStatement()).isEqualTo(1);
+    }
+}
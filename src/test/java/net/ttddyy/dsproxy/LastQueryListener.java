@@ -13,23 +13,29 @@ import java.util.List;
 public class LastQueryListener implements QueryExecutionListener {
     private ExecutionInfo beforeExecInfo;
     private ExecutionInfo afterExecInfo;
+    private Throwable beforeThrowable;
     private List<QueryInfo> beforeQueries = new ArrayList<QueryInfo>();
     private List<QueryInfo> afterQueries = new ArrayList<QueryInfo>();
 
     public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
         beforeExecInfo = execInfo;
-        beforeQueries = queryInfoList;
+        beforeThrowable = execInfo.getThrowable();
+        beforeQueries = CopyingQueryExecutionListener.copy(queryInfoList);
     }
 
     public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
         afterExecInfo = execInfo;
-        afterQueries = queryInfoList;
+        afterQueries = CopyingQueryExecutionListener.copy(queryInfoList);
     }
 
     public ExecutionInfo getBeforeExecInfo() {
         return beforeExecInfo;
     }
 
+    public Throwable getBeforeThrowable() {
+        return beforeThrowable;
+    }
+
     public ExecutionInfo getAfterExecInfo() {
         return afterExecInfo;
     }
@@ -0,0 +1,55 @@
+package net.ttddyy.dsproxy;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author Tadaya Tsuyukubo
+ */
+public class LatencyHistogramTest {
+
+    @Test
+    public void bucketIndex() {
+        for (long value = 0; value < 100000; value++) {
+            int index = LatencyHistogram.getBucketIndex(value);
+            long upperBound = LatencyHistogram.getBucketUpperBound(index);
+            assertThat(upperBound).isGreaterThanOrEqualTo(value);
+            // within 12.5%
+            assertThat(upperBound - value).isLessThanOrEqualTo(value / 8);
+            if (index > 0) {
+                assertThat(LatencyHistogram.getBucketUpperBound(index - 1)).isLessThan(value);
+            }
+        }
+        // clamp huge value to the last bucket
+        assertThat(LatencyHistogram.getBucketIndex(Long.MAX_VALUE))
+                .isEqualTo(LatencyHistogram.getBucketIndex(TimeUnit.DAYS.toMicros(30)));
+    }
+
+    @Test
+    public void percentile() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(i, TimeUnit.MILLISECONDS);
+        }
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertThat(snapshot.getCount()).isEqualTo(100);
+        assertThat(histogram.getCount()).isEqualTo(100);
+        assertThat(snapshot.getMax(TimeUnit.MILLISECONDS)).isEqualTo(100);
+        assertThat(snapshot.getMean(TimeUnit.MICROSECONDS)).isEqualTo(50500);
+        assertThat(snapshot.getMedian(TimeUnit.MILLISECONDS)).isBetween(50L, 57L);
+        assertThat(snapshot.get95thPercentile(TimeUnit.MILLISECONDS)).isBetween(95L, 100L);
+        assertThat(snapshot.get99thPercentile(TimeUnit.MILLISECONDS)).isBetween(99L, 100L);
+        assertThat(snapshot.getPercentile(100, TimeUnit.MILLISECONDS)).isEqualTo(100);
+        assertThat(snapshot.getPercentile(0, TimeUnit.MILLISECONDS)).isEqualTo(1);
+
+        histogram.reset();
+        snapshot = histogram.snapshot();
+        assertThat(snapshot.getCount()).isEqualTo(0);
+        assertThat(snapshot.getMedian(TimeUnit.MILLISECONDS)).isEqualTo(0);
+        assertThat(snapshot.getMean(TimeUnit.MILLISECONDS)).isEqualTo(0);
+    }
+}
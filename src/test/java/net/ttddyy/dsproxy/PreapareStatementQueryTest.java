@@ -67,9 +67,10 @@ public class PreapareStatementQueryTest {
         assertThat(beforeQueries).hasSize(1);
         assertThat(beforeQueries.get(0).getQuery()).isEqualTo(query);
 
+        // same ExecutionInfo is used for before and after
         ExecutionInfo beforeExec = lastQueryListener.getBeforeExecInfo();
-        assertThat(beforeExec).isNotNull();
-        assertThat(beforeExec.getThrowable()).isNull();
+        assertThat(beforeExec).isNotNull().isSameAs(lastQueryListener.getAfterExecInfo());
+        assertThat(lastQueryListener.getBeforeThrowable()).isNull();
 
         List<QueryInfo> afterQueries = lastQueryListener.getAfterQueries();
         assertThat(afterQueries).hasSize(1);
@@ -0,0 +1,65 @@
+package net.ttddyy.dsproxy;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author Tadaya Tsuyukubo
+ */
+public class QueryAnalysisCacheTest {
+
+    @Test
+    public void get() {
+        QueryAnalysisCache cache = new QueryAnalysisCache(10);
+        QueryAnalysis analysis = cache.get("select 1");
+        assertThat(analysis.getQueryType()).isEqualTo(QueryType.SELECT);
+        assertThat(cache.get("select 1")).isSameAs(analysis);
+        assertThat(cache.size()).isEqualTo(1);
+
+        assertThat(cache.get(null)).isNull();
+
+        cache.clear();
+        assertThat(cache.size()).isEqualTo(0);
+    }
+
+    @Test
+    public void bounded() {
+        QueryAnalysisCache cache = new QueryAnalysisCache(3);
+        for (int i = 0; i < 10; i++) {
+            cache.get("select " + i);
+        }
+        assertThat(cache.size()).isEqualTo(3);
+    }
+
+    @Test
+    public void evictLeastRecentlyUsed() {
+        QueryAnalysisCache cache = new QueryAnalysisCache(3);
+        QueryAnalysis first = cache.get("select 1");
+        QueryAnalysis second = cache.get("select 2");
+        QueryAnalysis third = cache.get("select 3");
+
+        // access makes "select 1" recently used, then "select 2" is evicted
+        assertThat(cache.get("select 1")).isSameAs(first);
+        cache.get("select 4");
+        assertThat(cache.size()).isEqualTo(3);
+        assertThat(cache.get("select 1")).isSameAs(first);
+        assertThat(cache.get("select 3")).isSameAs(third);
+        assertThat(cache.get("select 2")).isNotSameAs(second);
+    }
+
+    @Test
+    public void segmented() {
+        QueryAnalysisCache cache = new QueryAnalysisCache(1000);
+        for (int i = 0; i < 5000; i++) {
+            cache.get("select " + i);
+        }
+        assertThat(cache.size()).isLessThanOrEqualTo(1000).isGreaterThan(900);
+        assertThat(cache.getMaxSize()).isEqualTo(1000);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidMaxSize() {
+        new QueryAnalysisCache(0);
+    }
+}
@@ -0,0 +1,53 @@
+package net.ttddyy.dsproxy;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author Tadaya Tsuyukubo
+ */
+public class QueryAnalysisTest {
+
+    @Test
+    public void analyze() {
+        QueryAnalysis analysis = QueryAnalysis.analyze("SELECT * FROM foo WHERE id = 10");
+        assertThat(analysis.getQueryType()).isEqualTo(QueryType.SELECT);
+        assertThat(analysis.getNormalizedQuery()).isEqualTo("select * from foo where id = ?");
+        assertThat(analysis.getFingerprint()).isEqualTo(QueryAnalysis.fingerprint("select * from foo where id = ?"));
+    }
+
+    @Test
+    public void fingerprintGroupsLiterals() {
+        QueryAnalysis first = QueryAnalysis.analyze("select * from foo where name = 'a' and id in (1, 2, 3)");
+        QueryAnalysis second = QueryAnalysis.analyze("/* c */ SELECT *  FROM foo WHERE name = 'b' AND id IN (4)");
+        QueryAnalysis other = QueryAnalysis.analyze("select * from bar where name = 'a'");
+
+        assertThat(first.getFingerprint()).isEqualTo(second.getFingerprint());
+        assertThat(first.getNormalizedQuery()).isEqualTo(second.getNormalizedQuery());
+        assertThat(first.getFingerprint()).isNotEqualTo(other.getFingerprint());
+    }
+
+    @Test
+    public void fingerprint() {
+        // FNV-1a 64-bit offset basis for empty string
+        assertThat(QueryAnalysis.fingerprint("")).isEqualTo(0xcbf29ce484222325L);
+        assertThat(QueryAnalysis.fingerprint(null)).isEqualTo(0L);
+        assertThat(QueryAnalysis.fingerprint("select ?")).isEqualTo(QueryAnalysis.fingerprint("select ?"));
+        assertThat(QueryAnalysis.fingerprint("select ?")).isNotEqualTo(QueryAnalysis.fingerprint("select ?1"));
+    }
+
+    @Test
+    public void queryInfo() {
+        QueryInfo queryInfo = new QueryInfo("select 1");
+        QueryAnalysis analysis = queryInfo.getQueryAnalysis();
+        assertThat(analysis.getQueryType()).isEqualTo(QueryType.SELECT);
+        assertThat(queryInfo.getQueryAnalysis()).isSameAs(analysis);
+
+        queryInfo.setQuery("insert into foo values (1)");
+        assertThat(queryInfo.getQueryAnalysis().getQueryType()).isEqualTo(QueryType.INSERT);
+
+        queryInfo.setQuery(null);
+        assertThat(queryInfo.getQueryAnalysis()).isNull();
+    }
+}
@@ -0,0 +1,73 @@
+package net.ttddyy.dsproxy;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author Tadaya Tsuyukubo
+ */
+public class QueryCountHolderTest {
+
+    @After
+    public void tearDown() {
+        QueryCountHolder.clear();
+    }
+
+    @Test
+    public void putAndGet() {
+        QueryCount count = new QueryCount();
+        QueryCountHolder.put("holder-test-ds", count);
+
+        assertThat(QueryCountHolder.get("holder-test-ds")).isSameAs(count);
+        assertThat(QueryCountHolder.get(DataSourceIdRegistry.getId("holder-test-ds"))).isSameAs(count);
+        assertThat(QueryCountHolder.get("holder-test-unknown")).isNull();
+        assertThat(DataSourceIdRegistry.findId("holder-test-unknown")).isEqualTo(-1);
+
+        QueryCountHolder.put((String) null, count);
+        assertThat(QueryCountHolder.get((String) null)).isSameAs(count);
+
+        QueryCountHolder.clear();
+        assertThat(QueryCountHolder.get("holder-test-ds")).isNull();
+        assertThat(QueryCountHolder.getDataSourceNames()).isEmpty();
+    }
+
+    @Test
+    public void getDataSourceNames() {
+        QueryCountHolder.put("holder-test-b", new QueryCount());
+        QueryCountHolder.put("holder-test-a", new QueryCount());
+        DataSourceIdRegistry.getId("holder-test-c");  // registered but no count
+
+        assertThat(QueryCountHolder.getDataSourceNames()).containsExactly("holder-test-a", "holder-test-b");
+        assertThat(QueryCountHolder.getDataSourceNamesAsList()).containsExactly("holder-test-a", "holder-test-b");
+    }
+
+    @Test
+    public void getGrandTotal() {
+        QueryCount first = new QueryCount();
+        first.incrementSelect();
+        first.incrementTotal();
+        first.incrementPrepared();
+        first.incrementTime(10, TimeUnit.MILLISECONDS);
+        QueryCount second = new QueryCount();
+        second.incrementSelect();
+        second.incrementInsert();
+        second.incrementTotal();
+        second.incrementFailure();
+        second.incrementTime(5, TimeUnit.MILLISECONDS);
+
+        QueryCountHolder.put("holder-test-a", first);
+        QueryCountHolder.put("holder-test-b", second);
+
+        QueryCount total = QueryCountHolder.getGrandTotal();
+        assertThat(total.getSelect()).isEqualTo(2);
+        assertThat(total.getInsert()).isEqualTo(1);
+        assertThat(total.getTotal()).isEqualTo(2);
+        assertThat(total.getFailure()).isEqualTo(1);
+        assertThat(total.getPrepared()).isEqualTo(1);
+        assertThat(total.getTime()).isEqualTo(15);
+    }
+}
@@ -35,6 +35,18 @@ public class QueryInfoBuilder {
         return new QueryInfoBuilder();
     }
 
+    /**
+     * @param queries queries
+     * @return query info list without parameters, e.g. for a statement or a statement batch
+     */
+    public static List<QueryInfo> queries(String... queries) {
+        List<QueryInfo> list = new ArrayList<QueryInfo>();
+        for (String query : queries) {
+            list.add(new QueryInfo(query));
+        }
+        return list;
+    }
+
     public QueryInfoBuilder query(String query) {
         this.query = query;
         return this;
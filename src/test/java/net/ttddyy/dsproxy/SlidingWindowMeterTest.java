@@ -0,0 +1,76 @@
+package net.ttddyy.dsproxy;
+
+import net.ttddyy.dsproxy.proxy.Ticker;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * @author Tadaya Tsuyukubo
+ */
+public class SlidingWindowMeterTest {
+
+    private static class ManualTicker implements Ticker {
+        private long now = 1000;
+
+        @Override
+        public long read() {
+            return now;
+        }
+
+        private void advance(long duration, TimeUnit unit) {
+            now += unit.toNanos(duration);
+        }
+    }
+
+    @Test
+    public void window() {
+        ManualTicker ticker = new ManualTicker();
+        SlidingWindowMeter meter = new SlidingWindowMeter(ticker);
+
+        // 10 minutes of 2 executions per second, 1 of 4 fails
+        for (int second = 0; second < 600; second++) {
+            meter.mark(true, 10, TimeUnit.MILLISECONDS);
+            meter.mark(second % 2 == 0, 30, TimeUnit.MILLISECONDS);
+            ticker.advance(1, TimeUnit.SECONDS);
+        }
+
+        // current bucket has just started, window covers 11 full 5-second buckets
+        SlidingWindowMeter.Window oneMinute = meter.getOneMinuteWindow();
+        assertThat(oneMinute.getDuration(TimeUnit.SECONDS)).isEqualTo(55);
+        assertThat(oneMinute.getCount()).isEqualTo(110);
+        assertThat(oneMinute.getRate()).isCloseTo(2.0, within(0.001));
+        assertThat(oneMinute.getErrorRate()).isCloseTo(0.25, within(0.01));
+        assertThat(oneMinute.getMeanLatency(TimeUnit.MILLISECONDS)).isEqualTo(20);
+
+        assertThat(meter.getFiveMinuteWindow().getCount()).isEqualTo(590);
+
+        // meter is younger than the window
+        SlidingWindowMeter.Window fifteenMinutes = meter.getFifteenMinuteWindow();
+        assertThat(fifteenMinutes.getCount()).isEqualTo(1200);
+        assertThat(fifteenMinutes.getDuration(TimeUnit.SECONDS)).isEqualTo(600);
+        assertThat(fifteenMinutes.getRate()).isCloseTo(2.0, within(0.001));
+
+        // no execution for 2 minutes
+        ticker.advance(2, TimeUnit.MINUTES);
+        assertThat(meter.getOneMinuteWindow().getCount()).isEqualTo(0);
+        assertThat(meter.getOneMinuteWindow().getRate()).isEqualTo(0.0);
+        assertThat(meter.getFiveMinuteWindow().getCount()).isEqualTo(350);
+    }
+
+    @Test
+    public void bucketIsRecycled() {
+        ManualTicker ticker = new ManualTicker();
+        SlidingWindowMeter meter = new SlidingWindowMeter(ticker, 1, 3, TimeUnit.SECONDS);
+        meter.mark(true, 1, TimeUnit.MILLISECONDS);
+        ticker.advance(4, TimeUnit.SECONDS);  // same ring slot
+        meter.mark(false, 1, TimeUnit.MILLISECONDS);
+
+        SlidingWindowMeter.Window window = meter.getWindow(3, TimeUnit.SECONDS);
+        assertThat(window.getCount()).isEqualTo(1);
+        assertThat(window.getErrorCount()).isEqualTo(1);
+    }
+}
@@ -73,8 +73,10 @@ public class StatementInvocationHandlerTest {
         assertThat(beforeQueries, hasSize(1));
         assertThat(beforeQueries.get(0).getQuery(), is(query));
 
+        // same ExecutionInfo is used for before and after
         ExecutionInfo beforeExec = lastQueryListener.getBeforeExecInfo();
-        assertThat(beforeExec.getThrowable(), is(nullValue()));
+        assertThat(beforeExec, sameInstance(lastQueryListener.getAfterExecInfo()));
+        assertThat(lastQueryListener.getBeforeThrowable(), is(nullValue()));
 
         List<QueryInfo> afterQueries = lastQueryListener.getAfterQueries();
         assertThat(afterQueries, hasSize(1));
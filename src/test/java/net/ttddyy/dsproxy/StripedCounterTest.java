@@ -0,0 +1,63 @@
+package net.ttddyy.dsproxy;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author Tadaya Tsuyukubo
+ */
+public class StripedCounterTest {
+
+    @Test
+    public void counter() {
+        StripedCounter counter = new StripedCounter();
+        counter.increment();
+        counter.add(10);
+        assertThat(counter.sum()).isEqualTo(11);
+        assertThat(counter.sumThenReset()).isEqualTo(11);
+        assertThat(counter.sum()).isEqualTo(0);
+
+        counter.add(5);
+        counter.reset();
+        assertThat(counter.sum()).isEqualTo(0);
+    }
+
+    @Test
+    public void stripeCount() {
+        assertThat(StripedCounter.getStripeCount(1, 8)).isEqualTo(1);
+        assertThat(StripedCounter.getStripeCount(3, 8)).isEqualTo(4);
+        assertThat(StripedCounter.getStripeCount(16, 8)).isEqualTo(8);
+        assertThat(StripedCounter.getStripeIndex(4)).isBetween(0, 3);
+    }
+
+    @Test
+    public void concurrentUpdate() throws Exception {
+        final StripedCounter counter = new StripedCounter();
+        final CountDownLatch latch = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<Thread>();
+        for (int i = 0; i < 16; i++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    latch.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int j = 0; j < 10000; j++) {
+                    counter.increment();
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        latch.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertThat(counter.sum()).isEqualTo(160000);
+    }
+}
@@ -0,0 +1,320 @@
+package net.ttddyy.dsproxy.listener;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.TestUtils;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.junit.After;
+import org.junit.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author Tadaya Tsuyukubo
+ */
+public class AsyncQueryExecutionListenerTest {
+
+    private AsyncQueryExecutionListener listener;
+
+    @After
+    public void tearDown() throws Exception {
+        if (this.listener != null) {
+            this.listener.shutdown();
+            this.listener.awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    public void deliverInOrder() throws Exception {
+        final List<String> calls = Collections.synchronizedList(new ArrayList<String>());
+        final Thread callerThread = Thread.currentThread();
+        final AtomicBoolean onCallerThread = new AtomicBoolean();
+        this.listener = new AsyncQueryExecutionListener(new QueryExecutionListener() {
+            @Override
+            public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+                execInfo.addCustomValue("before", queryInfoList.get(0).getQuery());
+                calls.add("before:" + queryInfoList.get(0).getQuery());
+                onCallerThread.compareAndSet(false, Thread.currentThread() == callerThread);
+            }
+
+            @Override
+            public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+                String before = execInfo.getCustomValue("before", String.class);
+                calls.add("after:" + queryInfoList.get(0).getQuery() + ":" + before + ":" + execInfo.isSuccess());
+            }
+        });
+        this.listener.start();
+
+        for (int i = 0; i < 3; i++) {
+            ExecutionInfo execInfo = new ExecutionInfo();
+            List<QueryInfo> queryInfoList = Collections.singletonList(new QueryInfo("q" + i));
+            this.listener.beforeQuery(execInfo, queryInfoList);
+            execInfo.setSuccess(true);
+            this.listener.afterQuery(execInfo, queryInfoList);
+        }
+
+        this.listener.shutdown();
+        assertThat(this.listener.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(calls).containsExactly("before:q0", "after:q0:q0:true", "before:q1", "after:q1:q1:true",
+                "before:q2", "after:q2:q2:true");
+        assertThat(onCallerThread.get()).isFalse();
+        assertThat(this.listener.getProcessedCount()).isEqualTo(6);
+        assertThat(this.listener.getDroppedCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void snapshotParameters() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        final List<Object> received = Collections.synchronizedList(new ArrayList<Object>());
+        this.listener = new AsyncQueryExecutionListener(new AfterQueryListener() {
+            @Override
+            public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+                await(release);
+                received.add(queryInfoList.get(0).getParametersList().get(0).get(0).getArgs()[1]);
+            }
+        });
+        this.listener.start();
+
+        DataSource actual = TestUtils.getDataSourceWithData();
+        try {
+            DataSource dataSource = ProxyDataSourceBuilder.create(actual).listener(this.listener).build();
+            Connection connection = dataSource.getConnection();
+            PreparedStatement ps = connection.prepareStatement("select * from emp where id = ?");
+            ps.setInt(1, 1);
+            ps.executeQuery();
+
+            // statement updates its parameters in place for next execution
+            ps.setInt(1, 2);
+            release.countDown();
+            ps.executeQuery();
+            connection.close();
+
+            this.listener.shutdown();
+            assertThat(this.listener.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+        } finally {
+            TestUtils.shutdown(actual);
+        }
+        assertThat(received).containsExactly(1, 2);
+    }
+
+    @Test
+    public void dropWhenFull() throws Exception {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        this.listener = new AsyncQueryExecutionListener(new AfterQueryListener() {
+            @Override
+            public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+                started.countDown();
+                await(release);
+            }
+        }, 2, AsyncQueryExecutionListener.OverflowPolicy.DROP);
+        this.listener.start();
+
+        List<QueryInfo> queryInfoList = Collections.singletonList(new QueryInfo("select 1"));
+        this.listener.afterQuery(new ExecutionInfo(), queryInfoList);
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();  // consumer is busy
+
+        for (int i = 0; i < 5; i++) {
+            this.listener.afterQuery(new ExecutionInfo(), queryInfoList);
+        }
+        assertThat(this.listener.getDroppedCount()).isEqualTo(3);
+        assertThat(this.listener.getPendingCount()).isEqualTo(2);
+
+        release.countDown();
+        this.listener.shutdown();
+        assertThat(this.listener.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(this.listener.getProcessedCount()).isEqualTo(3);
+
+        // not accepted after shutdown
+        this.listener.afterQuery(new ExecutionInfo(), queryInfoList);
+        assertThat(this.listener.getDroppedCount()).isEqualTo(4);
+    }
+
+    @Test
+    public void blockWhenFull() throws Exception {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        this.listener = new AsyncQueryExecutionListener(new AfterQueryListener() {
+            @Override
+            public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+                started.countDown();
+                await(release);
+            }
+        }, 2, AsyncQueryExecutionListener.OverflowPolicy.BLOCK);
+        this.listener.start();
+
+        final List<QueryInfo> queryInfoList = Collections.singletonList(new QueryInfo("select 1"));
+        this.listener.afterQuery(new ExecutionInfo(), queryInfoList);
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        this.listener.afterQuery(new ExecutionInfo(), queryInfoList);
+        this.listener.afterQuery(new ExecutionInfo(), queryInfoList);  // fills the buffer
+
+        final CountDownLatch published = new CountDownLatch(1);
+        Thread producer = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                listener.afterQuery(new ExecutionInfo(), queryInfoList);
+                published.countDown();
+            }
+        });
+        producer.start();
+        assertThat(published.await(100, TimeUnit.MILLISECONDS)).as("producer waits for room").isFalse();
+
+        release.countDown();
+        assertThat(published.await(5, TimeUnit.SECONDS)).isTrue();
+
+        this.listener.shutdown();
+        assertThat(this.listener.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(this.listener.getProcessedCount()).isEqualTo(4);
+        assertThat(this.listener.getDroppedCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void blockDropsWhenConsumerNotRunning() throws Exception {
+        final CountDownLatch delivered = new CountDownLatch(2);
+        this.listener = new AsyncQueryExecutionListener(new AfterQueryListener() {
+            @Override
+            public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+                delivered.countDown();
+            }
+        }, 2, AsyncQueryExecutionListener.OverflowPolicy.BLOCK);
+
+        // not started yet, events wait in the buffer and a full buffer does not block
+        List<QueryInfo> queryInfoList = Collections.singletonList(new QueryInfo("select 1"));
+        for (int i = 0; i < 3; i++) {
+            this.listener.afterQuery(new ExecutionInfo(), queryInfoList);
+        }
+        assertThat(this.listener.getPendingCount()).isEqualTo(2);
+        assertThat(this.listener.getDroppedCount()).isEqualTo(1);
+
+        this.listener.start();
+        this.listener.start();  // no effect
+        assertThat(delivered.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    public void continueAfterListenerError() throws Exception {
+        final CountDownLatch delivered = new CountDownLatch(2);
+        this.listener = new AsyncQueryExecutionListener(new AfterQueryListener() {
+            @Override
+            public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+                delivered.countDown();
+                if ("error".equals(queryInfoList.get(0).getQuery())) {
+                    throw new StackOverflowError();
+                }
+            }
+        }, 2, AsyncQueryExecutionListener.OverflowPolicy.BLOCK);
+        this.listener.start();
+
+        this.listener.afterQuery(new ExecutionInfo(), Collections.singletonList(new QueryInfo("error")));
+        this.listener.afterQuery(new ExecutionInfo(), Collections.singletonList(new QueryInfo("select 1")));
+        assertThat(delivered.await(5, TimeUnit.SECONDS)).isTrue();
+
+        this.listener.shutdown();
+        assertThat(this.listener.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(this.listener.getProcessedCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void sampleWhenHalfFull() throws Exception {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        this.listener = new AsyncQueryExecutionListener(new AfterQueryListener() {
+            @Override
+            public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+                started.countDown();
+                await(release);
+            }
+        }, 8, AsyncQueryExecutionListener.OverflowPolicy.SAMPLE);
+        this.listener.start();
+        this.listener.setSampleRate(3);
+
+        List<QueryInfo> queryInfoList = Collections.singletonList(new QueryInfo("select 1"));
+        this.listener.afterQuery(new ExecutionInfo(), queryInfoList);
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // 4 events fill half of the buffer, then 1 out of 3 is accepted
+        for (int i = 0; i < 10; i++) {
+            this.listener.afterQuery(new ExecutionInfo(), queryInfoList);
+        }
+        assertThat(this.listener.getPendingCount()).isEqualTo(6);
+        assertThat(this.listener.getDroppedCount()).isEqualTo(4);
+
+        release.countDown();
+    }
+
+    @Test
+    public void wakeUpIdleConsumer() throws Exception {
+        final CountDownLatch delivered = new CountDownLatch(2);
+        this.listener = new AsyncQueryExecutionListener(new AfterQueryListener() {
+            @Override
+            public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+                delivered.countDown();
+            }
+        });
+        this.listener.start();
+
+        // let the consumer go idle and park between events
+        Thread.sleep(50);
+        this.listener.afterQuery(new ExecutionInfo(), Collections.singletonList(new QueryInfo("q1")));
+        Thread.sleep(50);
+        this.listener.afterQuery(new ExecutionInfo(), Collections.singletonList(new QueryInfo("q2")));
+        assertThat(delivered.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // shutdown wakes up the idle consumer
+        Thread.sleep(50);
+        this.listener.shutdown();
+        assertThat(this.listener.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    public void capabilities() {
+        this.listener = new AsyncQueryExecutionListener(new DataSourceQueryCountListener());
+        this.listener.start();
+        assertThat(this.listener.getCapabilities())
+                .isEqualTo(new DataSourceQueryCountListener().getCapabilities());
+
+        AsyncQueryExecutionListener other = new AsyncQueryExecutionListener(new QueryExecutionListener() {
+            @Override
+            public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            }
+
+            @Override
+            public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            }
+        });
+        other.shutdown();
+        assertThat(other.getCapabilities()).isEqualTo(ListenerCapabilities.ALL);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private abstract static class AfterQueryListener implements QueryExecutionListener, ListenerCapabilities {
+        @Override
+        public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        }
+
+        @Override
+        public int getCapabilities() {
+            return AFTER_QUERY | PARAMETERS;
+        }
+    }
+
+}
@@ -0,0 +1,94 @@
+package net.ttddyy.dsproxy.listener;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.logging.SystemOutQueryLoggingListener;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * @author Tadaya Tsuyukubo
+ */
+public class ChainListenerTest {
+
+    @Test
+    public void capabilities() {
+        ChainListener chainListener = new ChainListener();
+        assertThat(chainListener.getCapabilities()).isEqualTo(ListenerCapabilities.NONE);
+
+        chainListener.addListener(new NoOpQueryExecutionListener());
+        assertThat(chainListener.getCapabilities()).isEqualTo(ListenerCapabilities.NONE);
+
+        chainListener.addListener(new DataSourceQueryCountListener());
+        assertThat(chainListener.getCapabilities())
+                .isEqualTo(ListenerCapabilities.AFTER_QUERY | ListenerCapabilities.TIMING | ListenerCapabilities.RESULT);
+
+        chainListener.addListener(new SystemOutQueryLoggingListener());
+        assertThat(chainListener.getCapabilities() & ListenerCapabilities.PARAMETERS).isNotZero();
+        assertThat(chainListener.getCapabilities() & ListenerCapabilities.BEFORE_QUERY).isZero();
+
+        // listener without capability declaration requires everything
+        chainListener.addListener(mock(QueryExecutionListener.class));
+        assertThat(chainListener.getCapabilities()).isEqualTo(ListenerCapabilities.ALL);
+    }
+
+    @Test
+    public void capabilitiesAfterReplacingListeners() {
+        ChainListener chainListener = new ChainListener();
+        chainListener.addListener(new SystemOutQueryLoggingListener());
+        assertThat(chainListener.getCapabilities() & ListenerCapabilities.PARAMETERS).isNotZero();
+
+        List<QueryExecutionListener> listeners = new ArrayList<QueryExecutionListener>();
+        listeners.add(new DataSourceQueryCountListener());
+        chainListener.setListeners(listeners);
+        assertThat(chainListener.getCapabilities())
+                .isEqualTo(ListenerCapabilities.AFTER_QUERY | ListenerCapabilities.TIMING | ListenerCapabilities.RESULT);
+
+        // given list is copied
+        listeners.add(mock(QueryExecutionListener.class));
+        assertThat(chainListener.getListeners()).hasSize(1);
+        assertThat(chainListener.getCapabilities()).isNotEqualTo(ListenerCapabilities.ALL);
+
+        chainListener.setListeners(new ArrayList<QueryExecutionListener>());
+        assertThat(chainListener.getCapabilities()).isEqualTo(ListenerCapabilities.NONE);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void listenersAreUnmodifiable() {
+        ChainListener chainListener = new ChainListener();
+        chainListener.getListeners().add(new DataSourceQueryCountListener());
+    }
+
+    @Test
+    public void subclassRequiresAll() {
+        ChainListener chainListener = new ChainListener();
+        chainListener.addListener(new DataSourceQueryCountListener() {
+            @Override
+            public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            }
+        });
+        assertThat(chainListener.getCapabilities()).isEqualTo(ListenerCapabilities.ALL);
+
+        chainListener.setListeners(new ArrayList<QueryExecutionListener>());
+        chainListener.addListener(new NoOpQueryExecutionListener() {
+            @Override
+            public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            }
+        });
+        assertThat(chainListener.getCapabilities()).isEqualTo(ListenerCapabilities.ALL);
+
+        chainListener.setListeners(new ArrayList<QueryExecutionListener>());
+        chainListener.addListener(new SystemOutQueryLoggingListener() {
+            @Override
+            public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            }
+        });
+        assertThat(chainListener.getCapabilities()).isEqualTo(ListenerCapabilities.ALL);
+    }
+
+}
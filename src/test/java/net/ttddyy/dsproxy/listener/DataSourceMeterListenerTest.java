@@ -0,0 +1,32 @@
+package net.ttddyy.dsproxy.listener;
+
+import net.ttddyy.dsproxy.ExecutionInfoBuilder;
+import net.ttddyy.dsproxy.QueryInfo;
+import org.junit.Test;
+
+import java.util.List;
+
+
+import static net.ttddyy.dsproxy.QueryInfoBuilder.queries;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author Tadaya Tsuyukubo
+ */
+public class DataSourceMeterListenerTest {
+
+    @Test
+    public void meterPerDataSource() {
+        DataSourceMeterListener listener = new DataSourceMeterListener();
+        List<QueryInfo> queries = queries("select 1");
+        listener.afterQuery(ExecutionInfoBuilder.create().dataSourceName("myDS").success(true).build(), queries);
+        listener.afterQuery(ExecutionInfoBuilder.create().dataSourceName("myDS").success(false).build(), queries);
+        listener.afterQuery(ExecutionInfoBuilder.create().dataSourceName(null).success(true).build(), queries);
+
+        assertThat(listener.getDataSourceNames()).containsOnly("myDS", "");
+        assertThat(listener.getMeter("myDS").getOneMinuteWindow().getCount()).isEqualTo(2);
+        assertThat(listener.getMeter("myDS").getOneMinuteWindow().getErrorCount()).isEqualTo(1);
+        assertThat(listener.getMeter(null).getOneMinuteWindow().getCount()).isEqualTo(1);
+        assertThat(listener.getMeter("unknown")).isNull();
+    }
+}
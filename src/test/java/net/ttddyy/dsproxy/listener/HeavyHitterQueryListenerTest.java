@@ -0,0 +1,115 @@
+package net.ttddyy.dsproxy.listener;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.ExecutionInfoBuilder;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static net.ttddyy.dsproxy.QueryInfoBuilder.queries;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author Tadaya Tsuyukubo
+ */
+public class HeavyHitterQueryListenerTest {
+
+    @Test
+    public void topN() {
+        HeavyHitterQueryListener listener = new HeavyHitterQueryListener(2);
+        for (int i = 0; i < 10; i++) {
+            listener.afterQuery(ExecutionInfoBuilder.create().elapsedTime(1).build(),
+                    queries("select * from foo where id = " + i));
+        }
+        listener.afterQuery(ExecutionInfoBuilder.create().elapsedTime(100).build(), queries("select * from bar"));
+        listener.afterQuery(ExecutionInfoBuilder.create().elapsedTime(5).result(3).build(),
+                queries("update baz set a = 1"));
+        listener.afterQuery(ExecutionInfoBuilder.create().elapsedTime(5).result(new int[]{2, 4}).build(),
+                queries("insert into qux values (?)"));
+
+        HeavyHitterQueryListener.Snapshot snapshot = listener.getSnapshot();
+
+        assertThat(snapshot.getTopByTime()).hasSize(2);
+        assertThat(snapshot.getTopByTime().get(0).getNormalizedQuery()).isEqualTo("select * from bar");
+        assertThat(snapshot.getTopByTime().get(0).getValue()).isEqualTo(TimeUnit.MILLISECONDS.toNanos(100));
+        assertThat(snapshot.getTopByTime().get(1).getNormalizedQuery()).isEqualTo("select * from foo where id = ?");
+
+        assertThat(snapshot.getTopByCount().get(0).getNormalizedQuery()).isEqualTo("select * from foo where id = ?");
+        assertThat(snapshot.getTopByCount().get(0).getValue()).isEqualTo(10);
+        assertThat(snapshot.getTopByCount().get(0).getError()).isEqualTo(0);
+
+        assertThat(snapshot.getTopByRows()).hasSize(2);
+        assertThat(snapshot.getTopByRows().get(0).getNormalizedQuery()).isEqualTo("insert into qux values (?)");
+        assertThat(snapshot.getTopByRows().get(0).getValue()).isEqualTo(6);
+        assertThat(snapshot.getTopByRows().get(1).getValue()).isEqualTo(3);
+    }
+
+    @Test
+    public void statementBatch() {
+        HeavyHitterQueryListener listener = new HeavyHitterQueryListener(5);
+        listener.afterQuery(ExecutionInfoBuilder.create().elapsedTime(10).result(new int[]{1, 1, 5}).build(),
+                queries("insert into foo values (1)", "insert into foo values (2)", "delete from bar"));
+
+        HeavyHitterQueryListener.Snapshot snapshot = listener.getSnapshot();
+        assertThat(snapshot.getTopByCount()).hasSize(2);
+        assertThat(snapshot.getTopByCount().get(0).getValue()).isEqualTo(1);
+        assertThat(snapshot.getTopByRows().get(0).getNormalizedQuery()).isEqualTo("delete from bar");
+        assertThat(snapshot.getTopByRows().get(0).getValue()).isEqualTo(5);
+        assertThat(snapshot.getTopByRows().get(1).getValue()).isEqualTo(2);
+    }
+
+    @Test
+    public void fixedMemory() {
+        HeavyHitterQueryListener listener = new HeavyHitterQueryListener(1, 3);
+        ExecutionInfo executionInfo = ExecutionInfoBuilder.create().elapsedTime(1).build();
+        for (int i = 0; i < 1000; i++) {
+            // distinct queries that can not be grouped
+            listener.afterQuery(executionInfo, queries("select * from t" + i));
+            listener.afterQuery(executionInfo, queries("select * from hot"));
+        }
+        HeavyHitterQueryListener.HeavyHitter top = listener.getSnapshot().getTopByCount().get(0);
+        assertThat(top.getNormalizedQuery()).isEqualTo("select * from hot");
+        assertThat(top.getValue() - top.getError()).isLessThanOrEqualTo(1000);
+        assertThat(top.getValue()).isGreaterThanOrEqualTo(1000);
+    }
+
+    @Test
+    public void snapshotAndReset() {
+        HeavyHitterQueryListener listener = new HeavyHitterQueryListener(1);
+        listener.afterQuery(ExecutionInfoBuilder.create().elapsedTime(1).build(), queries("select 1"));
+        assertThat(listener.snapshotAndReset().getTopByCount()).hasSize(1);
+        assertThat(listener.getSnapshot().getTopByCount()).isEmpty();
+    }
+
+    @Test
+    public void schedule() throws Exception {
+        HeavyHitterQueryListener listener = new HeavyHitterQueryListener(1);
+        listener.afterQuery(ExecutionInfoBuilder.create().elapsedTime(1).build(), queries("select 1"));
+
+        final AtomicReference<HeavyHitterQueryListener.Snapshot> published =
+                new AtomicReference<HeavyHitterQueryListener.Snapshot>();
+        final CountDownLatch latch = new CountDownLatch(1);
+        ScheduledExecutorService executor = new ScheduledThreadPoolExecutor(1);
+        try {
+            listener.schedule(executor, 10, TimeUnit.MILLISECONDS, true, snapshot -> {
+                if (published.compareAndSet(null, snapshot)) {
+                    latch.countDown();
+                }
+            });
+            assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(published.get().getTopByCount()).hasSize(1);
+        assertThat(listener.getSnapshot().getTopByCount()).isEmpty();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidCapacity() {
+        new HeavyHitterQueryListener(10, 5);
+    }
+}
@@ -0,0 +1,90 @@
+package net.ttddyy.dsproxy.listener;
+
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author Tadaya Tsuyukubo
+ */
+public class MpscRingBufferTest {
+
+    @Test
+    public void offerAndPoll() {
+        MpscRingBuffer<String> buffer = new MpscRingBuffer<String>(3);
+        assertThat(buffer.getCapacity()).isEqualTo(4);
+        assertThat(new MpscRingBuffer<String>(1).getCapacity()).isEqualTo(2);
+        assertThat(buffer.poll()).isNull();
+
+        for (int lap = 0; lap < 3; lap++) {
+            assertThat(buffer.offer("a")).isTrue();
+            assertThat(buffer.offer("b")).isTrue();
+            assertThat(buffer.offer("c")).isTrue();
+            assertThat(buffer.offer("d")).isTrue();
+            assertThat(buffer.offer("e")).as("full").isFalse();
+            assertThat(buffer.size()).isEqualTo(4);
+
+            assertThat(buffer.poll()).isEqualTo("a");
+            assertThat(buffer.poll()).isEqualTo("b");
+            assertThat(buffer.poll()).isEqualTo("c");
+            assertThat(buffer.poll()).isEqualTo("d");
+            assertThat(buffer.poll()).isNull();
+            assertThat(buffer.isEmpty()).isTrue();
+        }
+    }
+
+    @Test
+    public void multipleProducers() throws Exception {
+        final int producers = 4;
+        final int perProducer = 10000;
+        final MpscRingBuffer<Integer> buffer = new MpscRingBuffer<Integer>(64);
+        final CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        for (int p = 0; p < producers; p++) {
+            final int producer = p;
+            executor.submit(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    for (int i = 0; i < perProducer; i++) {
+                        while (!buffer.offer(producer * perProducer + i)) {
+                            Thread.yield();
+                        }
+                    }
+                }
+            });
+        }
+        start.countDown();
+
+        // each producer's elements arrive in order and none is lost
+        int[] next = new int[producers];
+        int received = 0;
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (received < producers * perProducer && System.nanoTime() < deadline) {
+            Integer value = buffer.poll();
+            if (value == null) {
+                Thread.yield();
+                continue;
+            }
+            int producer = value / perProducer;
+            assertThat(value % perProducer).isEqualTo(next[producer]);
+            next[producer]++;
+            received++;
+        }
+        executor.shutdown();
+
+        assertThat(received).isEqualTo(producers * perProducer);
+        assertThat(buffer.poll()).isNull();
+    }
+
+}
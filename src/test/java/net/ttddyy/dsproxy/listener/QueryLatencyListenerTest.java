@@ -0,0 +1,75 @@
+package net.ttddyy.dsproxy.listener;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.ExecutionInfoBuilder;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static net.ttddyy.dsproxy.QueryInfoBuilder.queries;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author Tadaya Tsuyukubo
+ */
+public class QueryLatencyListenerTest {
+
+    @Test
+    public void latencyPerFingerprint() {
+        QueryLatencyListener listener = new QueryLatencyListener();
+        listener.afterQuery(ExecutionInfoBuilder.create().elapsedTime(10).build(),
+                queries("select * from foo where id = 1"));
+        listener.afterQuery(ExecutionInfoBuilder.create().elapsedTime(20).build(),
+                queries("select * from foo where id = 2"));
+        listener.afterQuery(ExecutionInfoBuilder.create().elapsedTime(5).build(), queries("select * from bar"));
+
+        QueryLatencyListener.QueryLatency latency = listener.getLatency("SELECT * FROM foo WHERE id = 100");
+        assertThat(latency.getNormalizedQuery()).isEqualTo("select * from foo where id = ?");
+        assertThat(latency.getSnapshot().getCount()).isEqualTo(2);
+        assertThat(latency.getSnapshot().getMax(TimeUnit.MILLISECONDS)).isEqualTo(20);
+
+        List<QueryLatencyListener.QueryLatency> latencies = listener.getLatencies();
+        assertThat(latencies).hasSize(2);
+        assertThat(latencies.get(0).getNormalizedQuery()).isEqualTo("select * from foo where id = ?");
+        assertThat(latencies.get(1).getNormalizedQuery()).isEqualTo("select * from bar");
+
+        assertThat(listener.getLatency("select * from baz")).isNull();
+
+        listener.clear();
+        assertThat(listener.getLatencies()).isEmpty();
+    }
+
+    @Test
+    public void batchIsRecordedOncePerQuery() {
+        QueryLatencyListener listener = new QueryLatencyListener();
+        listener.afterQuery(ExecutionInfoBuilder.create().elapsedTime(10).build(),
+                queries("insert into foo values (1)", "insert into foo values (2)", "delete from foo"));
+
+        assertThat(listener.getLatency("insert into foo values (3)").getSnapshot().getCount()).isEqualTo(1);
+        assertThat(listener.getLatency("delete from foo").getSnapshot().getCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void maxQueries() {
+        QueryLatencyListener listener = new QueryLatencyListener(2);
+        ExecutionInfo executionInfo = ExecutionInfoBuilder.create().elapsedTime(1).build();
+        listener.afterQuery(executionInfo, queries("select * from a"));
+        listener.afterQuery(executionInfo, queries("select * from b"));
+        listener.afterQuery(executionInfo, queries("select * from c"));
+        listener.afterQuery(executionInfo, queries("select * from d"));
+
+        List<QueryLatencyListener.QueryLatency> latencies = listener.getLatencies();
+        assertThat(latencies).hasSize(3);
+        assertThat(listener.getLatency("select * from c")).isNull();
+
+        QueryLatencyListener.QueryLatency overflow = null;
+        for (QueryLatencyListener.QueryLatency latency : latencies) {
+            if (QueryLatencyListener.OVERFLOW_QUERY.equals(latency.getNormalizedQuery())) {
+                overflow = latency;
+            }
+        }
+        assertThat(overflow).isNotNull();
+        assertThat(overflow.getSnapshot().getCount()).isEqualTo(2);
+    }
+}
@@ -37,4 +37,72 @@ public class QueryUtilsTest {
         assertThat(QueryUtils.getQueryType("DELETE")).isEqualTo(QueryType.DELETE);
         assertThat(QueryUtils.getQueryType("delete")).isEqualTo(QueryType.DELETE);
     }
+
+    @Test
+    public void getQueryTypeWithLeadingCommentsAndWhitespaces() {
+        assertThat(QueryUtils.getQueryType("  \n\t select 1")).isEqualTo(QueryType.SELECT);
+        assertThat(QueryUtils.getQueryType("/* comment */ insert into foo values (1)")).isEqualTo(QueryType.INSERT);
+        assertThat(QueryUtils.getQueryType("-- comment\nupdate foo set id = 1")).isEqualTo(QueryType.UPDATE);
+        assertThat(QueryUtils.getQueryType("/* a */ -- b\n /* c */delete from foo")).isEqualTo(QueryType.DELETE);
+        assertThat(QueryUtils.getQueryType("(select 1) union (select 2)")).isEqualTo(QueryType.SELECT);
+        assertThat(QueryUtils.getQueryType("/* unterminated comment select")).isEqualTo(QueryType.OTHER);
+        assertThat(QueryUtils.getQueryType("-- select")).isEqualTo(QueryType.OTHER);
+    }
+
+    @Test
+    public void getQueryTypeWithWordBoundary() {
+        assertThat(QueryUtils.getQueryType("selection")).isEqualTo(QueryType.OTHER);
+        assertThat(QueryUtils.getQueryType("show tables")).isEqualTo(QueryType.OTHER);
+        assertThat(QueryUtils.getQueryType("set foo = 1")).isEqualTo(QueryType.OTHER);
+        assertThat(QueryUtils.getQueryType("select*from foo")).isEqualTo(QueryType.SELECT);
+    }
+
+    @Test
+    public void getQueryTypeWithCommonTableExpression() {
+        assertThat(QueryUtils.getQueryType("WITH t AS (SELECT 1) SELECT * FROM t")).isEqualTo(QueryType.SELECT);
+        assertThat(QueryUtils.getQueryType("with t as (select 1) insert into foo select * from t"))
+                .isEqualTo(QueryType.INSERT);
+        assertThat(QueryUtils.getQueryType("with recursive t(n) as (select 1 union all select n + 1 from t) update foo set n = 1"))
+                .isEqualTo(QueryType.UPDATE);
+        assertThat(QueryUtils.getQueryType("with a as (select ')'), b as (select 2) delete from foo"))
+                .isEqualTo(QueryType.DELETE);
+        assertThat(QueryUtils.getQueryType("with \"select\" as (select 1) merge into foo using bar on (1 = 1)"))
+                .isEqualTo(QueryType.MERGE);
+        assertThat(QueryUtils.getQueryType("with t as (select 1)")).isEqualTo(QueryType.OTHER);
+    }
+
+    @Test
+    public void getQueryTypeWithOtherKeywords() {
+        assertThat(QueryUtils.getQueryType("MERGE INTO foo USING bar ON (1 = 1)")).isEqualTo(QueryType.MERGE);
+        assertThat(QueryUtils.getQueryType("replace into foo values (1)")).isEqualTo(QueryType.REPLACE);
+
+        assertThat(QueryUtils.getQueryType("call proc(?)")).isEqualTo(QueryType.CALL);
+        assertThat(QueryUtils.getQueryType("{call proc(?)}")).isEqualTo(QueryType.CALL);
+        assertThat(QueryUtils.getQueryType("{ ? = call func(?) }")).isEqualTo(QueryType.CALL);
+        assertThat(QueryUtils.getQueryType("{?=call func(?)}")).isEqualTo(QueryType.CALL);
+        assertThat(QueryUtils.getQueryType("exec proc")).isEqualTo(QueryType.CALL);
+        assertThat(QueryUtils.getQueryType("EXECUTE proc")).isEqualTo(QueryType.CALL);
+
+        assertThat(QueryUtils.getQueryType("create table foo (id int)")).isEqualTo(QueryType.DDL);
+        assertThat(QueryUtils.getQueryType("ALTER TABLE foo ADD bar int")).isEqualTo(QueryType.DDL);
+        assertThat(QueryUtils.getQueryType("drop table foo")).isEqualTo(QueryType.DDL);
+        assertThat(QueryUtils.getQueryType("truncate table foo")).isEqualTo(QueryType.DDL);
+        assertThat(QueryUtils.getQueryType("rename table foo to bar")).isEqualTo(QueryType.DDL);
+    }
+
+    @Test
+    public void normalizeQuery() {
+        assertThat(QueryUtils.normalizeQuery(null)).isNull();
+        assertThat(QueryUtils.normalizeQuery("")).isEqualTo("");
+        assertThat(QueryUtils.normalizeQuery("  SELECT  *\n FROM foo  ")).isEqualTo("select * from foo");
+        assertThat(QueryUtils.normalizeQuery("select * from foo /* comment */ where id = 1 -- end"))
+                .isEqualTo("select * from foo where id = ?");
+        assertThat(QueryUtils.normalizeQuery("select * from t1 where a = 'it''s' and b = 1.5e-3 and c = ?"))
+                .isEqualTo("select * from t1 where a = ? and b = ? and c = ?");
+        assertThat(QueryUtils.normalizeQuery("insert into foo values (1, 'a', ?)"))
+                .isEqualTo("insert into foo values (?)");
+        assertThat(QueryUtils.normalizeQuery("select * from foo where id in (1,2,3)"))
+                .isEqualTo("select * from foo where id in (?)");
+        assertThat(QueryUtils.normalizeQuery("select \"Name\" from `Foo`")).isEqualTo("select \"Name\" from `Foo`");
+    }
 }
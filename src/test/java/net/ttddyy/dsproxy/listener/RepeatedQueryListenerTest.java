@@ -0,0 +1,145 @@
+package net.ttddyy.dsproxy.listener;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.ExecutionInfoBuilder;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.RepeatedQuery;
+import net.ttddyy.dsproxy.RepeatedQueryHolder;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author Tadaya Tsuyukubo
+ */
+public class RepeatedQueryListenerTest {
+
+    private ExecutionInfo nonBatch = ExecutionInfoBuilder.create().batch(false).elapsedTime(2).build();
+    private ExecutionInfo batch = ExecutionInfoBuilder.create().batch(true).elapsedTime(2).build();
+
+    @After
+    public void tearDown() {
+        RepeatedQueryHolder.clear();
+    }
+
+    private List<QueryInfo> prepared(String query, Object... args) {
+        QueryInfo queryInfo = new QueryInfo(query);
+        List<ParameterSetOperation> parameters = new ArrayList<ParameterSetOperation>();
+        for (int i = 0; i < args.length; i++) {
+            parameters.add(new ParameterSetOperation(null, new Object[]{i + 1, args[i]}));
+        }
+        queryInfo.getParametersList().add(parameters);
+        return Collections.singletonList(queryInfo);
+    }
+
+    @Test
+    public void nPlusOne() {
+        RepeatedQueryListener listener = new RepeatedQueryListener();
+        listener.setSelectThreshold(3);
+
+        for (int i = 0; i < 3; i++) {
+            listener.afterQuery(nonBatch, prepared("select * from emp where dept_id = ?", i));
+        }
+        assertThat(RepeatedQueryHolder.getDetected()).isEmpty();
+
+        listener.afterQuery(nonBatch, prepared("select * from emp where dept_id = ?", 3));
+
+        List<RepeatedQuery> detected = RepeatedQueryHolder.getDetected();
+        assertThat(detected).hasSize(1);
+        assertThat(detected.get(0).getPattern()).isEqualTo(RepeatedQuery.Pattern.N_PLUS_ONE);
+        assertThat(detected.get(0).getNormalizedQuery()).isEqualTo("select * from emp where dept_id = ?");
+        assertThat(detected.get(0).getCount()).isEqualTo(4);
+        assertThat(detected.get(0).getTime(TimeUnit.MILLISECONDS)).isEqualTo(8);
+    }
+
+    @Test
+    public void nPlusOneWithStatement() {
+        RepeatedQueryListener listener = new RepeatedQueryListener();
+        listener.setSelectThreshold(2);
+
+        for (int i = 0; i < 3; i++) {
+            listener.afterQuery(nonBatch,
+                    Collections.singletonList(new QueryInfo("select * from emp where dept_id = " + i)));
+        }
+
+        List<RepeatedQuery> detected = RepeatedQueryHolder.getDetected();
+        assertThat(detected).hasSize(1);
+        assertThat(detected.get(0).getNormalizedQuery()).isEqualTo("select * from emp where dept_id = ?");
+    }
+
+    @Test
+    public void sameParametersAreNotNPlusOne() {
+        RepeatedQueryListener listener = new RepeatedQueryListener();
+        listener.setSelectThreshold(2);
+
+        for (int i = 0; i < 10; i++) {
+            listener.afterQuery(nonBatch, prepared("select * from emp where dept_id = ?", 1));
+        }
+
+        assertThat(RepeatedQueryHolder.getDetected()).isEmpty();
+        assertThat(RepeatedQueryHolder.size()).isEqualTo(1);
+    }
+
+    @Test
+    public void unbatchedWrite() {
+        RepeatedQueryListener listener = new RepeatedQueryListener();
+        listener.setWriteThreshold(2);
+
+        for (int i = 0; i < 5; i++) {
+            listener.afterQuery(batch, prepared("insert into emp values (?)", i));
+        }
+        listener.afterQuery(nonBatch, prepared("delete from emp where id = ?", 1));
+        listener.afterQuery(nonBatch, prepared("delete from emp where id = ?", 2));
+        listener.afterQuery(nonBatch, prepared("delete from emp where id = ?", 3));
+        assertThat(RepeatedQueryHolder.getDetected()).isEmpty();
+
+        for (int i = 0; i < 3; i++) {
+            listener.afterQuery(nonBatch, prepared("update emp set name = ? where id = ?", "foo", i));
+        }
+
+        List<RepeatedQuery> detected = RepeatedQueryHolder.getDetected();
+        assertThat(detected).hasSize(1);
+        assertThat(detected.get(0).getPattern()).isEqualTo(RepeatedQuery.Pattern.UNBATCHED_WRITE);
+        assertThat(detected.get(0).getNormalizedQuery()).isEqualTo("update emp set name = ? where id = ?");
+        assertThat(detected.get(0).getCount()).isEqualTo(3);
+    }
+
+    @Test
+    public void boundedPerRequest() {
+        RepeatedQueryListener listener = new RepeatedQueryListener();
+        listener.setMaxQueries(2);
+        listener.setWriteThreshold(1);
+
+        listener.afterQuery(nonBatch, prepared("select * from foo where id = ?", 1));
+        listener.afterQuery(nonBatch, prepared("select * from bar where id = ?", 1));
+        listener.afterQuery(nonBatch, prepared("insert into baz values (?)", 1));
+        listener.afterQuery(nonBatch, prepared("insert into baz values (?)", 2));
+
+        assertThat(RepeatedQueryHolder.size()).isEqualTo(2);
+        assertThat(RepeatedQueryHolder.getDetected()).isEmpty();
+    }
+
+    @Test
+    public void distinctParametersAreBounded() {
+        RepeatedQuery repeatedQuery = new RepeatedQuery(RepeatedQuery.Pattern.N_PLUS_ONE, 1L, "select 1");
+        for (int i = 0; i < 100; i++) {
+            repeatedQuery.addParameters(i, 11);
+        }
+        repeatedQuery.addParameters(0, 11);
+        assertThat(repeatedQuery.getDistinctParameters()).isEqualTo(11);
+    }
+
+    @Test
+    public void capabilities() {
+        assertThat(new RepeatedQueryListener().getCapabilities()).isEqualTo(
+                ListenerCapabilities.AFTER_QUERY | ListenerCapabilities.PARAMETERS | ListenerCapabilities.TIMING);
+    }
+
+}
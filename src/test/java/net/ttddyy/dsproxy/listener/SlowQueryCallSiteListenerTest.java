@@ -0,0 +1,205 @@
+package net.ttddyy.dsproxy.listener;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.ExecutionInfoBuilder;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.TestUtils;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.junit.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static net.ttddyy.dsproxy.QueryInfoBuilder.queries;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author Tadaya Tsuyukubo
+ */
+public class SlowQueryCallSiteListenerTest {
+
+    private static final String CALL_SITE_PREFIX = SlowQueryCallSiteListenerTest.class.getName() + ".";
+
+    private ExecutionInfoBuilder ds = ExecutionInfoBuilder.create().dataSourceName("ds");
+
+    private SlowQueryCallSiteListener createListener(long thresholdInMillis) {
+        SlowQueryCallSiteListener listener = new SlowQueryCallSiteListener(thresholdInMillis, TimeUnit.MILLISECONDS);
+        // test class itself is in datasource-proxy package
+        listener.setExcludedPackages(Arrays.asList(SlowQueryCallSiteListener.class.getName(), "java.", "sun."));
+        return listener;
+    }
+
+    @Test
+    public void aggregateByFingerprintAndCallSite() {
+        SlowQueryCallSiteListener listener = createListener(100);
+
+        // same call site
+        long[] elapsedTimes = {99, 100, 300};
+        for (int i = 0; i < elapsedTimes.length; i++) {
+            listener.afterQuery(ds.elapsedTime(elapsedTimes[i]).build(), queries("select * from foo where id = " + i));
+        }
+        anotherCallSite(listener, ds.elapsedTime(150).build(), queries("select * from foo where id = 4"));
+        listener.afterQuery(ds.elapsedTime(120).build(), queries("update bar set a = 1"));
+
+        List<SlowQueryCallSiteListener.SlowQuery> slowQueries = listener.getSlowQueries();
+        assertThat(slowQueries).hasSize(3);
+
+        SlowQueryCallSiteListener.SlowQuery first = slowQueries.get(0);
+        assertThat(first.getNormalizedQuery()).isEqualTo("select * from foo where id = ?");
+        assertThat(first.getCallSite()).startsWith(CALL_SITE_PREFIX + "aggregateByFingerprintAndCallSite(");
+        assertThat(first.getCount()).isEqualTo(2);
+        assertThat(first.getTotalTime(TimeUnit.MILLISECONDS)).isEqualTo(400);
+        assertThat(first.getMaxTime(TimeUnit.MILLISECONDS)).isEqualTo(300);
+
+        assertThat(slowQueries.get(1).getFingerprint()).isEqualTo(first.getFingerprint());
+        assertThat(slowQueries.get(1).getCallSite()).startsWith(CALL_SITE_PREFIX + "anotherCallSite(");
+        assertThat(slowQueries.get(1).getCount()).isEqualTo(1);
+
+        assertThat(slowQueries.get(2).getNormalizedQuery()).isEqualTo("update bar set a = ?");
+    }
+
+    private void anotherCallSite(SlowQueryCallSiteListener listener, ExecutionInfo execInfo, List<QueryInfo> queries) {
+        listener.afterQuery(execInfo, queries);
+    }
+
+    @Test
+    public void thresholds() {
+        SlowQueryCallSiteListener listener = createListener(100);
+        listener.setDataSourceThreshold("reporting", 1000, TimeUnit.MILLISECONDS);
+        listener.setQueryThreshold("select * from foo where id = 1", 10, TimeUnit.MILLISECONDS);
+
+        listener.afterQuery(ExecutionInfoBuilder.create().dataSourceName("reporting").elapsedTime(500).build(),
+                queries("select * from bar"));
+        listener.afterQuery(ExecutionInfoBuilder.create().dataSourceName("other").elapsedTime(500).build(),
+                queries("select * from baz"));
+        listener.afterQuery(ExecutionInfoBuilder.create().dataSourceName("reporting").elapsedTime(20).build(),
+                queries("select * from foo where id = 5"));
+        listener.afterQuery(ExecutionInfoBuilder.create().dataSourceName("reporting").elapsedTime(5).build(),
+                queries("select * from foo where id = 6"));
+
+        List<SlowQueryCallSiteListener.SlowQuery> slowQueries = listener.getSlowQueries();
+        assertThat(slowQueries).hasSize(2);
+        assertThat(slowQueries.get(0).getNormalizedQuery()).isEqualTo("select * from baz");
+        assertThat(slowQueries.get(1).getNormalizedQuery()).isEqualTo("select * from foo where id = ?");
+        assertThat(slowQueries.get(1).getCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void notCaptured() {
+        SlowQueryCallSiteListener listener = createListener(0);
+        listener.setCallSiteSampleRate(0);
+
+        listener.afterQuery(ds.elapsedTime(10).build(), queries("select 1"));
+
+        List<SlowQueryCallSiteListener.SlowQuery> slowQueries = listener.getSlowQueries();
+        assertThat(slowQueries).hasSize(1);
+        assertThat(slowQueries.get(0).getCallSite()).isEqualTo(SlowQueryCallSiteListener.NOT_CAPTURED);
+    }
+
+    @Test
+    public void unknownCallSite() {
+        SlowQueryCallSiteListener listener = createListener(0);
+        listener.setMaxStackDepth(1);
+
+        listener.afterQuery(ds.elapsedTime(10).build(), queries("select 1"));
+
+        assertThat(listener.getSlowQueries().get(0).getCallSite())
+                .isEqualTo(SlowQueryCallSiteListener.UNKNOWN_CALL_SITE);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void nullDataSourceName() {
+        createListener(100).setDataSourceThreshold(null, 1, TimeUnit.SECONDS);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void nullQuery() {
+        createListener(100).setQueryThreshold(null, 1, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void maxEntries() {
+        SlowQueryCallSiteListener listener = createListener(0);
+        listener.setMaxEntries(2);
+
+        for (String table : Arrays.asList("foo", "bar", "baz", "foo")) {
+            listener.afterQuery(ds.elapsedTime(10).build(), queries("select * from " + table));
+        }
+
+        assertThat(listener.getSlowQueries()).hasSize(2);
+        assertThat(listener.getDroppedCount()).isEqualTo(1);
+
+        listener.clear();
+        assertThat(listener.getSlowQueries()).isEmpty();
+        assertThat(listener.getDroppedCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void callSiteThroughProxy() throws Exception {
+        SlowQueryCallSiteListener listener = new SlowQueryCallSiteListener(0, TimeUnit.MILLISECONDS);
+        List<String> excluded = new ArrayList<String>(SlowQueryCallSiteListener.DEFAULT_EXCLUDED_PACKAGES);
+        excluded.remove("net.ttddyy.dsproxy.");
+        excluded.addAll(Arrays.asList("net.ttddyy.dsproxy.proxy.", "net.ttddyy.dsproxy.support.",
+                ChainListener.class.getName(), SlowQueryCallSiteListener.class.getName()));
+        listener.setExcludedPackages(excluded);
+
+        DataSource actual = TestUtils.getDataSourceWithData();
+        try {
+            DataSource dataSource = ProxyDataSourceBuilder.create(actual).listener(listener).build();
+            Connection connection = dataSource.getConnection();
+            Statement statement = connection.createStatement();
+            statement.executeQuery("select * from emp");
+            connection.close();
+        } finally {
+            TestUtils.shutdown(actual);
+        }
+
+        List<SlowQueryCallSiteListener.SlowQuery> slowQueries = listener.getSlowQueries();
+        assertThat(slowQueries).hasSize(1);
+        assertThat(slowQueries.get(0).getCallSite()).startsWith(CALL_SITE_PREFIX + "callSiteThroughProxy(");
+    }
+
+    @Test
+    public void schedule() throws Exception {
+        SlowQueryCallSiteListener listener = createListener(0);
+        listener.afterQuery(ds.elapsedTime(10).build(), queries("select 1"));
+
+        final CountDownLatch latch = new CountDownLatch(1);
+        final AtomicReference<List<SlowQueryCallSiteListener.SlowQuery>> received =
+                new AtomicReference<List<SlowQueryCallSiteListener.SlowQuery>>();
+        ScheduledExecutorService executor = new ScheduledThreadPoolExecutor(1);
+        try {
+            listener.schedule(executor, 10, TimeUnit.MILLISECONDS, true,
+                    new SnapshotCallback<List<SlowQueryCallSiteListener.SlowQuery>>() {
+                        @Override
+                        public void onSnapshot(List<SlowQueryCallSiteListener.SlowQuery> slowQueries) {
+                            if (received.compareAndSet(null, slowQueries)) {
+                                latch.countDown();
+                            }
+                        }
+                    });
+            assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(received.get()).hasSize(1);
+        assertThat(listener.getSlowQueries()).isEmpty();
+    }
+
+    @Test
+    public void capabilities() {
+        assertThat(createListener(0).getCapabilities())
+                .isEqualTo(ListenerCapabilities.AFTER_QUERY | ListenerCapabilities.TIMING);
+    }
+
+}
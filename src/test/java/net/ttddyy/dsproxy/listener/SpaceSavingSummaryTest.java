@@ -0,0 +1,86 @@
+package net.ttddyy.dsproxy.listener;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author Tadaya Tsuyukubo
+ */
+public class SpaceSavingSummaryTest {
+
+    @Test
+    public void replaceSmallest() {
+        SpaceSavingSummary summary = new SpaceSavingSummary(3);
+        summary.add(1, "a", 5);
+        summary.add(2, "b", 1);
+        summary.add(3, "c", 3);
+        summary.add(2, "b", 4);  // b=5, c is the smallest now
+
+        summary.add(4, "d", 2);
+
+        List<HeavyHitterQueryListener.HeavyHitter> top = summary.getTop(3);
+        assertThat(top).extracting("normalizedQuery").containsOnly("a", "b", "d");
+        assertThat(top).extracting("value").containsOnly(5L, 5L, 5L);
+        assertThat(top.get(0).getValue()).isEqualTo(5);
+
+        summary.add(5, "e", 1);  // replaces one of weight 5
+        top = summary.getTop(3);
+        assertThat(top.get(0).getValue()).isEqualTo(6);
+        assertThat(top.get(0).getNormalizedQuery()).isEqualTo("e");
+        assertThat(top.get(0).getError()).isEqualTo(5);
+    }
+
+    @Test
+    public void guarantees() {
+        int capacity = 20;
+        SpaceSavingSummary summary = new SpaceSavingSummary(capacity);
+        Map<Long, Long> actual = new HashMap<Long, Long>();
+        Random random = new Random(42);
+        long total = 0;
+        for (int i = 0; i < 10000; i++) {
+            // skewed keys with random weights
+            long key = random.nextInt(4) == 0 ? random.nextInt(3) : random.nextInt(500);
+            long weight = 1 + random.nextInt(100);
+            summary.add(key, String.valueOf(key), weight);
+            Long current = actual.get(key);
+            actual.put(key, current == null ? weight : current + weight);
+            total += weight;
+        }
+
+        List<HeavyHitterQueryListener.HeavyHitter> top = summary.getTop(capacity);
+        assertThat(top).hasSize(capacity);
+        Map<Long, HeavyHitterQueryListener.HeavyHitter> monitored = new HashMap<Long, HeavyHitterQueryListener.HeavyHitter>();
+        for (HeavyHitterQueryListener.HeavyHitter heavyHitter : top) {
+            monitored.put(heavyHitter.getFingerprint(), heavyHitter);
+            long trueWeight = actual.get(heavyHitter.getFingerprint());
+            assertThat(heavyHitter.getValue()).isGreaterThanOrEqualTo(trueWeight);
+            assertThat(heavyHitter.getValue() - heavyHitter.getError()).isLessThanOrEqualTo(trueWeight);
+        }
+        for (Map.Entry<Long, Long> entry : actual.entrySet()) {
+            if (entry.getValue() > total / capacity) {
+                assertThat(monitored).containsKey(entry.getKey());
+            }
+        }
+    }
+
+    @Test
+    public void clear() {
+        SpaceSavingSummary summary = new SpaceSavingSummary(2);
+        summary.add(1, "a", 1);
+        summary.add(2, "b", 2);
+        summary.clear();
+        assertThat(summary.getTop(2)).isEmpty();
+
+        summary.add(3, "c", 1);
+        summary.add(4, "d", 2);
+        summary.add(5, "e", 2);
+        assertThat(summary.getTop(2)).extracting("normalizedQuery").containsExactly("e", "d");
+    }
+
+}
@@ -1,10 +1,23 @@
 package net.ttddyy.dsproxy.listener.logging;
 
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyBoolean;
+import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 /**
  * @author Tadaya Tsuyukubo
@@ -39,4 +52,61 @@ public class CommonsQueryLoggingListenerTest {
         assertThat(name).as("Updated logger name").isEqualTo("my.logger");
     }
 
+    @Test
+    public void skipEntryWhenLevelDisabled() {
+        QueryLogEntryCreator entryCreator = mock(QueryLogEntryCreator.class);
+        CommonsQueryLoggingListener listener = new CommonsQueryLoggingListener();
+        listener.setQueryLogEntryCreator(entryCreator);
+
+        List<QueryInfo> queryInfoList = new ArrayList<QueryInfo>();
+        queryInfoList.add(new QueryInfo("select 1"));
+
+        InMemoryLog.setEnabled(false);
+        listener.afterQuery(new ExecutionInfo(), queryInfoList);
+
+        verify(entryCreator, never()).getLogEntry(any(ExecutionInfo.class), anyListOf(QueryInfo.class), anyBoolean());
+        assertThat(((InMemoryLog) listener.log).getDebugMessages()).isEmpty();
+    }
+
+    @Test
+    public void keepEntryValidAfterCallback() {
+        QueryLogEntryCreator entryCreator = mock(QueryLogEntryCreator.class);
+        when(entryCreator.getLogEntry(any(ExecutionInfo.class), anyListOf(QueryInfo.class), anyBoolean()))
+                .thenReturn("my-entry");
+        CommonsQueryLoggingListener listener = new CommonsQueryLoggingListener();
+        listener.setQueryLogEntryCreator(entryCreator);
+
+        listener.afterQuery(new ExecutionInfo(), new ArrayList<QueryInfo>());
+
+        // the log keeps the message object without rendering it
+        verify(entryCreator, never()).getLogEntry(any(ExecutionInfo.class), anyListOf(QueryInfo.class), anyBoolean());
+
+        List<Object> messages = ((InMemoryLog) listener.log).getDebugMessages();
+        assertThat(messages).hasSize(1);
+        assertThat(messages.get(0).toString()).isEqualTo("my-entry");
+        assertThat(messages.get(0).toString()).isEqualTo("my-entry");
+        verify(entryCreator, times(1)).getLogEntry(any(ExecutionInfo.class), anyListOf(QueryInfo.class), anyBoolean());
+    }
+
+    @Test
+    public void overriddenWriteLogReceivesEntry() {
+        final List<String> messages = new ArrayList<String>();
+        CommonsQueryLoggingListener listener = new CommonsQueryLoggingListener() {
+            @Override
+            protected void writeLog(String message) {
+                messages.add(message);
+            }
+        };
+        listener.setQueryLogEntryCreator(new QueryLogEntryCreator() {
+            @Override
+            public String getLogEntry(ExecutionInfo execInfo, List<QueryInfo> queryInfoList, boolean writeDataSourceName) {
+                return "my-entry";
+            }
+        });
+
+        listener.afterQuery(new ExecutionInfo(), new ArrayList<QueryInfo>());
+        assertThat(messages).containsExactly("my-entry");
+        assertThat(((InMemoryLog) listener.log).getDebugMessages()).isEmpty();
+    }
+
 }
@@ -1,5 +1,6 @@
 package net.ttddyy.dsproxy.listener.logging;
 
+import net.ttddyy.dsproxy.BatchSummary;
 import net.ttddyy.dsproxy.ExecutionInfo;
 import net.ttddyy.dsproxy.ExecutionInfoBuilder;
 import net.ttddyy.dsproxy.QueryInfo;
@@ -371,4 +372,67 @@ public class DefaultJsonQueryLogEntryCreatorTest {
         assertThat(jsonResult).containsOnlyOnce("\"batchSize\":100");
     }
 
+    @Test
+    public void batchSummary() throws Exception {
+        ExecutionInfo executionInfo = ExecutionInfoBuilder
+                .create()
+                .dataSourceName("foo")
+                .elapsedTime(100)
+                .statementType(StatementType.PREPARED)
+                .success(true)
+                .batch(true)
+                .batchSize(1000)
+                .build();
+
+        BatchSummary batchSummary = new BatchSummary();
+        batchSummary.setRowCount(1000);
+        batchSummary.setCapturedRowCount(1);
+        batchSummary.addByteSize(2000);
+        for (int i = 0; i < 10; i++) {
+            batchSummary.incrementNullCount();
+        }
+
+        QueryInfo queryInfo = QueryInfoBuilder.create()
+                .query("select 1")
+                .batchParam(1, 1, "foo")
+                .batchParam(1, 2, 100)
+                .build();
+        queryInfo.setBatchSummary(batchSummary);
+
+        DefaultJsonQueryLogEntryCreator creator = new DefaultJsonQueryLogEntryCreator();
+
+        String entry = creator.getLogEntry(executionInfo, Lists.newArrayList(queryInfo), true);
+        assertThat(entry).isEqualTo("{\"name\":\"foo\", \"time\":100, \"success\":true, \"type\":\"Prepared\", \"batch\":true, \"querySize\":1, \"batchSize\":1000, \"query\":[\"select 1\"], \"batchSummary\":{\"rowCount\":1000,\"capturedRowCount\":1,\"nullCount\":10,\"totalByteSize\":2000}, \"params\":[{\"1\":\"foo\",\"2\":\"100\"}]}");
+
+        // not rendered when all entries are retained
+        batchSummary.setCapturedRowCount(1000);
+        entry = creator.getLogEntry(executionInfo, Lists.newArrayList(queryInfo), true);
+        assertThat(entry).doesNotContain("atchSummary");
+    }
+
+    @Test
+    public void escapeSpecialCharacters() throws Exception {
+        ExecutionInfo executionInfo = ExecutionInfoBuilder
+                .create()
+                .dataSourceName("my\"ds")
+                .statementType(StatementType.PREPARED)
+                .build();
+
+        QueryInfo queryInfo = QueryInfoBuilder.create()
+                .query("select \"a\" from b\\c /* x */\n\twhere d = ?")
+                .param(1, "line1\r\nline2\b\f")
+                .build();
+
+        DefaultJsonQueryLogEntryCreator creator = new DefaultJsonQueryLogEntryCreator();
+
+        String jsonEntry = creator.getLogEntry(executionInfo, Lists.newArrayList(queryInfo), true);
+        assertThat(jsonEntry).startsWith("{\"name\":\"my\\\"ds\", ");
+        assertThat(jsonEntry).contains("\"query\":[\"select \\\"a\\\" from b\\\\c \\/* x *\\/\\n\\twhere d = ?\"]");
+        assertThat(jsonEntry).contains("\"params\":[{\"1\":\"line1\\r\\nline2\\b\\f\"}]");
+
+        assertThat(creator.escapeSpecialCharacterForJson("plain")).isEqualTo("plain");
+        assertThat(creator.escapeSpecialCharacterForJson(null)).isEqualTo("null");
+        assertThat(creator.escapeSpecialCharacterForJson("a/b")).isEqualTo("a\\/b");
+    }
+
 }
@@ -1,16 +1,20 @@
 package net.ttddyy.dsproxy.listener.logging;
 
+import net.ttddyy.dsproxy.BatchSummary;
 import net.ttddyy.dsproxy.ExecutionInfo;
 import net.ttddyy.dsproxy.ExecutionInfoBuilder;
 import net.ttddyy.dsproxy.QueryInfo;
 import net.ttddyy.dsproxy.QueryInfoBuilder;
 import net.ttddyy.dsproxy.StatementType;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
 import org.assertj.core.util.Lists;
 import org.junit.Test;
 
 import java.lang.reflect.Method;
+import java.sql.PreparedStatement;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -379,4 +383,86 @@ public class DefaultQueryLogEntryCreatorTest {
         assertThat(result).containsOnlyOnce("BatchSize:100");
     }
 
+    @Test
+    public void batchSummary() throws Exception {
+        ExecutionInfo executionInfo = ExecutionInfoBuilder
+                .create()
+                .dataSourceName("foo")
+                .elapsedTime(100)
+                .statementType(StatementType.PREPARED)
+                .success(true)
+                .batch(true)
+                .batchSize(1000)
+                .build();
+
+        BatchSummary batchSummary = new BatchSummary();
+        batchSummary.setRowCount(1000);
+        batchSummary.setCapturedRowCount(1);
+        batchSummary.addByteSize(2000);
+        for (int i = 0; i < 10; i++) {
+            batchSummary.incrementNullCount();
+        }
+
+        QueryInfo queryInfo = QueryInfoBuilder.create()
+                .query("select 1")
+                .batchParam(1, 1, "foo")
+                .batchParam(1, 2, 100)
+                .build();
+        queryInfo.setBatchSummary(batchSummary);
+
+        DefaultQueryLogEntryCreator creator = new DefaultQueryLogEntryCreator();
+
+        String entry = creator.getLogEntry(executionInfo, Lists.newArrayList(queryInfo), true);
+        assertThat(entry).isEqualTo("Name:foo, Time:100, Success:True, Type:Prepared, Batch:True, QuerySize:1, BatchSize:1000, Query:[\"select 1\"], Params:[(foo,100)], BatchSummary:{rowCount:1000, capturedRowCount:1, nullCount:10, totalByteSize:2000}");
+
+        // not rendered when all entries are retained
+        batchSummary.setCapturedRowCount(1000);
+        entry = creator.getLogEntry(executionInfo, Lists.newArrayList(queryInfo), true);
+        assertThat(entry).doesNotContain("atchSummary");
+    }
+
+    @Test
+    public void parameterSetMoreThanOnce() throws Exception {
+        ExecutionInfo executionInfo = ExecutionInfoBuilder
+                .create()
+                .statementType(StatementType.PREPARED)
+                .build();
+
+        Method setObject = PreparedStatement.class.getMethod("setObject", int.class, Object.class);
+        QueryInfo queryInfo = new QueryInfo("select ?, ?, ?");
+        List<ParameterSetOperation> params = new ArrayList<ParameterSetOperation>();
+        params.add(new ParameterSetOperation(setObject, new Object[]{10, "ten"}));
+        params.add(new ParameterSetOperation(setObject, new Object[]{2, "two"}));
+        params.add(new ParameterSetOperation(setObject, new Object[]{1, "one"}));
+        params.add(new ParameterSetOperation(setObject, new Object[]{2, "TWO"}));  // overwrite
+        queryInfo.getParametersList().add(params);
+
+        DefaultQueryLogEntryCreator creator = new DefaultQueryLogEntryCreator();
+
+        String entry = creator.getLogEntry(executionInfo, Lists.newArrayList(queryInfo), false);
+        assertThat(entry).endsWith("Params:[(one,TWO,ten)]");
+    }
+
+    @Test
+    public void writeLogEntryToGivenBuffer() throws Exception {
+        ExecutionInfo executionInfo = ExecutionInfoBuilder
+                .create()
+                .dataSourceName("foo")
+                .elapsedTime(100)
+                .statementType(StatementType.STATEMENT)
+                .success(true)
+                .build();
+        QueryInfo queryInfo = QueryInfoBuilder.create().query("select 1").build();
+
+        DefaultQueryLogEntryCreator creator = new DefaultQueryLogEntryCreator();
+        String entry = creator.getLogEntry(executionInfo, Lists.newArrayList(queryInfo), true);
+
+        StringBuilder sb = new StringBuilder("prefix ");
+        creator.writeLogEntry(sb, executionInfo, Lists.newArrayList(queryInfo), true);
+        assertThat(sb.toString()).isEqualTo("prefix " + entry);
+
+        // reused buffer does not carry previous entry
+        assertThat(creator.getLogEntry(executionInfo, Lists.newArrayList(queryInfo), true)).isEqualTo(entry);
+    }
+
 }
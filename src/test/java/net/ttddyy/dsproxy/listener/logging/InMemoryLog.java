@@ -13,6 +13,7 @@ import java.util.List;
 public class InMemoryLog implements Log {
 
     private static String name;
+    private static boolean enabled = true;
 
     private static List<Object> debugMessages = new ArrayList<Object>();
     private static List<Object> errorMessages = new ArrayList<Object>();
@@ -29,6 +30,7 @@ public class InMemoryLog implements Log {
     }
 
     public static void clear() {
+        enabled = true;
         debugMessages.clear();
         errorMessages.clear();
         fatalMessages.clear();
@@ -38,27 +40,27 @@ public class InMemoryLog implements Log {
     }
 
     public boolean isDebugEnabled() {
-        return false;  //To change body of implemented methods use File | Settings | File Templates.
+        return enabled;
     }
 
     public boolean isErrorEnabled() {
-        return false;  //To change body of implemented methods use File | Settings | File Templates.
+        return enabled;
     }
 
     public boolean isFatalEnabled() {
-        return false;  //To change body of implemented methods use File | Settings | File Templates.
+        return enabled;
     }
 
     public boolean isInfoEnabled() {
-        return false;  //To change body of implemented methods use File | Settings | File Templates.
+        return enabled;
     }
 
     public boolean isTraceEnabled() {
-        return false;  //To change body of implemented methods use File | Settings | File Templates.
+        return enabled;
     }
 
     public boolean isWarnEnabled() {
-        return false;  //To change body of implemented methods use File | Settings | File Templates.
+        return enabled;
     }
 
     public void trace(Object message) {
@@ -110,6 +112,13 @@ public class InMemoryLog implements Log {
     }
 
 
+    /**
+     * @param enabled whether all log levels are enabled
+     */
+    public static void setEnabled(boolean enabled) {
+        InMemoryLog.enabled = enabled;
+    }
+
     public String getName() {
         return name;
     }
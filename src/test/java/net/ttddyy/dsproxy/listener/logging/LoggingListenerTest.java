@@ -141,8 +141,7 @@ public class LoggingListenerTest {
                 for (int i = 0; i < queries.length; i++) {
                     final String query = queries[i];
 
-                    assertThat(messageList.get(i), is(instanceOf(String.class)));
-                    String message = (String) messageList.get(i);
+                    String message = messageList.get(i).toString();
                     assertThat(message, containsString(query));
                 }
             }
@@ -1,9 +1,25 @@
 package net.ttddyy.dsproxy.listener.logging;
 
-import net.ttddyy.dsproxy.listener.logging.SLF4JQueryLoggingListener;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyBoolean;
+import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 /**
  * @author Tadaya Tsuyukubo
@@ -25,4 +41,66 @@ public class SLF4JQueryLoggingListenerTest {
         assertThat(listener.logger.getName()).as("Updated logger name").isEqualTo("my.logger");
     }
 
+    @Test
+    public void buildEntryOnlyWhenLevelEnabled() {
+        QueryLogEntryCreator entryCreator = mock(QueryLogEntryCreator.class);
+        when(entryCreator.getLogEntry(any(ExecutionInfo.class), anyListOf(QueryInfo.class), anyBoolean()))
+                .thenReturn("my-entry");
+
+        SLF4JQueryLoggingListener listener = new SLF4JQueryLoggingListener();
+        listener.setLoggerName("dsproxy.test.lazy");
+        listener.setQueryLogEntryCreator(entryCreator);
+
+        Logger logger = (Logger) listener.logger;
+        ListAppender<ILoggingEvent> appender = new ListAppender<ILoggingEvent>();
+        appender.start();
+        logger.addAppender(appender);
+        logger.setAdditive(false);
+        try {
+            List<QueryInfo> queryInfoList = new ArrayList<QueryInfo>();
+            queryInfoList.add(new QueryInfo("select 1"));
+
+            logger.setLevel(Level.INFO);
+            listener.afterQuery(new ExecutionInfo(), queryInfoList);
+            assertThat(appender.list).isEmpty();
+            verify(entryCreator, never()).getLogEntry(any(ExecutionInfo.class), anyListOf(QueryInfo.class), anyBoolean());
+
+            logger.setLevel(Level.DEBUG);
+            listener.afterQuery(new ExecutionInfo(), queryInfoList);
+            assertThat(appender.list).hasSize(1);
+            assertThat(appender.list.get(0).getFormattedMessage()).isEqualTo("my-entry");
+            assertThat(appender.list.get(0).getFormattedMessage()).isEqualTo("my-entry");
+            verify(entryCreator, times(1)).getLogEntry(any(ExecutionInfo.class), anyListOf(QueryInfo.class), anyBoolean());
+        } finally {
+            logger.detachAppender(appender);
+            logger.setLevel(null);
+            logger.setAdditive(true);
+        }
+    }
+
+    @Test
+    public void overriddenWriteLogReceivesEntry() {
+        final List<String> messages = new ArrayList<String>();
+        SLF4JQueryLoggingListener listener = new SLF4JQueryLoggingListener() {
+            @Override
+            protected boolean isLogEnabled() {
+                return true;
+            }
+
+            @Override
+            protected void writeLog(String message) {
+                messages.add(message);
+            }
+        };
+        listener.setQueryLogEntryCreator(new QueryLogEntryCreator() {
+            @Override
+            public String getLogEntry(ExecutionInfo execInfo, List<QueryInfo> queryInfoList, boolean writeDataSourceName) {
+                return "my-entry";
+            }
+        });
+
+        listener.afterQuery(new ExecutionInfo(), new ArrayList<QueryInfo>());
+        assertThat(messages).containsExactly("my-entry");
+    }
+
 }
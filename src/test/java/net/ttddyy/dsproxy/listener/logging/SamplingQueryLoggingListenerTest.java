@@ -0,0 +1,134 @@
+package net.ttddyy.dsproxy.listener.logging;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.ListenerCapabilities;
+import net.ttddyy.dsproxy.proxy.Ticker;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author Tadaya Tsuyukubo
+ */
+public class SamplingQueryLoggingListenerTest {
+
+    private static class RecordingLoggingListener extends AbstractQueryLoggingListener {
+        private List<String> messages = new ArrayList<String>();
+        private int entryCount;
+
+        @Override
+        protected String getEntry(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            this.entryCount++;
+            return queryInfoList.get(0).getQuery();
+        }
+
+        @Override
+        protected void writeLog(String message) {
+            this.messages.add(message);
+        }
+    }
+
+    private static class ManualTicker implements Ticker {
+        private long now = 1000;
+
+        @Override
+        public long read() {
+            return this.now;
+        }
+    }
+
+    private RecordingLoggingListener delegate;
+    private ManualTicker ticker;
+    private SamplingQueryLoggingListener listener;
+
+    @Before
+    public void setUp() {
+        this.delegate = new RecordingLoggingListener();
+        this.ticker = new ManualTicker();
+        this.listener = new SamplingQueryLoggingListener(this.delegate, this.ticker);
+    }
+
+    @Test
+    public void logAllByDefault() {
+        execute("select 1", true, 1);
+        execute("select 2", true, 1);
+
+        assertThat(this.delegate.messages).containsExactly("select 1", "select 2");
+        assertThat(this.listener.getLoggedCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void tailRules() {
+        this.listener.setSampleRate(0);
+        this.listener.setSlowQueryThreshold(100, TimeUnit.MILLISECONDS);
+
+        execute("select fast", true, 10);
+        execute("select slow", true, 100);
+        execute("select failed", false, 10);
+
+        assertThat(this.delegate.messages).containsExactly("select slow", "select failed");
+        assertThat(this.delegate.entryCount).as("entries are built only for logged executions").isEqualTo(2);
+        assertThat(this.listener.getLoggedCount()).isEqualTo(2);
+        assertThat(this.listener.getSkippedCount()).isEqualTo(1);
+
+        this.listener.setLogFailures(false);
+        execute("select failed", false, 10);
+        assertThat(this.delegate.messages).hasSize(2);
+    }
+
+    @Test
+    public void headSampling() {
+        this.listener.setSampleRate(0.5);
+        for (int i = 0; i < 1000; i++) {
+            execute("select " + i, true, 1);
+        }
+        assertThat(this.listener.getLoggedCount()).isBetween(350L, 650L);
+        assertThat(this.delegate.entryCount).isEqualTo((int) this.listener.getLoggedCount());
+    }
+
+    @Test
+    public void rateLimitPerFingerprint() {
+        this.listener.setRateLimit(1, 2);  // 1 per second, burst of 2
+
+        // same fingerprint with different literals
+        for (int i = 0; i < 5; i++) {
+            execute("select * from emp where id = " + i, true, 1);
+        }
+        execute("select * from dept", true, 1);
+        assertThat(this.delegate.messages).containsExactly("select * from emp where id = 0",
+                "select * from emp where id = 1", "select * from dept");
+
+        this.ticker.now += TimeUnit.SECONDS.toNanos(1);
+        execute("select * from emp where id = 5", true, 1);
+        execute("select * from emp where id = 6", true, 1);
+        assertThat(this.delegate.messages).hasSize(4).endsWith("select * from emp where id = 5");
+
+        // slow queries are not limited
+        this.listener.setSlowQueryThreshold(1, TimeUnit.SECONDS);
+        execute("select * from emp where id = 7", true, 1000);
+        assertThat(this.delegate.messages).hasSize(5);
+    }
+
+    @Test
+    public void capabilities() {
+        assertThat(this.listener.getCapabilities())
+                .isEqualTo(this.delegate.getCapabilities() | ListenerCapabilities.TIMING);
+    }
+
+    private void execute(String query, boolean success, long elapsedMillis) {
+        ExecutionInfo execInfo = new ExecutionInfo();
+        execInfo.setSuccess(success);
+        execInfo.setElapsedTime(elapsedMillis, TimeUnit.MILLISECONDS);
+        List<QueryInfo> queryInfoList = Collections.singletonList(new QueryInfo(query));
+        this.listener.beforeQuery(execInfo, queryInfoList);
+        this.listener.afterQuery(execInfo, queryInfoList);
+    }
+
+}
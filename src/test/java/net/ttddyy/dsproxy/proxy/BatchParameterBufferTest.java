@@ -0,0 +1,147 @@
+package net.ttddyy.dsproxy.proxy;
+
+import org.junit.Test;
+
+import java.lang.reflect.Method;
+import java.sql.CallableStatement;
+import java.sql.PreparedStatement;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author Tadaya Tsuyukubo
+ */
+public class BatchParameterBufferTest {
+
+    private static final Method SET_INT = MethodUtils.getMethod(PreparedStatement.class, "setInt", int.class, int.class);
+    private static final Method SET_LONG =
+            MethodUtils.getMethod(PreparedStatement.class, "setLong", int.class, long.class);
+    private static final Method SET_NULL = MethodUtils.getMethod(PreparedStatement.class, "setNull", int.class, int.class);
+    private static final Method SET_STRING_BY_NAME =
+            MethodUtils.getMethod(CallableStatement.class, "setString", String.class, String.class);
+
+    @Test
+    public void rows() {
+        ParameterHolder holder = new ParameterHolder();
+        BatchParameterBuffer buffer = new BatchParameterBuffer();
+
+        holder.set(1, SET_INT, new Object[]{1, 100});
+        holder.set(2, SET_INT, new Object[]{2, 200});
+        buffer.addRow(holder);
+        holder.clear();
+
+        holder.set(1, SET_INT, new Object[]{1, 101});
+        holder.set(2, SET_NULL, new Object[]{2, 4});
+        holder.set("foo", SET_STRING_BY_NAME, new Object[]{"foo", "FOO"});
+        buffer.addRow(holder);
+        holder.clear();
+
+        List<List<ParameterSetOperation>> rows = buffer.asList();
+        assertThat(rows).hasSize(2);
+
+        List<ParameterSetOperation> first = rows.get(0);
+        assertThat(first).hasSize(2);
+        assertThat(first.get(0).getMethod()).isEqualTo(SET_INT);
+        assertThat(first.get(0).getArgs()).containsExactly(1, 100);
+        assertThat(first.get(1).getMethod()).isEqualTo(SET_INT);
+        assertThat(first.get(1).getArgs()).containsExactly(2, 200);
+
+        List<ParameterSetOperation> second = rows.get(1);
+        assertThat(second).hasSize(3);
+        assertThat(second.get(0).getArgs()).containsExactly(1, 101);
+        assertThat(second.get(1).getMethod()).isEqualTo(SET_NULL);
+        assertThat(second.get(1).getArgs()).containsExactly(2, 4);
+        assertThat(second.get(2).getArgs()).containsExactly("foo", "FOO");
+    }
+
+    @Test
+    public void growAndClear() {
+        ParameterHolder holder = new ParameterHolder();
+        BatchParameterBuffer buffer = new BatchParameterBuffer();
+
+        for (int i = 0; i < 100; i++) {
+            holder.set(1, SET_INT, new Object[]{1, i});
+            buffer.addRow(holder);
+            holder.clear();
+        }
+        assertThat(buffer.size()).isEqualTo(100);
+        assertThat(buffer.asList().get(99).get(0).getArgs()).containsExactly(1, 99);
+
+        buffer.clear();
+        assertThat(buffer.size()).isEqualTo(0);
+        assertThat(buffer.asList()).isEmpty();
+
+        holder.set(2, SET_INT, new Object[]{2, 200});
+        buffer.addRow(holder);
+        assertThat(buffer.asList()).hasSize(1);
+        assertThat(buffer.getRow(0)).hasSize(1);
+        assertThat(buffer.getRow(0).get(0).getArgs()).containsExactly(2, 200);
+    }
+
+    @Test
+    public void shrinkLargeBatchOnClear() {
+        ParameterHolder holder = new ParameterHolder();
+        BatchParameterBuffer buffer = new BatchParameterBuffer();
+        for (int i = 0; i <= BatchParameterBuffer.MAX_RETAINED_ROW_CAPACITY; i++) {
+            holder.set(1, SET_INT, new Object[]{1, i});
+            buffer.addRow(holder);
+        }
+        assertThat(buffer.getRowCapacity()).isGreaterThan(BatchParameterBuffer.MAX_RETAINED_ROW_CAPACITY);
+
+        buffer.clear();
+        assertThat(buffer.size()).isEqualTo(0);
+        assertThat(buffer.getRowCapacity()).isLessThanOrEqualTo(BatchParameterBuffer.MAX_RETAINED_ROW_CAPACITY);
+
+        holder.set(1, SET_INT, new Object[]{1, 5});
+        buffer.addRow(holder);
+        assertThat(buffer.asList().get(0).get(0).getArgs()).containsExactly(1, 5);
+    }
+
+    @Test
+    public void primitiveColumns() {
+        ParameterHolder holder = new ParameterHolder();
+        BatchParameterBuffer buffer = new BatchParameterBuffer();
+
+        for (int i = 0; i < 20; i++) {
+            holder.set(1, SET_INT, new Object[]{1, i});
+            holder.set(2, SET_LONG, new Object[]{2, (long) i * 1000});
+            buffer.addRow(holder);
+            holder.clear();
+        }
+
+        List<List<ParameterSetOperation>> rows = buffer.asList();
+        assertThat(rows).hasSize(20);
+        assertThat(rows.get(19).get(0).getMethod()).isEqualTo(SET_INT);
+        assertThat(rows.get(19).get(0).getArgs()).containsExactly(1, 19);
+        assertThat(rows.get(19).get(1).getMethod()).isEqualTo(SET_LONG);
+        assertThat(rows.get(19).get(1).getArgs()).containsExactly(2, 19000L);
+
+        // another setter switches the column back to argument arrays
+        holder.set(1, SET_NULL, new Object[]{1, 4});
+        holder.set(2, SET_LONG, new Object[]{2, 5L});
+        buffer.addRow(holder);
+        holder.clear();
+
+        assertThat(rows.get(3).get(0).getMethod()).isEqualTo(SET_INT);
+        assertThat(rows.get(3).get(0).getArgs()).containsExactly(1, 3);
+        assertThat(rows.get(20).get(0).getMethod()).isEqualTo(SET_NULL);
+        assertThat(rows.get(20).get(0).getArgs()).containsExactly(1, 4);
+        assertThat(rows.get(20).get(1).getArgs()).containsExactly(2, 5L);
+
+        // missing value in a primitive column
+        buffer.clear();
+        holder.set(1, SET_INT, new Object[]{1, 7});
+        buffer.addRow(holder);
+        holder.clear();
+        holder.set(2, SET_INT, new Object[]{2, 8});
+        buffer.addRow(holder);
+        holder.clear();
+
+        assertThat(rows.get(0)).hasSize(1);
+        assertThat(rows.get(0).get(0).getArgs()).containsExactly(1, 7);
+        assertThat(rows.get(1)).hasSize(1);
+        assertThat(rows.get(1).get(0).getArgs()).containsExactly(2, 8);
+    }
+
+}
@@ -0,0 +1,53 @@
+package net.ttddyy.dsproxy.proxy;
+
+import org.junit.Test;
+
+import java.lang.reflect.Method;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author Tadaya Tsuyukubo
+ */
+public class MethodUtilsTest {
+
+    @Test
+    public void testProceedExecution() throws Throwable {
+        Statement stmt = mock(Statement.class);
+        when(stmt.getMaxRows()).thenReturn(10);
+
+        Object result = MethodUtils.proceedExecution(Statement.class.getMethod("getMaxRows"), stmt, null);
+        assertThat(result).isEqualTo(10);
+
+        MethodUtils.proceedExecution(Statement.class.getMethod("setMaxRows", int.class), stmt, new Object[]{20});
+        verify(stmt).setMaxRows(20);
+
+        Method setString = PreparedStatement.class.getMethod("setString", int.class, String.class);
+        PreparedStatement ps = mock(PreparedStatement.class);
+        assertThat(MethodUtils.proceedExecution(setString, ps, new Object[]{1, "foo"})).isNull();
+        verify(ps).setString(1, "foo");
+    }
+
+    @Test
+    public void testProceedExecutionPropagatesException() throws Throwable {
+        SQLException exception = new SQLException();
+        Statement stmt = mock(Statement.class);
+        when(stmt.executeQuery("foo")).thenThrow(exception);
+
+        Method executeQuery = Statement.class.getMethod("executeQuery", String.class);
+        try {
+            MethodUtils.proceedExecution(executeQuery, stmt, new Object[]{"foo"});
+            fail("should throw SQLException");
+        } catch (SQLException ex) {
+            assertThat((Throwable) ex).isSameAs(exception);
+        }
+    }
+
+}
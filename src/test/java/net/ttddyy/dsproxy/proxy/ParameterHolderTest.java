@@ -0,0 +1,117 @@
+package net.ttddyy.dsproxy.proxy;
+
+import org.junit.Test;
+
+import java.lang.reflect.Method;
+import java.sql.CallableStatement;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author Tadaya Tsuyukubo
+ */
+public class ParameterHolderTest {
+
+    private static final Method SET_INT = MethodUtils.getMethod(PreparedStatement.class, "setInt", int.class, int.class);
+    private static final Method SET_STRING =
+            MethodUtils.getMethod(PreparedStatement.class, "setString", int.class, String.class);
+    private static final Method SET_STRING_BY_NAME =
+            MethodUtils.getMethod(CallableStatement.class, "setString", String.class, String.class);
+
+    @Test
+    public void setAndOrder() {
+        ParameterHolder holder = new ParameterHolder();
+        holder.set("foo", SET_STRING_BY_NAME, new Object[]{"foo", "FOO"});
+        holder.set(3, SET_INT, new Object[]{3, 300});
+        holder.set(1, SET_INT, new Object[]{1, 100});
+        holder.set(100, SET_INT, new Object[]{100, 10000});  // grows
+
+        List<ParameterSetOperation> list = new ArrayList<ParameterSetOperation>();
+        holder.addTo(list);
+
+        assertThat(holder.size()).isEqualTo(4);
+        assertThat(list).hasSize(4);
+        assertThat(list.get(0).getArgs()).containsExactly(1, 100);
+        assertThat(list.get(1).getArgs()).containsExactly(3, 300);
+        assertThat(list.get(2).getArgs()).containsExactly(100, 10000);
+        assertThat(list.get(3).getArgs()).containsExactly("foo", "FOO");
+
+        Map<ParameterKey, ParameterSetOperation> map = holder.asMap();
+        assertThat(map).hasSize(4);
+        assertThat(map.keySet()).containsExactly(new ParameterKey(1), new ParameterKey(3), new ParameterKey(100), new ParameterKey("foo"));
+        assertThat(map.get(new ParameterKey(3)).getArgs()).containsExactly(3, 300);
+        assertThat(map.get(new ParameterKey("foo")).getArgs()).containsExactly("foo", "FOO");
+        assertThat(map.get(new ParameterKey(2))).isNull();
+        assertThat(map.containsKey(new ParameterKey("bar"))).isFalse();
+    }
+
+    @Test
+    public void overrideReusesOperation() {
+        ParameterHolder holder = new ParameterHolder();
+        holder.set(1, SET_INT, new Object[]{1, 100});
+
+        List<ParameterSetOperation> first = new ArrayList<ParameterSetOperation>();
+        holder.addTo(first);
+
+        holder.set(1, SET_INT, new Object[]{1, 200});
+        List<ParameterSetOperation> second = new ArrayList<ParameterSetOperation>();
+        holder.addTo(second);
+
+        assertThat(holder.size()).isEqualTo(1);
+        assertThat(second.get(0)).isSameAs(first.get(0));
+        assertThat(second.get(0).getArgs()).containsExactly(1, 200);
+    }
+
+    @Test
+    public void clear() {
+        ParameterHolder holder = new ParameterHolder();
+        holder.set(1, SET_INT, new Object[]{1, 100});
+        holder.set("foo", SET_STRING_BY_NAME, new Object[]{"foo", "FOO"});
+        holder.clear();
+
+        assertThat(holder.isEmpty()).isTrue();
+        List<ParameterSetOperation> list = new ArrayList<ParameterSetOperation>();
+        holder.addTo(list);
+        assertThat(list).isEmpty();
+
+        holder.set(2, SET_INT, new Object[]{2, 200});
+        holder.addTo(list);
+        assertThat(list).hasSize(1);
+        assertThat(list.get(0).getArgs()).containsExactly(2, 200);
+    }
+
+    @Test
+    public void clearReleasesValues() {
+        ParameterHolder holder = new ParameterHolder();
+        Object[] args = new Object[]{1, "large value"};
+        holder.set(1, SET_STRING, args);
+        List<ParameterSetOperation> list = new ArrayList<ParameterSetOperation>();
+        holder.addTo(list);
+        holder.clear();
+
+        // reused operation does not keep the cleared values, the args array itself is left untouched
+        assertThat(list.get(0).getArgs()).isNull();
+        assertThat(args).containsExactly(1, "large value");
+    }
+
+    @Test
+    public void get() {
+        ParameterHolder holder = new ParameterHolder();
+        assertThat(holder.getMaxIndex()).isEqualTo(-1);
+        assertThat(holder.getNamedOperations()).isNull();
+
+        holder.set(2, SET_INT, new Object[]{2, 200});
+        assertThat(holder.getMaxIndex()).isEqualTo(2);
+        assertThat(holder.get(1)).isNull();
+        assertThat(holder.get(2).getArgs()).containsExactly(2, 200);
+        assertThat(holder.get(3)).isNull();
+
+        holder.clear();
+        assertThat(holder.get(2)).isNull();
+    }
+
+}
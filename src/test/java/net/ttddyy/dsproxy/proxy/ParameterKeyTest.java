@@ -122,4 +122,12 @@ public class ParameterKeyTest {
         assertThat(foo).isEqualByComparingTo(foo);
     }
 
+    @Test
+    public void valueOf() {
+        assertThat(ParameterKey.valueOf(1)).isSameAs(ParameterKey.valueOf(1));
+        assertThat(ParameterKey.valueOf(1)).isEqualTo(new ParameterKey(1));
+        assertThat(ParameterKey.valueOf(10000)).isEqualTo(new ParameterKey(10000));
+        assertThat(ParameterKey.valueOf(-1)).isEqualTo(new ParameterKey(-1));
+    }
+
 }
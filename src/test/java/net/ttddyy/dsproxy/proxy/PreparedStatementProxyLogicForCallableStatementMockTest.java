@@ -1,5 +1,6 @@
 package net.ttddyy.dsproxy.proxy;
 
+import net.ttddyy.dsproxy.CopyingQueryExecutionListener;
 import net.ttddyy.dsproxy.ExecutionInfo;
 import net.ttddyy.dsproxy.QueryInfo;
 import net.ttddyy.dsproxy.listener.QueryExecutionListener;
@@ -427,7 +428,7 @@ public class PreparedStatementProxyLogicForCallableStatementMockTest {
 
 
     private InterceptorHolder getInterceptorHolder(QueryExecutionListener listener) {
-        return new InterceptorHolder(listener, QueryTransformer.DEFAULT);
+        return new InterceptorHolder(new CopyingQueryExecutionListener(listener), QueryTransformer.DEFAULT);
     }
 
     private static class Param<T> {
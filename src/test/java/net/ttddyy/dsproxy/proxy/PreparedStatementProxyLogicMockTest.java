@@ -1,7 +1,10 @@
 package net.ttddyy.dsproxy.proxy;
 
+import net.ttddyy.dsproxy.CopyingQueryExecutionListener;
+import net.ttddyy.dsproxy.BatchSummary;
 import net.ttddyy.dsproxy.ExecutionInfo;
 import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.ListenerCapabilities;
 import net.ttddyy.dsproxy.listener.QueryExecutionListener;
 import net.ttddyy.dsproxy.proxy.jdk.ConnectionInvocationHandler;
 import net.ttddyy.dsproxy.proxy.jdk.JdkJdbcProxyFactory;
@@ -43,9 +46,11 @@ import static org.hamcrest.Matchers.nullValue;
 import static org.hamcrest.Matchers.sameInstance;
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
 
 /**
  * @author Tadaya Tsuyukubo
@@ -234,7 +239,7 @@ public class PreparedStatementProxyLogicMockTest {
 
         QueryExecutionListener listener = mock(QueryExecutionListener.class);
 
-        PreparedStatementProxyLogic logic = getProxyLogic(stat, query, listener);
+        PreparedStatementProxyLogic logic = getProxyLogic(stat, query, new CopyingQueryExecutionListener(listener));
 
         Method setString = PreparedStatement.class.getMethod("setString", int.class, String.class);
         Method setInt = PreparedStatement.class.getMethod("setInt", int.class, int.class);
@@ -294,7 +299,7 @@ public class PreparedStatementProxyLogicMockTest {
 
         QueryExecutionListener listener = mock(QueryExecutionListener.class);
 
-        PreparedStatementProxyLogic logic = getProxyLogic(stat, query, listener);
+        PreparedStatementProxyLogic logic = getProxyLogic(stat, query, new CopyingQueryExecutionListener(listener));
 
         Method setString = PreparedStatement.class.getMethod("setString", int.class, String.class);
         Method setInt = PreparedStatement.class.getMethod("setInt", int.class, int.class);
@@ -343,7 +348,7 @@ public class PreparedStatementProxyLogicMockTest {
 
         QueryExecutionListener listener = mock(QueryExecutionListener.class);
 
-        PreparedStatementProxyLogic logic = getProxyLogic(stat, query, listener);
+        PreparedStatementProxyLogic logic = getProxyLogic(stat, query, new CopyingQueryExecutionListener(listener));
 
         Method setString = PreparedStatement.class.getMethod("setString", int.class, String.class);
         Method setInt = PreparedStatement.class.getMethod("setInt", int.class, int.class);
@@ -387,7 +392,7 @@ public class PreparedStatementProxyLogicMockTest {
 
         QueryExecutionListener listener = mock(QueryExecutionListener.class);
 
-        PreparedStatementProxyLogic logic = getProxyLogic(stat, query, listener);
+        PreparedStatementProxyLogic logic = getProxyLogic(stat, query, new CopyingQueryExecutionListener(listener));
 
         Method setString = PreparedStatement.class.getMethod("setString", int.class, String.class);
         Method setInt = PreparedStatement.class.getMethod("setInt", int.class, int.class);
@@ -490,4 +495,192 @@ public class PreparedStatementProxyLogicMockTest {
         assertThat(resultConn, is(sameInstance(conn)));
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testBatchParametersReleasedAfterExecution() throws Throwable {
+        final String query = "update emp set name = ? where id = ?";
+
+        PreparedStatement stat = mock(PreparedStatement.class);
+        QueryExecutionListener listener = mock(QueryExecutionListener.class);
+        PreparedStatementProxyLogic logic = getProxyLogic(stat, query, listener);
+
+        Method setInt = PreparedStatement.class.getMethod("setInt", int.class, int.class);
+        Method addBatch = PreparedStatement.class.getMethod("addBatch");
+        Method executeBatch = PreparedStatement.class.getMethod("executeBatch");
+
+        logic.invoke(setInt, new Object[]{1, 100});
+        logic.invoke(addBatch, null);
+        logic.invoke(executeBatch, null);
+
+        ArgumentCaptor<List> queryInfoListCaptor = ArgumentCaptor.forClass(List.class);
+        verify(listener).afterQuery(any(ExecutionInfo.class), queryInfoListCaptor.capture());
+
+        // listeners must not retain parameters, they are released right after the callbacks
+        QueryInfo queryInfo = (QueryInfo) queryInfoListCaptor.getValue().get(0);
+        assertThat(queryInfo.getParametersList(), hasSize(0));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testRepeatedExecution() throws Throwable {
+        final String query = "select * from emp where id = ?";
+
+        PreparedStatement stat = mock(PreparedStatement.class);
+        QueryExecutionListener listener = mock(QueryExecutionListener.class);
+        PreparedStatementProxyLogic logic = getProxyLogic(stat, query, listener);
+
+        Method setInt = PreparedStatement.class.getMethod("setInt", int.class, int.class);
+        Method executeQuery = PreparedStatement.class.getMethod("executeQuery");
+
+        logic.invoke(setInt, new Object[]{1, 100});
+        logic.invoke(executeQuery, null);
+        logic.invoke(setInt, new Object[]{1, 200});
+        logic.invoke(executeQuery, null);
+
+        ArgumentCaptor<ExecutionInfo> beforeExecInfoCaptor = ArgumentCaptor.forClass(ExecutionInfo.class);
+        ArgumentCaptor<ExecutionInfo> afterExecInfoCaptor = ArgumentCaptor.forClass(ExecutionInfo.class);
+        ArgumentCaptor<List> queryInfoListCaptor = ArgumentCaptor.forClass(List.class);
+        verify(listener, times(2)).beforeQuery(beforeExecInfoCaptor.capture(), any(List.class));
+        verify(listener, times(2)).afterQuery(afterExecInfoCaptor.capture(), queryInfoListCaptor.capture());
+
+        // same ExecutionInfo for before and after
+        assertThat(beforeExecInfoCaptor.getAllValues().get(0), is(sameInstance(afterExecInfoCaptor.getAllValues().get(0))));
+        assertThat(beforeExecInfoCaptor.getAllValues().get(1), is(sameInstance(afterExecInfoCaptor.getAllValues().get(1))));
+
+        // query holders are reused
+        List<List> queryInfoLists = queryInfoListCaptor.getAllValues();
+        assertThat(queryInfoLists.get(0), is(sameInstance(queryInfoLists.get(1))));
+
+        QueryInfo queryInfo = (QueryInfo) queryInfoLists.get(1).get(0);
+        assertThat(queryInfo.getQuery(), is(query));
+        assertThat(queryInfo.getParametersList(), hasSize(1));
+        assertThat(queryInfo.getParametersList().get(0), hasSize(1));
+        assertThat(queryInfo.getParametersList().get(0).get(0).getArgs()[1], is((Object) 200));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testListenerCapabilities() throws Throwable {
+        final String query = "update emp set name = ? where id = ?";
+
+        PreparedStatement stat = mock(PreparedStatement.class);
+        QueryExecutionListener listener = mock(QueryExecutionListener.class, withSettings().extraInterfaces(ListenerCapabilities.class));
+        when(((ListenerCapabilities) listener).getCapabilities()).thenReturn(ListenerCapabilities.AFTER_QUERY);
+
+        Ticker ticker = mock(Ticker.class);
+        InterceptorHolder interceptorHolder = new InterceptorHolder(listener, QueryTransformer.DEFAULT);
+        interceptorHolder.setTicker(ticker);
+        PreparedStatementProxyLogic logic = new PreparedStatementProxyLogic(stat, query, interceptorHolder, DS_NAME, new JdkJdbcProxyFactory());
+
+        Method setString = PreparedStatement.class.getMethod("setString", int.class, String.class);
+        Method addBatch = PreparedStatement.class.getMethod("addBatch");
+        Method executeBatch = PreparedStatement.class.getMethod("executeBatch");
+
+        logic.invoke(setString, new Object[]{1, "foo"});
+        logic.invoke(addBatch, null);
+        logic.invoke(setString, new Object[]{1, "bar"});
+        logic.invoke(addBatch, null);
+        logic.invoke(executeBatch, null);
+
+        // parameters are passed to the actual statement
+        verify(stat).setString(1, "foo");
+        verify(stat).setString(1, "bar");
+
+        ArgumentCaptor<ExecutionInfo> executionInfoCaptor = ArgumentCaptor.forClass(ExecutionInfo.class);
+        ArgumentCaptor<List> queryInfoListCaptor = ArgumentCaptor.forClass(List.class);
+        verify(listener, never()).beforeQuery(any(ExecutionInfo.class), any(List.class));
+        verify(listener).afterQuery(executionInfoCaptor.capture(), queryInfoListCaptor.capture());
+        verify(ticker, never()).read();
+
+        ExecutionInfo execInfo = executionInfoCaptor.getValue();
+        assertThat(execInfo.isBatch(), is(true));
+        assertThat(execInfo.getBatchSize(), is(2));
+        assertThat(execInfo.getResult(), is(nullValue()));
+
+        // parameters are not captured
+        List<QueryInfo> queryInfoList = queryInfoListCaptor.getValue();
+        assertThat(queryInfoList, hasSize(1));
+        assertThat(queryInfoList.get(0).getQuery(), is(query));
+        assertThat(queryInfoList.get(0).getParametersList(), is(empty()));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testNoCapabilities() throws Throwable {
+        final String query = "select * from emp where id = ?";
+
+        PreparedStatement stat = mock(PreparedStatement.class);
+        QueryExecutionListener listener = mock(QueryExecutionListener.class, withSettings().extraInterfaces(ListenerCapabilities.class));
+        when(((ListenerCapabilities) listener).getCapabilities()).thenReturn(ListenerCapabilities.NONE);
+        PreparedStatementProxyLogic logic = getProxyLogic(stat, query, listener);
+
+        Method setInt = PreparedStatement.class.getMethod("setInt", int.class, int.class);
+        Method executeQuery = PreparedStatement.class.getMethod("executeQuery");
+
+        logic.invoke(setInt, new Object[]{1, 100});
+        logic.invoke(executeQuery, null);
+
+        verify(stat).setInt(1, 100);
+        verify(stat).executeQuery();
+        verify(listener, never()).beforeQuery(any(ExecutionInfo.class), any(List.class));
+        verify(listener, never()).afterQuery(any(ExecutionInfo.class), any(List.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testBatchWithBoundedCapture() throws Throwable {
+        final String query = "update emp set name = ? where id = ?";
+
+        PreparedStatement stat = mock(PreparedStatement.class);
+        QueryExecutionListener listener = mock(QueryExecutionListener.class);
+
+        InterceptorHolder interceptorHolder =
+                new InterceptorHolder(new CopyingQueryExecutionListener(listener), QueryTransformer.DEFAULT);
+        interceptorHolder.setBatchCapturePolicy(BatchCapturePolicy.firstRows(1));
+        PreparedStatementProxyLogic logic = new PreparedStatementProxyLogic(stat, query, interceptorHolder, DS_NAME, new JdkJdbcProxyFactory());
+
+        Method setString = PreparedStatement.class.getMethod("setString", int.class, String.class);
+        Method setInt = PreparedStatement.class.getMethod("setInt", int.class, int.class);
+        Method setNull = PreparedStatement.class.getMethod("setNull", int.class, int.class);
+        Method addBatch = PreparedStatement.class.getMethod("addBatch");
+        Method executeBatch = PreparedStatement.class.getMethod("executeBatch");
+
+        logic.invoke(setString, new Object[]{1, "foo"});
+        logic.invoke(setInt, new Object[]{2, 100});
+        logic.invoke(addBatch, null);
+        logic.invoke(setNull, new Object[]{1, Types.VARCHAR});
+        logic.invoke(setInt, new Object[]{2, 200});
+        logic.invoke(addBatch, null);
+        logic.invoke(setString, new Object[]{1, null});
+        logic.invoke(setInt, new Object[]{2, 300});
+        logic.invoke(addBatch, null);
+        logic.invoke(executeBatch, null);
+
+        ArgumentCaptor<ExecutionInfo> executionInfoCaptor = ArgumentCaptor.forClass(ExecutionInfo.class);
+        ArgumentCaptor<List> queryInfoListCaptor = ArgumentCaptor.forClass(List.class);
+        verify(listener).afterQuery(executionInfoCaptor.capture(), queryInfoListCaptor.capture());
+
+        assertThat(executionInfoCaptor.getValue().getBatchSize(), is(3));
+
+        QueryInfo queryInfo = (QueryInfo) queryInfoListCaptor.getValue().get(0);
+        assertThat(queryInfo.getParametersList(), hasSize(1));
+        assertThat(queryInfo.getParametersList().get(0).get(0).getArgs()[1], is((Object) "foo"));
+
+        BatchSummary batchSummary = queryInfo.getBatchSummary();
+        assertThat(batchSummary.getRowCount(), is(3));
+        assertThat(batchSummary.getCapturedRowCount(), is(1));
+        assertThat(batchSummary.getNullCount(), is(2L));
+        assertThat(batchSummary.getTotalByteSize(), is(6L + 4 * 3));
+
+        // summary is reset for next batch
+        logic.invoke(setInt, new Object[]{2, 400});
+        logic.invoke(addBatch, null);
+        logic.invoke(executeBatch, null);
+
+        verify(listener, times(2)).afterQuery(executionInfoCaptor.capture(), queryInfoListCaptor.capture());
+        batchSummary = ((QueryInfo) queryInfoListCaptor.getValue().get(0)).getBatchSummary();
+        assertThat(batchSummary.getRowCount(), is(1));
+        assertThat(batchSummary.getNullCount(), is(0L));
+    }
+
 }
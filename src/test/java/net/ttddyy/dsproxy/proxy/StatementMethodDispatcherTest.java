@@ -0,0 +1,55 @@
+package net.ttddyy.dsproxy.proxy;
+
+import org.junit.Test;
+
+import java.sql.CallableStatement;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.sql.Wrapper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author Tadaya Tsuyukubo
+ */
+public class StatementMethodDispatcherTest {
+
+    @Test
+    public void testGetAction() throws Exception {
+        assertThat(action(Object.class, "toString")).isEqualTo(StatementMethodDispatcher.TO_STRING);
+        assertThat(action(ProxyJdbcObject.class, "getTarget")).isEqualTo(StatementMethodDispatcher.GET_TARGET);
+        assertThat(action(DataSourceNameAware.class, "getDataSourceName")).isEqualTo(StatementMethodDispatcher.GET_DATA_SOURCE_NAME);
+        assertThat(action(Wrapper.class, "unwrap", Class.class)).isEqualTo(StatementMethodDispatcher.UNWRAP);
+        assertThat(action(Wrapper.class, "isWrapperFor", Class.class)).isEqualTo(StatementMethodDispatcher.IS_WRAPPER_FOR);
+        assertThat(action(Statement.class, "getConnection")).isEqualTo(StatementMethodDispatcher.GET_CONNECTION);
+        assertThat(action(PreparedStatement.class, "setInt", int.class, int.class)).isEqualTo(StatementMethodDispatcher.SET_PARAMETER);
+        assertThat(action(CallableStatement.class, "registerOutParameter", String.class, int.class)).isEqualTo(StatementMethodDispatcher.SET_PARAMETER);
+        assertThat(action(PreparedStatement.class, "clearParameters")).isEqualTo(StatementMethodDispatcher.CLEAR_PARAMETERS);
+        assertThat(action(Statement.class, "addBatch", String.class)).isEqualTo(StatementMethodDispatcher.ADD_BATCH);
+        assertThat(action(PreparedStatement.class, "addBatch")).isEqualTo(StatementMethodDispatcher.ADD_BATCH);
+        assertThat(action(Statement.class, "clearBatch")).isEqualTo(StatementMethodDispatcher.CLEAR_BATCH);
+        assertThat(action(Statement.class, "executeBatch")).isEqualTo(StatementMethodDispatcher.BATCH_EXECUTION);
+        assertThat(action(Statement.class, "executeLargeBatch")).isEqualTo(StatementMethodDispatcher.BATCH_EXECUTION);
+        assertThat(action(Statement.class, "executeQuery", String.class)).isEqualTo(StatementMethodDispatcher.QUERY_EXECUTION);
+        assertThat(action(PreparedStatement.class, "execute")).isEqualTo(StatementMethodDispatcher.QUERY_EXECUTION);
+        assertThat(action(Statement.class, "getFetchSize")).isEqualTo(StatementMethodDispatcher.PROCEED);
+        assertThat(action(Object.class, "hashCode")).isEqualTo(StatementMethodDispatcher.PROCEED);
+    }
+
+    @Test
+    public void testGetActionForUnknownMethod() throws Exception {
+        assertThat(action(MyStatement.class, "executeQuery")).isEqualTo(StatementMethodDispatcher.QUERY_EXECUTION);
+        assertThat(action(MyStatement.class, "doSomething")).isEqualTo(StatementMethodDispatcher.PROCEED);
+    }
+
+    private int action(Class<?> clazz, String name, Class<?>... parameterTypes) throws Exception {
+        return StatementMethodDispatcher.getAction(clazz.getMethod(name, parameterTypes));
+    }
+
+    public interface MyStatement {
+        void executeQuery();
+
+        void doSomething();
+    }
+
+}
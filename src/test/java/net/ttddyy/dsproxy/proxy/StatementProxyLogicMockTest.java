@@ -1,7 +1,9 @@
 package net.ttddyy.dsproxy.proxy;
 
+import net.ttddyy.dsproxy.BatchSummary;
 import net.ttddyy.dsproxy.ExecutionInfo;
 import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.QueryType;
 import net.ttddyy.dsproxy.listener.QueryExecutionListener;
 import net.ttddyy.dsproxy.proxy.jdk.ConnectionInvocationHandler;
 import net.ttddyy.dsproxy.proxy.jdk.JdkJdbcProxyFactory;
@@ -17,6 +19,7 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
@@ -421,6 +424,34 @@ public class StatementProxyLogicMockTest {
         verifyListener(listener, "executeLargeUpdate", query, query);
     }
 
+    @Test
+    public void testElapsedTimeWithTicker() throws Throwable {
+        final String query = "select * from emp";
+
+        Statement stat = mock(Statement.class);
+        QueryExecutionListener listener = mock(QueryExecutionListener.class);
+
+        Ticker ticker = mock(Ticker.class);
+        when(ticker.read()).thenReturn(1000L, 3500L);
+
+        InterceptorHolder interceptorHolder = new InterceptorHolder(listener, QueryTransformer.DEFAULT);
+        interceptorHolder.setTicker(ticker);
+        StatementProxyLogic logic = new StatementProxyLogic(stat, interceptorHolder, DS_NAME, new JdkJdbcProxyFactory());
+
+        Method method = Statement.class.getMethod("executeQuery", String.class);
+        logic.invoke(method, new Object[]{query});
+
+        ArgumentCaptor<ExecutionInfo> executionInfoCaptor = ArgumentCaptor.forClass(ExecutionInfo.class);
+        verify(listener).afterQuery(executionInfoCaptor.capture(), anyList());
+
+        ExecutionInfo execInfo = executionInfoCaptor.getValue();
+        assertThat(execInfo.getStartTime(), is(1000L));
+        assertThat(execInfo.getEndTime(), is(3500L));
+        assertThat(execInfo.getElapsedTime(TimeUnit.NANOSECONDS), is(2500L));
+        assertThat(execInfo.getElapsedTime(TimeUnit.MICROSECONDS), is(2L));
+        assertThat(execInfo.getElapsedTime(), is(0L));
+    }
+
     private StatementProxyLogic getProxyLogic(Statement statement, QueryExecutionListener listener) {
         InterceptorHolder interceptorHolder = new InterceptorHolder(listener, QueryTransformer.DEFAULT);
         return new StatementProxyLogic(statement, interceptorHolder, DS_NAME, new JdkJdbcProxyFactory());
@@ -753,4 +784,77 @@ public class StatementProxyLogicMockTest {
 
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testBatchWithBoundedCapture() throws Throwable {
+        Statement stat = mock(Statement.class);
+        QueryExecutionListener listener = mock(QueryExecutionListener.class);
+
+        InterceptorHolder interceptorHolder = new InterceptorHolder(listener, QueryTransformer.DEFAULT);
+        interceptorHolder.setBatchCapturePolicy(BatchCapturePolicy.firstRows(2));
+        StatementProxyLogic logic = new StatementProxyLogic(stat, interceptorHolder, DS_NAME, new JdkJdbcProxyFactory());
+
+        Method addBatch = Statement.class.getMethod("addBatch", String.class);
+        Method executeBatch = Statement.class.getMethod("executeBatch");
+
+        logic.invoke(addBatch, new Object[]{"insert a"});
+        logic.invoke(addBatch, new Object[]{"insert b"});
+        logic.invoke(addBatch, new Object[]{"insert c"});
+        logic.invoke(executeBatch, null);
+
+        verify(stat).addBatch("insert c");
+
+        ArgumentCaptor<ExecutionInfo> executionInfoCaptor = ArgumentCaptor.forClass(ExecutionInfo.class);
+        ArgumentCaptor<List> queryInfoListCaptor = ArgumentCaptor.forClass(List.class);
+        verify(listener).afterQuery(executionInfoCaptor.capture(), queryInfoListCaptor.capture());
+
+        assertThat(executionInfoCaptor.getValue().getBatchSize(), is(3));
+
+        List<QueryInfo> queryInfoList = queryInfoListCaptor.getValue();
+        assertThat(queryInfoList, hasSize(2));
+        assertThat(queryInfoList.get(0).getQuery(), is("insert a"));
+        assertThat(queryInfoList.get(1).getQuery(), is("insert b"));
+
+        BatchSummary batchSummary = queryInfoList.get(0).getBatchSummary();
+        assertThat(batchSummary, is(sameInstance(queryInfoList.get(1).getBatchSummary())));
+        assertThat(batchSummary.getRowCount(), is(3));
+        assertThat(batchSummary.getCapturedRowCount(), is(2));
+        assertThat(batchSummary.isTruncated(), is(true));
+        assertThat(batchSummary.getTotalByteSize(), is(48L));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testBatchWithoutCapturedEntry() throws Throwable {
+        Statement stat = mock(Statement.class);
+        QueryExecutionListener listener = mock(QueryExecutionListener.class);
+
+        InterceptorHolder interceptorHolder = new InterceptorHolder(listener, QueryTransformer.DEFAULT);
+        interceptorHolder.setBatchCapturePolicy(BatchCapturePolicy.firstRows(0));
+        StatementProxyLogic logic = new StatementProxyLogic(stat, interceptorHolder, DS_NAME, new JdkJdbcProxyFactory());
+
+        Method addBatch = Statement.class.getMethod("addBatch", String.class);
+        Method executeBatch = Statement.class.getMethod("executeBatch");
+
+        logic.invoke(addBatch, new Object[]{"insert into a values (1)"});
+        logic.invoke(addBatch, new Object[]{"insert into a values (2)"});
+        logic.invoke(addBatch, new Object[]{"delete from b"});
+        logic.invoke(executeBatch, null);
+
+        ArgumentCaptor<ExecutionInfo> executionInfoCaptor = ArgumentCaptor.forClass(ExecutionInfo.class);
+        ArgumentCaptor<List> queryInfoListCaptor = ArgumentCaptor.forClass(List.class);
+        verify(listener).afterQuery(executionInfoCaptor.capture(), queryInfoListCaptor.capture());
+
+        // summary is still delivered
+        List<QueryInfo> queryInfoList = queryInfoListCaptor.getValue();
+        assertThat(queryInfoList, hasSize(1));
+        assertThat(queryInfoList.get(0).getQuery(), is(nullValue()));
+
+        BatchSummary batchSummary = queryInfoList.get(0).getBatchSummary();
+        assertThat(batchSummary.getRowCount(), is(3));
+        assertThat(batchSummary.getCapturedRowCount(), is(0));
+        assertThat(batchSummary.getQueryTypeCount(QueryType.INSERT), is(2));
+        assertThat(batchSummary.getQueryTypeCount(QueryType.DELETE), is(1));
+    }
+
 }
@@ -0,0 +1,232 @@
+package net.ttddyy.dsproxy.proxy.delegate;
+
+import net.ttddyy.dsproxy.CopyingQueryExecutionListener;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.TestUtils;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.InterceptorHolder;
+import net.ttddyy.dsproxy.proxy.ProxyJdbcObject;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import net.ttddyy.dsproxy.transform.QueryTransformer;
+import net.ttddyy.dsproxy.transform.TransformInfo;
+import org.junit.Test;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author Tadaya Tsuyukubo
+ */
+public class DelegateJdbcProxyFactoryTest {
+
+    private DelegateJdbcProxyFactory factory = new DelegateJdbcProxyFactory();
+
+    @Test
+    public void testCreateConnection() {
+        Connection conn = mock(Connection.class);
+        InterceptorHolder interceptors = mock(InterceptorHolder.class);
+
+        Connection result = factory.createConnection(conn, interceptors, "my-ds");
+
+        assertThat(result).isNotNull().isNotSameAs(conn).isInstanceOf(ProxyJdbcObject.class);
+        assertThat(((ProxyJdbcObject) result).getTarget()).isSameAs(conn);
+    }
+
+    @Test
+    public void testCreateStatement() {
+        Statement stmt = mock(Statement.class);
+        InterceptorHolder interceptors = mock(InterceptorHolder.class);
+
+        Statement result = factory.createStatement(stmt, interceptors, "my-ds");
+
+        assertThat(result).isNotNull().isNotSameAs(stmt).isInstanceOf(ProxyJdbcObject.class);
+        assertThat(((ProxyJdbcObject) result).getTarget()).isSameAs(stmt);
+    }
+
+    @Test
+    public void testCreatePreparedStatement() {
+        PreparedStatement ps = mock(PreparedStatement.class);
+        InterceptorHolder interceptors = mock(InterceptorHolder.class);
+
+        PreparedStatement result = factory.createPreparedStatement(ps, "my-query", interceptors, "my-ds");
+
+        assertThat(result).isNotNull().isNotSameAs(ps).isInstanceOf(ProxyJdbcObject.class);
+        assertThat(((ProxyJdbcObject) result).getTarget()).isSameAs(ps);
+    }
+
+    @Test
+    public void testCreateCallableStatement() {
+        CallableStatement cs = mock(CallableStatement.class);
+        InterceptorHolder interceptors = mock(InterceptorHolder.class);
+
+        CallableStatement result = factory.createCallableStatement(cs, "my-query", interceptors, "my-ds");
+
+        assertThat(result).isNotNull().isNotSameAs(cs).isInstanceOf(ProxyJdbcObject.class);
+        assertThat(((ProxyJdbcObject) result).getTarget()).isSameAs(cs);
+    }
+
+    @Test
+    public void testCreateDataSource() {
+        DataSource ds = mock(DataSource.class);
+        InterceptorHolder interceptors = mock(InterceptorHolder.class);
+
+        DataSource result = factory.createDataSource(ds, interceptors, "my-ds");
+
+        assertThat(result).isNotNull().isNotSameAs(ds).isInstanceOf(ProxyJdbcObject.class);
+        assertThat(((ProxyJdbcObject) result).getTarget()).isSameAs(ds);
+    }
+
+    @Test
+    public void testNonInterceptedMethodDelegates() throws Exception {
+        Statement stmt = mock(Statement.class);
+        InterceptorHolder interceptors = mock(InterceptorHolder.class);
+
+        Statement result = factory.createStatement(stmt, interceptors, "my-ds");
+        result.setFetchSize(10);
+
+        verify(stmt).setFetchSize(10);
+    }
+
+    @Test
+    public void testInterception() throws Exception {
+        DataSource actualDataSource = TestUtils.getDataSourceWithData();
+        final List<ExecutionInfo> executions = new ArrayList<ExecutionInfo>();
+        final List<QueryInfo> queries = new ArrayList<QueryInfo>();
+
+        ProxyDataSource proxyDataSource = ProxyDataSourceBuilder.create(actualDataSource)
+                .name("my-ds")
+                .jdbcProxyFactory(factory)
+                .listener(new QueryExecutionListener() {
+                    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+                    }
+
+                    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+                        executions.add(execInfo);
+                        queries.addAll(CopyingQueryExecutionListener.copy(queryInfoList));
+                    }
+                })
+                .build();
+
+        try {
+            Connection conn = proxyDataSource.getConnection();
+            assertThat(conn).isInstanceOf(DelegatingConnection.class);
+
+            Statement stmt = conn.createStatement();
+            assertThat(stmt).isInstanceOf(DelegatingStatement.class);
+            ResultSet rs = stmt.executeQuery("select * from emp");
+            assertThat(rs.next()).isTrue();
+            assertThat(stmt.getConnection()).isInstanceOf(DelegatingConnection.class);
+
+            PreparedStatement ps = conn.prepareStatement("update emp set name = ? where id = ?");
+            assertThat(ps).isInstanceOf(DelegatingPreparedStatement.class);
+            ps.setString(1, "FOO");
+            ps.setInt(2, 1);
+            ps.addBatch();
+            ps.setString(1, "BAR");
+            ps.setInt(2, 2);
+            ps.addBatch();
+            ps.executeBatch();
+
+            conn.close();
+        } finally {
+            TestUtils.shutdown(actualDataSource);
+        }
+
+        assertThat(executions).hasSize(2);
+        assertThat(executions.get(0).getDataSourceName()).isEqualTo("my-ds");
+        assertThat(executions.get(0).getMethod().getName()).isEqualTo("executeQuery");
+        assertThat(executions.get(0).isSuccess()).isTrue();
+        assertThat(executions.get(1).isBatch()).isTrue();
+        assertThat(executions.get(1).getBatchSize()).isEqualTo(2);
+
+        assertThat(queries).hasSize(2);
+        assertThat(queries.get(0).getQuery()).isEqualTo("select * from emp");
+        assertThat(queries.get(1).getQuery()).isEqualTo("update emp set name = ? where id = ?");
+        assertThat(queries.get(1).getParametersList()).hasSize(2);
+        assertThat(queries.get(1).getParametersList().get(1).get(0).getArgs()).containsExactly(1, "BAR");
+    }
+
+    @Test
+    public void testDeclaresAllInterfaceMethods() {
+        assertDeclaresAllMethods(DelegatingDataSource.class, DataSource.class);
+        assertDeclaresAllMethods(DelegatingConnection.class, Connection.class);
+        assertDeclaresAllMethods(DelegatingStatement.class, Statement.class);
+        assertDeclaresAllMethods(DelegatingPreparedStatement.class, PreparedStatement.class);
+        assertDeclaresAllMethods(DelegatingCallableStatement.class, CallableStatement.class);
+    }
+
+    private void assertDeclaresAllMethods(Class<?> delegatingClass, Class<?> jdbcInterface) {
+        List<String> missing = new ArrayList<String>();
+        for (Method method : jdbcInterface.getMethods()) {
+            if (method.isDefault() || Modifier.isStatic(method.getModifiers())) {
+                continue;  // newer JDBC versions add default methods
+            }
+            try {
+                delegatingClass.getDeclaredMethod(method.getName(), method.getParameterTypes());
+            } catch (NoSuchMethodException ex) {
+                missing.add(method.toString());
+            }
+        }
+        assertThat(missing).as("methods not implemented by %s", delegatingClass.getSimpleName()).isEmpty();
+    }
+
+    @Test
+    public void testDirectCallsUseTransformedQuery() throws Exception {
+        Statement stmt = mock(Statement.class);
+        ResultSet rs = mock(ResultSet.class);
+        when(stmt.executeQuery("transformed")).thenReturn(rs);
+        QueryTransformer transformer = new QueryTransformer() {
+            @Override
+            public String transformQuery(TransformInfo transformInfo) {
+                return "transformed";
+            }
+        };
+        List<QueryInfo> queries = new ArrayList<QueryInfo>();
+        LastQueryCollector listener = new LastQueryCollector(queries);
+        InterceptorHolder interceptors = new InterceptorHolder(listener, transformer);
+
+        Statement result = factory.createStatement(stmt, interceptors, "my-ds");
+        assertThat(result.executeQuery("select 1")).isSameAs(rs);
+        result.addBatch("insert 1");
+        result.executeBatch();
+
+        verify(stmt).executeQuery("transformed");
+        verify(stmt).addBatch("transformed");
+        verify(stmt).executeBatch();
+        assertThat(queries).extracting("query").containsExactly("transformed", "transformed");
+    }
+
+    private static class LastQueryCollector implements QueryExecutionListener {
+
+        private final List<QueryInfo> queries;
+
+        LastQueryCollector(List<QueryInfo> queries) {
+            this.queries = queries;
+        }
+
+        @Override
+        public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        }
+
+        @Override
+        public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            this.queries.addAll(CopyingQueryExecutionListener.copy(queryInfoList));
+        }
+    }
+
+}
@@ -1,8 +1,15 @@
 package net.ttddyy.dsproxy.support;
 
+import net.ttddyy.dsproxy.LatencyHistogram;
 import net.ttddyy.dsproxy.QueryCount;
+import net.ttddyy.dsproxy.QueryType;
+import net.ttddyy.dsproxy.RepeatedQuery;
+import net.ttddyy.dsproxy.StatementType;
+import net.ttddyy.dsproxy.listener.QueryLatencyListener;
 import org.junit.Test;
 
+import java.util.concurrent.TimeUnit;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 /**
@@ -44,4 +51,74 @@ public class DefaultQueryCountLogEntryCreatorTest {
         String jsonLog = new DefaultQueryCountLogEntryCreator().getLogMessageAsJson(null, queryCount);
         assertThat(jsonLog).isEqualTo("{\"name\":null, \"time\":0, \"total\":0, \"success\":0, \"failure\":0, \"select\":0, \"insert\":0, \"update\":0, \"delete\":0, \"other\":0, \"statement\":0, \"prepared\":0, \"callable\":0}");
     }
+
+    @Test
+    public void logFormatWithTimeUnit() {
+        QueryCount queryCount = new QueryCount();
+        queryCount.incrementTime(1500, TimeUnit.MICROSECONDS);
+        queryCount.incrementTime(250, TimeUnit.MICROSECONDS);
+
+        DefaultQueryCountLogEntryCreator creator = new DefaultQueryCountLogEntryCreator();
+        assertThat(creator.getLogMessage("DS", queryCount)).startsWith("Name:DS, Time:1, ");
+
+        creator.setTimeUnit(TimeUnit.MICROSECONDS);
+        assertThat(creator.getLogMessage("DS", queryCount)).startsWith("Name:DS, Time:1750, ");
+        assertThat(creator.getLogMessageAsJson("DS", queryCount)).startsWith("{\"name\":\"DS\", \"time\":1750, ");
+    }
+
+    @Test
+    public void logFormatWithBreakdown() {
+        QueryCount queryCount = new QueryCount();
+        queryCount.incrementTime(QueryType.SELECT, 5, TimeUnit.MILLISECONDS);
+        queryCount.incrementTime(QueryType.INSERT, 3, TimeUnit.MILLISECONDS);
+        queryCount.incrementTime(QueryType.MERGE, 2, TimeUnit.MILLISECONDS);
+        queryCount.incrementTime(StatementType.PREPARED, 8, TimeUnit.MILLISECONDS);
+        queryCount.incrementTime(StatementType.CALLABLE, 2, TimeUnit.MILLISECONDS);
+        queryCount.incrementRows(QueryType.INSERT, 10);
+        queryCount.incrementRows(QueryType.DELETE, 4);
+
+        DefaultQueryCountLogEntryCreator creator = new DefaultQueryCountLogEntryCreator();
+        assertThat(creator.getLogMessage("DS", queryCount)).endsWith(", Callable:0");
+        assertThat(creator.getLogMessageAsJson("DS", queryCount)).endsWith("\"callable\":0}");
+
+        creator.setWriteBreakdown(true);
+        assertThat(creator.getLogMessage("DS", queryCount)).endsWith(", Callable:0"
+                + ", SelectTime:5, InsertTime:3, UpdateTime:0, DeleteTime:0, OtherTime:2"
+                + ", StatementTime:0, PreparedTime:8, CallableTime:2"
+                + ", InsertRows:10, UpdateRows:0, DeleteRows:4, OtherRows:0");
+        assertThat(creator.getLogMessageAsJson("DS", queryCount)).endsWith("\"callable\":0"
+                + ", \"selectTime\":5, \"insertTime\":3, \"updateTime\":0, \"deleteTime\":0, \"otherTime\":2"
+                + ", \"statementTime\":0, \"preparedTime\":8, \"callableTime\":2"
+                + ", \"insertRows\":10, \"updateRows\":0, \"deleteRows\":4, \"otherRows\":0}");
+    }
+
+    @Test
+    public void latencyLogFormat() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(2, TimeUnit.MILLISECONDS);
+        histogram.record(4, TimeUnit.MILLISECONDS);
+        QueryLatencyListener.QueryLatency latency =
+                new QueryLatencyListener.QueryLatency(1L, "select \"a\" from foo where id = ?", histogram.snapshot());
+
+        DefaultQueryCountLogEntryCreator creator = new DefaultQueryCountLogEntryCreator();
+        assertThat(creator.getLatencyLogMessage(latency))
+                .isEqualTo("Query:\"select \"a\" from foo where id = ?\", Count:2, Mean:3, P50:2, P95:4, P99:4, Max:4");
+        assertThat(creator.getLatencyLogMessageAsJson(latency))
+                .isEqualTo("{\"query\":\"select \\\"a\\\" from foo where id = ?\", \"count\":2, \"mean\":3, \"p50\":2, \"p95\":4, \"p99\":4, \"max\":4}");
+    }
+
+    @Test
+    public void repeatedQueryLogMessage() {
+        RepeatedQuery repeatedQuery =
+                new RepeatedQuery(RepeatedQuery.Pattern.N_PLUS_ONE, 1L, "select \"a\" from foo where id = ?");
+        repeatedQuery.increment(3, TimeUnit.MILLISECONDS);
+        repeatedQuery.increment(5, TimeUnit.MILLISECONDS);
+
+        DefaultQueryCountLogEntryCreator creator = new DefaultQueryCountLogEntryCreator();
+        assertThat(creator.getRepeatedQueryLogMessage(repeatedQuery))
+                .isEqualTo("Query:\"select \"a\" from foo where id = ?\", Pattern:N_PLUS_ONE, Count:2, Time:8");
+        assertThat(creator.getRepeatedQueryLogMessageAsJson(repeatedQuery))
+                .isEqualTo("{\"query\":\"select \\\"a\\\" from foo where id = ?\", \"pattern\":\"N_PLUS_ONE\", \"count\":2, \"time\":8}");
+    }
+
 }
@@ -0,0 +1,88 @@
+package net.ttddyy.dsproxy.transform;
+
+import org.junit.Test;
+
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author Tadaya Tsuyukubo
+ */
+public class CachingQueryTransformerTest {
+
+    @Test
+    public void transformQuery() {
+        QueryTransformer delegate = mock(QueryTransformer.class);
+        when(delegate.transformQuery(any(TransformInfo.class))).thenReturn("modified");
+
+        CachingQueryTransformer transformer = new CachingQueryTransformer(delegate);
+
+        TransformInfo info = new TransformInfo(PreparedStatement.class, "myDS", "select 1", false, 0);
+        assertThat(transformer.transformQuery(info)).isEqualTo("modified");
+        assertThat(transformer.transformQuery(info)).isEqualTo("modified");
+        // count is not a part of key
+        info = new TransformInfo(PreparedStatement.class, "myDS", "select 1", false, 5);
+        assertThat(transformer.transformQuery(info)).isEqualTo("modified");
+
+        verify(delegate, times(1)).transformQuery(any(TransformInfo.class));
+        assertThat(transformer.getHitCount()).isEqualTo(2);
+        assertThat(transformer.getMissCount()).isEqualTo(1);
+        assertThat(transformer.size()).isEqualTo(1);
+
+        transformer.clear();
+        assertThat(transformer.size()).isEqualTo(0);
+        assertThat(transformer.getHitCount()).isEqualTo(0);
+        assertThat(transformer.getMissCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void cacheKey() {
+        QueryTransformer delegate = mock(QueryTransformer.class);
+        when(delegate.transformQuery(any(TransformInfo.class))).thenReturn("modified");
+
+        CachingQueryTransformer transformer = new CachingQueryTransformer(delegate);
+        transformer.transformQuery(new TransformInfo(PreparedStatement.class, "myDS", "select 1", false, 0));
+        transformer.transformQuery(new TransformInfo(Statement.class, "myDS", "select 1", false, 0));
+        transformer.transformQuery(new TransformInfo(Statement.class, "otherDS", "select 1", false, 0));
+        transformer.transformQuery(new TransformInfo(Statement.class, null, "select 1", false, 0));
+        transformer.transformQuery(new TransformInfo(Statement.class, "myDS", "select 1", true, 0));
+        transformer.transformQuery(new TransformInfo(Statement.class, "myDS", "select 2", false, 0));
+
+        verify(delegate, times(6)).transformQuery(any(TransformInfo.class));
+        assertThat(transformer.getHitCount()).isEqualTo(0);
+        assertThat(transformer.getMissCount()).isEqualTo(6);
+    }
+
+    @Test
+    public void evictLeastRecentlyUsed() {
+        CachingQueryTransformer transformer = new CachingQueryTransformer(new NoOpQueryTransformer(), 2);
+
+        transformer.transformQuery(new TransformInfo(Statement.class, "myDS", "select 1", false, 0));
+        transformer.transformQuery(new TransformInfo(Statement.class, "myDS", "select 2", false, 0));
+        transformer.transformQuery(new TransformInfo(Statement.class, "myDS", "select 1", false, 0));  // hit
+        transformer.transformQuery(new TransformInfo(Statement.class, "myDS", "select 3", false, 0));  // evicts 2
+        assertThat(transformer.size()).isEqualTo(2);
+
+        transformer.transformQuery(new TransformInfo(Statement.class, "myDS", "select 1", false, 0));  // hit
+        transformer.transformQuery(new TransformInfo(Statement.class, "myDS", "select 2", false, 0));  // miss
+        assertThat(transformer.getHitCount()).isEqualTo(2);
+        assertThat(transformer.getMissCount()).isEqualTo(4);
+    }
+
+    @Test
+    public void boundedBySegments() {
+        CachingQueryTransformer transformer = new CachingQueryTransformer(new NoOpQueryTransformer(), 100);
+        for (int i = 0; i < 1000; i++) {
+            transformer.transformQuery(new TransformInfo(Statement.class, "myDS", "select " + i, false, 0));
+        }
+        assertThat(transformer.size()).isLessThanOrEqualTo(100);
+        assertThat(transformer.size()).isGreaterThan(50);
+    }
+}
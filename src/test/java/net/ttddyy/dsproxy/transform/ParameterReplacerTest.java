@@ -4,7 +4,9 @@ import net.ttddyy.dsproxy.proxy.ParameterKey;
 import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
 import org.junit.Test;
 
+import java.io.InputStream;
 import java.lang.reflect.Method;
+import java.sql.Types;
 import java.util.LinkedHashMap;
 import java.util.Map;
 
@@ -66,4 +68,52 @@ public class ParameterReplacerTest {
         assertThat((String) params.get(new ParameterKey("foo")).getArgs()[1], is("replaced-foo"));
     }
 
+    @Test
+    public void testCopyOnWrite() {
+        Method method = null;
+
+        Map<ParameterKey, ParameterSetOperation> input = new LinkedHashMap<ParameterKey, ParameterSetOperation>();
+        input.put(new ParameterKey(1), new ParameterSetOperation(method, new Object[]{1, "value-1"}));
+
+        ParameterReplacer replacer = new ParameterReplacer(input);
+        assertThat((String) replacer.getValue(1), is("value-1"));
+        assertThat(replacer.isModified(), is(false));
+        assertThat(replacer.getModifiedParameters(), is(sameInstance(input)));
+
+        replacer.setString(2, "value-2");
+        assertThat(replacer.isModified(), is(true));
+        assertThat(replacer.getModifiedParameters(), is(not(sameInstance(input))));
+        assertThat(replacer.getModifiedParameters().keySet(), hasSize(2));
+
+        // input is not modified
+        assertThat(input.keySet(), hasSize(1));
+
+        replacer.clearParameters();
+        assertThat(replacer.getModifiedParameters().keySet(), hasSize(0));
+        assertThat(input.keySet(), hasSize(1));
+    }
+
+    @Test
+    public void testSetterMethods() {
+        ParameterReplacer replacer = new ParameterReplacer();
+        replacer.setObject(1, "foo", Types.VARCHAR);
+        replacer.registerOutParameter(2, Types.STRUCT, "MY_TYPE");
+        replacer.setBinaryStream("bar", (InputStream) null, 10L);
+
+        Map<ParameterKey, ParameterSetOperation> params = replacer.getModifiedParameters();
+
+        Method setObject = params.get(new ParameterKey(1)).getMethod();
+        assertThat(setObject.getName(), is("setObject"));
+        assertThat(setObject.getParameterTypes().length, is(3));
+
+        Method registerOutParameter = params.get(new ParameterKey(2)).getMethod();
+        assertThat(registerOutParameter.getName(), is("registerOutParameter"));
+        assertThat(registerOutParameter.getParameterTypes()[2], is(equalTo((Object) String.class)));
+
+        Method setBinaryStream = params.get(new ParameterKey("bar")).getMethod();
+        assertThat(setBinaryStream.getName(), is("setBinaryStream"));
+        assertThat(setBinaryStream.getParameterTypes().length, is(3));
+        assertThat(setBinaryStream.getParameterTypes()[2], is(equalTo((Object) long.class)));
+    }
+
 }